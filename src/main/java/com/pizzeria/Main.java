@@ -157,7 +157,7 @@ public class Main {
             customer.setLoyaltyCard(loyaltyCard);
 
             System.out.println("Клиент зарегистрирован: " + customer.getFullName());
-            System.out.println("Карта лояльности: " + loyaltyCard.getTier() +
+            System.out.println("Карта лояльности: " + loyaltyCard.getTier().getDisplayName() +
                              " (Скидка: " + loyaltyCard.getDiscountAmount() + "%)");
 
             // 6. Создание заказа
@@ -292,7 +292,7 @@ public class Main {
             Shift morningShift = new Shift(LocalTime.of(9, 0), LocalTime.of(17, 0));
             Shift eveningShift = new Shift(LocalTime.of(17, 0), LocalTime.of(1, 0));
 
-            LocalDate today = LocalDate.now();
+            LocalDate today = ClockProvider.today();
             schedule.addShift(today, chef1, morningShift);
             schedule.addShift(today, waiter, eveningShift);
 
@@ -0,0 +1,20 @@
+package com.pizzeria.enums;
+
+/**
+ * Решения о приеме заказа на кухню
+ */
+public enum AdmissionDecision {
+    ACCEPTED("Принят"),
+    DEFERRED("Отложен"),
+    REJECTED("Отклонен");
+
+    private final String displayName;
+
+    AdmissionDecision(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
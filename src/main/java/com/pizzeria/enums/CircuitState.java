@@ -0,0 +1,20 @@
+package com.pizzeria.enums;
+
+/**
+ * Состояния автоматического выключателя (circuit breaker)
+ */
+public enum CircuitState {
+    CLOSED("Замкнута"),
+    OPEN("Разомкнута"),
+    HALF_OPEN("Пробный запрос");
+
+    private final String displayName;
+
+    CircuitState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.pizzeria.enums;
+
+/**
+ * Операции с баллами лояльности
+ */
+public enum LoyaltyOperation {
+    ACCRUAL("Начисление"),
+    REDEMPTION("Списание");
+
+    private final String displayName;
+
+    LoyaltyOperation(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pizzeria.enums;
+
+/**
+ * Уровни карты лояльности: порог баллов и скидка
+ */
+public enum LoyaltyTier {
+    BRONZE("Bronze", 0, 2.0),
+    SILVER("Silver", 200, 5.0),
+    GOLD("Gold", 500, 10.0),
+    PLATINUM("Platinum", 1000, 15.0);
+
+    private static final LoyaltyTier[] TIERS = values();
+
+    private final String displayName;
+    private final int minPoints;
+    private final double discountPercentage;
+
+    LoyaltyTier(String displayName, int minPoints, double discountPercentage) {
+        this.displayName = displayName;
+        this.minPoints = minPoints;
+        this.discountPercentage = discountPercentage;
+    }
+
+    /**
+     * Уровень для баланса баллов
+     */
+    public static LoyaltyTier forPoints(long points) {
+        for (int i = TIERS.length - 1; i > 0; i--) {
+            if (points >= TIERS[i].minPoints) {
+                return TIERS[i];
+            }
+        }
+        return BRONZE;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getMinPoints() {
+        return minPoints;
+    }
+
+    public double getDiscountPercentage() {
+        return discountPercentage;
+    }
+}
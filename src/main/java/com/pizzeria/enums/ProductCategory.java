@@ -0,0 +1,39 @@
+package com.pizzeria.enums;
+
+import com.pizzeria.model.products.Appetizer;
+import com.pizzeria.model.products.Dessert;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+
+/**
+ * Категории продуктов меню
+ */
+public enum ProductCategory {
+    PIZZA("Пицца"),
+    DRINK("Напиток"),
+    DESSERT("Десерт"),
+    APPETIZER("Закуска"),
+    OTHER("Прочее");
+
+    private final String displayName;
+
+    ProductCategory(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Категория продукта по его классу
+     */
+    public static ProductCategory of(Product product) {
+        if (product instanceof Pizza) return PIZZA;
+        if (product instanceof Drink) return DRINK;
+        if (product instanceof Dessert) return DESSERT;
+        if (product instanceof Appetizer) return APPETIZER;
+        return OTHER;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,24 @@
+package com.pizzeria.enums;
+
+/**
+ * Виды расхождений при сверке платежей, возвратов и заказов
+ */
+public enum ReconciliationIssueType {
+    ORDER_WITHOUT_PAYMENT("Оплаченный заказ без платежа"),
+    PAYMENT_WITHOUT_ORDER("Платеж без заказа"),
+    DUPLICATE_PAYMENT("Повторная оплата заказа"),
+    AMOUNT_MISMATCH("Сумма платежа меньше суммы заказа"),
+    REFUND_MISMATCH("Возвраты не сходятся с журналом"),
+    STATE_MISMATCH("Состояние платежа не соответствует возвратам"),
+    AGGREGATE_MISMATCH("Итоги дня не сходятся с платежами");
+
+    private final String displayName;
+
+    ReconciliationIssueType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.pizzeria.enums;
+
+/**
+ * Способы учета налога в цене
+ */
+public enum TaxMode {
+    INCLUSIVE("Налог включен в цену"),
+    EXCLUSIVE("Налог начисляется сверх цены");
+
+    private final String displayName;
+
+    TaxMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
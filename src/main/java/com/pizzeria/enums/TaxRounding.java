@@ -0,0 +1,19 @@
+package com.pizzeria.enums;
+
+/**
+ * Способы округления налога до копеек
+ */
+public enum TaxRounding {
+    PER_LINE("По каждой позиции"),
+    PER_RECEIPT("По чеку для каждой ставки");
+
+    private final String displayName;
+
+    TaxRounding(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pizzeria.exceptions;
+
+/**
+ * Исключение когда платежный шлюз недоступен: ошибка связи, таймаут,
+ * разомкнутая цепь или перегрузка. В отличие от InvalidPaymentException платеж можно повторить
+ */
+public class PaymentGatewayException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private String gatewayName;
+
+    public PaymentGatewayException(String gatewayName, String reason) {
+        super("Шлюз " + gatewayName + " недоступен: " + reason);
+        this.gatewayName = gatewayName;
+    }
+
+    public PaymentGatewayException(String gatewayName, String reason, Throwable cause) {
+        super("Шлюз " + gatewayName + " недоступен: " + reason, cause);
+        this.gatewayName = gatewayName;
+    }
+
+    public String getGatewayName() {
+        return gatewayName;
+    }
+}
@@ -3,11 +3,36 @@ package com.pizzeria.factory;
 import com.pizzeria.exceptions.InvalidPriceException;
 import com.pizzeria.model.ingredients.*;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * Фабрика для создания ингредиентов (Abstract Factory Pattern)
+ * Фабрика для создания ингредиентов (Abstract Factory Pattern).
+ * Категории регистрируются с набором названий, как типы в PizzaFactory.
  */
 public class IngredientFactory {
 
+    /**
+     * Конструктор ингредиента категории по названию
+     */
+    public interface IngredientConstructor {
+        Ingredient create(String name) throws InvalidPriceException;
+    }
+
+    // названия хранятся как указаны и в нижнем регистре; заменяется целиком при регистрации
+    private volatile Map<String, IngredientConstructor> categories;
+
+    public IngredientFactory() {
+        Map<String, IngredientConstructor> defaults = new HashMap<>();
+        addAliases(defaults, this::createCheese, "Cheese", "Сыр");
+        addAliases(defaults, this::createMeat, "Meat", "Мясо");
+        addAliases(defaults, this::createVegetable, "Vegetable", "Овощи");
+        addAliases(defaults, this::createSauce, "Sauce", "Соус");
+        addAliases(defaults, this::createDough, "Dough", "Тесто");
+        this.categories = Collections.unmodifiableMap(defaults);
+    }
+
     public Cheese createCheese(String type) throws InvalidPriceException {
         Cheese cheese = new Cheese(type, 50.0, type);
         cheese.setQuantity(100);
@@ -39,24 +64,39 @@ public class IngredientFactory {
     }
 
     public Ingredient createIngredient(String category, String name) throws InvalidPriceException {
-        switch (category.toLowerCase()) {
-            case "cheese":
-            case "сыр":
-                return createCheese(name);
-            case "meat":
-            case "мясо":
-                return createMeat(name);
-            case "vegetable":
-            case "овощи":
-                return createVegetable(name);
-            case "sauce":
-            case "соус":
-                return createSauce(name);
-            case "dough":
-            case "тесто":
-                return createDough(name);
-            default:
-                throw new IllegalArgumentException("Неизвестная категория: " + category);
+        Map<String, IngredientConstructor> current = categories;
+        IngredientConstructor constructor = current.get(category);
+        if (constructor == null) {
+            constructor = current.get(category.toLowerCase());
+        }
+        if (constructor == null) {
+            throw new IllegalArgumentException("Неизвестная категория: " + category);
+        }
+        return constructor.create(name);
+    }
+
+    /**
+     * Зарегистрировать новую категорию ингредиентов
+     */
+    public synchronized void registerCategory(IngredientConstructor constructor, String... aliases) {
+        if (constructor == null || aliases.length == 0) {
+            throw new IllegalArgumentException("Нужны конструктор и хотя бы одно название категории");
+        }
+        Map<String, IngredientConstructor> updated = new HashMap<>(categories);
+        for (String alias : aliases) {
+            if (updated.containsKey(alias.toLowerCase())) {
+                throw new IllegalArgumentException("Категория уже зарегистрирована: " + alias);
+            }
+        }
+        addAliases(updated, constructor, aliases);
+        categories = Collections.unmodifiableMap(updated);
+    }
+
+    private static void addAliases(Map<String, IngredientConstructor> categories,
+                                   IngredientConstructor constructor, String... aliases) {
+        for (String alias : aliases) {
+            categories.put(alias.toLowerCase(), constructor);
+            categories.put(alias, constructor);
         }
     }
 }
@@ -3,6 +3,7 @@ package com.pizzeria.factory;
 import com.pizzeria.enums.PaymentMethod;
 import com.pizzeria.exceptions.InvalidPaymentException;
 import com.pizzeria.model.payment.*;
+import com.pizzeria.util.IdGenerator;
 
 /**
  * Фабрика для создания платежей
@@ -27,19 +28,19 @@ public class PaymentFactory {
     }
 
     public CashPayment createCashPayment(double amount) throws InvalidPaymentException {
-        String transactionId = "CASH-" + System.currentTimeMillis();
+        String transactionId = IdGenerator.generateTransactionId("CASH");
         return new CashPayment(transactionId, amount);
     }
 
     public CardPayment createCardPayment(double amount, String cardNumber)
             throws InvalidPaymentException {
-        String transactionId = "CARD-" + System.currentTimeMillis();
+        String transactionId = IdGenerator.generateTransactionId("CARD");
         return new CardPayment(transactionId, amount, cardNumber);
     }
 
     public OnlinePayment createOnlinePayment(double amount, String email)
             throws InvalidPaymentException {
-        String transactionId = "ONLINE-" + System.currentTimeMillis();
+        String transactionId = IdGenerator.generateTransactionId("ONLINE");
         return new OnlinePayment(transactionId, amount, email);
     }
 }
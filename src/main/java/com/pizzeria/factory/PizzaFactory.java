@@ -5,41 +5,128 @@ import com.pizzeria.exceptions.InvalidPizzaSizeException;
 import com.pizzeria.exceptions.InvalidPriceException;
 import com.pizzeria.model.products.*;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * Фабрика для создания пицц (Factory Pattern)
+ * Фабрика для создания пицц (Factory Pattern).
+ * Типы регистрируются с набором названий; названия приводятся к нижнему регистру один раз
+ * при регистрации, создание пиццы - поиск конструктора в неизменяемой хеш-таблице.
  */
 public class PizzaFactory {
 
+    /**
+     * Конструктор пиццы заданного размера
+     */
+    public interface PizzaConstructor {
+        Pizza create(PizzaSize size) throws InvalidPriceException;
+    }
+
+    /**
+     * Зарегистрированный тип: основное название (первое при регистрации) и конструктор
+     */
+    private static final class PizzaType {
+        final String name;
+        final PizzaConstructor constructor;
+
+        PizzaType(String name, PizzaConstructor constructor) {
+            this.name = name;
+            this.constructor = constructor;
+        }
+    }
+
+    private static final Map<String, PizzaType> DEFAULT_TYPES;
+
+    static {
+        // названия хранятся как указаны и в нижнем регистре
+        Map<String, PizzaType> types = new HashMap<>();
+        addAliases(types, MargheritaPizza::new, "Margherita", "Маргарита");
+        addAliases(types, PepperoniPizza::new, "Pepperoni", "Пепперони");
+        addAliases(types, VeggiePizza::new, "Veggie", "Вегетарианская");
+        addAliases(types, MeatLoversPizza::new, "Meat", "Мясная");
+        addAliases(types, CustomPizza::new, "Custom", "Пользовательская");
+        DEFAULT_TYPES = Collections.unmodifiableMap(types);
+    }
+
+    // заменяется целиком при регистрации, чтение без блокировок
+    private volatile Map<String, PizzaType> types;
+
+    public PizzaFactory() {
+        this.types = DEFAULT_TYPES;
+    }
+
     public Pizza createPizza(String type, PizzaSize size)
             throws InvalidPriceException, InvalidPizzaSizeException {
         if (size == null) {
             throw new InvalidPizzaSizeException("null");
         }
+        return typeOf(type).constructor.create(size);
+    }
 
-        switch (type.toLowerCase()) {
-            case "margherita":
-            case "маргарита":
-                return new MargheritaPizza(size);
-
-            case "pepperoni":
-            case "пепперони":
-                return new PepperoniPizza(size);
+    /**
+     * Основное название типа по любому из его названий: все названия одного типа дают одно и то же
+     */
+    public String getCanonicalType(String type) {
+        return typeOf(type).name;
+    }
 
-            case "veggie":
-            case "вегетарианская":
-                return new VeggiePizza(size);
+    private PizzaType typeOf(String type) {
+        Map<String, PizzaType> current = types;
+        PizzaType pizzaType = type == null ? null : current.get(type);
+        if (pizzaType == null && type != null) {
+            pizzaType = current.get(type.toLowerCase());
+        }
+        if (pizzaType == null) {
+            throw new IllegalArgumentException("Неизвестный тип пиццы: " + type);
+        }
+        return pizzaType;
+    }
 
-            case "meat":
-            case "мясная":
-                return new MeatLoversPizza(size);
+    /**
+     * Зарегистрировать новый тип пиццы. Конструктор проверяется созданием пиццы каждого размера;
+     * кроме указанных названий, тип доступен по названию созданной пиццы.
+     */
+    public synchronized void registerPizza(PizzaConstructor constructor, String... aliases)
+            throws InvalidPriceException {
+        if (constructor == null || aliases.length == 0) {
+            throw new IllegalArgumentException("Нужны конструктор и хотя бы одно название типа");
+        }
+        String displayName = null;
+        for (PizzaSize size : PizzaSize.values()) {
+            Pizza prototype = constructor.create(size);
+            if (prototype == null || prototype.getSize() != size) {
+                throw new IllegalArgumentException("Конструктор не создает пиццу размера " + size);
+            }
+            displayName = prototype.getName();
+        }
 
-            case "custom":
-            case "пользовательская":
-                return new CustomPizza(size);
+        Map<String, PizzaType> updated = new HashMap<>(types);
+        for (String alias : aliases) {
+            if (updated.containsKey(alias.toLowerCase())) {
+                throw new IllegalArgumentException("Тип пиццы уже зарегистрирован: " + alias);
+            }
+        }
+        PizzaType registered = addAliases(updated, constructor, aliases);
+        if (displayName != null) {
+            updated.putIfAbsent(displayName, registered);
+            updated.putIfAbsent(displayName.toLowerCase(), registered);
+        }
+        types = Collections.unmodifiableMap(updated);
+    }
 
-            default:
-                throw new IllegalArgumentException("Неизвестный тип пиццы: " + type);
+    private static PizzaType addAliases(Map<String, PizzaType> types, PizzaConstructor constructor,
+                                        String... aliases) {
+        PizzaType pizzaType = new PizzaType(aliases[0], constructor);
+        for (String alias : aliases) {
+            types.put(alias.toLowerCase(), pizzaType);
+            types.put(alias, pizzaType);
         }
+        return pizzaType;
+    }
+
+    public boolean isRegistered(String type) {
+        return type != null && (types.containsKey(type) || types.containsKey(type.toLowerCase()));
     }
 
     public Pizza createDefaultPizza() throws InvalidPriceException {
@@ -0,0 +1,72 @@
+package com.pizzeria.factory;
+
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InvalidPizzaSizeException;
+import com.pizzeria.exceptions.InvalidPriceException;
+import com.pizzeria.model.products.CustomPizza;
+import com.pizzeria.model.products.Pizza;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Каталог общих описаний пицц (Flyweight Pattern).
+ * Пиццы меню одинаковы для каждого типа и размера, поэтому заказы ссылаются
+ * на один неизменяемый экземпляр, а состояние строки заказа хранит OrderItem.
+ * Потокобезопасен; все размеры типа создаются при первом обращении к нему.
+ */
+public class ProductCatalog {
+    private final PizzaFactory pizzaFactory;
+    private final Map<String, Pizza[]> pizzas;
+
+    public ProductCatalog() {
+        this(new PizzaFactory());
+    }
+
+    public ProductCatalog(PizzaFactory pizzaFactory) {
+        this.pizzaFactory = pizzaFactory;
+        this.pizzas = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Общая пицца типа и размера; типы как в PizzaFactory.createPizza,
+     * кроме пользовательской - у нее собственный состав в каждом заказе
+     */
+    public Pizza getPizza(String type, PizzaSize size) throws InvalidPriceException, InvalidPizzaSizeException {
+        if (size == null) {
+            throw new InvalidPizzaSizeException("null");
+        }
+        // все названия типа ("Маргарита", "margherita") ссылаются на одни экземпляры
+        String key = pizzaFactory.getCanonicalType(type);
+        Pizza[] bySize = pizzas.get(key);
+        if (bySize == null) {
+            bySize = createAllSizes(key);
+            Pizza[] existing = pizzas.putIfAbsent(key, bySize);
+            if (existing != null) {
+                bySize = existing;
+            }
+        }
+        return bySize[size.ordinal()];
+    }
+
+    private Pizza[] createAllSizes(String type) throws InvalidPriceException, InvalidPizzaSizeException {
+        PizzaSize[] sizes = PizzaSize.values();
+        Pizza[] bySize = new Pizza[sizes.length];
+        for (PizzaSize size : sizes) {
+            Pizza pizza = pizzaFactory.createPizza(type, size);
+            if (pizza instanceof CustomPizza) {
+                throw new IllegalArgumentException("Пользовательская пицца не может быть общей: " + type);
+            }
+            pizza.share();
+            bySize[size.ordinal()] = pizza;
+        }
+        return bySize;
+    }
+
+    /**
+     * Количество общих экземпляров в каталоге
+     */
+    public int getSize() {
+        return pizzas.size() * PizzaSize.values().length;
+    }
+}
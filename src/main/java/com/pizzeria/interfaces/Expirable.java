@@ -0,0 +1,28 @@
+package com.pizzeria.interfaces;
+
+import java.time.LocalDate;
+
+/**
+ * Интерфейс объектов со сроком действия, которые включает и выключает ExpiryScheduler
+ */
+public interface Expirable {
+    /**
+     * Первый день действия
+     */
+    LocalDate getValidFrom();
+
+    /**
+     * Последний день действия
+     */
+    LocalDate getValidUntil();
+
+    /**
+     * Установить флаг действия; пока он установлен, проверки не считают даты
+     */
+    void setInEffect(boolean inEffect);
+
+    /**
+     * Снять флаг и вернуться к проверке по датам (при изменении дат или отмене планирования)
+     */
+    void clearInEffect();
+}
@@ -0,0 +1,15 @@
+package com.pizzeria.interfaces;
+
+import com.pizzeria.model.ingredients.Ingredient;
+
+/**
+ * Интерфейс для отслеживания изменений запаса и цены ингредиента
+ */
+public interface IngredientChangeListener {
+    /**
+     * Количество или цена ингредиента изменились
+     * @param oldQuantity количество до изменения
+     * @param oldPricePerUnit цена до изменения
+     */
+    void onIngredientChanged(Ingredient ingredient, int oldQuantity, double oldPricePerUnit);
+}
@@ -0,0 +1,23 @@
+package com.pizzeria.interfaces;
+
+import com.pizzeria.model.payment.Payment;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Интерфейс платежного шлюза.
+ * Вызов не блокирует поток заказа: результат приходит в CompletableFuture.
+ */
+public interface PaymentGateway {
+    /**
+     * Провести платеж.
+     * Future завершается true при успехе, InvalidPaymentException при отказе (повтор бесполезен)
+     * или PaymentGatewayException при недоступности шлюза (можно повторить).
+     * Повтор с тем же ID транзакции не должен списывать деньги второй раз.
+     */
+    CompletableFuture<Boolean> process(Payment payment);
+
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
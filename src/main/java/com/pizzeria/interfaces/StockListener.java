@@ -0,0 +1,40 @@
+package com.pizzeria.interfaces;
+
+/**
+ * Интерфейс для получения событий склада.
+ * Вызывается под блокировкой склада, поэтому обработчик должен быть коротким.
+ */
+public interface StockListener {
+    /**
+     * Ингредиент израсходован
+     * @param slot ячейка ингредиента на складе
+     * @param remaining остаток после списания
+     */
+    default void onConsumed(String ingredientName, int slot, int amount, int remaining) {
+    }
+
+    /**
+     * Запас ингредиента пополнен
+     */
+    default void onRestocked(String ingredientName, int slot, int amount, int remaining) {
+    }
+
+    /**
+     * Количество ингредиента изменилось по любой причине: списание, поставка,
+     * прямое изменение, добавление на склад или удаление (новое количество 0)
+     */
+    default void onQuantityChanged(String ingredientName, int slot, int oldQuantity, int newQuantity) {
+    }
+
+    /**
+     * Запас опустился ниже порога низкого запаса
+     */
+    default void onLowStock(String ingredientName, int slot, int remaining) {
+    }
+
+    /**
+     * Запас снова не ниже порога
+     */
+    default void onStockRecovered(String ingredientName, int slot, int remaining) {
+    }
+}
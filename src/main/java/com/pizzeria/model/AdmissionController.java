@@ -0,0 +1,86 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.AdmissionDecision;
+
+/**
+ * Класс контроля приема заказов на кухню.
+ * Ожидание оценивается как суммарное время приготовления заказов в работе и в очереди
+ * отложенных плюс нового заказа, деленное на число поваров. Заказ принимается, если
+ * ожидание укладывается в целевое и на кухне есть место; откладывается, если укладывается
+ * в предельное и очередь отложенных не заполнена; иначе отклоняется.
+ * Свободная кухня принимает любой заказ: ждать ему, кроме собственного приготовления, нечего.
+ */
+public class AdmissionController {
+    private int targetWaitMinutes;
+    private int maxWaitMinutes;
+    private int maxDeferredOrders;
+
+    public AdmissionController() {
+        this(30, 60, 20);
+    }
+
+    public AdmissionController(int targetWaitMinutes, int maxWaitMinutes, int maxDeferredOrders) {
+        if (targetWaitMinutes <= 0 || maxWaitMinutes < targetWaitMinutes || maxDeferredOrders < 0) {
+            throw new IllegalArgumentException("Некорректные пределы ожидания: " + targetWaitMinutes
+                + "/" + maxWaitMinutes + ", отложенных: " + maxDeferredOrders);
+        }
+        this.targetWaitMinutes = targetWaitMinutes;
+        this.maxWaitMinutes = maxWaitMinutes;
+        this.maxDeferredOrders = maxDeferredOrders;
+    }
+
+    /**
+     * Трудоемкость заказа: время приготовления всех позиций в минутах
+     */
+    public static int estimateWorkMinutes(Order order) {
+        int minutes = 0;
+        for (OrderItem item : order.getItems()) {
+            minutes += item.getProduct().getPreparationTime() * item.getQuantity();
+        }
+        return minutes;
+    }
+
+    /**
+     * Оценка ожидания в минутах; Integer.MAX_VALUE, если поваров нет
+     */
+    public int quoteWaitMinutes(int backlogMinutes, int workMinutes, int chefCount) {
+        if (chefCount <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (backlogMinutes + workMinutes + chefCount - 1) / chefCount;
+    }
+
+    /**
+     * Решить судьбу заказа по текущей загрузке кухни
+     * @param backlogMinutes трудоемкость заказов в работе и отложенных
+     * @param kitchenFull на кухне нет места для еще одного заказа
+     * @param deferredCount сколько заказов уже отложено
+     */
+    public AdmissionResult decide(Order order, int backlogMinutes, int chefCount,
+                                  boolean kitchenFull, int deferredCount) {
+        int wait = quoteWaitMinutes(backlogMinutes, estimateWorkMinutes(order), chefCount);
+        boolean idle = backlogMinutes == 0;
+        if ((wait <= targetWaitMinutes || idle) && !kitchenFull && deferredCount == 0 && chefCount > 0) {
+            return new AdmissionResult(order, AdmissionDecision.ACCEPTED, wait, null);
+        }
+        if (chefCount > 0 && wait > maxWaitMinutes && !idle) {
+            return new AdmissionResult(order, AdmissionDecision.REJECTED, wait,
+                "ожидание " + wait + " мин превышает допустимое " + maxWaitMinutes + " мин");
+        }
+        if (deferredCount >= maxDeferredOrders) {
+            return new AdmissionResult(order, AdmissionDecision.REJECTED, wait, "очередь отложенных заказов заполнена");
+        }
+        return new AdmissionResult(order, AdmissionDecision.DEFERRED, wait,
+            chefCount > 0 ? "кухня загружена" : "нет поваров на кухне");
+    }
+
+    // Getters and Setters
+    public int getTargetWaitMinutes() { return targetWaitMinutes; }
+    public void setTargetWaitMinutes(int targetWaitMinutes) { this.targetWaitMinutes = targetWaitMinutes; }
+
+    public int getMaxWaitMinutes() { return maxWaitMinutes; }
+    public void setMaxWaitMinutes(int maxWaitMinutes) { this.maxWaitMinutes = maxWaitMinutes; }
+
+    public int getMaxDeferredOrders() { return maxDeferredOrders; }
+    public void setMaxDeferredOrders(int maxDeferredOrders) { this.maxDeferredOrders = maxDeferredOrders; }
+}
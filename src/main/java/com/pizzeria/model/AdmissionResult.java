@@ -0,0 +1,43 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.AdmissionDecision;
+
+/**
+ * Класс результата приема заказа на кухню
+ */
+public class AdmissionResult {
+    private final Order order;
+    private final AdmissionDecision decision;
+    private final int quotedWaitMinutes;
+    private final String reason;
+
+    public AdmissionResult(Order order, AdmissionDecision decision, int quotedWaitMinutes, String reason) {
+        this.order = order;
+        this.decision = decision;
+        this.quotedWaitMinutes = quotedWaitMinutes;
+        this.reason = reason;
+    }
+
+    public boolean isAccepted() {
+        return decision == AdmissionDecision.ACCEPTED;
+    }
+
+    // Getters
+    public Order getOrder() { return order; }
+
+    public AdmissionDecision getDecision() { return decision; }
+
+    /**
+     * Оценка ожидания до готовности заказа в минутах; Integer.MAX_VALUE, если поваров нет
+     */
+    public int getQuotedWaitMinutes() { return quotedWaitMinutes; }
+
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        String wait = quotedWaitMinutes == Integer.MAX_VALUE ? "неизвестно" : "~" + quotedWaitMinutes + " мин";
+        return String.format("Заказ #%s: %s, ожидание %s%s", order.getId(), decision.getDisplayName(),
+            wait, reason != null ? " (" + reason + ")" : "");
+    }
+}
@@ -0,0 +1,72 @@
+package com.pizzeria.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс профиля потока заказов по часам суток.
+ * Базовая интенсивность умножается на коэффициенты пиков, покрывающих данный час;
+ * профиль повторяется каждые сутки.
+ */
+public class ArrivalProfile {
+    private final double baseOrdersPerHour;
+    private final List<double[]> peaks;
+
+    public ArrivalProfile(double baseOrdersPerHour) {
+        if (baseOrdersPerHour < 0) {
+            throw new IllegalArgumentException("Интенсивность не может быть отрицательной: " + baseOrdersPerHour);
+        }
+        this.baseOrdersPerHour = baseOrdersPerHour;
+        this.peaks = new ArrayList<>();
+    }
+
+    /**
+     * Добавить пик: с fromHour до toHour (часы суток) поток умножается на multiplier.
+     * Пик через полночь задается fromHour больше toHour, например 22-2.
+     */
+    public ArrivalProfile addPeak(double fromHour, double toHour, double multiplier) {
+        if (fromHour < 0 || fromHour >= 24 || toHour < 0 || toHour > 24 || multiplier < 0) {
+            throw new IllegalArgumentException("Некорректный пик: " + fromHour + "-" + toHour + " x" + multiplier);
+        }
+        peaks.add(new double[] {fromHour, toHour, multiplier});
+        return this;
+    }
+
+    /**
+     * Интенсивность в заказах в час
+     * @param hour время от начала моделирования в часах
+     */
+    public double getRate(double hour) {
+        double hourOfDay = hour % 24;
+        double rate = baseOrdersPerHour;
+        for (double[] peak : peaks) {
+            boolean inside = peak[0] <= peak[1]
+                ? hourOfDay >= peak[0] && hourOfDay < peak[1]
+                : hourOfDay >= peak[0] || hourOfDay < peak[1];
+            if (inside) {
+                rate *= peak[2];
+            }
+        }
+        return rate;
+    }
+
+    /**
+     * Наибольшая интенсивность за сутки (для прореживания пуассоновского потока)
+     */
+    public double getMaxRate() {
+        double max = 0;
+        // интенсивность постоянна между границами пиков - достаточно проверить их
+        List<Double> points = new ArrayList<>();
+        points.add(0.0);
+        for (double[] peak : peaks) {
+            points.add(peak[0]);
+            points.add(peak[1] % 24);
+        }
+        for (double point : points) {
+            max = Math.max(max, getRate(point));
+        }
+        return max;
+    }
+
+    public double getBaseOrdersPerHour() { return baseOrdersPerHour; }
+}
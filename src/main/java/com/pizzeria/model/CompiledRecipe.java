@@ -0,0 +1,48 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.PizzaSize;
+
+/**
+ * Рецепт, привязанный к ячейкам склада: номера ячеек и расход по размерам.
+ * Неизменяемый, может использоваться из нескольких потоков.
+ */
+public final class CompiledRecipe {
+    private final String pizzaName;
+    private final int version;
+    private final int[] slots;
+    private final int[][] amountsBySize;
+
+    CompiledRecipe(String pizzaName, int version, int[] slots, int[][] amountsBySize) {
+        this.pizzaName = pizzaName;
+        this.version = version;
+        this.slots = slots;
+        this.amountsBySize = amountsBySize;
+    }
+
+    /**
+     * Добавить расход на count пицц размера size в вектор списания (индекс - ячейка склада)
+     */
+    public void addTo(int[] demand, PizzaSize size, int count) {
+        int[] amounts = amountsBySize[size.ordinal()];
+        for (int i = 0; i < slots.length; i++) {
+            demand[slots[i]] += amounts[i] * count;
+        }
+    }
+
+    public int getIngredientCount() {
+        return slots.length;
+    }
+
+    public int getSlot(int index) {
+        return slots[index];
+    }
+
+    public int getAmount(int index, PizzaSize size) {
+        return amountsBySize[size.ordinal()][index];
+    }
+
+    // Getters
+    public String getPizzaName() { return pizzaName; }
+
+    public int getVersion() { return version; }
+}
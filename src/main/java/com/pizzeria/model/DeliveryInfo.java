@@ -2,6 +2,8 @@ package com.pizzeria.model;
 
 import com.pizzeria.enums.OrderStatus;
 import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.IdGenerator;
 
 import java.time.LocalDateTime;
 
@@ -19,13 +21,13 @@ public class DeliveryInfo {
     public DeliveryInfo(Order order, DeliveryDriver driver) {
         this.order = order;
         this.driver = driver;
-        this.dispatchTime = LocalDateTime.now();
+        this.dispatchTime = ClockProvider.now();
         this.estimatedTime = order.calculateDeliveryTime();
-        this.trackingNumber = "TRK-" + System.currentTimeMillis();
+        this.trackingNumber = IdGenerator.generateTrackingNumber();
     }
 
     public void complete() {
-        this.deliveryTime = LocalDateTime.now();
+        this.deliveryTime = ClockProvider.now();
         order.updateStatus(OrderStatus.DELIVERED);
     }
 
@@ -2,13 +2,15 @@ package com.pizzeria.model;
 
 import com.pizzeria.exceptions.InvalidDiscountException;
 import com.pizzeria.interfaces.Discountable;
+import com.pizzeria.interfaces.Expirable;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDate;
 
 /**
  * Класс скидки
  */
-public class Discount implements Discountable {
+public class Discount implements Discountable, Expirable {
     private String code;
     private double percentage;
     private LocalDate startDate;
@@ -16,6 +18,7 @@ public class Discount implements Discountable {
     private boolean isActive;
     private int usageLimit;
     private int timesUsed;
+    private volatile Boolean inEffect; // флаг от ExpiryScheduler; null - проверка по датам
 
     public Discount(String code, double percentage) throws InvalidDiscountException {
         if (percentage < 0 || percentage > 100) {
@@ -23,7 +26,7 @@ public class Discount implements Discountable {
         }
         this.code = code;
         this.percentage = percentage;
-        this.startDate = LocalDate.now();
+        this.startDate = ClockProvider.today();
         this.endDate = startDate.plusMonths(1);
         this.isActive = true;
         this.usageLimit = 100;
@@ -45,7 +48,11 @@ public class Discount implements Discountable {
 
     @Override
     public boolean isDiscountApplicable() {
-        LocalDate now = LocalDate.now();
+        Boolean scheduled = inEffect;
+        if (scheduled != null) {
+            return isActive && scheduled && timesUsed < usageLimit;
+        }
+        LocalDate now = ClockProvider.today();
         return isActive &&
                !now.isBefore(startDate) &&
                !now.isAfter(endDate) &&
@@ -63,6 +70,26 @@ public class Discount implements Discountable {
         return this.code.equalsIgnoreCase(inputCode);
     }
 
+    @Override
+    public LocalDate getValidFrom() {
+        return startDate;
+    }
+
+    @Override
+    public LocalDate getValidUntil() {
+        return endDate;
+    }
+
+    @Override
+    public void setInEffect(boolean inEffect) {
+        this.inEffect = inEffect;
+    }
+
+    @Override
+    public void clearInEffect() {
+        this.inEffect = null;
+    }
+
     // Getters and Setters
     public String getCode() { return code; }
     public void setCode(String code) { this.code = code; }
@@ -71,10 +98,10 @@ public class Discount implements Discountable {
     public void setPercentage(double percentage) { this.percentage = percentage; }
 
     public LocalDate getStartDate() { return startDate; }
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; clearInEffect(); }
 
     public LocalDate getEndDate() { return endDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; clearInEffect(); }
 
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
@@ -2,86 +2,247 @@ package com.pizzeria.model;
 
 import com.pizzeria.exceptions.InsufficientIngredientsException;
 import com.pizzeria.exceptions.OutOfStockException;
+import com.pizzeria.interfaces.IngredientChangeListener;
+import com.pizzeria.interfaces.StockListener;
 import com.pizzeria.model.ingredients.Ingredient;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Класс инвентаря
+ * Класс инвентаря.
+ * Каждому названию ингредиента выделяется постоянная ячейка (индекс), по которой
+ * скомпилированные рецепты списывают расход одним вектором без поиска по названиям.
+ * Набор ингредиентов с низким запасом и общая стоимость склада обновляются
+ * при каждом изменении количества или цены ингредиента, а не пересчитываются обходом.
  */
-public class Inventory {
+public class Inventory implements IngredientChangeListener {
     private Map<String, Ingredient> ingredients;
     private int lowStockThreshold;
+    private final Map<String, Integer> slotIndex;
+    private final List<String> slotNames;
+    private final List<Ingredient> slotIngredients;
+    private final List<StockListener> listeners;
+    private final Map<String, Ingredient> lowStockItems;
+    private double totalValue;
 
     public Inventory() {
         this.ingredients = new HashMap<>();
         this.lowStockThreshold = 10;
+        this.slotIndex = new HashMap<>();
+        this.slotNames = new ArrayList<>();
+        this.slotIngredients = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.lowStockItems = new LinkedHashMap<>();
     }
 
-    public void addIngredient(Ingredient ingredient) {
-        ingredients.put(ingredient.getName(), ingredient);
+    public void addStockListener(StockListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeStockListener(StockListener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void addIngredient(Ingredient ingredient) {
+        Ingredient previous = ingredients.put(ingredient.getName(), ingredient);
+        if (previous != null) {
+            detach(previous);
+        }
+        int slot = slotOf(ingredient.getName());
+        slotIngredients.set(slot, ingredient);
+        totalValue += ingredient.getPricePerUnit() * ingredient.getQuantity();
+        ingredient.setChangeListener(this);
+        updateLowStock(ingredient, Integer.MAX_VALUE);
+        fireQuantityChanged(ingredient.getName(), slot, previous != null ? previous.getQuantity() : 0,
+            ingredient.getQuantity());
         System.out.println("Добавлен ингредиент: " + ingredient.getName());
     }
 
-    public void removeIngredient(String ingredientName) {
-        ingredients.remove(ingredientName);
+    public synchronized void removeIngredient(String ingredientName) {
+        Ingredient ingredient = ingredients.remove(ingredientName);
+        if (ingredient != null) {
+            detach(ingredient);
+        }
+        Integer slot = slotIndex.get(ingredientName);
+        if (slot != null) {
+            slotIngredients.set(slot, null);
+            if (ingredient != null) {
+                fireQuantityChanged(ingredientName, slot, ingredient.getQuantity(), 0);
+            }
+        }
         System.out.println("Удален ингредиент: " + ingredientName);
     }
 
-    public boolean checkAvailability(String ingredientName, int quantity) {
+    private void detach(Ingredient ingredient) {
+        ingredient.setChangeListener(null);
+        totalValue -= ingredient.getPricePerUnit() * ingredient.getQuantity();
+        lowStockItems.remove(ingredient.getName());
+    }
+
+    /**
+     * Количество или цена ингредиента изменились: поправить стоимость склада
+     * и набор ингредиентов с низким запасом при пересечении порога
+     */
+    @Override
+    public synchronized void onIngredientChanged(Ingredient ingredient, int oldQuantity, double oldPricePerUnit) {
+        totalValue += ingredient.getPricePerUnit() * ingredient.getQuantity() - oldPricePerUnit * oldQuantity;
+        updateLowStock(ingredient, oldQuantity);
+        if (oldQuantity != ingredient.getQuantity()) {
+            fireQuantityChanged(ingredient.getName(), slotOf(ingredient.getName()), oldQuantity,
+                ingredient.getQuantity());
+        }
+    }
+
+    private void fireQuantityChanged(String ingredientName, int slot, int oldQuantity, int newQuantity) {
+        for (StockListener listener : listeners) {
+            listener.onQuantityChanged(ingredientName, slot, oldQuantity, newQuantity);
+        }
+    }
+
+    private void updateLowStock(Ingredient ingredient, int oldQuantity) {
+        boolean wasLow = oldQuantity < lowStockThreshold;
+        boolean isLow = ingredient.getQuantity() < lowStockThreshold;
+        if (wasLow == isLow) {
+            return;
+        }
+        int slot = slotOf(ingredient.getName());
+        if (isLow) {
+            lowStockItems.put(ingredient.getName(), ingredient);
+            System.out.println("ВНИМАНИЕ: Низкий запас ингредиента " + ingredient.getName());
+            for (StockListener listener : listeners) {
+                listener.onLowStock(ingredient.getName(), slot, ingredient.getQuantity());
+            }
+        } else {
+            lowStockItems.remove(ingredient.getName());
+            for (StockListener listener : listeners) {
+                listener.onStockRecovered(ingredient.getName(), slot, ingredient.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Ячейка ингредиента; выделяется при первом обращении и не меняется,
+     * даже если ингредиента пока нет на складе
+     */
+    public synchronized int slotOf(String ingredientName) {
+        Integer slot = slotIndex.get(ingredientName);
+        if (slot == null) {
+            slot = slotNames.size();
+            slotIndex.put(ingredientName, slot);
+            slotNames.add(ingredientName);
+            slotIngredients.add(ingredients.get(ingredientName));
+        }
+        return slot;
+    }
+
+    public synchronized int getSlotCount() {
+        return slotNames.size();
+    }
+
+    public synchronized String getSlotName(int slot) {
+        return slotNames.get(slot);
+    }
+
+    /**
+     * Количество ингредиента в ячейке; 0, если ингредиента нет на складе
+     */
+    public synchronized int getQuantity(int slot) {
+        Ingredient ingredient = slotIngredients.get(slot);
+        return ingredient != null ? ingredient.getQuantity() : 0;
+    }
+
+    /**
+     * Списать вектор расхода (индекс - ячейка, значение - количество) целиком:
+     * если хотя бы одного ингредиента не хватает, ничего не списывается
+     */
+    public synchronized void debit(int[] demand) throws InsufficientIngredientsException {
+        if (demand.length > slotNames.size()) {
+            throw new IllegalArgumentException("Вектор расхода длиннее числа ячеек склада");
+        }
+        for (int slot = 0; slot < demand.length; slot++) {
+            if (demand[slot] > 0) {
+                Ingredient ingredient = slotIngredients.get(slot);
+                if (ingredient == null || !ingredient.checkAvailability(demand[slot])) {
+                    throw new InsufficientIngredientsException(slotNames.get(slot), demand[slot],
+                        ingredient != null ? ingredient.getQuantity() : 0);
+                }
+            }
+        }
+        for (int slot = 0; slot < demand.length; slot++) {
+            if (demand[slot] > 0) {
+                Ingredient ingredient = slotIngredients.get(slot);
+                ingredient.removeStock(demand[slot]);
+                fireConsumed(ingredient, slot, demand[slot]);
+            }
+        }
+    }
+
+    public synchronized boolean checkAvailability(String ingredientName, int quantity) {
         Ingredient ingredient = ingredients.get(ingredientName);
         return ingredient != null && ingredient.checkAvailability(quantity);
     }
 
-    public void useIngredient(String ingredientName, int quantity) throws InsufficientIngredientsException {
+    public synchronized void useIngredient(String ingredientName, int quantity) throws InsufficientIngredientsException {
         Ingredient ingredient = ingredients.get(ingredientName);
         if (ingredient == null || !ingredient.checkAvailability(quantity)) {
             throw new InsufficientIngredientsException(ingredientName, quantity,
                 ingredient != null ? ingredient.getQuantity() : 0);
         }
         ingredient.removeStock(quantity);
-        checkLowStock(ingredient);
+        fireConsumed(ingredient, slotOf(ingredientName), quantity);
     }
 
-    public void restockIngredient(String ingredientName, int quantity) throws OutOfStockException {
+    public synchronized void restockIngredient(String ingredientName, int quantity) throws OutOfStockException {
         Ingredient ingredient = ingredients.get(ingredientName);
         if (ingredient == null) {
             throw new OutOfStockException(ingredientName);
         }
         ingredient.addStock(quantity);
+        for (StockListener listener : listeners) {
+            listener.onRestocked(ingredientName, slotOf(ingredientName), quantity, ingredient.getQuantity());
+        }
         System.out.println("Пополнен запас: " + ingredientName + " (+"+quantity+")");
     }
 
-    private void checkLowStock(Ingredient ingredient) {
-        if (ingredient.getQuantity() < lowStockThreshold) {
-            System.out.println("ВНИМАНИЕ: Низкий запас ингредиента " + ingredient.getName());
+    private void fireConsumed(Ingredient ingredient, int slot, int amount) {
+        for (StockListener listener : listeners) {
+            listener.onConsumed(ingredient.getName(), slot, amount, ingredient.getQuantity());
         }
     }
 
-    public Map<String, Integer> getLowStockItems() {
+    public synchronized Map<String, Integer> getLowStockItems() {
         Map<String, Integer> lowStock = new HashMap<>();
-        for (Ingredient ingredient : ingredients.values()) {
-            if (ingredient.getQuantity() < lowStockThreshold) {
-                lowStock.put(ingredient.getName(), ingredient.getQuantity());
-            }
+        for (Ingredient ingredient : lowStockItems.values()) {
+            lowStock.put(ingredient.getName(), ingredient.getQuantity());
         }
         return lowStock;
     }
 
-    public double calculateTotalInventoryValue() {
-        double total = 0;
-        for (Ingredient ingredient : ingredients.values()) {
-            total += ingredient.getPricePerUnit() * ingredient.getQuantity();
-        }
-        return total;
+    public synchronized double calculateTotalInventoryValue() {
+        return totalValue;
     }
 
     // Getters and Setters
     public Map<String, Ingredient> getIngredients() { return ingredients; }
 
     public int getLowStockThreshold() { return lowStockThreshold; }
-    public void setLowStockThreshold(int lowStockThreshold) {
+
+    /**
+     * Сменить порог низкого запаса; набор ингредиентов с низким запасом перестраивается
+     * и слушатели получают события для ингредиентов, пересекших новый порог
+     */
+    public synchronized void setLowStockThreshold(int lowStockThreshold) {
+        int oldThreshold = this.lowStockThreshold;
         this.lowStockThreshold = lowStockThreshold;
+        for (Ingredient ingredient : ingredients.values()) {
+            // количество не менялось: прежнее состояние определяется старым порогом
+            int previousState = ingredient.getQuantity() < oldThreshold ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            updateLowStock(ingredient, previousState);
+        }
     }
 }
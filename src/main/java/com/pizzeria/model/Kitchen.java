@@ -4,62 +4,280 @@ import com.pizzeria.exceptions.InsufficientIngredientsException;
 import com.pizzeria.model.products.Pizza;
 import com.pizzeria.model.users.Chef;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Класс кухни
+ * Класс кухни.
+ * Расход ингредиентов заказа суммируется по скомпилированным рецептам в один вектор
+ * и списывается со склада одной операцией.
+ * Прием заказов проходит через AdmissionController: при перегрузке заказ откладывается
+ * в очередь (и передается в работу по мере освобождения кухни) или явно отклоняется.
+ * Повар готовит заказ сразу при передаче в работу (cookOrder синхронен), поэтому к следующей
+ * оценке приема заказы в работе уже готовы: ожидание складывается из трудоемкости отложенных заказов.
+ * Отложенный заказ, на который при передаче в работу не хватило ингредиентов, не теряется:
+ * он попадает в список неприготовленных, который забирается через takeFailedOrders.
  */
 public class Kitchen {
     private List<Chef> chefs;
     private List<Order> currentOrders;
     private Inventory inventory;
     private int maxCapacity;
+    private RecipeBook recipeBook;
+    private final Map<Recipe, CompiledRecipe> compiledRecipes;
+    private AdmissionController admissionController;
+    private final Deque<Order> deferredOrders;
+    private final List<Order> failedOrders;
+    private final Map<Order, Integer> workMinutes;
+    private int activeWorkMinutes;
+    private int deferredWorkMinutes;
+    private boolean releasingDeferred;
 
     public Kitchen(Inventory inventory) {
+        this(inventory, RecipeBook.standard());
+    }
+
+    public Kitchen(Inventory inventory, RecipeBook recipeBook) {
         this.inventory = inventory;
+        this.recipeBook = recipeBook;
         this.chefs = new ArrayList<>();
         this.currentOrders = new ArrayList<>();
         this.maxCapacity = 10;
+        this.compiledRecipes = new IdentityHashMap<>();
+        this.admissionController = new AdmissionController();
+        this.deferredOrders = new ArrayDeque<>();
+        this.failedOrders = new ArrayList<>();
+        this.workMinutes = new IdentityHashMap<>();
     }
 
     public void addChef(Chef chef) {
         chefs.add(chef);
         System.out.println("Повар добавлен на кухню: " + chef.getFullName());
+        releaseDeferredOrders();
     }
 
-    public void prepareOrder(Order order) throws InsufficientIngredientsException {
-        if (currentOrders.size() >= maxCapacity) {
-            System.out.println("Кухня переполнена! Ожидайте...");
-            return;
+    /**
+     * Принять заказ на кухню.
+     * Оценка ожидания записывается в заказ при любом решении.
+     */
+    public AdmissionResult prepareOrder(Order order) throws InsufficientIngredientsException {
+        AdmissionResult result = quote(order);
+        order.setQuotedWaitMinutes(result.getQuotedWaitMinutes());
+
+        switch (result.getDecision()) {
+            case REJECTED:
+                System.out.println("Заказ #" + order.getId() + " отклонен: " + result.getReason());
+                break;
+            case DEFERRED:
+                deferredOrders.add(order);
+                deferredWorkMinutes += AdmissionController.estimateWorkMinutes(order);
+                System.out.println("Заказ #" + order.getId() + " отложен: " + result.getReason());
+                break;
+            default:
+                startOrder(order);
         }
+        return result;
+    }
 
+    /**
+     * Оценить прием заказа по текущей загрузке без изменения состояния кухни.
+     * Загрузка - трудоемкость отложенных заказов: принятые готовятся сразу и в нее не попадают.
+     */
+    public AdmissionResult quote(Order order) {
+        return admissionController.decide(order, getBacklogMinutes(), getActiveChefCount(),
+            isBusy(), deferredOrders.size());
+    }
+
+    /**
+     * Передать заказ повару; без активного повара заказ возвращается в начало очереди отложенных
+     * @return true, если заказ передан в работу
+     */
+    private boolean startOrder(Order order) throws InsufficientIngredientsException {
+        Chef availableChef = findAvailableChef(order);
+        int minutes = AdmissionController.estimateWorkMinutes(order);
+        if (availableChef == null) {
+            deferredOrders.addFirst(order);
+            deferredWorkMinutes += minutes;
+            System.out.println("Заказ #" + order.getId() + " отложен: нет активного повара");
+            return false;
+        }
         currentOrders.add(order);
+        workMinutes.put(order, minutes);
+        activeWorkMinutes += minutes;
         System.out.println("Заказ #" + order.getId() + " принят на кухню");
+        cookOrder(order, availableChef);
+        return true;
+    }
 
-        Chef availableChef = findAvailableChef();
-        if (availableChef != null) {
-            cookOrder(order, availableChef);
+    /**
+     * Передать в работу отложенные заказы, пока на кухне есть место.
+     * Заказ, на который не хватило ингредиентов, переносится в список неприготовленных.
+     * @return заказы, переданные в работу
+     */
+    public List<Order> releaseDeferredOrders() {
+        List<Order> released = new ArrayList<>();
+        if (releasingDeferred) {
+            return released; // вызов из completeOrder во время передачи
+        }
+        releasingDeferred = true;
+        try {
+            while (!deferredOrders.isEmpty() && !isBusy() && getActiveChefCount() > 0) {
+                Order order = deferredOrders.poll();
+                deferredWorkMinutes -= AdmissionController.estimateWorkMinutes(order);
+                boolean started;
+                try {
+                    started = startOrder(order);
+                } catch (InsufficientIngredientsException e) {
+                    failedOrders.add(order);
+                    System.out.println("Отложенный заказ #" + order.getId() + " не может быть приготовлен: "
+                        + e.getMessage());
+                    continue;
+                }
+                if (!started) {
+                    break;
+                }
+                released.add(order);
+            }
+        } finally {
+            releasingDeferred = false;
         }
+        return released;
     }
 
-    private Chef findAvailableChef() {
-        return chefs.isEmpty() ? null : chefs.get(0);
+    /**
+     * Активный повар, умеющий готовить все пиццы заказа; если такого нет - любой активный
+     */
+    private Chef findAvailableChef(Order order) {
+        Chef fallback = null;
+        for (Chef chef : chefs) {
+            if (!chef.isActive()) {
+                continue;
+            }
+            if (canCookAll(chef, order)) {
+                return chef;
+            }
+            if (fallback == null) {
+                fallback = chef;
+            }
+        }
+        return fallback;
+    }
+
+    private static boolean canCookAll(Chef chef, Order order) {
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() instanceof Pizza && !chef.canCookPizza(item.getProduct().getName())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void cookOrder(Order order, Chef chef) throws InsufficientIngredientsException {
+        int[] demand = calculateDemand(order);
+        try {
+            inventory.debit(demand);
+        } catch (InsufficientIngredientsException e) {
+            removeActiveOrder(order);
+            throw e;
+        }
+
         for (OrderItem item : order.getItems()) {
             if (item.getProduct() instanceof Pizza) {
-                Pizza pizza = (Pizza) item.getProduct();
-                chef.cookPizza(pizza);
+                for (int i = 0; i < item.getQuantity(); i++) {
+                    chef.bakePizza((Pizza) item.getProduct());
+                    item.markPrepared();
+                }
             }
         }
         completeOrder(order);
     }
 
+    /**
+     * Вектор расхода ингредиентов заказа по ячейкам склада (для Inventory.debit)
+     */
+    public int[] calculateDemand(Order order) {
+        List<OrderItem> pizzaItems = new ArrayList<>();
+        List<CompiledRecipe> recipes = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() instanceof Pizza) {
+                pizzaItems.add(item);
+                recipes.add(recipeFor((Pizza) item.getProduct()));
+            }
+        }
+        // рецепты компилируются до создания вектора: компиляция может добавить ячейки
+        int[] demand = new int[inventory.getSlotCount()];
+        for (int i = 0; i < pizzaItems.size(); i++) {
+            Pizza pizza = (Pizza) pizzaItems.get(i).getProduct();
+            recipes.get(i).addTo(demand, pizza.getSize(), pizzaItems.get(i).getQuantity());
+        }
+        return demand;
+    }
+
+    /**
+     * Скомпилированный рецепт пиццы; пицца без рецепта в книге (например, пользовательская)
+     * расходует по одной единице каждого добавленного в нее ингредиента
+     */
+    CompiledRecipe recipeFor(Pizza pizza) {
+        Recipe recipe = recipeBook.getRecipe(pizza.getName());
+        if (recipe == null) {
+            return Recipe.fromIngredients(pizza).compile(inventory);
+        }
+        CompiledRecipe compiled = compiledRecipes.get(recipe);
+        if (compiled == null || compiled.getVersion() != recipe.getVersion()) {
+            compiled = recipe.compile(inventory);
+            compiledRecipes.put(recipe, compiled);
+        }
+        return compiled;
+    }
+
     public void completeOrder(Order order) {
-        currentOrders.remove(order);
+        removeActiveOrder(order);
         System.out.println("Заказ #" + order.getId() + " готов!");
+        releaseDeferredOrders();
+    }
+
+    private void removeActiveOrder(Order order) {
+        currentOrders.remove(order);
+        Integer minutes = workMinutes.remove(order);
+        if (minutes != null) {
+            activeWorkMinutes -= minutes;
+        }
+    }
+
+    /**
+     * Трудоемкость заказов в работе и отложенных, в минутах работы одного повара.
+     * Заказы в работе учитываются только во время приготовления, между вызовами - только отложенные.
+     */
+    public int getBacklogMinutes() {
+        return activeWorkMinutes + deferredWorkMinutes;
+    }
+
+    /**
+     * Забрать отложенные заказы, которые не удалось приготовить из-за нехватки ингредиентов
+     */
+    public List<Order> takeFailedOrders() {
+        List<Order> taken = new ArrayList<>(failedOrders);
+        failedOrders.clear();
+        return taken;
+    }
+
+    public List<Order> getDeferredOrders() {
+        return Collections.unmodifiableList(new ArrayList<>(deferredOrders));
+    }
+
+    public int getActiveChefCount() {
+        int active = 0;
+        for (Chef chef : chefs) {
+            if (chef.isActive()) {
+                active++;
+            }
+        }
+        return active;
     }
 
     public boolean isBusy() {
@@ -77,7 +295,21 @@ public class Kitchen {
     public List<Order> getCurrentOrders() { return currentOrders; }
 
     public Inventory getInventory() { return inventory; }
-    public void setInventory(Inventory inventory) { this.inventory = inventory; }
+    public void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+        compiledRecipes.clear();
+    }
+
+    public RecipeBook getRecipeBook() { return recipeBook; }
+    public void setRecipeBook(RecipeBook recipeBook) {
+        this.recipeBook = recipeBook;
+        compiledRecipes.clear();
+    }
+
+    public AdmissionController getAdmissionController() { return admissionController; }
+    public void setAdmissionController(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
 
     public int getMaxCapacity() { return maxCapacity; }
     public void setMaxCapacity(int maxCapacity) { this.maxCapacity = maxCapacity; }
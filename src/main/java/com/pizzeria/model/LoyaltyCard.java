@@ -1,51 +1,80 @@
 package com.pizzeria.model;
 
+import com.pizzeria.enums.LoyaltyTier;
 import com.pizzeria.exceptions.InvalidDiscountException;
 import com.pizzeria.interfaces.Discountable;
+import com.pizzeria.interfaces.Expirable;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Класс карты лояльности
+ * Класс карты лояльности.
+ * Баланс и уровень упакованы в одно слово и меняются CAS, поэтому одновременные
+ * списания с разных терминалов не могут потратить одни баллы дважды.
  */
-public class LoyaltyCard implements Discountable {
+public class LoyaltyCard implements Discountable, Expirable {
+    private static final int TIER_BITS = 8;
+    private static final long TIER_MASK = (1L << TIER_BITS) - 1;
+    private static final LoyaltyTier[] TIERS = LoyaltyTier.values();
+
     private String cardNumber;
-    private int points;
-    private String tier; // Bronze, Silver, Gold, Platinum
+    private final AtomicLong state; // баллы << TIER_BITS | порядковый номер уровня
     private LocalDate issueDate;
     private LocalDate expiryDate;
+    private volatile Boolean inEffect; // флаг от ExpiryScheduler; null - проверка по датам
 
     public LoyaltyCard(String cardNumber) {
         this.cardNumber = cardNumber;
-        this.points = 0;
-        this.tier = "Bronze";
-        this.issueDate = LocalDate.now();
+        this.state = new AtomicLong(pack(0, LoyaltyTier.BRONZE));
+        this.issueDate = ClockProvider.today();
         this.expiryDate = issueDate.plusYears(1);
     }
 
+    private static long pack(long points, LoyaltyTier tier) {
+        return points << TIER_BITS | tier.ordinal();
+    }
+
+    private static long pointsOf(long word) {
+        return word >>> TIER_BITS;
+    }
+
+    private static LoyaltyTier tierOf(long word) {
+        return TIERS[(int) (word & TIER_MASK)];
+    }
+
+    /**
+     * Начислить баллы; уровень пересчитывается по новому балансу
+     */
     public void addPoints(int points) {
-        this.points += points;
-        updateTier();
+        if (points < 0) {
+            throw new IllegalArgumentException("Количество баллов не может быть отрицательным: " + points);
+        }
+        long current;
+        long updated;
+        do {
+            current = state.get();
+            long balance = pointsOf(current) + points;
+            updated = pack(balance, LoyaltyTier.forPoints(balance));
+        } while (!state.compareAndSet(current, updated));
     }
 
+    /**
+     * Списать баллы, если их достаточно; уровень не меняется
+     */
     public boolean redeemPoints(int points) {
-        if (this.points >= points) {
-            this.points -= points;
-            return true;
-        }
-        return false;
-    }
-
-    private void updateTier() {
-        if (points >= 1000) {
-            tier = "Platinum";
-        } else if (points >= 500) {
-            tier = "Gold";
-        } else if (points >= 200) {
-            tier = "Silver";
-        } else {
-            tier = "Bronze";
+        if (points < 0) {
+            throw new IllegalArgumentException("Количество баллов не может быть отрицательным: " + points);
         }
+        long current;
+        do {
+            current = state.get();
+            if (pointsOf(current) < points) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, pack(pointsOf(current) - points, tierOf(current))));
+        return true;
     }
 
     @Override
@@ -58,39 +87,80 @@ public class LoyaltyCard implements Discountable {
 
     @Override
     public double getDiscountAmount() {
-        switch (tier) {
-            case "Platinum": return 15.0;
-            case "Gold": return 10.0;
-            case "Silver": return 5.0;
-            default: return 2.0;
-        }
+        return getTier().getDiscountPercentage();
     }
 
     @Override
     public boolean isDiscountApplicable() {
-        return LocalDate.now().isBefore(expiryDate);
+        Boolean scheduled = inEffect;
+        if (scheduled != null) {
+            return scheduled;
+        }
+        return ClockProvider.today().isBefore(expiryDate);
     }
 
     public boolean isExpired() {
-        return LocalDate.now().isAfter(expiryDate);
+        return ClockProvider.today().isAfter(expiryDate);
     }
 
     public void renewCard() {
-        this.expiryDate = LocalDate.now().plusYears(1);
+        this.expiryDate = ClockProvider.today().plusYears(1);
+        clearInEffect();
+    }
+
+    @Override
+    public LocalDate getValidFrom() {
+        return issueDate;
+    }
+
+    /**
+     * Скидка действует до дня окончания срока, не включая его
+     */
+    @Override
+    public LocalDate getValidUntil() {
+        return expiryDate.minusDays(1);
+    }
+
+    @Override
+    public void setInEffect(boolean inEffect) {
+        this.inEffect = inEffect;
+    }
+
+    @Override
+    public void clearInEffect() {
+        this.inEffect = null;
     }
 
     // Getters and Setters
     public String getCardNumber() { return cardNumber; }
     public void setCardNumber(String cardNumber) { this.cardNumber = cardNumber; }
 
-    public int getPoints() { return points; }
-    public void setPoints(int points) { this.points = points; }
+    public int getPoints() { return (int) pointsOf(state.get()); }
+    public void setPoints(int points) {
+        if (points < 0) {
+            throw new IllegalArgumentException("Количество баллов не может быть отрицательным: " + points);
+        }
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(points, tierOf(current))));
+    }
 
-    public String getTier() { return tier; }
+    public LoyaltyTier getTier() { return tierOf(state.get()); }
+
+    /**
+     * Восстановить баланс и уровень сохраненной карты (уровень не пересчитывается по баллам)
+     */
+    public void restoreState(int points, LoyaltyTier tier) {
+        if (points < 0 || tier == null) {
+            throw new IllegalArgumentException("Некорректное состояние карты: " + points + ", " + tier);
+        }
+        state.set(pack(points, tier));
+    }
 
     public LocalDate getIssueDate() { return issueDate; }
-    public void setIssueDate(LocalDate issueDate) { this.issueDate = issueDate; }
+    public void setIssueDate(LocalDate issueDate) { this.issueDate = issueDate; clearInEffect(); }
 
     public LocalDate getExpiryDate() { return expiryDate; }
-    public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; }
+    public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; clearInEffect(); }
 }
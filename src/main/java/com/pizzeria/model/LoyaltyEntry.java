@@ -0,0 +1,53 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.LoyaltyOperation;
+import com.pizzeria.util.ClockProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемая запись журнала баллов лояльности
+ */
+public class LoyaltyEntry {
+    private final long sequence;
+    private final String cardNumber;
+    private final LoyaltyOperation operation;
+    private final int points;
+    private final String orderId;
+    private final LocalDateTime time;
+
+    public LoyaltyEntry(long sequence, String cardNumber, LoyaltyOperation operation, int points, String orderId) {
+        this.sequence = sequence;
+        this.cardNumber = cardNumber;
+        this.operation = operation;
+        this.points = points;
+        this.orderId = orderId;
+        this.time = ClockProvider.now();
+    }
+
+    /**
+     * Изменение баланса: начисление со знаком плюс, списание со знаком минус
+     */
+    public int getDelta() {
+        return operation == LoyaltyOperation.ACCRUAL ? points : -points;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+
+    public String getCardNumber() { return cardNumber; }
+
+    public LoyaltyOperation getOperation() { return operation; }
+
+    public int getPoints() { return points; }
+
+    public String getOrderId() { return orderId; }
+
+    public LocalDateTime getTime() { return time; }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s %s: %d баллов (заказ %s)", sequence, cardNumber,
+            operation.getDisplayName(), points, orderId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.pizzeria.model;
 
 import com.pizzeria.model.products.Product;
+import com.pizzeria.util.SearchIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,20 +14,26 @@ public class Menu {
     private List<Product> products;
     private String name;
     private boolean isActive;
+    private final SearchIndex<Product> searchIndex;
 
     public Menu(String name) {
         this.name = name;
         this.products = new ArrayList<>();
         this.isActive = true;
+        this.searchIndex = SearchIndex.forProducts();
     }
 
     public void addProduct(Product product) {
         products.add(product);
+        searchIndex.add(product);
         System.out.println("Добавлен продукт в меню: " + product.getName());
     }
 
     public void removeProduct(Product product) {
         products.remove(product);
+        if (!products.contains(product)) {
+            searchIndex.remove(product);
+        }
         System.out.println("Удален продукт из меню: " + product.getName());
     }
 
@@ -43,6 +50,13 @@ public class Menu {
             .orElse(null);
     }
 
+    /**
+     * Поиск продуктов по части названия с учетом опечаток (для ввода на кассе)
+     */
+    public List<Product> searchProducts(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
     public List<Product> getProductsByPriceRange(double minPrice, double maxPrice) {
         return products.stream()
             .filter(p -> p.getPrice() >= minPrice && p.getPrice() <= maxPrice)
@@ -61,7 +75,11 @@ public class Menu {
 
     // Getters and Setters
     public List<Product> getProducts() { return products; }
-    public void setProducts(List<Product> products) { this.products = products; }
+    public void setProducts(List<Product> products) {
+        this.products = products;
+        searchIndex.clear();
+        products.forEach(searchIndex::add);
+    }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -1,11 +1,14 @@
 package com.pizzeria.model;
 
 import com.pizzeria.enums.OrderStatus;
+import com.pizzeria.enums.PaymentMethod;
 import com.pizzeria.exceptions.InvalidDeliveryAddressException;
 import com.pizzeria.interfaces.Deliverable;
 import com.pizzeria.interfaces.Payable;
 import com.pizzeria.model.products.Product;
 import com.pizzeria.model.users.Customer;
+import com.pizzeria.model.users.Employee;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,13 +27,16 @@ public class Order implements Payable, Deliverable {
     private Address deliveryAddress;
     private double discountPercentage;
     private boolean isPaid;
+    private PaymentMethod paymentMethod;
+    private Employee servedBy;
+    private int quotedWaitMinutes;
 
     public Order(String id, Customer customer) {
         this.id = id;
         this.customer = customer;
         this.items = new ArrayList<>();
         this.status = OrderStatus.PENDING;
-        this.orderTime = LocalDateTime.now();
+        this.orderTime = ClockProvider.now();
         this.discountPercentage = 0;
         this.isPaid = false;
     }
@@ -145,6 +151,15 @@ public class Order implements Payable, Deliverable {
     public boolean isPaid() { return isPaid; }
     public void setPaid(boolean paid) { isPaid = paid; }
 
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public Employee getServedBy() { return servedBy; }
+    public void setServedBy(Employee servedBy) { this.servedBy = servedBy; }
+
+    public int getQuotedWaitMinutes() { return quotedWaitMinutes; }
+    public void setQuotedWaitMinutes(int quotedWaitMinutes) { this.quotedWaitMinutes = quotedWaitMinutes; }
+
     @Override
     public String toString() {
         return String.format("Заказ #%s - %s (%.2f руб.)", id, status.getDisplayName(), getFinalPrice());
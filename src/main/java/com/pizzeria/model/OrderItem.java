@@ -1,14 +1,23 @@
 package com.pizzeria.model;
 
+import com.pizzeria.interfaces.Cookable;
 import com.pizzeria.model.products.Product;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Класс элемента заказа
+ * Класс элемента заказа.
+ * Продукт может быть общим описанием из ProductCatalog, поэтому состояние строки заказа
+ * (количество, пожелания, доработки, сколько единиц приготовлено) хранится здесь.
  */
 public class OrderItem {
     private Product product;
     private int quantity;
     private String specialInstructions;
+    private List<String> customizations; // создается при первой доработке
+    private int preparedCount;
 
     public OrderItem(Product product, int quantity) {
         this.product = product;
@@ -33,6 +42,31 @@ public class OrderItem {
         }
     }
 
+    public void addCustomization(String customization) {
+        if (customizations == null) {
+            customizations = new ArrayList<>(2);
+        }
+        customizations.add(customization);
+    }
+
+    public List<String> getCustomizations() {
+        return customizations == null ? Collections.emptyList() : Collections.unmodifiableList(customizations);
+    }
+
+    /**
+     * Отметить приготовление одной единицы позиции
+     */
+    public void markPrepared() {
+        preparedCount++;
+    }
+
+    /**
+     * Все единицы приготовлены; позиции без готовки (напитки, десерты) готовы сразу
+     */
+    public boolean isPrepared() {
+        return !(product instanceof Cookable) || preparedCount >= quantity;
+    }
+
     // Getters and Setters
     public Product getProduct() { return product; }
     public void setProduct(Product product) { this.product = product; }
@@ -40,6 +74,8 @@ public class OrderItem {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
+    public int getPreparedCount() { return preparedCount; }
+
     public String getSpecialInstructions() { return specialInstructions; }
     public void setSpecialInstructions(String specialInstructions) {
         this.specialInstructions = specialInstructions;
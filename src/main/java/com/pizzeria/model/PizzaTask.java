@@ -0,0 +1,35 @@
+package com.pizzeria.model;
+
+import com.pizzeria.model.products.Pizza;
+
+/**
+ * Класс задачи на приготовление одной пиццы заказа
+ */
+public class PizzaTask {
+    private final Order order;
+    private final Pizza pizza;
+    private final long submittedAt;
+
+    /**
+     * @param submittedAt момент постановки в очередь в единицах времени вызывающего кода
+     */
+    public PizzaTask(Order order, Pizza pizza, long submittedAt) {
+        this.order = order;
+        this.pizza = pizza;
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Тип пиццы для проверки Chef.canCookPizza
+     */
+    public String getPizzaType() {
+        return pizza.getName();
+    }
+
+    // Getters
+    public Order getOrder() { return order; }
+
+    public Pizza getPizza() { return pizza; }
+
+    public long getSubmittedAt() { return submittedAt; }
+}
@@ -1,28 +1,91 @@
 package com.pizzeria.model;
 
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.interfaces.Expirable;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.util.ClockProvider;
+
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
- * Класс акции/промоакции
+ * Класс акции/промоакции.
+ * Акция действует на позиции заказа, подходящие под все заданные условия: названия продуктов,
+ * категории и размеры пиццы; пустое условие - любое значение. Без условий - на весь заказ.
  */
-public class Promotion {
+public class Promotion implements Expirable {
     private String name;
     private String description;
     private double discountPercentage;
     private LocalDate startDate;
     private LocalDate endDate;
     private boolean isActive;
+    private volatile Boolean inEffect; // флаг от ExpiryScheduler; null - проверка по датам
+    private final Set<String> productNames; // в нижнем регистре
+    private final Set<ProductCategory> categories;
+    private final Set<PizzaSize> sizes;
+    private boolean exclusive; // не сочетается с другими акциями в заказе
 
     public Promotion(String name, double discountPercentage) {
         this.name = name;
         this.discountPercentage = discountPercentage;
-        this.startDate = LocalDate.now();
+        this.startDate = ClockProvider.today();
         this.endDate = startDate.plusWeeks(1);
         this.isActive = true;
+        this.productNames = new HashSet<>();
+        this.categories = EnumSet.noneOf(ProductCategory.class);
+        this.sizes = EnumSet.noneOf(PizzaSize.class);
+    }
+
+    public Promotion forProduct(String productName) {
+        productNames.add(productName.toLowerCase());
+        return this;
+    }
+
+    public Promotion forCategory(ProductCategory category) {
+        categories.add(category);
+        return this;
+    }
+
+    public Promotion forSize(PizzaSize size) {
+        sizes.add(size);
+        return this;
+    }
+
+    /**
+     * Подходит ли продукт под условия акции (срок действия не проверяется)
+     */
+    public boolean appliesTo(Product product) {
+        PizzaSize size = product instanceof Pizza ? ((Pizza) product).getSize() : null;
+        return appliesTo(product.getName().toLowerCase(), ProductCategory.of(product), size);
+    }
+
+    /**
+     * Проверка по заранее вычисленным признакам позиции
+     * @param lowerCaseName название продукта в нижнем регистре
+     * @param size размер пиццы или null для других продуктов
+     */
+    public boolean appliesTo(String lowerCaseName, ProductCategory category, PizzaSize size) {
+        if (!productNames.isEmpty() && !productNames.contains(lowerCaseName)) {
+            return false;
+        }
+        if (!categories.isEmpty() && !categories.contains(category)) {
+            return false;
+        }
+        return sizes.isEmpty() || (size != null && sizes.contains(size));
     }
 
     public boolean isValid() {
-        LocalDate now = LocalDate.now();
+        Boolean scheduled = inEffect;
+        if (scheduled != null) {
+            return isActive && scheduled;
+        }
+        LocalDate now = ClockProvider.today();
         return isActive &&
                !now.isBefore(startDate) &&
                !now.isAfter(endDate);
@@ -40,9 +103,30 @@ public class Promotion {
 
     public void extend(int days) {
         this.endDate = this.endDate.plusDays(days);
+        clearInEffect();
         System.out.println("Срок акции '" + name + "' продлен на " + days + " дней");
     }
 
+    @Override
+    public LocalDate getValidFrom() {
+        return startDate;
+    }
+
+    @Override
+    public LocalDate getValidUntil() {
+        return endDate;
+    }
+
+    @Override
+    public void setInEffect(boolean inEffect) {
+        this.inEffect = inEffect;
+    }
+
+    @Override
+    public void clearInEffect() {
+        this.inEffect = null;
+    }
+
     // Getters and Setters
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -56,11 +140,20 @@ public class Promotion {
     }
 
     public LocalDate getStartDate() { return startDate; }
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; clearInEffect(); }
 
     public LocalDate getEndDate() { return endDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; clearInEffect(); }
 
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
+
+    public Set<String> getProductNames() { return Collections.unmodifiableSet(productNames); }
+
+    public Set<ProductCategory> getCategories() { return Collections.unmodifiableSet(categories); }
+
+    public Set<PizzaSize> getSizes() { return Collections.unmodifiableSet(sizes); }
+
+    public boolean isExclusive() { return exclusive; }
+    public void setExclusive(boolean exclusive) { this.exclusive = exclusive; }
 }
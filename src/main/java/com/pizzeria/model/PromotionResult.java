@@ -0,0 +1,72 @@
+package com.pizzeria.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Класс результата подбора акций для заказа: какая акция применена к какой позиции
+ */
+public class PromotionResult {
+    private final List<Application> applications;
+    private double totalDiscount;
+
+    public PromotionResult() {
+        this.applications = new ArrayList<>();
+    }
+
+    public void add(OrderItem item, Promotion promotion, double discount) {
+        applications.add(new Application(item, promotion, discount));
+        totalDiscount += discount;
+    }
+
+    /**
+     * Применение акции к позиции заказа
+     */
+    public static class Application {
+        private final OrderItem item;
+        private final Promotion promotion;
+        private final double discount;
+
+        Application(OrderItem item, Promotion promotion, double discount) {
+            this.item = item;
+            this.promotion = promotion;
+            this.discount = discount;
+        }
+
+        public OrderItem getItem() { return item; }
+
+        public Promotion getPromotion() { return promotion; }
+
+        public double getDiscount() { return discount; }
+    }
+
+    public double getDiscountFor(OrderItem item) {
+        for (Application application : applications) {
+            if (application.item == item) {
+                return application.discount;
+            }
+        }
+        return 0;
+    }
+
+    public Set<Promotion> getAppliedPromotions() {
+        Set<Promotion> promotions = new LinkedHashSet<>();
+        for (Application application : applications) {
+            promotions.add(application.promotion);
+        }
+        return promotions;
+    }
+
+    // Getters
+    public List<Application> getApplications() { return Collections.unmodifiableList(applications); }
+
+    public double getTotalDiscount() { return totalDiscount; }
+
+    @Override
+    public String toString() {
+        return String.format("Акций: %d, скидка %.2f руб.", getAppliedPromotions().size(), totalDiscount);
+    }
+}
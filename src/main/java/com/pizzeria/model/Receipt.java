@@ -1,9 +1,13 @@
 package com.pizzeria.model;
 
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.enums.TaxMode;
 import com.pizzeria.model.payment.Payment;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 /**
  * Класс чека
@@ -13,12 +17,13 @@ public class Receipt {
     private Order order;
     private Payment payment;
     private LocalDateTime issueTime;
+    private TaxBreakdown taxBreakdown; // null - налоги в чеке не показываются
 
     public Receipt(String receiptNumber, Order order, Payment payment) {
         this.receiptNumber = receiptNumber;
         this.order = order;
         this.payment = payment;
-        this.issueTime = LocalDateTime.now();
+        this.issueTime = ClockProvider.now();
     }
 
     public String generateReceipt() {
@@ -51,6 +56,16 @@ public class Receipt {
         }
 
         receipt.append(String.format("ИТОГО: %.2f руб.\n", order.getFinalPrice()));
+        if (taxBreakdown != null) {
+            String prefix = taxBreakdown.getMode() == TaxMode.INCLUSIVE ? "в т.ч. налог" : "Налог";
+            for (Map.Entry<ProductCategory, Double> entry : taxBreakdown.getTaxByCategory().entrySet()) {
+                receipt.append(String.format("  %s (%s): %.2f руб.\n", prefix,
+                    entry.getKey().getDisplayName(), entry.getValue()));
+            }
+            if (taxBreakdown.getDeliveryTax() > 0) {
+                receipt.append(String.format("  %s (доставка): %.2f руб.\n", prefix, taxBreakdown.getDeliveryTax()));
+            }
+        }
         receipt.append("------------------------------------------\n");
         receipt.append("Оплата: ").append(payment.getMethod().getDisplayName()).append("\n");
         receipt.append("==========================================\n");
@@ -81,4 +96,7 @@ public class Receipt {
 
     public LocalDateTime getIssueTime() { return issueTime; }
     public void setIssueTime(LocalDateTime issueTime) { this.issueTime = issueTime; }
+
+    public TaxBreakdown getTaxBreakdown() { return taxBreakdown; }
+    public void setTaxBreakdown(TaxBreakdown taxBreakdown) { this.taxBreakdown = taxBreakdown; }
 }
@@ -0,0 +1,116 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.Pizza;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Класс рецепта пиццы: расход каждого ингредиента (в единицах ингредиента) для каждого размера
+ */
+public class Recipe {
+    private static final PizzaSize[] SIZES = PizzaSize.values();
+
+    private final String pizzaName;
+    private final Map<String, int[]> amounts;
+    private int version;
+
+    public Recipe(String pizzaName) {
+        if (pizzaName == null || pizzaName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Название пиццы не может быть пустым");
+        }
+        this.pizzaName = pizzaName;
+        this.amounts = new LinkedHashMap<>();
+    }
+
+    /**
+     * Рецепт по ингредиентам, добавленным в пиццу: по одной единице каждого
+     * (для пицц без рецепта в книге, например пользовательских)
+     */
+    public static Recipe fromIngredients(Pizza pizza) {
+        Map<String, Integer> units = new HashMap<>();
+        for (Ingredient ingredient : pizza.getIngredients()) {
+            units.merge(ingredient.getName(), 1, Integer::sum);
+        }
+        Recipe recipe = new Recipe(pizza.getName());
+        for (Map.Entry<String, Integer> entry : units.entrySet()) {
+            int[] amounts = new int[SIZES.length];
+            Arrays.fill(amounts, entry.getValue());
+            recipe.addIngredient(entry.getKey(), amounts);
+        }
+        return recipe;
+    }
+
+    /**
+     * Задать расход ингредиента для каждого размера в порядке PizzaSize
+     */
+    public void addIngredient(String ingredientName, int... amountsBySize) {
+        if (amountsBySize.length != SIZES.length) {
+            throw new IllegalArgumentException("Нужно указать расход для " + SIZES.length + " размеров");
+        }
+        for (int amount : amountsBySize) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Расход не может быть отрицательным: " + amount);
+            }
+        }
+        amounts.put(ingredientName, amountsBySize.clone());
+        version++;
+    }
+
+    /**
+     * Задать расход для маленькой пиццы; для остальных размеров он пропорционален площади
+     */
+    public void addScaledIngredient(String ingredientName, int amountForSmall) {
+        int[] amountsBySize = new int[SIZES.length];
+        double base = SIZES[0].getDiameter();
+        for (PizzaSize size : SIZES) {
+            double ratio = size.getDiameter() / base;
+            amountsBySize[size.ordinal()] = (int) Math.round(amountForSmall * ratio * ratio);
+        }
+        addIngredient(ingredientName, amountsBySize);
+    }
+
+    public void removeIngredient(String ingredientName) {
+        if (amounts.remove(ingredientName) != null) {
+            version++;
+        }
+    }
+
+    public int getAmount(String ingredientName, PizzaSize size) {
+        int[] amountsBySize = amounts.get(ingredientName);
+        return amountsBySize != null ? amountsBySize[size.ordinal()] : 0;
+    }
+
+    /**
+     * Привязать рецепт к ячейкам склада: результат содержит только примитивные массивы
+     */
+    public CompiledRecipe compile(Inventory inventory) {
+        int[] slots = new int[amounts.size()];
+        int[][] amountsBySize = new int[SIZES.length][amounts.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : amounts.entrySet()) {
+            slots[i] = inventory.slotOf(entry.getKey());
+            for (PizzaSize size : SIZES) {
+                amountsBySize[size.ordinal()][i] = entry.getValue()[size.ordinal()];
+            }
+            i++;
+        }
+        return new CompiledRecipe(pizzaName, version, slots, amountsBySize);
+    }
+
+    // Getters
+    public String getPizzaName() { return pizzaName; }
+
+    public Set<String> getIngredientNames() { return Collections.unmodifiableSet(amounts.keySet()); }
+
+    /**
+     * Номер изменения рецепта: растет при каждом изменении состава
+     */
+    public int getVersion() { return version; }
+}
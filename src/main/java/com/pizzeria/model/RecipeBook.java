@@ -0,0 +1,86 @@
+package com.pizzeria.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Книга рецептов: рецепты пицц по названию
+ */
+public class RecipeBook {
+    private final Map<String, Recipe> recipes;
+
+    public RecipeBook() {
+        this.recipes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Книга со стандартными рецептами пицц меню.
+     * Расход - в единицах склада, в которых IngredientFactory выдает ингредиенты:
+     * указан для маленькой пиццы, для остальных размеров пропорционален площади.
+     */
+    public static RecipeBook standard() {
+        RecipeBook book = new RecipeBook();
+
+        Recipe margherita = new Recipe("Маргарита");
+        margherita.addScaledIngredient("Тонкое", 2);
+        margherita.addScaledIngredient("Томатный", 2);
+        margherita.addScaledIngredient("Моцарелла", 2);
+        book.addRecipe(margherita);
+
+        Recipe pepperoni = new Recipe("Пепперони");
+        pepperoni.addScaledIngredient("Тонкое", 2);
+        pepperoni.addScaledIngredient("Томатный", 2);
+        pepperoni.addScaledIngredient("Моцарелла", 2);
+        pepperoni.addScaledIngredient("Пепперони", 2);
+        book.addRecipe(pepperoni);
+
+        Recipe meatLovers = new Recipe("Мясная");
+        meatLovers.addScaledIngredient("Тонкое", 2);
+        meatLovers.addScaledIngredient("Томатный", 2);
+        meatLovers.addScaledIngredient("Моцарелла", 2);
+        meatLovers.addScaledIngredient("Курица", 1);
+        meatLovers.addScaledIngredient("Пепперони", 1);
+        book.addRecipe(meatLovers);
+
+        Recipe veggie = new Recipe("Вегетарианская");
+        veggie.addScaledIngredient("Тонкое", 2);
+        veggie.addScaledIngredient("Томатный", 2);
+        veggie.addScaledIngredient("Моцарелла", 1);
+        veggie.addScaledIngredient("Помидоры", 2);
+        veggie.addScaledIngredient("Грибы", 1);
+        book.addRecipe(veggie);
+
+        return book;
+    }
+
+    public void addRecipe(Recipe recipe) {
+        recipes.put(key(recipe.getPizzaName()), recipe);
+    }
+
+    public void removeRecipe(String pizzaName) {
+        recipes.remove(key(pizzaName));
+    }
+
+    /**
+     * Рецепт по названию пиццы без учета регистра
+     * @return null, если рецепта нет
+     */
+    public Recipe getRecipe(String pizzaName) {
+        return pizzaName != null ? recipes.get(key(pizzaName)) : null;
+    }
+
+    public boolean hasRecipe(String pizzaName) {
+        return getRecipe(pizzaName) != null;
+    }
+
+    public Collection<Recipe> getRecipes() {
+        return Collections.unmodifiableCollection(recipes.values());
+    }
+
+    private static String key(String pizzaName) {
+        return pizzaName.trim().toLowerCase(Locale.ROOT);
+    }
+}
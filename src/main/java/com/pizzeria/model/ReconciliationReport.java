@@ -0,0 +1,125 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.ReconciliationIssueType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Класс итогов сверки за день: количество заказов, платежей и возвратов, суммы и расхождения.
+ * Частичные отчеты параллельной сверки объединяются через merge
+ */
+public class ReconciliationReport {
+    private final LocalDate date;
+    private int orderCount;
+    private int paymentCount;
+    private int refundCount;
+    private double paidTotal;
+    private double refundedTotal;
+    private final List<Issue> issues;
+
+    /**
+     * Найденное расхождение
+     */
+    public static class Issue {
+        private final ReconciliationIssueType type;
+        private final String orderId;
+        private final String transactionId;
+        private final String details;
+
+        public Issue(ReconciliationIssueType type, String orderId, String transactionId, String details) {
+            this.type = type;
+            this.orderId = orderId;
+            this.transactionId = transactionId;
+            this.details = details;
+        }
+
+        public ReconciliationIssueType getType() { return type; }
+
+        public String getOrderId() { return orderId; }
+
+        public String getTransactionId() { return transactionId; }
+
+        public String getDetails() { return details; }
+
+        @Override
+        public String toString() {
+            return type.getDisplayName() + " (заказ " + orderId + ", транзакция " + transactionId + "): " + details;
+        }
+    }
+
+    public ReconciliationReport(LocalDate date) {
+        this.date = date;
+        this.issues = new ArrayList<>();
+    }
+
+    public void addIssue(ReconciliationIssueType type, String orderId, String transactionId, String details) {
+        issues.add(new Issue(type, orderId, transactionId, details));
+    }
+
+    public void addOrder() {
+        orderCount++;
+    }
+
+    public void addPayment(double amount) {
+        paymentCount++;
+        paidTotal += amount;
+    }
+
+    public void addRefund(double amount) {
+        refundCount++;
+        refundedTotal += amount;
+    }
+
+    /**
+     * Объединить с частичным результатом другой партиции
+     */
+    public ReconciliationReport merge(ReconciliationReport other) {
+        orderCount += other.orderCount;
+        paymentCount += other.paymentCount;
+        refundCount += other.refundCount;
+        paidTotal += other.paidTotal;
+        refundedTotal += other.refundedTotal;
+        issues.addAll(other.issues);
+        return this;
+    }
+
+    public boolean isBalanced() {
+        return issues.isEmpty();
+    }
+
+    public int countIssues(ReconciliationIssueType type) {
+        int count = 0;
+        for (Issue issue : issues) {
+            if (issue.type == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Getters
+    public LocalDate getDate() { return date; }
+
+    public int getOrderCount() { return orderCount; }
+
+    public int getPaymentCount() { return paymentCount; }
+
+    public int getRefundCount() { return refundCount; }
+
+    public double getPaidTotal() { return paidTotal; }
+
+    public double getRefundedTotal() { return refundedTotal; }
+
+    public double getNetTotal() { return paidTotal - refundedTotal; }
+
+    public List<Issue> getIssues() { return Collections.unmodifiableList(issues); }
+
+    @Override
+    public String toString() {
+        return String.format("Сверка %s: заказов %d, платежей %d на %.2f руб., возвратов %d на %.2f руб., расхождений %d",
+            date, orderCount, paymentCount, paidTotal, refundCount, refundedTotal, issues.size());
+    }
+}
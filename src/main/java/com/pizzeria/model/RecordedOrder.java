@@ -0,0 +1,87 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Класс записи журнала заказов для воспроизведения нагрузки.
+ * Адрес не указан (street == null) - самовывоз.
+ */
+public class RecordedOrder {
+    private final LocalDateTime time;
+    private final String customerId;
+    private final String firstName;
+    private final String lastName;
+    private final List<Item> items;
+    private final PaymentMethod paymentMethod;
+    private final String street;
+    private final String houseNumber;
+    private final String city;
+    private final double distanceKm;
+
+    public RecordedOrder(LocalDateTime time, String customerId, String firstName, String lastName,
+                         List<Item> items, PaymentMethod paymentMethod,
+                         String street, String houseNumber, String city, double distanceKm) {
+        this.time = time;
+        this.customerId = customerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.paymentMethod = paymentMethod;
+        this.street = street;
+        this.houseNumber = houseNumber;
+        this.city = city;
+        this.distanceKm = distanceKm;
+    }
+
+    public boolean isDelivery() {
+        return street != null;
+    }
+
+    /**
+     * Позиция заказа: тип пиццы (как в PizzaFactory), размер и количество
+     */
+    public static class Item {
+        private final String pizzaType;
+        private final PizzaSize size;
+        private final int quantity;
+
+        public Item(String pizzaType, PizzaSize size, int quantity) {
+            this.pizzaType = pizzaType;
+            this.size = size;
+            this.quantity = quantity;
+        }
+
+        public String getPizzaType() { return pizzaType; }
+
+        public PizzaSize getSize() { return size; }
+
+        public int getQuantity() { return quantity; }
+    }
+
+    // Getters
+    public LocalDateTime getTime() { return time; }
+
+    public String getCustomerId() { return customerId; }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public List<Item> getItems() { return items; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+
+    public String getStreet() { return street; }
+
+    public String getHouseNumber() { return houseNumber; }
+
+    public String getCity() { return city; }
+
+    public double getDistanceKm() { return distanceKm; }
+}
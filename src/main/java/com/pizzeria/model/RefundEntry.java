@@ -0,0 +1,61 @@
+package com.pizzeria.model;
+
+import com.pizzeria.util.ClockProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемая запись журнала возвратов.
+ * Возврат позиции заказа хранит название продукта и количество единиц; возврат остатка
+ * платежа (доставка, полный возврат) - название null и количество 0
+ */
+public class RefundEntry {
+    private final long sequence;
+    private final String transactionId;
+    private final String orderId;
+    private final String productName;
+    private final int quantity;
+    private final double amount;
+    private final String reason;
+    private final LocalDateTime time;
+
+    public RefundEntry(long sequence, String transactionId, String orderId, String productName,
+                       int quantity, double amount, String reason) {
+        this.sequence = sequence;
+        this.transactionId = transactionId;
+        this.orderId = orderId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.amount = amount;
+        this.reason = reason;
+        this.time = ClockProvider.now();
+    }
+
+    public boolean isItemRefund() {
+        return productName != null;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+
+    public String getTransactionId() { return transactionId; }
+
+    public String getOrderId() { return orderId; }
+
+    public String getProductName() { return productName; }
+
+    public int getQuantity() { return quantity; }
+
+    public double getAmount() { return amount; }
+
+    public String getReason() { return reason; }
+
+    public LocalDateTime getTime() { return time; }
+
+    @Override
+    public String toString() {
+        String subject = isItemRefund() ? productName + " x" + quantity : "остаток платежа";
+        return String.format("#%d %s (заказ %s): %s, %.2f руб. - %s", sequence, transactionId, orderId,
+            subject, amount, reason);
+    }
+}
@@ -0,0 +1,134 @@
+package com.pizzeria.model;
+
+import com.pizzeria.util.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс итогов воспроизведения журнала заказов: задержки и ошибки по этапам
+ */
+public class ReplayReport {
+    private final Map<String, Stage> stages;
+    private final AtomicLong ordersCompleted;
+    private long ordersSubmitted;
+    private long ordersUnfinished;
+    private long wallTimeNanos;
+
+    public ReplayReport(String... stageNames) {
+        Map<String, Stage> byName = new LinkedHashMap<>();
+        for (String name : stageNames) {
+            byName.put(name, new Stage(name));
+        }
+        this.stages = Collections.unmodifiableMap(byName);
+        this.ordersCompleted = new AtomicLong();
+    }
+
+    public Stage getStage(String name) {
+        Stage stage = stages.get(name);
+        if (stage == null) {
+            throw new IllegalArgumentException("Неизвестный этап: " + name);
+        }
+        return stage;
+    }
+
+    public Map<String, Stage> getStages() {
+        return stages;
+    }
+
+    public void orderCompleted() {
+        ordersCompleted.incrementAndGet();
+    }
+
+    public long getOrdersCompleted() {
+        return ordersCompleted.get();
+    }
+
+    /**
+     * Заказов, прошедших все этапы, в секунду реального времени
+     */
+    public double getThroughputPerSecond() {
+        return wallTimeNanos == 0 ? 0 : ordersCompleted.get() * 1_000_000_000.0 / wallTimeNanos;
+    }
+
+    /**
+     * Ошибки всех этапов и заказы, не завершенные за время ожидания
+     */
+    public long getTotalErrors() {
+        long total = ordersUnfinished;
+        for (Stage stage : stages.values()) {
+            total += stage.getErrorCount();
+        }
+        return total;
+    }
+
+    /**
+     * Статистика этапа: задержка от постановки в очередь этапа до завершения и ошибки по причинам
+     */
+    public static class Stage {
+        private final String name;
+        private final LatencyHistogram latency;
+        private final Map<String, AtomicLong> errors;
+
+        Stage(String name) {
+            this.name = name;
+            this.latency = new LatencyHistogram();
+            this.errors = new ConcurrentHashMap<>();
+        }
+
+        public void recordError(String reason) {
+            errors.computeIfAbsent(reason, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        public long getErrorCount() {
+            long total = 0;
+            for (AtomicLong count : errors.values()) {
+                total += count.get();
+            }
+            return total;
+        }
+
+        public Map<String, Long> getErrors() {
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            for (Map.Entry<String, AtomicLong> entry : errors.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue().get());
+            }
+            return snapshot;
+        }
+
+        public String getName() { return name; }
+
+        public LatencyHistogram getLatency() { return latency; }
+    }
+
+    // Getters and Setters
+    public long getOrdersSubmitted() { return ordersSubmitted; }
+    public void setOrdersSubmitted(long ordersSubmitted) { this.ordersSubmitted = ordersSubmitted; }
+
+    public long getOrdersUnfinished() { return ordersUnfinished; }
+    public void setOrdersUnfinished(long ordersUnfinished) { this.ordersUnfinished = ordersUnfinished; }
+
+    public long getWallTimeNanos() { return wallTimeNanos; }
+    public void setWallTimeNanos(long wallTimeNanos) { this.wallTimeNanos = wallTimeNanos; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Заказов: %d, выполнено: %d, ошибок: %d, %.1f заказов/с за %.2f с%n",
+            ordersSubmitted, getOrdersCompleted(), getTotalErrors(), getThroughputPerSecond(),
+            wallTimeNanos / 1_000_000_000.0));
+        if (ordersUnfinished > 0) {
+            sb.append(String.format("  не завершено за время ожидания: %d%n", ordersUnfinished));
+        }
+        for (Stage stage : stages.values()) {
+            sb.append(String.format("  %-10s %s%n", stage.getName(), stage.getLatency()));
+            for (Map.Entry<String, Long> error : stage.getErrors().entrySet()) {
+                sb.append(String.format("             ошибка: %s - %d%n", error.getKey(), error.getValue()));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.pizzeria.model;
+
+/**
+ * Класс рекомендации по пополнению запаса ингредиента
+ */
+public class RestockSuggestion {
+    private final String ingredientName;
+    private final int currentQuantity;
+    private final double consumptionPerHour;
+    private final double hoursToStockout;
+    private final int suggestedQuantity;
+
+    public RestockSuggestion(String ingredientName, int currentQuantity, double consumptionPerHour,
+                             double hoursToStockout, int suggestedQuantity) {
+        this.ingredientName = ingredientName;
+        this.currentQuantity = currentQuantity;
+        this.consumptionPerHour = consumptionPerHour;
+        this.hoursToStockout = hoursToStockout;
+        this.suggestedQuantity = suggestedQuantity;
+    }
+
+    // Getters
+    public String getIngredientName() { return ingredientName; }
+
+    public int getCurrentQuantity() { return currentQuantity; }
+
+    public double getConsumptionPerHour() { return consumptionPerHour; }
+
+    public double getHoursToStockout() { return hoursToStockout; }
+
+    public int getSuggestedQuantity() { return suggestedQuantity; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: остаток %d, расход %.1f/ч, закончится через %.1f ч, заказать %d",
+            ingredientName, currentQuantity, consumptionPerHour, hoursToStockout, suggestedQuantity);
+    }
+}
@@ -0,0 +1,140 @@
+package com.pizzeria.model;
+
+/**
+ * Класс итогов моделирования работы пиццерии.
+ * Длины очередей усреднены по виртуальному времени, загрузка - доля занятого времени ресурса.
+ */
+public class SimulationReport {
+    private final double simulatedHours;
+    private final long wallTimeNanos;
+    private long ordersArrived;
+    private long ordersAccepted;
+    private long ordersDeferred;
+    private long ordersRejected;
+    private long ordersOutOfStock;
+    private long ordersCompleted;
+    private long deliveries;
+    private long deliveriesOnTime;
+    private double averageKitchenQueue;
+    private int maxKitchenQueue;
+    private double averageOvenQueue;
+    private int maxOvenQueue;
+    private double averageDeliveryQueue;
+    private int maxDeliveryQueue;
+    private double chefUtilization;
+    private double ovenUtilization;
+    private double driverUtilization;
+    private int medianMinutesToCustomer;
+    private int p95MinutesToCustomer;
+
+    public SimulationReport(double simulatedHours, long wallTimeNanos) {
+        this.simulatedHours = simulatedHours;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    /**
+     * Доля доставок, уложившихся в оценку DeliveryInfo
+     */
+    public double getOnTimeRate() {
+        return deliveries == 0 ? 1.0 : (double) deliveriesOnTime / deliveries;
+    }
+
+    /**
+     * Скорость моделирования: заказов в секунду реального времени
+     */
+    public double getOrdersPerSecond() {
+        return wallTimeNanos == 0 ? 0 : ordersArrived * 1_000_000_000.0 / wallTimeNanos;
+    }
+
+    public void setOrderCounts(long arrived, long accepted, long deferred, long rejected, long outOfStock, long completed) {
+        this.ordersArrived = arrived;
+        this.ordersAccepted = accepted;
+        this.ordersDeferred = deferred;
+        this.ordersRejected = rejected;
+        this.ordersOutOfStock = outOfStock;
+        this.ordersCompleted = completed;
+    }
+
+    public void setDeliveryCounts(long deliveries, long onTime) {
+        this.deliveries = deliveries;
+        this.deliveriesOnTime = onTime;
+    }
+
+    public void setQueues(double kitchenAverage, int kitchenMax, double ovenAverage, int ovenMax,
+                          double deliveryAverage, int deliveryMax) {
+        this.averageKitchenQueue = kitchenAverage;
+        this.maxKitchenQueue = kitchenMax;
+        this.averageOvenQueue = ovenAverage;
+        this.maxOvenQueue = ovenMax;
+        this.averageDeliveryQueue = deliveryAverage;
+        this.maxDeliveryQueue = deliveryMax;
+    }
+
+    public void setUtilization(double chefs, double ovens, double drivers) {
+        this.chefUtilization = chefs;
+        this.ovenUtilization = ovens;
+        this.driverUtilization = drivers;
+    }
+
+    public void setMinutesToCustomer(int median, int p95) {
+        this.medianMinutesToCustomer = median;
+        this.p95MinutesToCustomer = p95;
+    }
+
+    // Getters
+    public double getSimulatedHours() { return simulatedHours; }
+
+    public long getWallTimeNanos() { return wallTimeNanos; }
+
+    public long getOrdersArrived() { return ordersArrived; }
+
+    public long getOrdersAccepted() { return ordersAccepted; }
+
+    public long getOrdersDeferred() { return ordersDeferred; }
+
+    public long getOrdersRejected() { return ordersRejected; }
+
+    public long getOrdersOutOfStock() { return ordersOutOfStock; }
+
+    public long getOrdersCompleted() { return ordersCompleted; }
+
+    public long getDeliveries() { return deliveries; }
+
+    public long getDeliveriesOnTime() { return deliveriesOnTime; }
+
+    public double getAverageKitchenQueue() { return averageKitchenQueue; }
+
+    public int getMaxKitchenQueue() { return maxKitchenQueue; }
+
+    public double getAverageOvenQueue() { return averageOvenQueue; }
+
+    public int getMaxOvenQueue() { return maxOvenQueue; }
+
+    public double getAverageDeliveryQueue() { return averageDeliveryQueue; }
+
+    public int getMaxDeliveryQueue() { return maxDeliveryQueue; }
+
+    public double getChefUtilization() { return chefUtilization; }
+
+    public double getOvenUtilization() { return ovenUtilization; }
+
+    public double getDriverUtilization() { return driverUtilization; }
+
+    public int getMedianMinutesToCustomer() { return medianMinutesToCustomer; }
+
+    public int getP95MinutesToCustomer() { return p95MinutesToCustomer; }
+
+    @Override
+    public String toString() {
+        return String.format("Моделирование %.1f ч: заказов %d (принято %d, отложено %d, отклонено %d, нет ингредиентов %d),"
+                + " выполнено %d%n"
+                + "Очереди (средняя/макс): кухня %.1f/%d, печи %.1f/%d, доставка %.1f/%d%n"
+                + "Загрузка: повара %.0f%%, печи %.0f%%, водители %.0f%%%n"
+                + "Доставок %d, вовремя %.1f%%, до клиента p50/p95: %d/%d мин",
+            simulatedHours, ordersArrived, ordersAccepted, ordersDeferred, ordersRejected, ordersOutOfStock,
+            ordersCompleted, averageKitchenQueue, maxKitchenQueue, averageOvenQueue, maxOvenQueue,
+            averageDeliveryQueue, maxDeliveryQueue, chefUtilization * 100, ovenUtilization * 100,
+            driverUtilization * 100, deliveries, getOnTimeRate() * 100,
+            medianMinutesToCustomer, p95MinutesToCustomer);
+    }
+}
@@ -0,0 +1,121 @@
+package com.pizzeria.model;
+
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.enums.TaxMode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс расчета налогов и сборов по заказу: суммы по позициям, налог по категориям и итог.
+ * Суммы позиций уже учитывают скидку заказа
+ */
+public class TaxBreakdown {
+    private final TaxMode mode;
+    private final List<Line> lines;
+    private final Map<ProductCategory, Double> taxByCategory;
+    private double net;
+    private double tax;
+    private double deliveryNet;
+    private double deliveryTax;
+    private double serviceFee;
+
+    /**
+     * Позиция заказа с налогом
+     */
+    public static class Line {
+        private final OrderItem item;
+        private final ProductCategory category;
+        private final double rate;
+        private final double net;
+        private final double tax;
+
+        Line(OrderItem item, ProductCategory category, double rate, double net, double tax) {
+            this.item = item;
+            this.category = category;
+            this.rate = rate;
+            this.net = net;
+            this.tax = tax;
+        }
+
+        public OrderItem getItem() { return item; }
+
+        public ProductCategory getCategory() { return category; }
+
+        /**
+         * Ставка налога в процентах
+         */
+        public double getRate() { return rate; }
+
+        public double getNet() { return net; }
+
+        public double getTax() { return tax; }
+
+        public double getGross() { return net + tax; }
+    }
+
+    public TaxBreakdown(TaxMode mode, int expectedLines) {
+        this.mode = mode;
+        this.lines = new ArrayList<>(expectedLines);
+        this.taxByCategory = new EnumMap<>(ProductCategory.class);
+    }
+
+    public void addLine(OrderItem item, ProductCategory category, double rate, double net, double tax) {
+        lines.add(new Line(item, category, rate, net, tax));
+        this.net += net;
+    }
+
+    public void setCategoryTax(ProductCategory category, double categoryTax) {
+        taxByCategory.put(category, categoryTax);
+        tax += categoryTax;
+    }
+
+    public void setDelivery(double deliveryNet, double deliveryTax) {
+        this.deliveryNet = deliveryNet;
+        this.deliveryTax = deliveryTax;
+        this.tax += deliveryTax;
+    }
+
+    public void setServiceFee(double serviceFee) {
+        this.serviceFee = serviceFee;
+    }
+
+    /**
+     * Сумма к оплате: позиции и доставка с налогом плюс сервисный сбор
+     */
+    public double getTotal() {
+        return Math.round((net + deliveryNet + tax + serviceFee) * 100) / 100.0;
+    }
+
+    // Getters
+    public TaxMode getMode() { return mode; }
+
+    public List<Line> getLines() { return Collections.unmodifiableList(lines); }
+
+    public Map<ProductCategory, Double> getTaxByCategory() { return Collections.unmodifiableMap(taxByCategory); }
+
+    /**
+     * Позиции без налога
+     */
+    public double getNet() { return net; }
+
+    /**
+     * Налог по позициям и доставке
+     */
+    public double getTax() { return tax; }
+
+    public double getDeliveryNet() { return deliveryNet; }
+
+    public double getDeliveryTax() { return deliveryTax; }
+
+    public double getServiceFee() { return serviceFee; }
+
+    @Override
+    public String toString() {
+        return String.format("Без налога: %.2f руб., налог: %.2f руб., сбор: %.2f руб., итого: %.2f руб.",
+            net + deliveryNet, tax, serviceFee, getTotal());
+    }
+}
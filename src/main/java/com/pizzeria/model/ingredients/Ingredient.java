@@ -1,6 +1,7 @@
 package com.pizzeria.model.ingredients;
 
 import com.pizzeria.exceptions.InvalidPriceException;
+import com.pizzeria.interfaces.IngredientChangeListener;
 
 /**
  * Абстрактный класс ингредиента
@@ -12,6 +13,7 @@ public abstract class Ingredient {
     protected String unit;
     protected boolean isVegetarian;
     protected int calories;
+    private IngredientChangeListener changeListener;
 
     public Ingredient(String name, double pricePerUnit, String unit) throws InvalidPriceException {
         if (pricePerUnit <= 0) {
@@ -30,11 +32,11 @@ public abstract class Ingredient {
     }
 
     public void addStock(int amount) {
-        this.quantity += amount;
+        setQuantity(quantity + amount);
     }
 
     public void removeStock(int amount) {
-        this.quantity -= amount;
+        setQuantity(quantity - amount);
     }
 
     public double calculateCost(int amount) {
@@ -46,10 +48,18 @@ public abstract class Ingredient {
     public void setName(String name) { this.name = name; }
 
     public double getPricePerUnit() { return pricePerUnit; }
-    public void setPricePerUnit(double pricePerUnit) { this.pricePerUnit = pricePerUnit; }
+    public void setPricePerUnit(double pricePerUnit) {
+        double oldPricePerUnit = this.pricePerUnit;
+        this.pricePerUnit = pricePerUnit;
+        notifyChanged(quantity, oldPricePerUnit);
+    }
 
     public int getQuantity() { return quantity; }
-    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public void setQuantity(int quantity) {
+        int oldQuantity = this.quantity;
+        this.quantity = quantity;
+        notifyChanged(oldQuantity, pricePerUnit);
+    }
 
     public String getUnit() { return unit; }
     public void setUnit(String unit) { this.unit = unit; }
@@ -60,6 +70,20 @@ public abstract class Ingredient {
     public int getCalories() { return calories; }
     public void setCalories(int calories) { this.calories = calories; }
 
+    /**
+     * Слушатель изменений; у ингредиента один слушатель - склад, на котором он хранится
+     */
+    public IngredientChangeListener getChangeListener() { return changeListener; }
+    public void setChangeListener(IngredientChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void notifyChanged(int oldQuantity, double oldPricePerUnit) {
+        if (changeListener != null) {
+            changeListener.onIngredientChanged(this, oldQuantity, oldPricePerUnit);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("%s (%d %s)", name, quantity, unit);
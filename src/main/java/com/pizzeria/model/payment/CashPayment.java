@@ -44,4 +44,5 @@ public class CashPayment extends Payment {
     public void setAmountReceived(double amountReceived) { this.amountReceived = amountReceived; }
 
     public double getChange() { return change; }
+    public void setChange(double change) { this.change = change; }
 }
@@ -2,6 +2,7 @@ package com.pizzeria.model.payment;
 
 import com.pizzeria.enums.PaymentMethod;
 import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.util.IdGenerator;
 
 /**
  * Онлайн оплата
@@ -42,7 +43,7 @@ public class OnlinePayment extends Payment {
     }
 
     private String generateConfirmationCode() {
-        return "CONF-" + System.currentTimeMillis();
+        return IdGenerator.generateTransactionId("CONF");
     }
 
     public boolean verifyConfirmationCode(String code) {
@@ -57,4 +58,5 @@ public class OnlinePayment extends Payment {
     public void setPaymentGateway(String paymentGateway) { this.paymentGateway = paymentGateway; }
 
     public String getConfirmationCode() { return confirmationCode; }
+    public void setConfirmationCode(String confirmationCode) { this.confirmationCode = confirmationCode; }
 }
@@ -2,6 +2,7 @@ package com.pizzeria.model.payment;
 
 import com.pizzeria.enums.PaymentMethod;
 import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDateTime;
 
@@ -22,7 +23,7 @@ public abstract class Payment {
         this.transactionId = transactionId;
         this.amount = amount;
         this.method = method;
-        this.paymentTime = LocalDateTime.now();
+        this.paymentTime = ClockProvider.now();
         this.isSuccessful = false;
     }
 
@@ -50,4 +51,9 @@ public abstract class Payment {
 
     public boolean isSuccessful() { return isSuccessful; }
     protected void setSuccessful(boolean successful) { isSuccessful = successful; }
+
+    /**
+     * Восстановить результат обработки при чтении сохраненного платежа
+     */
+    public void restoreSuccessful(boolean successful) { isSuccessful = successful; }
 }
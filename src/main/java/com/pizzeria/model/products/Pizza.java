@@ -7,6 +7,7 @@ import com.pizzeria.interfaces.Cookable;
 import com.pizzeria.model.ingredients.Ingredient;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -46,10 +47,34 @@ public abstract class Pizza extends Product implements Cookable {
             ingredient.removeStock(1);
         }
 
-        isReady = true;
+        markReady();
         return cookingTime;
     }
 
+    /**
+     * Приготовить пиццу без списания прикрепленных ингредиентов:
+     * на кухне расход списывается со склада по рецепту
+     */
+    public int bake() {
+        markReady();
+        return cookingTime;
+    }
+
+    /**
+     * Общая пицца каталога не бывает готовой: готовность учитывает позиция заказа
+     */
+    private void markReady() {
+        if (!shared) {
+            isReady = true;
+        }
+    }
+
+    @Override
+    public void share() {
+        super.share();
+        ingredients = Collections.unmodifiableList(ingredients);
+    }
+
     @Override
     public boolean isReady() {
         return isReady;
@@ -71,10 +96,12 @@ public abstract class Pizza extends Product implements Cookable {
     }
 
     public void addIngredient(Ingredient ingredient) {
+        checkNotShared();
         ingredients.add(ingredient);
     }
 
     public void removeIngredient(Ingredient ingredient) {
+        checkNotShared();
         ingredients.remove(ingredient);
     }
 
@@ -85,11 +112,11 @@ public abstract class Pizza extends Product implements Cookable {
 
     // Getters and Setters
     public PizzaSize getSize() { return size; }
-    public void setSize(PizzaSize size) { this.size = size; }
+    public void setSize(PizzaSize size) { checkNotShared(); this.size = size; }
 
     public List<Ingredient> getIngredients() { return ingredients; }
-    public void setIngredients(List<Ingredient> ingredients) { this.ingredients = ingredients; }
+    public void setIngredients(List<Ingredient> ingredients) { checkNotShared(); this.ingredients = ingredients; }
 
     public int getCookingTime() { return cookingTime; }
-    public void setCookingTime(int cookingTime) { this.cookingTime = cookingTime; }
+    public void setCookingTime(int cookingTime) { checkNotShared(); this.cookingTime = cookingTime; }
 }
@@ -12,6 +12,7 @@ public abstract class Product implements Payable {
     protected double discountPercentage;
     protected String description;
     protected boolean isAvailable;
+    protected boolean shared;
 
     public Product(String name, double basePrice) throws InvalidPriceException {
         if (basePrice < 0) {
@@ -30,6 +31,7 @@ public abstract class Product implements Payable {
 
     @Override
     public void applyDiscount(double discountPercentage) {
+        checkNotShared();
         this.discountPercentage = discountPercentage;
     }
 
@@ -38,23 +40,42 @@ public abstract class Product implements Payable {
         return basePrice * (1 - discountPercentage / 100.0);
     }
 
+    /**
+     * Сделать продукт общим описанием для многих заказов (flyweight из ProductCatalog).
+     * Название, цена и состав больше не меняются, состояние конкретной позиции хранит OrderItem.
+     */
+    public void share() {
+        shared = true;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    protected void checkNotShared() {
+        if (shared) {
+            throw new IllegalStateException("Общий продукт каталога не изменяется: " + name);
+        }
+    }
+
     public abstract int getPreparationTime();
     public abstract int getCalories();
 
     // Getters and Setters
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) { checkNotShared(); this.name = name; }
 
     public double getBasePrice() { return basePrice; }
-    public void setBasePrice(double basePrice) { this.basePrice = basePrice; }
+    public void setBasePrice(double basePrice) { checkNotShared(); this.basePrice = basePrice; }
 
     public double getDiscountPercentage() { return discountPercentage; }
     public void setDiscountPercentage(double discountPercentage) {
+        checkNotShared();
         this.discountPercentage = discountPercentage;
     }
 
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { checkNotShared(); this.description = description; }
 
     public boolean isAvailable() { return isAvailable; }
     public void setAvailable(boolean available) { isAvailable = available; }
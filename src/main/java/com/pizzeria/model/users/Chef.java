@@ -34,6 +34,15 @@ public class Chef extends Employee {
         return cookingTime;
     }
 
+    /**
+     * Приготовить пиццу, ингредиенты для которой уже списаны со склада
+     */
+    public int bakePizza(Pizza pizza) {
+        int cookingTime = pizza.bake();
+        pizzasCooked++;
+        return cookingTime;
+    }
+
     public boolean canCookPizza(String pizzaType) {
         if (specialty != null && specialty.equalsIgnoreCase(pizzaType)) {
             return true;
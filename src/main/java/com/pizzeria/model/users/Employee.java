@@ -3,6 +3,7 @@ package com.pizzeria.model.users;
 import com.pizzeria.enums.EmployeeRole;
 import com.pizzeria.exceptions.InvalidAuthenticationException;
 import com.pizzeria.interfaces.Authenticatable;
+import com.pizzeria.util.ClockProvider;
 
 import java.time.LocalDate;
 
@@ -20,7 +21,7 @@ public abstract class Employee extends Person implements Authenticatable {
         super(id, firstName, lastName);
         this.role = role;
         this.salary = salary;
-        this.hireDate = LocalDate.now();
+        this.hireDate = ClockProvider.today();
         this.password = "default123"; // дефолтный пароль
         this.isActive = true;
     }
@@ -52,7 +53,7 @@ public abstract class Employee extends Person implements Authenticatable {
     public abstract void performDuty();
 
     public int getYearsOfService() {
-        return LocalDate.now().getYear() - hireDate.getYear();
+        return ClockProvider.today().getYear() - hireDate.getYear();
     }
 
     public double calculateBonus() {
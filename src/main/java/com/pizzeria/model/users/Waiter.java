@@ -31,6 +31,7 @@ public class Waiter extends Employee {
 
     public void takeOrder(Order order) {
         currentOrders.add(order);
+        order.setServedBy(this);
         System.out.println(getFullName() + " принял заказ #" + order.getId());
     }
 
@@ -0,0 +1,164 @@
+package com.pizzeria.service;
+
+import com.pizzeria.interfaces.StockListener;
+import com.pizzeria.model.CompiledRecipe;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Menu;
+import com.pizzeria.model.Recipe;
+import com.pizzeria.model.RecipeBook;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис доступности пицц в меню по остаткам склада.
+ * Для каждой ячейки склада хранится обратный индекс - пиццы, которым нужен этот ингредиент,
+ * и расход на одну пиццу ее размера. Изменение запаса затрагивает только эти пиццы:
+ * у каждой ведется счетчик ингредиентов, которых не хватает на одну порцию,
+ * и доступность переключается, когда счетчик становится нулевым или перестает им быть.
+ * Ручное изменение Product.setAvailable сохраняется до следующего такого переключения.
+ */
+public class AvailabilityService implements StockListener {
+    private final Inventory inventory;
+    private final RecipeBook recipeBook;
+    private final Map<Integer, List<Requirement>> requirementsBySlot;
+    private final Map<Product, TrackedProduct> trackedProducts;
+
+    public AvailabilityService(Inventory inventory, RecipeBook recipeBook) {
+        this.inventory = inventory;
+        this.recipeBook = recipeBook;
+        this.requirementsBySlot = new HashMap<>();
+        this.trackedProducts = new IdentityHashMap<>();
+        inventory.addStockListener(this);
+    }
+
+    /**
+     * Отслеживать все пиццы меню
+     */
+    public void track(Menu menu) {
+        for (Product product : menu.getProducts()) {
+            track(product);
+        }
+    }
+
+    /**
+     * Отслеживать доступность продукта; продукты без рецепта (напитки, десерты) не отслеживаются.
+     * После изменения рецепта или состава пиццы продукт нужно передать сюда повторно.
+     */
+    public void track(Product product) {
+        if (!(product instanceof Pizza)) {
+            return;
+        }
+        Pizza pizza = (Pizza) product;
+        Recipe recipe = recipeBook.getRecipe(pizza.getName());
+        CompiledRecipe compiled = (recipe != null ? recipe : Recipe.fromIngredients(pizza)).compile(inventory);
+
+        // порядок блокировок как у событий склада: сначала склад, затем сервис
+        synchronized (inventory) {
+            synchronized (this) {
+                untrack(product);
+                TrackedProduct tracked = new TrackedProduct(product);
+                for (int i = 0; i < compiled.getIngredientCount(); i++) {
+                    int amount = compiled.getAmount(i, pizza.getSize());
+                    if (amount == 0) {
+                        continue;
+                    }
+                    int slot = compiled.getSlot(i);
+                    Requirement requirement = new Requirement(tracked, amount);
+                    requirement.sufficient = inventory.getQuantity(slot) >= amount;
+                    if (!requirement.sufficient) {
+                        tracked.missing++;
+                    }
+                    requirementsBySlot.computeIfAbsent(slot, k -> new ArrayList<>()).add(requirement);
+                    tracked.slots.add(slot);
+                }
+                trackedProducts.put(product, tracked);
+                product.setAvailable(tracked.missing == 0);
+            }
+        }
+    }
+
+    public synchronized void untrack(Product product) {
+        TrackedProduct tracked = trackedProducts.remove(product);
+        if (tracked == null) {
+            return;
+        }
+        for (int slot : tracked.slots) {
+            List<Requirement> requirements = requirementsBySlot.get(slot);
+            requirements.removeIf(requirement -> requirement.product == tracked);
+            if (requirements.isEmpty()) {
+                requirementsBySlot.remove(slot);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onQuantityChanged(String ingredientName, int slot, int oldQuantity, int newQuantity) {
+        List<Requirement> requirements = requirementsBySlot.get(slot);
+        if (requirements == null) {
+            return;
+        }
+        for (Requirement requirement : requirements) {
+            boolean sufficient = newQuantity >= requirement.amount;
+            if (sufficient == requirement.sufficient) {
+                continue;
+            }
+            requirement.sufficient = sufficient;
+            TrackedProduct tracked = requirement.product;
+            tracked.missing += sufficient ? -1 : 1;
+            if (tracked.missing == 0) {
+                tracked.product.setAvailable(true);
+            } else if (tracked.missing == 1 && !sufficient) {
+                tracked.product.setAvailable(false);
+                System.out.println("Недоступно в меню: " + tracked.product.getName()
+                    + " (не хватает: " + ingredientName + ")");
+            }
+        }
+    }
+
+    /**
+     * Число ингредиентов, которых не хватает на одну порцию продукта
+     * @return 0, если продукт не отслеживается
+     */
+    public synchronized int getMissingIngredientsCount(Product product) {
+        TrackedProduct tracked = trackedProducts.get(product);
+        return tracked != null ? tracked.missing : 0;
+    }
+
+    public synchronized int getTrackedCount() {
+        return trackedProducts.size();
+    }
+
+    /**
+     * Отслеживаемый продукт и число ингредиентов, которых не хватает на порцию
+     */
+    private static class TrackedProduct {
+        private final Product product;
+        private final List<Integer> slots;
+        private int missing;
+
+        TrackedProduct(Product product) {
+            this.product = product;
+            this.slots = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Запись обратного индекса: продукту нужно amount единиц ингредиента ячейки
+     */
+    private static class Requirement {
+        private final TrackedProduct product;
+        private final int amount;
+        private boolean sufficient;
+
+        Requirement(TrackedProduct product, int amount) {
+            this.product = product;
+            this.amount = amount;
+        }
+    }
+}
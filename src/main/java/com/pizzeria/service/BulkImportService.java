@@ -0,0 +1,258 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.factory.PizzaFactory;
+import com.pizzeria.model.Email;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Menu;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.Appetizer;
+import com.pizzeria.model.products.Dessert;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.CsvRecordParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Массовая загрузка меню, ингредиентов и клиентов из CSV файлов.
+ * Файл отображается в память и делится на части по границам строк,
+ * части разбираются параллельно.
+ *
+ * Форматы записей:
+ * <pre>
+ * меню:        pizza,тип,РАЗМЕР | drink,название,цена,объем | dessert,название,цена,вес | appetizer,название,цена
+ * ингредиенты: категория,название,количество[,цена за единицу]
+ * клиенты:     id,имя,фамилия[,телефон[,email[,номер карты лояльности]]]
+ * </pre>
+ */
+public class BulkImportService {
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final PizzaFactory pizzaFactory;
+    private final IngredientFactory ingredientFactory;
+
+    public BulkImportService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BulkImportService(ForkJoinPool pool) {
+        this.pool = pool;
+        this.pizzaFactory = new PizzaFactory();
+        this.ingredientFactory = new IngredientFactory();
+    }
+
+    /**
+     * Загрузить продукты в меню (в порядке следования в файле)
+     * @return количество добавленных продуктов
+     */
+    public int loadMenu(Path file, Menu menu) throws IOException {
+        List<Product> products = parseAll(file, this::parseProduct);
+        for (Product product : products) {
+            menu.addProduct(product);
+        }
+        return products.size();
+    }
+
+    /**
+     * Загрузить ингредиенты на склад
+     * @return количество добавленных ингредиентов
+     */
+    public int loadIngredients(Path file, Inventory inventory) throws IOException {
+        List<Ingredient> ingredients = parseAll(file, this::parseIngredient);
+        for (Ingredient ingredient : ingredients) {
+            inventory.addIngredient(ingredient);
+        }
+        return ingredients.size();
+    }
+
+    /**
+     * Загрузить клиентов в реестр; части файла регистрируются параллельно
+     * @return количество зарегистрированных клиентов (дубликаты ID пропускаются)
+     */
+    public int loadCustomers(Path file, CustomerRegistry registry) throws IOException {
+        AtomicInteger registered = new AtomicInteger();
+        forEachChunk(file, (buffer, start, end) -> {
+            new CsvRecordParser().parse(buffer, start, end, fields -> {
+                if (registry.register(parseCustomer(fields))) {
+                    registered.incrementAndGet();
+                }
+            });
+            return null;
+        });
+        return registered.get();
+    }
+
+    /**
+     * Загрузить меню, склад и клиентов одновременно
+     */
+    public void loadAll(Path menuFile, Menu menu, Path ingredientsFile, Inventory inventory,
+                        Path customersFile, CustomerRegistry registry) throws IOException {
+        CompletableFuture<Void> menuLoad = CompletableFuture.runAsync(
+            () -> unchecked(() -> loadMenu(menuFile, menu)), pool);
+        CompletableFuture<Void> inventoryLoad = CompletableFuture.runAsync(
+            () -> unchecked(() -> loadIngredients(ingredientsFile, inventory)), pool);
+        CompletableFuture<Void> customersLoad = CompletableFuture.runAsync(
+            () -> unchecked(() -> loadCustomers(customersFile, registry)), pool);
+        join(CompletableFuture.allOf(menuLoad, inventoryLoad, customersLoad));
+    }
+
+    private Product parseProduct(String[] fields) {
+        try {
+            switch (fields[0].trim().toLowerCase()) {
+                case "pizza":
+                    requireFields(fields, 3);
+                    return pizzaFactory.createPizza(fields[1].trim(), PizzaSize.valueOf(fields[2].trim()));
+                case "drink":
+                    requireFields(fields, 4);
+                    return new Drink(fields[1], Double.parseDouble(fields[2]), Integer.parseInt(fields[3].trim()));
+                case "dessert":
+                    requireFields(fields, 4);
+                    return new Dessert(fields[1], Double.parseDouble(fields[2]), Integer.parseInt(fields[3].trim()));
+                case "appetizer":
+                    requireFields(fields, 3);
+                    return new Appetizer(fields[1], Double.parseDouble(fields[2]));
+                default:
+                    throw new IllegalArgumentException("Неизвестный тип продукта: " + fields[0]);
+            }
+        } catch (Exception e) {
+            throw invalidRecord(fields, e);
+        }
+    }
+
+    private Ingredient parseIngredient(String[] fields) {
+        try {
+            requireFields(fields, 3);
+            Ingredient ingredient = ingredientFactory.createIngredient(fields[0].trim(), fields[1]);
+            ingredient.setQuantity(Integer.parseInt(fields[2].trim()));
+            if (fields.length > 3 && !fields[3].isEmpty()) {
+                ingredient.setPricePerUnit(Double.parseDouble(fields[3]));
+            }
+            return ingredient;
+        } catch (Exception e) {
+            throw invalidRecord(fields, e);
+        }
+    }
+
+    private Customer parseCustomer(String[] fields) {
+        try {
+            requireFields(fields, 3);
+            Customer customer = new Customer(fields[0], fields[1], fields[2]);
+            if (fields.length > 3 && !fields[3].isEmpty()) {
+                customer.setPhoneNumber(new PhoneNumber(fields[3]));
+            }
+            if (fields.length > 4 && !fields[4].isEmpty()) {
+                customer.setEmail(new Email(fields[4]));
+            }
+            if (fields.length > 5 && !fields[5].isEmpty()) {
+                customer.setLoyaltyCard(new LoyaltyCard(fields[5]));
+            }
+            return customer;
+        } catch (Exception e) {
+            throw invalidRecord(fields, e);
+        }
+    }
+
+    private void requireFields(String[] fields, int count) {
+        if (fields.length < count) {
+            throw new IllegalArgumentException("ожидается полей: " + count + ", получено: " + fields.length);
+        }
+    }
+
+    private IllegalArgumentException invalidRecord(String[] fields, Exception cause) {
+        return new IllegalArgumentException(
+            "Некорректная запись '" + String.join(",", fields) + "': " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Разобрать файл параллельно, сохранив порядок записей
+     */
+    private <T> List<T> parseAll(Path file, Function<String[], T> mapper) throws IOException {
+        List<List<T>> parts = forEachChunk(file, (buffer, start, end) -> {
+            List<T> part = new ArrayList<>();
+            new CsvRecordParser().parse(buffer, start, end, fields -> part.add(mapper.apply(fields)));
+            return part;
+        });
+        List<T> result = new ArrayList<>();
+        for (List<T> part : parts) {
+            if (part != null) {
+                result.addAll(part);
+            }
+        }
+        return result;
+    }
+
+    private interface ChunkTask<R> {
+        R process(ByteBuffer buffer, int start, int end);
+    }
+
+    private <R> List<R> forEachChunk(Path file, ChunkTask<R> task) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Файл слишком большой для загрузки: " + file + " (" + size + " байт)");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int parts = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK_SIZE));
+            int[] bounds = CsvRecordParser.splitAtLines(buffer, parts);
+
+            List<CompletableFuture<R>> futures = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                int start = bounds[i];
+                int end = bounds[i + 1];
+                futures.add(CompletableFuture.supplyAsync(() -> task.process(buffer, start, end), pool));
+            }
+
+            List<R> results = new ArrayList<>(parts);
+            for (CompletableFuture<R> future : futures) {
+                results.add(join(future));
+            }
+            return results;
+        }
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static void unchecked(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
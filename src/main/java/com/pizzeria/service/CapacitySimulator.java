@@ -0,0 +1,549 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.AdmissionDecision;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InsufficientIngredientsException;
+import com.pizzeria.exceptions.InvalidDeliveryAddressException;
+import com.pizzeria.exceptions.InvalidPriceException;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.AdmissionController;
+import com.pizzeria.model.ArrivalProfile;
+import com.pizzeria.model.DeliveryInfo;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.SimulationReport;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.MeatLoversPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.VeggiePizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.VirtualClock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Событийное моделирование пиццерии в виртуальном времени для планирования мощностей.
+ * Заказы приходят неоднородным пуассоновским потоком по ArrivalProfile и проходят этапы:
+ * прием (AdmissionController кухни), приготовление у повара со списанием ингредиентов со склада
+ * по рецептам кухни, выпечка в печи, доставка водителем DeliveryService или самовывоз.
+ * Повар занят заказом столько, сколько оценивает AdmissionController.estimateWorkMinutes,
+ * поэтому оценки ожидания при приеме согласованы с моделью.
+ * Число поваров и водителей берется из Kitchen и DeliveryService, печи задаются здесь.
+ * На время прогона часы потока, в котором он идет, подменяются на VirtualClock (ClockProvider.override):
+ * заказы и доставки прогона получают виртуальное время, а остальные потоки видят общие часы.
+ * DeliveryInfo создается, когда заказ готов к доставке, так что ожидание свободного водителя
+ * входит в срок доставки, а доля доставок вовремя считается самим DeliveryInfo.isOnTime.
+ * Объекты поваров и водителей не изменяются: занятость ведется в самом моделировании.
+ */
+public class CapacitySimulator {
+    private static final int ARRIVAL = 0;
+    private static final int PREP_DONE = 1;
+    private static final int BAKE_DONE = 2;
+    private static final int DELIVERED = 3;
+    private static final int DRIVER_BACK = 4;
+    private static final int MAX_TRACKED_MINUTES = 24 * 60;
+    private static final int ADDRESS_POOL_SIZE = 64;
+
+    private final Kitchen kitchen;
+    private final DeliveryService deliveryService;
+    private final List<OrderTemplate> templates;
+    private int ovenSlots;
+    private int bakeMinutesPerPizza;
+    private double deliveryShare;
+    private double maxDistanceKm;
+    private LocalDateTime startTime;
+
+    public CapacitySimulator(Kitchen kitchen, DeliveryService deliveryService) {
+        this.kitchen = kitchen;
+        this.deliveryService = deliveryService;
+        this.templates = new ArrayList<>();
+        this.ovenSlots = 8;
+        this.bakeMinutesPerPizza = 8;
+        this.deliveryShare = 0.7;
+        this.maxDistanceKm = 8;
+        this.startTime = LocalDateTime.of(2024, 1, 5, 0, 0);
+    }
+
+    /**
+     * Добавить типовой заказ; доля в потоке пропорциональна весу.
+     * Без типовых заказов используется стандартный набор пицц.
+     */
+    public void addOrderTemplate(List<OrderItem> items, double weight) {
+        if (items.isEmpty() || weight <= 0) {
+            throw new IllegalArgumentException("Типовой заказ должен содержать позиции и иметь положительный вес");
+        }
+        templates.add(new OrderTemplate(new ArrayList<>(items), weight));
+    }
+
+    /**
+     * Смоделировать работу пиццерии
+     * @param hours длительность потока заказов; заказы, принятые до конца потока, дорабатываются
+     * @param seed зерно генератора для воспроизводимости
+     */
+    public SimulationReport run(ArrivalProfile profile, double hours, long seed) {
+        if (hours <= 0) {
+            throw new IllegalArgumentException("Длительность моделирования должна быть положительной: " + hours);
+        }
+        if (templates.isEmpty()) {
+            addDefaultTemplates();
+        }
+        return new Run(profile, hours, seed).execute();
+    }
+
+    private void addDefaultTemplates() {
+        try {
+            addOrderTemplate(List.of(new OrderItem(new MargheritaPizza(PizzaSize.MEDIUM), 1)), 4);
+            addOrderTemplate(List.of(new OrderItem(new PepperoniPizza(PizzaSize.LARGE), 2)), 3);
+            addOrderTemplate(List.of(new OrderItem(new MeatLoversPizza(PizzaSize.MEDIUM), 1),
+                new OrderItem(new VeggiePizza(PizzaSize.MEDIUM), 1)), 2);
+            addOrderTemplate(List.of(new OrderItem(new MargheritaPizza(PizzaSize.SMALL), 1),
+                new OrderItem(new Drink("Кока-кола", 100.0, 500), 2)), 1);
+        } catch (InvalidPriceException e) {
+            throw new IllegalStateException("Некорректная цена стандартной пиццы", e);
+        }
+    }
+
+    private Address[] createAddresses(Random random) {
+        Address[] addresses = new Address[ADDRESS_POOL_SIZE];
+        for (int i = 0; i < addresses.length; i++) {
+            try {
+                addresses[i] = new Address("Моделируемая", String.valueOf(i + 1), "Москва", "101000");
+            } catch (InvalidDeliveryAddressException e) {
+                throw new IllegalStateException(e);
+            }
+            // Order.calculateDeliveryTime использует широту как расстояние в км
+            addresses[i].setLatitude(0.5 + random.nextDouble() * (maxDistanceKm - 0.5));
+        }
+        return addresses;
+    }
+
+    /**
+     * Типовой заказ с заранее рассчитанными трудоемкостью и расходом ингредиентов
+     */
+    private static class OrderTemplate {
+        private final List<OrderItem> items;
+        private final double weight;
+        private int pizzaCount;
+        private int workMinutes;
+        private int[] demand;
+
+        OrderTemplate(List<OrderItem> items, double weight) {
+            this.items = items;
+            this.weight = weight;
+        }
+
+        void prepare(Kitchen kitchen) {
+            Order sample = new Order("TEMPLATE", null);
+            sample.setItems(items);
+            workMinutes = AdmissionController.estimateWorkMinutes(sample);
+            demand = kitchen.calculateDemand(sample);
+            pizzaCount = 0;
+            for (OrderItem item : items) {
+                if (item.getProduct() instanceof Pizza) {
+                    pizzaCount += item.getQuantity();
+                }
+            }
+        }
+    }
+
+    /**
+     * Заказ в моделировании
+     */
+    private static class SimOrder {
+        private final Order order;
+        private final OrderTemplate template;
+        private final long arrivedAt;
+        private final boolean delivery;
+        private int pizzasInOven;
+        private DeliveryInfo deliveryInfo;
+
+        SimOrder(Order order, OrderTemplate template, long arrivedAt, boolean delivery) {
+            this.order = order;
+            this.template = template;
+            this.arrivedAt = arrivedAt;
+            this.delivery = delivery;
+        }
+    }
+
+    private static class Event implements Comparable<Event> {
+        private final long time;
+        private final long sequence;
+        private final int type;
+        private final SimOrder order;
+        private final int driver;
+
+        Event(long time, long sequence, int type, SimOrder order, int driver) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.order = order;
+            this.driver = driver;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Состояние одного прогона
+     */
+    private class Run {
+        private final ArrivalProfile profile;
+        private final long endOfArrivals;
+        private final Random random;
+        private final Random traffic;
+        private final double maxRatePerSecond;
+        private final double[] cumulativeWeights;
+        private final Address[] addresses;
+        private final AdmissionController admission;
+        private final int chefCount;
+        private final List<DeliveryDriver> drivers;
+        private final VirtualClock virtualClock = new VirtualClock(startTime);
+        private final PriorityQueue<Event> events = new PriorityQueue<>();
+        private final Deque<SimOrder> deferred = new ArrayDeque<>();
+        private final Deque<SimOrder> prepQueue = new ArrayDeque<>();
+        private final Deque<SimOrder> ovenQueue = new ArrayDeque<>();
+        private final Deque<SimOrder> deliveryQueue = new ArrayDeque<>();
+        private final Deque<Integer> freeDrivers = new ArrayDeque<>();
+        private final long[] minutesToCustomer = new long[MAX_TRACKED_MINUTES + 1];
+        private long sequence;
+        private long now;
+        private long lastEventTime;
+        private int freeChefs;
+        private int freeOvens;
+        private int inKitchen;
+        private int backlogMinutes;
+        private int deferredWorkMinutes;
+
+        private long arrived;
+        private long accepted;
+        private long deferredCount;
+        private long rejected;
+        private long outOfStock;
+        private long completed;
+        private long delivered;
+        private long onTime;
+        private double kitchenQueueArea;
+        private double ovenQueueArea;
+        private double deliveryQueueArea;
+        private double chefBusyArea;
+        private double ovenBusyArea;
+        private double driverBusyArea;
+        private int maxKitchenQueue;
+        private int maxOvenQueue;
+        private int maxDeliveryQueue;
+
+        Run(ArrivalProfile profile, double hours, long seed) {
+            this.profile = profile;
+            this.endOfArrivals = (long) (hours * 3600);
+            // отдельный генератор для дороги: при другом штате поток заказов тот же
+            this.random = new Random(seed);
+            this.traffic = new Random(~seed);
+            this.maxRatePerSecond = profile.getMaxRate() / 3600.0;
+            this.cumulativeWeights = new double[templates.size()];
+            double total = 0;
+            for (int i = 0; i < templates.size(); i++) {
+                templates.get(i).prepare(kitchen);
+                total += templates.get(i).weight;
+                cumulativeWeights[i] = total;
+            }
+            this.addresses = createAddresses(random);
+            this.admission = kitchen.getAdmissionController();
+            int activeChefs = 0;
+            for (Chef chef : kitchen.getChefs()) {
+                if (chef.isActive()) {
+                    activeChefs++;
+                }
+            }
+            this.chefCount = activeChefs;
+            this.drivers = new ArrayList<>(deliveryService.getDrivers());
+            this.freeChefs = chefCount;
+            this.freeOvens = ovenSlots;
+            for (int i = 0; i < drivers.size(); i++) {
+                freeDrivers.add(i);
+            }
+        }
+
+        SimulationReport execute() {
+            long started = System.nanoTime();
+            ClockProvider.Scope scope = ClockProvider.override(virtualClock);
+            try {
+                processEvents();
+            } finally {
+                scope.close();
+            }
+            return buildReport(System.nanoTime() - started);
+        }
+
+        private void processEvents() {
+            scheduleNextArrival(0);
+            while (!events.isEmpty()) {
+                Event event = events.poll();
+                advanceTo(event.time);
+                switch (event.type) {
+                    case ARRIVAL:
+                        onArrival();
+                        break;
+                    case PREP_DONE:
+                        onPrepDone(event.order);
+                        break;
+                    case BAKE_DONE:
+                        onBakeDone(event.order);
+                        break;
+                    case DELIVERED:
+                        onDelivered(event.order);
+                        break;
+                    default:
+                        freeDrivers.push(event.driver);
+                        dispatchDrivers();
+                }
+            }
+        }
+
+        private void schedule(long time, int type, SimOrder order, int driver) {
+            events.add(new Event(time, sequence++, type, order, driver));
+        }
+
+        /**
+         * Следующий заказ прореживанием: кандидаты с наибольшей интенсивностью,
+         * каждый принимается с вероятностью текущей интенсивности к наибольшей
+         */
+        private void scheduleNextArrival(long from) {
+            if (maxRatePerSecond <= 0) {
+                return;
+            }
+            double time = from;
+            while (true) {
+                time += -Math.log(1 - random.nextDouble()) / maxRatePerSecond;
+                if (time >= endOfArrivals) {
+                    return;
+                }
+                if (random.nextDouble() * maxRatePerSecond * 3600 <= profile.getRate(time / 3600)) {
+                    schedule((long) time, ARRIVAL, null, -1);
+                    return;
+                }
+            }
+        }
+
+        private void advanceTo(long time) {
+            long dt = time - lastEventTime;
+            if (dt > 0) {
+                kitchenQueueArea += dt * (double) (prepQueue.size() + deferred.size());
+                ovenQueueArea += dt * (double) ovenQueue.size();
+                deliveryQueueArea += dt * (double) deliveryQueue.size();
+                chefBusyArea += dt * (double) (chefCount - freeChefs);
+                ovenBusyArea += dt * (double) (ovenSlots - freeOvens);
+                driverBusyArea += dt * (double) (drivers.size() - freeDrivers.size());
+                lastEventTime = time;
+            }
+            virtualClock.advanceMillis((time - now) * 1000);
+            now = time;
+        }
+
+        private void onArrival() {
+            scheduleNextArrival(now);
+            arrived++;
+            OrderTemplate template = pickTemplate();
+            Order order = new Order("SIM-" + arrived, null);
+            order.setItems(template.items);
+            boolean delivery = random.nextDouble() < deliveryShare;
+            if (delivery) {
+                try {
+                    order.setDeliveryAddress(addresses[random.nextInt(addresses.length)]);
+                } catch (InvalidDeliveryAddressException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            SimOrder simOrder = new SimOrder(order, template, now, delivery);
+
+            AdmissionDecision decision = admission.decide(order, backlogMinutes + deferredWorkMinutes, chefCount,
+                inKitchen >= kitchen.getMaxCapacity(), deferred.size()).getDecision();
+            if (decision == AdmissionDecision.ACCEPTED) {
+                accepted++;
+                startOrder(simOrder);
+            } else if (decision == AdmissionDecision.DEFERRED) {
+                deferredCount++;
+                deferred.add(simOrder);
+                deferredWorkMinutes += template.workMinutes;
+                maxKitchenQueue = Math.max(maxKitchenQueue, prepQueue.size() + deferred.size());
+            } else {
+                rejected++;
+            }
+        }
+
+        private OrderTemplate pickTemplate() {
+            double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int index = Arrays.binarySearch(cumulativeWeights, pick);
+            index = index >= 0 ? index + 1 : -index - 1;
+            return templates.get(Math.min(index, templates.size() - 1));
+        }
+
+        private void startOrder(SimOrder order) {
+            inKitchen++;
+            backlogMinutes += order.template.workMinutes;
+            prepQueue.add(order);
+            maxKitchenQueue = Math.max(maxKitchenQueue, prepQueue.size() + deferred.size());
+            startChefs();
+        }
+
+        private void startChefs() {
+            while (freeChefs > 0 && !prepQueue.isEmpty()) {
+                SimOrder order = prepQueue.poll();
+                try {
+                    kitchen.getInventory().debit(order.template.demand);
+                } catch (InsufficientIngredientsException e) {
+                    outOfStock++;
+                    leaveKitchen(order);
+                    continue;
+                }
+                freeChefs--;
+                schedule(now + order.template.workMinutes * 60L, PREP_DONE, order, -1);
+            }
+        }
+
+        private void onPrepDone(SimOrder order) {
+            freeChefs++;
+            if (order.template.pizzaCount == 0) {
+                orderReady(order);
+            } else {
+                order.pizzasInOven = order.template.pizzaCount;
+                for (int i = 0; i < order.template.pizzaCount; i++) {
+                    ovenQueue.add(order);
+                }
+                maxOvenQueue = Math.max(maxOvenQueue, ovenQueue.size());
+                startOvens();
+            }
+            startChefs();
+        }
+
+        private void startOvens() {
+            while (freeOvens > 0 && !ovenQueue.isEmpty()) {
+                SimOrder order = ovenQueue.poll();
+                freeOvens--;
+                schedule(now + bakeMinutesPerPizza * 60L, BAKE_DONE, order, -1);
+            }
+        }
+
+        private void onBakeDone(SimOrder order) {
+            freeOvens++;
+            order.pizzasInOven--;
+            if (order.pizzasInOven == 0) {
+                orderReady(order);
+            }
+            startOvens();
+        }
+
+        private void orderReady(SimOrder order) {
+            leaveKitchen(order);
+            if (order.delivery) {
+                order.deliveryInfo = new DeliveryInfo(order.order, null);
+                deliveryQueue.add(order);
+                maxDeliveryQueue = Math.max(maxDeliveryQueue, deliveryQueue.size());
+                dispatchDrivers();
+            } else {
+                complete(order);
+            }
+        }
+
+        /**
+         * Заказ покинул кухню: освободилось место для отложенных
+         */
+        private void leaveKitchen(SimOrder order) {
+            inKitchen--;
+            backlogMinutes -= order.template.workMinutes;
+            while (!deferred.isEmpty() && inKitchen < kitchen.getMaxCapacity() && chefCount > 0) {
+                SimOrder next = deferred.poll();
+                deferredWorkMinutes -= next.template.workMinutes;
+                startOrder(next);
+            }
+        }
+
+        private void dispatchDrivers() {
+            while (!freeDrivers.isEmpty() && !deliveryQueue.isEmpty()) {
+                SimOrder order = deliveryQueue.poll();
+                int driver = freeDrivers.pop();
+                double distance = order.order.getDeliveryAddress().getLatitude();
+                // 30 км/ч с поправкой на пробки плюс передача заказа
+                long travel = (long) ((distance * 2 * (0.8 + traffic.nextDouble() * 0.7) + 3) * 60);
+                order.deliveryInfo.setDriver(drivers.get(driver));
+                schedule(now + travel, DELIVERED, order, driver);
+                schedule(now + 2 * travel, DRIVER_BACK, null, driver);
+            }
+        }
+
+        private void onDelivered(SimOrder order) {
+            order.deliveryInfo.setDeliveryTime(ClockProvider.now());
+            delivered++;
+            if (order.deliveryInfo.isOnTime()) {
+                onTime++;
+            }
+            complete(order);
+        }
+
+        private void complete(SimOrder order) {
+            completed++;
+            int minutes = (int) Math.min(MAX_TRACKED_MINUTES, (now - order.arrivedAt) / 60);
+            minutesToCustomer[minutes]++;
+        }
+
+        private int percentile(double share) {
+            long target = (long) Math.ceil(completed * share);
+            long seen = 0;
+            for (int minutes = 0; minutes < minutesToCustomer.length; minutes++) {
+                seen += minutesToCustomer[minutes];
+                if (seen >= target && seen > 0) {
+                    return minutes;
+                }
+            }
+            return 0;
+        }
+
+        private SimulationReport buildReport(long wallTimeNanos) {
+            double seconds = Math.max(1, lastEventTime);
+            SimulationReport report = new SimulationReport(seconds / 3600, wallTimeNanos);
+            report.setOrderCounts(arrived, accepted, deferredCount, rejected, outOfStock, completed);
+            report.setDeliveryCounts(delivered, onTime);
+            report.setQueues(kitchenQueueArea / seconds, maxKitchenQueue, ovenQueueArea / seconds, maxOvenQueue,
+                deliveryQueueArea / seconds, maxDeliveryQueue);
+            report.setUtilization(utilization(chefBusyArea, chefCount, seconds),
+                utilization(ovenBusyArea, ovenSlots, seconds), utilization(driverBusyArea, drivers.size(), seconds));
+            report.setMinutesToCustomer(percentile(0.5), percentile(0.95));
+            return report;
+        }
+
+        private double utilization(double busyArea, int resources, double seconds) {
+            return resources == 0 ? 0 : busyArea / (resources * seconds);
+        }
+    }
+
+    // Getters and Setters
+    public int getOvenSlots() { return ovenSlots; }
+    public void setOvenSlots(int ovenSlots) { this.ovenSlots = ovenSlots; }
+
+    public int getBakeMinutesPerPizza() { return bakeMinutesPerPizza; }
+    public void setBakeMinutesPerPizza(int bakeMinutesPerPizza) { this.bakeMinutesPerPizza = bakeMinutesPerPizza; }
+
+    public double getDeliveryShare() { return deliveryShare; }
+    public void setDeliveryShare(double deliveryShare) { this.deliveryShare = deliveryShare; }
+
+    public double getMaxDistanceKm() { return maxDistanceKm; }
+    public void setMaxDistanceKm(double maxDistanceKm) { this.maxDistanceKm = maxDistanceKm; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+}
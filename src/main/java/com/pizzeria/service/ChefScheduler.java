@@ -0,0 +1,203 @@
+package com.pizzeria.service;
+
+import com.pizzeria.model.PizzaTask;
+import com.pizzeria.model.users.Chef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Планировщик пицц между поварами с перехватом работы (work stealing).
+ * У каждого повара своя очередь задач. Новая задача попадает к наименее загруженному
+ * повару, который может ее приготовить (Chef.canCookPizza), причем повара со специализацией
+ * на этой пицце имеют приоритет. Повар берет задачи из начала своей очереди, а когда она пуста -
+ * перехватывает с конца очереди самого загруженного коллеги первую задачу, которую умеет готовить.
+ * Очереди потокобезопасны: повара могут работать в отдельных потоках.
+ * Длина очереди ведется отдельным счетчиком, т.к. size() у ConcurrentLinkedDeque обходит весь список.
+ */
+public class ChefScheduler {
+    private final List<Chef> chefs;
+    private final Map<Chef, ChefQueue> queues;
+
+    /**
+     * Очередь задач повара и ее длина
+     */
+    private static class ChefQueue {
+        final Deque<PizzaTask> tasks = new ConcurrentLinkedDeque<>();
+        final AtomicInteger load = new AtomicInteger();
+
+        void offer(PizzaTask task) {
+            load.incrementAndGet(); // до добавления: длина не уходит в минус при гонке с poll
+            tasks.addLast(task);
+        }
+
+        PizzaTask poll() {
+            PizzaTask task = tasks.pollFirst();
+            if (task != null) {
+                load.decrementAndGet();
+            }
+            return task;
+        }
+
+        boolean steal(PizzaTask task) {
+            if (tasks.removeLastOccurrence(task)) {
+                load.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public ChefScheduler() {
+        this.chefs = new CopyOnWriteArrayList<>();
+        this.queues = new ConcurrentHashMap<>();
+    }
+
+    public ChefScheduler(List<Chef> chefs) {
+        this();
+        for (Chef chef : chefs) {
+            addChef(chef);
+        }
+    }
+
+    public void addChef(Chef chef) {
+        if (queues.putIfAbsent(chef, new ChefQueue()) == null) {
+            chefs.add(chef);
+        }
+    }
+
+    /**
+     * Убрать повара; его незавершенные задачи распределяются между остальными
+     * @return задачи, которые никто из оставшихся приготовить не может
+     */
+    public List<PizzaTask> removeChef(Chef chef) {
+        List<PizzaTask> unassigned = new ArrayList<>();
+        ChefQueue queue = queues.remove(chef);
+        chefs.remove(chef);
+        if (queue != null) {
+            PizzaTask task;
+            while ((task = queue.poll()) != null) {
+                if (submit(task) == null) {
+                    unassigned.add(task);
+                }
+            }
+        }
+        return unassigned;
+    }
+
+    /**
+     * Поставить задачу в очередь подходящего повара
+     * @return повар, которому назначена задача, или null, если приготовить ее некому
+     */
+    public Chef submit(PizzaTask task) {
+        String type = task.getPizzaType();
+        Chef best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        boolean bestIsSpecialist = false;
+        for (Chef chef : chefs) {
+            if (!chef.canCookPizza(type)) {
+                continue;
+            }
+            ChefQueue queue = queues.get(chef);
+            if (queue == null) {
+                continue;
+            }
+            boolean specialist = isSpecialist(chef, type);
+            int load = queue.load.get();
+            if (best == null || (specialist && !bestIsSpecialist)
+                    || (specialist == bestIsSpecialist && load < bestLoad)) {
+                best = chef;
+                bestLoad = load;
+                bestIsSpecialist = specialist;
+            }
+        }
+        if (best != null) {
+            queues.get(best).offer(task);
+        }
+        return best;
+    }
+
+    /**
+     * Следующая задача для повара: своя или перехваченная у коллеги
+     * @return null, если подходящих задач нет ни у кого
+     */
+    public PizzaTask nextTask(Chef chef) {
+        ChefQueue own = queues.get(chef);
+        if (own != null) {
+            PizzaTask task = own.poll();
+            if (task != null) {
+                return task;
+            }
+        }
+        return steal(chef);
+    }
+
+    private PizzaTask steal(Chef thief) {
+        // сначала самые загруженные; размеры фиксируются заранее, т.к. очереди меняются
+        List<Chef> victims = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (Chef chef : chefs) {
+            if (chef != thief) {
+                victims.add(chef);
+                sizes.add(queueSize(chef));
+            }
+        }
+        Integer[] order = new Integer[victims.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes.get(b), sizes.get(a)));
+
+        for (int index : order) {
+            ChefQueue queue = queues.get(victims.get(index));
+            if (queue == null || queue.load.get() == 0) {
+                continue;
+            }
+            Iterator<PizzaTask> tail = queue.tasks.descendingIterator();
+            while (tail.hasNext()) {
+                PizzaTask task = tail.next();
+                // при гонке с владельцем или другим поваром задача уже удалена - ищем дальше
+                if (thief.canCookPizza(task.getPizzaType()) && queue.steal(task)) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int queueSize(Chef chef) {
+        ChefQueue queue = queues.get(chef);
+        return queue != null ? queue.load.get() : 0;
+    }
+
+    private static boolean isSpecialist(Chef chef, String pizzaType) {
+        return chef.getSpecialty() != null && chef.getSpecialty().equalsIgnoreCase(pizzaType);
+    }
+
+    /**
+     * Число задач в очереди повара
+     */
+    public int getQueueLength(Chef chef) {
+        return queueSize(chef);
+    }
+
+    public int getPendingCount() {
+        int total = 0;
+        for (ChefQueue queue : queues.values()) {
+            total += queue.load.get();
+        }
+        return total;
+    }
+
+    public List<Chef> getChefs() {
+        return new ArrayList<>(chefs);
+    }
+}
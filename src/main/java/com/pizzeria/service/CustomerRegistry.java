@@ -0,0 +1,287 @@
+package com.pizzeria.service;
+
+import com.pizzeria.exceptions.CustomerNotFoundException;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.SearchIndex;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр клиентов с индексами по ID, телефону, email и номеру карты лояльности.
+ * Все индексы - ConcurrentHashMap, поиск по любому ключу выполняется за O(1).
+ * Если один ключ (например, общий телефон) указан у нескольких клиентов,
+ * поиск возвращает первого из них; после его удаления ключ переходит к следующему.
+ * Телефон хранится и ищется по национальному номеру - последним NATIONAL_NUMBER_DIGITS цифрам
+ * без кода страны, поэтому номер находится и с кодом страны, и без него.
+ * Индексация одного клиента (регистрация, перестроение, удаление) выполняется под блокировкой
+ * его записи, поэтому удаление, пришедшее во время регистрации, не оставляет в индексах ключей.
+ */
+public class CustomerRegistry {
+    public static final int NATIONAL_NUMBER_DIGITS = 10;
+
+    private final Map<String, Entry> customersById;
+    // ключ -> клиенты с этим ключом в порядке индексации
+    private final Map<String, List<Customer>> customersByPhone;
+    private final Map<String, List<Customer>> customersByEmail;
+    private final Map<String, List<Customer>> customersByLoyaltyCard;
+    private final SearchIndex<Customer> nameIndex;
+
+    public CustomerRegistry() {
+        this(16);
+    }
+
+    public CustomerRegistry(int expectedSize) {
+        this.customersById = new ConcurrentHashMap<>(expectedSize);
+        this.customersByPhone = new ConcurrentHashMap<>(expectedSize);
+        this.customersByEmail = new ConcurrentHashMap<>(expectedSize);
+        this.customersByLoyaltyCard = new ConcurrentHashMap<>(expectedSize);
+        this.nameIndex = SearchIndex.forPeople();
+    }
+
+    /**
+     * Зарегистрировать клиента
+     * @return false, если клиент с таким ID уже зарегистрирован
+     */
+    public boolean register(Customer customer) {
+        Entry entry = new Entry(customer);
+        // запись публикуется уже заблокированной: unregister дождется конца индексации
+        synchronized (entry) {
+            if (customersById.putIfAbsent(customer.getId(), entry) != null) {
+                return false;
+            }
+            index(entry);
+            nameIndex.add(customer);
+        }
+        return true;
+    }
+
+    /**
+     * Удалить клиента из реестра вместе со всеми его ключами
+     */
+    public Customer unregister(String customerId) throws CustomerNotFoundException {
+        Entry entry = customersById.remove(customerId);
+        if (entry == null) {
+            throw new CustomerNotFoundException(customerId);
+        }
+        synchronized (entry) {
+            entry.removed = true;
+            unindex(entry);
+            nameIndex.remove(entry.customer);
+        }
+        return entry.customer;
+    }
+
+    /**
+     * Перестроить ключи клиента после изменения имени, телефона, email или карты лояльности
+     */
+    public void reindex(String customerId) throws CustomerNotFoundException {
+        Entry entry = customersById.get(customerId);
+        if (entry == null) {
+            throw new CustomerNotFoundException(customerId);
+        }
+        synchronized (entry) {
+            if (entry.removed) {
+                throw new CustomerNotFoundException(customerId);
+            }
+            unindex(entry);
+            index(entry);
+            nameIndex.update(entry.customer);
+        }
+    }
+
+    public Customer findById(String customerId) throws CustomerNotFoundException {
+        Entry entry = customersById.get(customerId);
+        if (entry == null) {
+            throw new CustomerNotFoundException(customerId);
+        }
+        return entry.customer;
+    }
+
+    /**
+     * Найти клиента по телефону с кодом страны или без него; пробелы, скобки и дефисы игнорируются
+     */
+    public Customer findByPhone(String phoneNumber) throws CustomerNotFoundException {
+        return find(customersByPhone, normalizePhone(phoneNumber), phoneNumber);
+    }
+
+    public Customer findByEmail(String email) throws CustomerNotFoundException {
+        return find(customersByEmail, normalizeEmail(email), email);
+    }
+
+    public Customer findByLoyaltyCard(String cardNumber) throws CustomerNotFoundException {
+        return find(customersByLoyaltyCard, normalizeCardNumber(cardNumber), cardNumber);
+    }
+
+    /**
+     * Поиск клиентов по части имени или фамилии с учетом опечаток
+     */
+    public List<Customer> searchByName(String query, int limit) {
+        return nameIndex.search(query, limit);
+    }
+
+    private Customer find(Map<String, List<Customer>> index, String key, String rawKey)
+            throws CustomerNotFoundException {
+        List<Customer> holders = key != null ? index.get(key) : null;
+        if (holders == null) {
+            throw new CustomerNotFoundException(rawKey);
+        }
+        return holders.get(0);
+    }
+
+    public boolean contains(String customerId) {
+        return customersById.containsKey(customerId);
+    }
+
+    public int size() {
+        return customersById.size();
+    }
+
+    /**
+     * Живое представление всех клиентов без копирования
+     */
+    public Collection<Customer> getAllCustomers() {
+        return new AbstractCollection<Customer>() {
+            @Override
+            public Iterator<Customer> iterator() {
+                Iterator<Entry> entries = customersById.values().iterator();
+                return new Iterator<Customer>() {
+                    @Override
+                    public boolean hasNext() { return entries.hasNext(); }
+
+                    @Override
+                    public Customer next() { return entries.next().customer; }
+                };
+            }
+
+            @Override
+            public int size() {
+                return customersById.size();
+            }
+        };
+    }
+
+    private void index(Entry entry) {
+        Customer customer = entry.customer;
+        entry.phoneKey = customer.getPhoneNumber() != null ? phoneKey(customer.getPhoneNumber()) : null;
+        entry.emailKey = customer.getEmail() != null && customer.getEmail().getLocalPart() != null
+            ? normalizeEmail(customer.getEmail().getFullEmail()) : null;
+        entry.loyaltyCardKey = customer.getLoyaltyCard() != null
+            ? normalizeCardNumber(customer.getLoyaltyCard().getCardNumber()) : null;
+
+        putKey(customersByPhone, entry.phoneKey, customer);
+        putKey(customersByEmail, entry.emailKey, customer);
+        putKey(customersByLoyaltyCard, entry.loyaltyCardKey, customer);
+    }
+
+    private void unindex(Entry entry) {
+        removeKey(customersByPhone, entry.phoneKey, entry.customer);
+        removeKey(customersByEmail, entry.emailKey, entry.customer);
+        removeKey(customersByLoyaltyCard, entry.loyaltyCardKey, entry.customer);
+    }
+
+    private static void putKey(Map<String, List<Customer>> index, String key, Customer customer) {
+        if (key == null) {
+            return;
+        }
+        index.compute(key, (k, holders) -> {
+            if (holders == null) {
+                return List.of(customer);
+            }
+            List<Customer> updated = new ArrayList<>(holders.size() + 1);
+            updated.addAll(holders);
+            updated.add(customer);
+            return Collections.unmodifiableList(updated);
+        });
+    }
+
+    /**
+     * Снять ключ с клиента; если ключ есть у других клиентов, он остается за следующим из них
+     */
+    private static void removeKey(Map<String, List<Customer>> index, String key, Customer customer) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, holders) -> {
+            if (holders.size() == 1) {
+                return holders.get(0) == customer ? null : holders;
+            }
+            List<Customer> updated = new ArrayList<>(holders.size());
+            for (Customer holder : holders) {
+                if (holder != customer) {
+                    updated.add(holder);
+                }
+            }
+            return Collections.unmodifiableList(updated);
+        });
+    }
+
+    /**
+     * Ключ телефона клиента. Номер без кода страны PhoneNumber хранит с кодом города "000" -
+     * такой код в ключ не входит.
+     */
+    private static String phoneKey(PhoneNumber phone) {
+        String areaCode = phone.getAreaCode();
+        boolean noAreaCode = areaCode == null || areaCode.chars().allMatch(c -> c == '0');
+        return normalizePhone(noAreaCode ? phone.getNumber() : areaCode + phone.getNumber());
+    }
+
+    /**
+     * Национальный номер: только цифры, не больше NATIONAL_NUMBER_DIGITS последних
+     * (код страны и префикс выхода на межгород отбрасываются)
+     */
+    static String normalizePhone(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (Character.isDigit(c)) {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 0) {
+            return null;
+        }
+        return digits.length() > NATIONAL_NUMBER_DIGITS
+            ? digits.substring(digits.length() - NATIONAL_NUMBER_DIGITS) : digits.toString();
+    }
+
+    static String normalizeEmail(String email) {
+        if (email == null || email.indexOf('@') < 0) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeCardNumber(String cardNumber) {
+        if (cardNumber == null || cardNumber.trim().isEmpty()) {
+            return null;
+        }
+        return cardNumber.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Запись реестра: клиент и ключи, под которыми он проиндексирован
+     */
+    private static class Entry {
+        private final Customer customer;
+        private String phoneKey;
+        private String emailKey;
+        private String loyaltyCardKey;
+        private boolean removed;
+
+        Entry(Customer customer) {
+            this.customer = customer;
+        }
+    }
+}
@@ -69,4 +69,8 @@ public class DeliveryService {
     public int getActiveDeliveriesCount() {
         return activeDeliveries.size();
     }
+
+    public List<DeliveryDriver> getDrivers() {
+        return drivers;
+    }
 }
@@ -0,0 +1,187 @@
+package com.pizzeria.service;
+
+import com.pizzeria.interfaces.Expirable;
+import com.pizzeria.util.ClockProvider;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Планировщик сроков действия скидок, акций и карт лояльности на колесе таймеров.
+ * Объект получает флаг действия при планировании и при каждой границе срока
+ * (первый день и день после последнего), так что проверки при расчете цены
+ * читают один volatile флаг вместо сравнения дат.
+ *
+ * Колесо - WHEEL_SIZE ячеек по одному дню; таймер на дальнюю дату лежит в ячейке
+ * своего дня по модулю и пропускается, пока день не наступит. У объекта не больше одного таймера:
+ * повторное планирование заменяет его, отмена убирает из колеса. Объект с истекшим сроком
+ * снимается с планирования, флаг действия у него остается выключенным.
+ * Время берется из ClockProvider; advanceTo вызывается вручную или по расписанию через start.
+ */
+public class ExpiryScheduler {
+    private static final int WHEEL_SIZE = 64;
+
+    private final List<List<Timer>> wheel;
+    // объект -> его таймер в колесе (null, если таймера нет)
+    private final Map<Expirable, Timer> registered;
+    private long currentDay;
+    private int pendingTimers;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Таймер границы срока
+     */
+    private static class Timer {
+        final Expirable target;
+        final long dueDay;
+
+        Timer(Expirable target, long dueDay) {
+            this.target = target;
+            this.dueDay = dueDay;
+        }
+    }
+
+    public ExpiryScheduler() {
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.registered = new IdentityHashMap<>();
+        this.currentDay = ClockProvider.today().toEpochDay();
+    }
+
+    /**
+     * Поставить объект на планирование и сразу выставить его флаг.
+     * После изменения дат объекта его нужно запланировать заново.
+     */
+    public synchronized void schedule(Expirable target) {
+        advanceTo(ClockProvider.today());
+        removeTimer(registered.get(target));
+        refresh(target);
+    }
+
+    /**
+     * Снять объект с планирования: проверки снова считают даты
+     */
+    public synchronized void cancel(Expirable target) {
+        removeTimer(registered.remove(target));
+        target.clearInEffect();
+    }
+
+    /**
+     * Флаг по датам на текущий день и таймер на следующую границу срока;
+     * объект с истекшим сроком снимается с планирования
+     */
+    private void refresh(Expirable target) {
+        long from = target.getValidFrom().toEpochDay();
+        long until = target.getValidUntil().toEpochDay();
+        target.setInEffect(currentDay >= from && currentDay <= until);
+        if (currentDay < from) {
+            registered.put(target, addTimer(target, from));
+        } else if (currentDay <= until) {
+            registered.put(target, addTimer(target, until + 1));
+        } else {
+            registered.remove(target);
+        }
+    }
+
+    private Timer addTimer(Expirable target, long dueDay) {
+        Timer timer = new Timer(target, dueDay);
+        wheel.get(slotOf(dueDay)).add(timer);
+        pendingTimers++;
+        return timer;
+    }
+
+    private void removeTimer(Timer timer) {
+        if (timer != null && wheel.get(slotOf(timer.dueDay)).remove(timer)) {
+            pendingTimers--;
+        }
+    }
+
+    private static int slotOf(long day) {
+        return (int) Math.floorMod(day, (long) WHEEL_SIZE);
+    }
+
+    /**
+     * Прокрутить колесо до указанного дня включительно
+     * @return количество сработавших таймеров
+     */
+    public synchronized int advanceTo(LocalDate date) {
+        long targetDay = date.toEpochDay();
+        int fired = 0;
+        while (currentDay < targetDay) {
+            if (pendingTimers == 0) {
+                currentDay = targetDay;
+                break;
+            }
+            currentDay++;
+            List<Timer> slot = wheel.get(slotOf(currentDay));
+            List<Timer> due = null;
+            Iterator<Timer> iterator = slot.iterator();
+            while (iterator.hasNext()) {
+                Timer timer = iterator.next();
+                if (timer.dueDay <= currentDay) {
+                    iterator.remove();
+                    pendingTimers--;
+                    if (due == null) {
+                        due = new ArrayList<>();
+                    }
+                    due.add(timer);
+                }
+            }
+            if (due != null) {
+                for (Timer timer : due) {
+                    // даты могли измениться: флаг и следующий таймер считаются заново
+                    if (registered.get(timer.target) == timer) {
+                        refresh(timer.target);
+                        fired++;
+                    }
+                }
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Прокручивать колесо по ClockProvider с заданным периодом в фоновом потоке
+     */
+    public synchronized void start(Duration period) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expiry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, period.toMillis());
+        ticker.scheduleAtFixedRate(() -> advanceTo(ClockProvider.today()), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    public synchronized int getScheduledCount() {
+        return registered.size();
+    }
+
+    public synchronized int getPendingTimers() {
+        return pendingTimers;
+    }
+
+    public synchronized LocalDate getCurrentDate() {
+        return LocalDate.ofEpochDay(currentDay);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pizzeria.service;
+
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.exceptions.PaymentGatewayException;
+import com.pizzeria.interfaces.PaymentGateway;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.util.ExpiringCache;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальная заглушка платежного шлюза для тестов и нагрузочных прогонов.
+ *
+ * Отвечает через заданную задержку, с заданной вероятностью имитирует сбой связи,
+ * иначе проводит платеж его собственной проверкой (Payment.process).
+ * Как и настоящий шлюз, помнит ID транзакций: повтор возвращает итог первого вызова,
+ * а сбой связи забывается, чтобы повтор прошел заново.
+ */
+public class LocalPaymentGateway implements PaymentGateway {
+    private final String name;
+    private final Random random;
+    private final ExpiringCache<String, CompletableFuture<Boolean>> transactions;
+    private final AtomicLong callCount;
+    private volatile Duration latency;
+    private volatile double failureRate;
+
+    public LocalPaymentGateway(String name, Duration latency, double failureRate) {
+        this(name, latency, failureRate, new Random());
+    }
+
+    public LocalPaymentGateway(String name, Duration latency, double failureRate, Random random) {
+        this.name = name;
+        this.random = random;
+        this.transactions = new ExpiringCache<>(PaymentService.DEFAULT_DEDUPLICATION_CAPACITY,
+            PaymentService.DEFAULT_DEDUPLICATION_TTL);
+        this.callCount = new AtomicLong();
+        setLatency(latency);
+        setFailureRate(failureRate);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> process(Payment payment) {
+        callCount.incrementAndGet();
+        String transactionId = payment.getTransactionId();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (transactionId != null) {
+            CompletableFuture<Boolean> previous = transactions.putIfAbsent(transactionId, result);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(latency.toMillis(), TimeUnit.MILLISECONDS);
+        delayed.execute(() -> {
+            if (random.nextDouble() < failureRate) {
+                if (transactionId != null) {
+                    transactions.remove(transactionId, result);
+                }
+                result.completeExceptionally(new PaymentGatewayException(name, "ошибка связи"));
+                return;
+            }
+            try {
+                result.complete(payment.process());
+            } catch (InvalidPaymentException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    // Getters and Setters
+    public Duration getLatency() { return latency; }
+
+    public void setLatency(Duration latency) {
+        if (latency == null || latency.isNegative()) {
+            throw new IllegalArgumentException("Задержка не может быть отрицательной");
+        }
+        this.latency = latency;
+    }
+
+    public double getFailureRate() { return failureRate; }
+
+    public void setFailureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Доля сбоев должна быть от 0 до 1");
+        }
+        this.failureRate = failureRate;
+    }
+
+    public long getCallCount() { return callCount.get(); }
+}
@@ -0,0 +1,162 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.LoyaltyOperation;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.LoyaltyEntry;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Shift;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал баллов лояльности.
+ * Начисления и списания записываются только добавлением; баланс карты меняется CAS
+ * в LoyaltyCard, так что операции с разных терминалов безопасны без блокировок.
+ * За заказ баллы начисляются не более одного раза.
+ */
+public class LoyaltyLedger {
+    private final double rublesPerPoint;
+    private final AtomicLong sequence;
+    private final Queue<LoyaltyEntry> journal;
+    private final Set<String> accruedOrders;
+
+    public LoyaltyLedger() {
+        this(10.0);
+    }
+
+    /**
+     * @param rublesPerPoint сумма заказа в рублях за один балл
+     */
+    public LoyaltyLedger(double rublesPerPoint) {
+        if (rublesPerPoint <= 0) {
+            throw new IllegalArgumentException("Стоимость балла должна быть положительной: " + rublesPerPoint);
+        }
+        this.rublesPerPoint = rublesPerPoint;
+        this.sequence = new AtomicLong();
+        this.journal = new ConcurrentLinkedQueue<>();
+        this.accruedOrders = ConcurrentHashMap.newKeySet();
+    }
+
+    public int pointsFor(Order order) {
+        return (int) (order.getFinalPrice() / rublesPerPoint);
+    }
+
+    /**
+     * Начислить баллы за оплаченный заказ
+     * @return запись журнала или null, если у клиента нет карты, заказ не оплачен или баллы уже начислены
+     */
+    public LoyaltyEntry accrue(Order order) {
+        LoyaltyCard card = cardOf(order);
+        if (card == null || !order.isPaid() || !accruedOrders.add(order.getId())) {
+            return null;
+        }
+        int points = pointsFor(order);
+        card.addPoints(points);
+        return append(card, LoyaltyOperation.ACCRUAL, points, order.getId());
+    }
+
+    /**
+     * Списать баллы с карты
+     * @return запись журнала или null, если баллов недостаточно
+     */
+    public LoyaltyEntry redeem(LoyaltyCard card, int points, String orderId) {
+        if (!card.redeemPoints(points)) {
+            return null;
+        }
+        return append(card, LoyaltyOperation.REDEMPTION, points, orderId);
+    }
+
+    /**
+     * Начислить баллы за все оплаченные заказы пакетом: по одному изменению баланса на карту
+     * @return записи журнала по заказам, за которые начислены баллы
+     */
+    public List<LoyaltyEntry> accrueAll(Collection<Order> orders) {
+        Map<LoyaltyCard, Integer> pointsByCard = new IdentityHashMap<>();
+        List<LoyaltyEntry> entries = new ArrayList<>();
+        for (Order order : orders) {
+            LoyaltyCard card = cardOf(order);
+            if (card == null || !order.isPaid() || !accruedOrders.add(order.getId())) {
+                continue;
+            }
+            int points = pointsFor(order);
+            pointsByCard.merge(card, points, Integer::sum);
+            entries.add(append(card, LoyaltyOperation.ACCRUAL, points, order.getId()));
+        }
+        for (Map.Entry<LoyaltyCard, Integer> entry : pointsByCard.entrySet()) {
+            entry.getKey().addPoints(entry.getValue());
+        }
+        return entries;
+    }
+
+    /**
+     * Начислить баллы за заказы, оформленные в смену, начавшуюся в указанный день.
+     * Ночная смена (конец не позже начала) заканчивается на следующий день.
+     */
+    public List<LoyaltyEntry> accrueShift(Collection<Order> orders, LocalDate date, Shift shift) {
+        LocalDateTime from = date.atTime(shift.getStartTime());
+        LocalDate endDate = shift.getEndTime().isAfter(shift.getStartTime()) ? date : date.plusDays(1);
+        LocalDateTime to = endDate.atTime(shift.getEndTime());
+        List<Order> inShift = new ArrayList<>();
+        for (Order order : orders) {
+            LocalDateTime time = order.getOrderTime();
+            if (time != null && !time.isBefore(from) && time.isBefore(to)) {
+                inShift.add(order);
+            }
+        }
+        return accrueAll(inShift);
+    }
+
+    private static LoyaltyCard cardOf(Order order) {
+        return order.getCustomer() == null ? null : order.getCustomer().getLoyaltyCard();
+    }
+
+    private LoyaltyEntry append(LoyaltyCard card, LoyaltyOperation operation, int points, String orderId) {
+        LoyaltyEntry entry = new LoyaltyEntry(sequence.incrementAndGet(), card.getCardNumber(),
+            operation, points, orderId);
+        journal.add(entry);
+        return entry;
+    }
+
+    /**
+     * Записи по карте в порядке номеров
+     */
+    public List<LoyaltyEntry> getEntries(String cardNumber) {
+        List<LoyaltyEntry> entries = new ArrayList<>();
+        for (LoyaltyEntry entry : journal) {
+            if (entry.getCardNumber().equals(cardNumber)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(LoyaltyEntry::getSequence));
+        return entries;
+    }
+
+    /**
+     * Баланс карты по журналу - для сверки с LoyaltyCard.getPoints
+     */
+    public long getBalance(String cardNumber) {
+        long balance = 0;
+        for (LoyaltyEntry entry : journal) {
+            if (entry.getCardNumber().equals(cardNumber)) {
+                balance += entry.getDelta();
+            }
+        }
+        return balance;
+    }
+
+    public int getEntryCount() {
+        return journal.size();
+    }
+}
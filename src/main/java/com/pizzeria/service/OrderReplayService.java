@@ -0,0 +1,471 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.AdmissionDecision;
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InsufficientIngredientsException;
+import com.pizzeria.factory.PaymentFactory;
+import com.pizzeria.factory.ProductCatalog;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.AdmissionResult;
+import com.pizzeria.model.DeliveryInfo;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.RecordedOrder;
+import com.pizzeria.model.ReplayReport;
+import com.pizzeria.model.payment.CashPayment;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.CsvRecordParser;
+import com.pizzeria.util.VirtualClock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Воспроизведение записанного журнала заказов для нагрузочного тестирования.
+ * Заказы подаются в моменты из журнала, сжатые в speedup раз (0 - без пауз), и проходят этапы:
+ * <ul>
+ *   <li>заказ и оплата - пул из нескольких потоков (OrderService, PaymentService);</li>
+ *   <li>кухня - один поток, так как Kitchen не потокобезопасна;</li>
+ *   <li>доставка - один поток DeliveryService, вручение через оценку времени доставки,
+ *       сжатую в speedup раз.</li>
+ * </ul>
+ * Для каждого этапа считается задержка от постановки в его очередь до завершения и ошибки по типам.
+ * Любое исключение этапа считается ошибкой этого этапа; заказы, не завершенные за completionTimeout
+ * после подачи последнего, учитываются в отчете как незавершенные.
+ * Потоки этапов работают с VirtualClock, идущим по времени журнала (ClockProvider.override);
+ * общие часы ClockProvider остальных потоков не меняются.
+ *
+ * Формат журнала (CSV, строки с '#' - комментарии):
+ * <pre>
+ * время,id клиента,имя,фамилия,позиции,оплата,улица,дом,город,км
+ * 2024-03-01T18:30:00,C1,Иван,Иванов,Маргарита:MEDIUM:2;Пепперони:LARGE:1,CARD,Тверская,1,Москва,3.5
+ * </pre>
+ * Пустая улица - самовывоз.
+ */
+public class OrderReplayService {
+    public static final String STAGE_ORDER = "заказ";
+    public static final String STAGE_PAYMENT = "оплата";
+    public static final String STAGE_KITCHEN = "кухня";
+    public static final String STAGE_DELIVERY = "доставка";
+    public static final Duration DEFAULT_COMPLETION_TIMEOUT = Duration.ofMinutes(5);
+
+    private final OrderService orderService;
+    private final PaymentService paymentService;
+    private final Kitchen kitchen;
+    private final DeliveryService deliveryService;
+    private final ProductCatalog catalog;
+    private final PaymentFactory paymentFactory;
+    private Duration completionTimeout;
+
+    public OrderReplayService(OrderService orderService, PaymentService paymentService,
+                              Kitchen kitchen, DeliveryService deliveryService) {
+        this.orderService = orderService;
+        this.paymentService = paymentService;
+        this.kitchen = kitchen;
+        this.deliveryService = deliveryService;
+        this.catalog = new ProductCatalog();
+        this.paymentFactory = new PaymentFactory();
+        this.completionTimeout = DEFAULT_COMPLETION_TIMEOUT;
+    }
+
+    /**
+     * Прочитать журнал заказов
+     */
+    public static List<RecordedOrder> readLog(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        List<RecordedOrder> log = new ArrayList<>();
+        new CsvRecordParser().parse(buffer, 0, buffer.limit(), fields -> log.add(parseRecord(fields)));
+        return log;
+    }
+
+    private static RecordedOrder parseRecord(String[] fields) {
+        try {
+            if (fields.length < 6) {
+                throw new IllegalArgumentException("ожидается полей: 6, получено: " + fields.length);
+            }
+            List<RecordedOrder.Item> items = new ArrayList<>();
+            for (String item : fields[4].split(";")) {
+                String[] parts = item.split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("позиция должна иметь вид тип:РАЗМЕР:количество: " + item);
+                }
+                items.add(new RecordedOrder.Item(parts[0].trim(), PizzaSize.valueOf(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim())));
+            }
+            boolean delivery = fields.length > 6 && !fields[6].isEmpty();
+            if (delivery && fields.length < 10) {
+                throw new IllegalArgumentException("для доставки нужны улица, дом, город и расстояние");
+            }
+            return new RecordedOrder(LocalDateTime.parse(fields[0].trim()), fields[1], fields[2], fields[3], items,
+                PaymentMethod.valueOf(fields[5].trim()),
+                delivery ? fields[6] : null, delivery ? fields[7] : null, delivery ? fields[8] : null,
+                delivery ? Double.parseDouble(fields[9].trim()) : 0);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(
+                "Некорректная запись '" + String.join(",", fields) + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Воспроизвести журнал и дождаться завершения всех заказов
+     * @param speedup во сколько раз быстрее записи подавать заказы; 0 - без пауз
+     * @param workers число потоков приема заказов и оплаты
+     */
+    public ReplayReport replay(List<RecordedOrder> log, double speedup, int workers) throws InterruptedException {
+        if (speedup < 0 || workers <= 0) {
+            throw new IllegalArgumentException("Некорректные параметры воспроизведения: ускорение " + speedup
+                + ", потоков " + workers);
+        }
+        ReplayReport report = new ReplayReport(STAGE_ORDER, STAGE_PAYMENT, STAGE_KITCHEN, STAGE_DELIVERY);
+        if (log.isEmpty()) {
+            return report;
+        }
+        List<RecordedOrder> sorted = new ArrayList<>(log);
+        sorted.sort(Comparator.comparing(RecordedOrder::getTime));
+        return new Replay(sorted, speedup, workers, report).run();
+    }
+
+    /**
+     * Состояние одного воспроизведения
+     */
+    private class Replay {
+        private final List<RecordedOrder> log;
+        private final double speedup;
+        private final ReplayReport report;
+        private final VirtualClock clock;
+        private final ExecutorService frontDesk;
+        private final ExecutorService kitchenWorker;
+        private final ScheduledExecutorService dispatcher;
+        private final CountDownLatch finished;
+        private final Map<String, Customer> customers = new ConcurrentHashMap<>();
+        // только поток кухни
+        private final Map<Order, Long> deferred = new IdentityHashMap<>();
+        private final Map<Order, RecordedOrder> deferredRecords = new IdentityHashMap<>();
+
+        Replay(List<RecordedOrder> log, double speedup, int workers, ReplayReport report) {
+            this.log = log;
+            this.speedup = speedup;
+            this.report = report;
+            this.clock = new VirtualClock(log.get(0).getTime());
+            this.frontDesk = Executors.newFixedThreadPool(workers, this::newThread);
+            this.kitchenWorker = Executors.newSingleThreadExecutor(this::newThread);
+            this.dispatcher = Executors.newSingleThreadScheduledExecutor(this::newThread);
+            this.finished = new CountDownLatch(log.size());
+        }
+
+        /**
+         * Поток этапа, видящий виртуальное время воспроизведения
+         */
+        private Thread newThread(Runnable task) {
+            return new Thread(() -> {
+                ClockProvider.Scope scope = ClockProvider.override(clock);
+                try {
+                    task.run();
+                } finally {
+                    scope.close();
+                }
+            });
+        }
+
+        ReplayReport run() throws InterruptedException {
+            long started = System.nanoTime();
+            try {
+                LocalDateTime first = log.get(0).getTime();
+                for (RecordedOrder record : log) {
+                    if (speedup > 0) {
+                        long due = started + (long) (Duration.between(first, record.getTime()).toNanos() / speedup);
+                        waitUntil(due);
+                    }
+                    clock.advanceTo(record.getTime());
+                    long queued = System.nanoTime();
+                    frontDesk.execute(() -> takeOrder(record, queued));
+                }
+                report.setOrdersSubmitted(log.size());
+                frontDesk.shutdown();
+                frontDesk.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                // все заказы дошли до кухни: освободить оставшиеся отложенные
+                kitchenWorker.execute(this::drainDeferred);
+                if (!finished.await(completionTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    report.setOrdersUnfinished(finished.getCount());
+                }
+                report.setWallTimeNanos(System.nanoTime() - started);
+                return report;
+            } finally {
+                frontDesk.shutdownNow();
+                kitchenWorker.shutdownNow();
+                dispatcher.shutdownNow();
+            }
+        }
+
+        private void waitUntil(long due) {
+            long remaining;
+            while ((remaining = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+
+        private void error(String stage, Exception e) {
+            error(stage, e.getClass().getSimpleName());
+        }
+
+        private void error(String stage, String reason) {
+            report.getStage(stage).recordError(reason);
+        }
+
+        private void recordLatency(String stage, long queued) {
+            report.getStage(stage).getLatency().recordNanos(System.nanoTime() - queued);
+        }
+
+        private void takeOrder(RecordedOrder record, long queued) {
+            boolean handedOff = false;
+            try {
+                handedOff = takeOrderStages(record, queued);
+            } finally {
+                if (!handedOff) {
+                    finished.countDown();
+                }
+            }
+        }
+
+        /**
+         * Принять и оплатить заказ
+         * @return true, если заказ передан на кухню
+         */
+        private boolean takeOrderStages(RecordedOrder record, long queued) {
+            Order order;
+            try {
+                Customer customer = customers.computeIfAbsent(record.getCustomerId(),
+                    id -> new Customer(id, record.getFirstName(), record.getLastName()));
+                synchronized (customer) { // история заказов клиента - обычный список
+                    order = orderService.createOrder(customer);
+                }
+                for (RecordedOrder.Item item : record.getItems()) {
+                    order.addItem(catalog.getPizza(item.getPizzaType(), item.getSize()), item.getQuantity());
+                }
+                if (record.isDelivery()) {
+                    Address address = new Address(record.getStreet(), record.getHouseNumber(), record.getCity(), "");
+                    address.setLatitude(record.getDistanceKm()); // Order.calculateDeliveryTime считает широту км
+                    order.setDeliveryAddress(address);
+                }
+            } catch (Exception e) {
+                error(STAGE_ORDER, e);
+                return false;
+            }
+            recordLatency(STAGE_ORDER, queued);
+
+            long paymentQueued = System.nanoTime();
+            try {
+                Payment payment = paymentFactory.createPayment(record.getPaymentMethod(),
+                    "REPLAY-" + order.getId(), order.getFinalPrice());
+                if (payment instanceof CashPayment) {
+                    ((CashPayment) payment).setAmountReceived(payment.getAmount());
+                }
+                paymentService.processPayment(order, payment);
+            } catch (Exception e) {
+                error(STAGE_PAYMENT, e);
+                return false;
+            }
+            recordLatency(STAGE_PAYMENT, paymentQueued);
+
+            long kitchenQueued = System.nanoTime();
+            try {
+                kitchenWorker.execute(() -> cook(order, record, kitchenQueued));
+                return true;
+            } catch (Exception e) {
+                error(STAGE_KITCHEN, e);
+                return false;
+            }
+        }
+
+        private void cook(Order order, RecordedOrder record, long queued) {
+            boolean handedOff = false;
+            try {
+                AdmissionResult result = kitchen.prepareOrder(order);
+                if (result.getDecision() == AdmissionDecision.ACCEPTED) {
+                    if (isCooked(order)) {
+                        handedOff = cooked(order, record, queued);
+                    } else {
+                        error(STAGE_KITCHEN, "Нет активного повара");
+                    }
+                } else if (result.getDecision() == AdmissionDecision.DEFERRED) {
+                    deferred.put(order, queued);
+                    deferredRecords.put(order, record);
+                    handedOff = true;
+                } else {
+                    error(STAGE_KITCHEN, "Отклонен: " + result.getDecision().getDisplayName());
+                }
+            } catch (Exception e) {
+                error(STAGE_KITCHEN, e);
+            } finally {
+                if (!handedOff) {
+                    finished.countDown();
+                }
+            }
+            forwardReleased();
+        }
+
+        /**
+         * Завершить заказ после кухни
+         * @return true, если заказ передан в доставку
+         */
+        private boolean cooked(Order order, RecordedOrder record, long queued) {
+            recordLatency(STAGE_KITCHEN, queued);
+            if (record.isDelivery()) {
+                long deliveryQueued = System.nanoTime();
+                try {
+                    dispatcher.execute(() -> deliver(order, deliveryQueued));
+                    return true;
+                } catch (Exception e) {
+                    error(STAGE_DELIVERY, e);
+                    return false;
+                }
+            }
+            report.orderCompleted();
+            return false;
+        }
+
+        /**
+         * Передать дальше заказы, которые кухня освободила из очереди отложенных
+         */
+        private void forwardReleased() {
+            Set<Order> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(kitchen.takeFailedOrders());
+            if (deferred.isEmpty()) {
+                return;
+            }
+            Set<Order> stillDeferred = Collections.newSetFromMap(new IdentityHashMap<>());
+            stillDeferred.addAll(kitchen.getDeferredOrders());
+            Iterator<Map.Entry<Order, Long>> iterator = deferred.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Order, Long> entry = iterator.next();
+                Order order = entry.getKey();
+                if (stillDeferred.contains(order)) {
+                    continue;
+                }
+                iterator.remove();
+                RecordedOrder record = deferredRecords.remove(order);
+                boolean handedOff = false;
+                try {
+                    if (failed.contains(order)) {
+                        error(STAGE_KITCHEN, InsufficientIngredientsException.class.getSimpleName());
+                    } else if (isCooked(order)) {
+                        handedOff = cooked(order, record, entry.getValue());
+                    } else {
+                        error(STAGE_KITCHEN, "Не приготовлен");
+                    }
+                } catch (Exception e) {
+                    error(STAGE_KITCHEN, e);
+                } finally {
+                    if (!handedOff) {
+                        finished.countDown();
+                    }
+                }
+            }
+        }
+
+        private boolean isCooked(Order order) {
+            for (OrderItem item : order.getItems()) {
+                if (!item.isPrepared()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void drainDeferred() {
+            try {
+                kitchen.releaseDeferredOrders();
+                forwardReleased();
+            } catch (Exception e) {
+                error(STAGE_KITCHEN, e);
+            } finally {
+                for (int i = 0; i < deferred.size(); i++) {
+                    error(STAGE_KITCHEN, "Не освобожден из очереди отложенных");
+                    finished.countDown();
+                }
+                deferred.clear();
+                deferredRecords.clear();
+            }
+        }
+
+        private void deliver(Order order, long queued) {
+            boolean handedOff = false;
+            try {
+                DeliveryDriver driver = deliveryService.findAvailableDriver();
+                if (driver == null) {
+                    if (deliveryService.getDrivers().isEmpty()) {
+                        error(STAGE_DELIVERY, "Нет водителей");
+                    } else {
+                        // ждать освобождения водителя - минуту времени журнала
+                        dispatcher.schedule(() -> deliver(order, queued), scaledNanos(1), TimeUnit.NANOSECONDS);
+                        handedOff = true;
+                    }
+                    return;
+                }
+                DeliveryInfo delivery = deliveryService.scheduleDelivery(order, driver);
+                dispatcher.schedule(() -> handOver(delivery, queued),
+                    scaledNanos(delivery.getEstimatedTime()), TimeUnit.NANOSECONDS);
+                handedOff = true;
+            } catch (Exception e) {
+                error(STAGE_DELIVERY, e);
+            } finally {
+                if (!handedOff) {
+                    finished.countDown();
+                }
+            }
+        }
+
+        private void handOver(DeliveryInfo delivery, long queued) {
+            try {
+                deliveryService.completeDelivery(delivery);
+                recordLatency(STAGE_DELIVERY, queued);
+                report.orderCompleted();
+            } catch (Exception e) {
+                error(STAGE_DELIVERY, e);
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        /**
+         * Минуты времени журнала в наносекундах реального времени (не меньше 0,1 мс)
+         */
+        private long scaledNanos(int minutes) {
+            long nanos = speedup > 0 ? (long) (minutes * 60_000_000_000.0 / speedup) : 0;
+            return Math.max(nanos, 100_000);
+        }
+    }
+
+    // Getters and Setters
+    public Duration getCompletionTimeout() { return completionTimeout; }
+    public void setCompletionTimeout(Duration completionTimeout) {
+        if (completionTimeout == null || completionTimeout.isNegative()) {
+            throw new IllegalArgumentException("Некорректное время ожидания: " + completionTimeout);
+        }
+        this.completionTimeout = completionTimeout;
+    }
+}
@@ -5,25 +5,26 @@ import com.pizzeria.exceptions.DuplicateOrderException;
 import com.pizzeria.exceptions.OrderNotFoundException;
 import com.pizzeria.model.Order;
 import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.IdGenerator;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Сервис управления заказами
  */
 public class OrderService {
     private Map<String, Order> orders;
-    private int orderCounter;
 
     public OrderService() {
-        this.orders = new HashMap<>();
-        this.orderCounter = 1;
+        this.orders = new ConcurrentHashMap<>();
     }
 
     public Order createOrder(Customer customer) throws DuplicateOrderException {
-        String orderId = "ORD-" + (orderCounter++);
+        String orderId = IdGenerator.generateOrderId();
         if (orders.containsKey(orderId)) {
             throw new DuplicateOrderException(orderId);
         }
@@ -72,4 +73,13 @@ public class OrderService {
     public Map<String, Order> getAllOrders() {
         return new HashMap<>(orders);
     }
+
+    /**
+     * Живое представление заказов без копирования.
+     * Итерация слабо согласованная: не бросает ConcurrentModificationException
+     * и может не отражать заказы, созданные во время обхода.
+     */
+    public Collection<Order> getOrdersView() {
+        return Collections.unmodifiableCollection(orders.values());
+    }
 }
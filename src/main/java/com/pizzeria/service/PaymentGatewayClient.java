@@ -0,0 +1,196 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.exceptions.PaymentGatewayException;
+import com.pizzeria.interfaces.PaymentGateway;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.util.CircuitBreaker;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Асинхронный вызов платежных шлюзов с защитой от медленных и упавших шлюзов.
+ *
+ * Для каждого метода оплаты регистрируется свой шлюз со своей изоляцией (bulkhead):
+ * ограничением одновременных вызовов и автоматическим выключателем, поэтому зависший
+ * онлайн-шлюз не занимает ресурсы оплаты картой. Каждый вызов ограничен таймаутом,
+ * ошибки шлюза повторяются с экспоненциальной задержкой и случайным разбросом (jitter),
+ * отказы в оплате (InvalidPaymentException) не повторяются.
+ * Методы без шлюза (наличные) проводятся сразу через Payment.process.
+ */
+public class PaymentGatewayClient {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_BACKOFF = Duration.ofMillis(100);
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final Duration timeout;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private volatile Map<PaymentMethod, Channel> channels;
+
+    /**
+     * Шлюз метода оплаты с его ограничением одновременных вызовов и выключателем
+     */
+    private static class Channel {
+        final PaymentGateway gateway;
+        final Semaphore bulkhead;
+        final CircuitBreaker breaker;
+
+        Channel(PaymentGateway gateway, int maxConcurrent, CircuitBreaker breaker) {
+            this.gateway = gateway;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+        }
+    }
+
+    public PaymentGatewayClient() {
+        this(DEFAULT_TIMEOUT, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF);
+    }
+
+    public PaymentGatewayClient(Duration timeout, int maxAttempts, Duration backoff) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Таймаут должен быть положительным");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Число попыток должно быть положительным");
+        }
+        if (backoff == null || backoff.isNegative()) {
+            throw new IllegalArgumentException("Задержка повтора не может быть отрицательной");
+        }
+        this.timeout = timeout;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.channels = new EnumMap<>(PaymentMethod.class);
+    }
+
+    public void register(PaymentMethod method, PaymentGateway gateway, int maxConcurrent) {
+        register(method, gateway, maxConcurrent,
+            new CircuitBreaker(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION));
+    }
+
+    /**
+     * Подключить шлюз для метода оплаты (заменяет прежний шлюз этого метода)
+     */
+    public synchronized void register(PaymentMethod method, PaymentGateway gateway, int maxConcurrent,
+                                      CircuitBreaker breaker) {
+        if (method == null || gateway == null || breaker == null) {
+            throw new IllegalArgumentException("Метод оплаты, шлюз и выключатель обязательны");
+        }
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Лимит одновременных вызовов должен быть положительным");
+        }
+        Map<PaymentMethod, Channel> updated = new EnumMap<>(PaymentMethod.class);
+        updated.putAll(channels);
+        updated.put(method, new Channel(gateway, maxConcurrent, breaker));
+        channels = updated;
+    }
+
+    /**
+     * Провести платеж через шлюз его метода оплаты, не блокируя вызывающий поток
+     */
+    public CompletableFuture<Boolean> process(Payment payment) {
+        Channel channel = channels.get(payment.getMethod());
+        if (channel == null) {
+            try {
+                return CompletableFuture.completedFuture(payment.process());
+            } catch (InvalidPaymentException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        attempt(channel, payment, 1, result);
+        return result;
+    }
+
+    private void attempt(Channel channel, Payment payment, int attempt, CompletableFuture<Boolean> result) {
+        String name = channel.gateway.getName();
+        if (!channel.bulkhead.tryAcquire()) {
+            result.completeExceptionally(new PaymentGatewayException(name, "превышен лимит одновременных вызовов"));
+            return;
+        }
+        if (!channel.breaker.allowRequest()) {
+            channel.bulkhead.release();
+            result.completeExceptionally(new PaymentGatewayException(name, "цепь разомкнута"));
+            return;
+        }
+        CompletableFuture<Boolean> pending;
+        try {
+            pending = channel.gateway.process(payment);
+        } catch (RuntimeException e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        // вызов занимает место в шлюзе, пока шлюз не ответит, даже если ждать его ответа уже перестали
+        CompletableFuture<Boolean> answered = pending.whenComplete((success, error) -> channel.bulkhead.release());
+        // копия: таймаут не должен завершать future, который шлюз отдаст на повтор, и отменять освобождение места
+        CompletableFuture<Boolean> call = answered.copy();
+        call.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((success, error) -> {
+            if (error == null) {
+                channel.breaker.recordSuccess();
+                result.complete(success);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof InvalidPaymentException) {
+                // шлюз ответил отказом - он исправен, повтор не поможет
+                channel.breaker.recordSuccess();
+                result.completeExceptionally(cause);
+                return;
+            }
+            channel.breaker.recordFailure();
+            if (attempt >= maxAttempts) {
+                result.completeExceptionally(cause instanceof PaymentGatewayException ? cause
+                    : new PaymentGatewayException(name, cause instanceof TimeoutException
+                        ? "нет ответа за " + timeout.toMillis() + " мс" : String.valueOf(cause.getMessage()), cause));
+                return;
+            }
+            CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS)
+                .execute(() -> attempt(channel, payment, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Задержка перед повтором: backoff * 2^(attempt-1) со случайным разбросом от 50% до 150%,
+     * чтобы повторы разных терминалов не приходили на шлюз одновременно
+     */
+    private long backoffMillis(int attempt) {
+        long base = backoff.toMillis() << Math.min(attempt - 1, 20);
+        return (long) (base * (0.5 + ThreadLocalRandom.current().nextDouble()));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public CircuitBreaker getCircuitBreaker(PaymentMethod method) {
+        Channel channel = channels.get(method);
+        return channel != null ? channel.breaker : null;
+    }
+
+    public int getAvailableSlots(PaymentMethod method) {
+        Channel channel = channels.get(method);
+        return channel != null ? channel.bulkhead.availablePermits() : 0;
+    }
+
+    // Getters
+    public Duration getTimeout() { return timeout; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+
+    public Duration getBackoff() { return backoff; }
+}
@@ -2,20 +2,167 @@ package com.pizzeria.service;
 
 import com.pizzeria.exceptions.InvalidPaymentException;
 import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
 import com.pizzeria.model.Receipt;
+import com.pizzeria.model.RefundEntry;
 import com.pizzeria.model.payment.Payment;
+import com.pizzeria.util.ExpiringCache;
+import com.pizzeria.util.IdGenerator;
+import com.pizzeria.util.TaxEngine;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Сервис обработки платежей
+ * Сервис обработки платежей.
+ *
+ * Обработка идемпотентна по ID транзакции: повтор платежа с тем же ID (переотправка
+ * с терминала) возвращает чек первой обработки, а не списывает деньги еще раз.
+ * Одновременные повторы ждут завершения первой попытки; если она завершилась ошибкой,
+ * запись снимается и следующий повтор обрабатывается заново.
+ * Обработанные ID хранятся в кэше ограниченного размера с ограниченным сроком жизни.
+ *
+ * processPaymentAsync проводит платеж через PaymentGatewayClient и не блокирует поток заказа.
+ * Проведенные платежи регистрируются в журнале возвратов (RefundLedger).
+ * Налоги и ставку сервисного сбора хранит TaxEngine. Сбор с оплаты не взимается, поэтому
+ * в чеке только налоги (computeTaxes), а calculateServiceFee лишь оценивает сбор.
  */
 public class PaymentService {
-    private int receiptCounter;
+    public static final int DEFAULT_DEDUPLICATION_CAPACITY = 100_000;
+    public static final Duration DEFAULT_DEDUPLICATION_TTL = Duration.ofHours(24);
+    public static final double DEFAULT_SERVICE_FEE_RATE = 5.0;
+
+    private final ExpiringCache<String, CompletableFuture<Receipt>> processed;
+    private final AtomicLong duplicateCount;
+    private final PaymentGatewayClient gatewayClient;
+    private final RefundLedger refundLedger;
+    private final TaxEngine taxEngine;
 
     public PaymentService() {
-        this.receiptCounter = 1;
+        this(new PaymentGatewayClient());
+    }
+
+    public PaymentService(PaymentGatewayClient gatewayClient) {
+        this(gatewayClient, DEFAULT_DEDUPLICATION_CAPACITY, DEFAULT_DEDUPLICATION_TTL);
+    }
+
+    public PaymentService(int deduplicationCapacity, Duration deduplicationTtl) {
+        this(new PaymentGatewayClient(), deduplicationCapacity, deduplicationTtl);
+    }
+
+    public PaymentService(PaymentGatewayClient gatewayClient, int deduplicationCapacity, Duration deduplicationTtl) {
+        this.processed = new ExpiringCache<>(deduplicationCapacity, deduplicationTtl);
+        this.duplicateCount = new AtomicLong();
+        this.gatewayClient = gatewayClient;
+        this.refundLedger = new RefundLedger();
+        this.taxEngine = new TaxEngine();
+        this.taxEngine.setServiceFeeRate(DEFAULT_SERVICE_FEE_RATE);
     }
 
     public Receipt processPayment(Order order, Payment payment) throws InvalidPaymentException {
+        String transactionId = payment.getTransactionId();
+        if (transactionId == null) {
+            return charge(order, payment);
+        }
+        while (true) {
+            CompletableFuture<Receipt> attempt = new CompletableFuture<>();
+            CompletableFuture<Receipt> previous = processed.putIfAbsent(transactionId, attempt);
+            if (previous == null) {
+                try {
+                    Receipt receipt = charge(order, payment);
+                    attempt.complete(receipt);
+                    return receipt;
+                } catch (InvalidPaymentException | RuntimeException e) {
+                    // неуспешная попытка ничего не списала - повтор должен обработаться заново
+                    processed.remove(transactionId, attempt);
+                    attempt.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            Receipt receipt;
+            try {
+                receipt = previous.join();
+            } catch (CompletionException e) {
+                continue;
+            }
+            return duplicateOf(receipt, order, payment);
+        }
+    }
+
+    /**
+     * Провести платеж через платежный шлюз без блокировки; правила повторов те же, что у processPayment
+     */
+    public CompletableFuture<Receipt> processPaymentAsync(Order order, Payment payment) {
+        if (payment.getAmount() < order.getFinalPrice()) {
+            return CompletableFuture.failedFuture(new InvalidPaymentException(payment.getAmount(),
+                "Недостаточная сумма для оплаты заказа"));
+        }
+        String transactionId = payment.getTransactionId();
+        if (transactionId == null) {
+            return chargeAsync(order, payment);
+        }
+        CompletableFuture<Receipt> attempt = new CompletableFuture<>();
+        CompletableFuture<Receipt> previous = processed.putIfAbsent(transactionId, attempt);
+        if (previous != null) {
+            // первая попытка завершилась ошибкой - она уже снята, обрабатываем заново
+            return previous.handle((receipt, error) -> receipt)
+                .thenCompose(receipt -> receipt == null ? processPaymentAsync(order, payment)
+                    : duplicateOfAsync(receipt, order, payment));
+        }
+        chargeAsync(order, payment).whenComplete((receipt, error) -> {
+            if (error == null) {
+                attempt.complete(receipt);
+            } else {
+                processed.remove(transactionId, attempt);
+                attempt.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            }
+        });
+        return attempt;
+    }
+
+    private CompletableFuture<Receipt> chargeAsync(Order order, Payment payment) {
+        return gatewayClient.process(payment).thenApply(success -> {
+            if (!success) {
+                throw new CompletionException(new InvalidPaymentException("Ошибка обработки платежа"));
+            }
+            return issueReceipt(order, payment);
+        });
+    }
+
+    private CompletableFuture<Receipt> duplicateOfAsync(Receipt receipt, Order order, Payment payment) {
+        try {
+            return CompletableFuture.completedFuture(duplicateOf(receipt, order, payment));
+        } catch (InvalidPaymentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Receipt duplicateOf(Receipt receipt, Order order, Payment payment) throws InvalidPaymentException {
+        if (!Objects.equals(receipt.getOrder().getId(), order.getId())) {
+            throw new InvalidPaymentException(payment.getAmount(), "Транзакция " + payment.getTransactionId()
+                + " уже использована для заказа " + receipt.getOrder().getId());
+        }
+        duplicateCount.incrementAndGet();
+        return receipt;
+    }
+
+    /**
+     * Чек по ID транзакции или null, если транзакция не обрабатывалась (или забыта)
+     */
+    public Receipt findReceipt(String transactionId) {
+        CompletableFuture<Receipt> attempt = processed.get(transactionId);
+        return attempt != null && attempt.isDone() && !attempt.isCompletedExceptionally() ? attempt.join() : null;
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    private Receipt charge(Order order, Payment payment) throws InvalidPaymentException {
         // Проверка суммы
         if (payment.getAmount() < order.getFinalPrice()) {
             throw new InvalidPaymentException(payment.getAmount(),
@@ -26,33 +173,75 @@ public class PaymentService {
         boolean success = payment.process();
 
         if (success) {
-            order.processPayment(payment.getAmount());
-            System.out.println("Платеж успешно обработан");
-
-            // Генерация чека
-            String receiptNumber = "RCP-" + (receiptCounter++);
-            Receipt receipt = new Receipt(receiptNumber, order, payment);
-            receipt.print();
-            return receipt;
+            return issueReceipt(order, payment);
         } else {
             throw new InvalidPaymentException("Ошибка обработки платежа");
         }
     }
 
+    private Receipt issueReceipt(Order order, Payment payment) {
+        order.processPayment(payment.getAmount());
+        order.setPaymentMethod(payment.getMethod());
+        System.out.println("Платеж успешно обработан");
+
+        // Генерация чека
+        String receiptNumber = IdGenerator.generateReceiptNumber();
+        Receipt receipt = new Receipt(receiptNumber, order, payment);
+        receipt.setTaxBreakdown(taxEngine.computeTaxes(order));
+        refundLedger.recordPayment(receipt);
+        receipt.print();
+        return receipt;
+    }
+
+    /**
+     * Частичный возврат позиции заказа по проведенному платежу
+     */
+    public RefundEntry refundItem(Payment payment, OrderItem item, int quantity, String reason)
+            throws InvalidPaymentException {
+        return refundLedger.refundItem(payment.getTransactionId(), item, quantity, reason);
+    }
+
+    public PaymentGatewayClient getGatewayClient() {
+        return gatewayClient;
+    }
+
+    public RefundLedger getRefundLedger() {
+        return refundLedger;
+    }
+
+    /**
+     * Ставки налогов и сборов; изменения действуют для следующих чеков
+     */
+    public TaxEngine getTaxEngine() {
+        return taxEngine;
+    }
+
     public void refundPayment(Payment payment) throws InvalidPaymentException {
         if (!payment.isSuccessful()) {
             throw new InvalidPaymentException("Невозможно вернуть неуспешный платеж");
         }
 
-        payment.refund();
+        if (refundLedger.isRecorded(payment.getTransactionId())) {
+            refundLedger.refundRemaining(payment.getTransactionId(), "Возврат платежа");
+        } else {
+            payment.refund();
+        }
         System.out.println("Возврат платежа выполнен успешно");
     }
 
     public double calculateTax(double amount) {
-        return amount * 0.13; // 13% НДС
+        return taxEngine.taxOn(amount);
     }
 
     public double calculateServiceFee(double amount) {
-        return amount * 0.05; // 5% сервисный сбор
+        return taxEngine.serviceFeeOn(amount);
+    }
+
+    public double getServiceFeeRate() {
+        return taxEngine.getServiceFeeRate();
+    }
+
+    public void setServiceFeeRate(double serviceFeeRate) {
+        taxEngine.setServiceFeeRate(serviceFeeRate);
     }
 }
@@ -0,0 +1,296 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.Promotion;
+import com.pizzeria.model.PromotionResult;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Движок акций: подбирает для заказа лучшую сочетаемую комбинацию акций.
+ *
+ * Акции индексируются по самому узкому условию: по названию продукта, иначе по категории,
+ * иначе по размеру пиццы; акции без условий действуют на все позиции. Для позиции
+ * просматриваются только подходящие корзины индекса.
+ *
+ * Правила сочетания: к позиции применяется не более одной акции (с наибольшей скидкой),
+ * исключительная акция не сочетается с другими - она выбирается, только если ее скидка
+ * по всему заказу больше лучшей комбинации обычных акций.
+ * Срок действия проверяется при каждом подборе (Promotion.isValid, флаг ExpiryScheduler).
+ */
+public class PromotionEngine {
+    private static final Promotion[] NONE = new Promotion[0];
+    private static final PizzaSize[] SIZES = PizzaSize.values();
+    private static final int CATEGORY_SLOTS = ProductCategory.values().length * (SIZES.length + 1);
+
+    private final List<Promotion> promotions;
+    private volatile Index index; // null - пересобрать при следующем подборе
+
+    /**
+     * Неизменяемый снимок индекса акций
+     */
+    private static class Index {
+        final Map<String, Promotion[]> byProduct = new HashMap<>();
+        final Map<ProductCategory, Promotion[]> byCategory = new EnumMap<>(ProductCategory.class);
+        final Map<PizzaSize, Promotion[]> bySize = new EnumMap<>(PizzaSize.class);
+        Promotion[] general = NONE;
+    }
+
+    public PromotionEngine() {
+        this.promotions = new ArrayList<>();
+    }
+
+    public synchronized void addPromotion(Promotion promotion) {
+        promotions.add(promotion);
+        index = null;
+    }
+
+    public synchronized void addPromotions(Collection<Promotion> added) {
+        promotions.addAll(added);
+        index = null;
+    }
+
+    public synchronized boolean removePromotion(Promotion promotion) {
+        boolean removed = promotions.remove(promotion);
+        index = null;
+        return removed;
+    }
+
+    /**
+     * Пересобрать индекс после изменения условий уже добавленных акций
+     */
+    public synchronized void reindex() {
+        index = null;
+    }
+
+    public synchronized List<Promotion> getPromotions() {
+        return Collections.unmodifiableList(new ArrayList<>(promotions));
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (index == null) {
+                index = buildIndex();
+            }
+            return index;
+        }
+    }
+
+    private Index buildIndex() {
+        Map<String, List<Promotion>> byProduct = new HashMap<>();
+        Map<ProductCategory, List<Promotion>> byCategory = new EnumMap<>(ProductCategory.class);
+        Map<PizzaSize, List<Promotion>> bySize = new EnumMap<>(PizzaSize.class);
+        List<Promotion> general = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            if (!promotion.getProductNames().isEmpty()) {
+                for (String name : promotion.getProductNames()) {
+                    byProduct.computeIfAbsent(name, k -> new ArrayList<>()).add(promotion);
+                }
+            } else if (!promotion.getCategories().isEmpty()) {
+                for (ProductCategory category : promotion.getCategories()) {
+                    byCategory.computeIfAbsent(category, k -> new ArrayList<>()).add(promotion);
+                }
+            } else if (!promotion.getSizes().isEmpty()) {
+                for (PizzaSize size : promotion.getSizes()) {
+                    bySize.computeIfAbsent(size, k -> new ArrayList<>()).add(promotion);
+                }
+            } else {
+                general.add(promotion);
+            }
+        }
+        Index built = new Index();
+        byProduct.forEach((name, list) -> built.byProduct.put(name, list.toArray(NONE)));
+        byCategory.forEach((category, list) -> built.byCategory.put(category, list.toArray(NONE)));
+        bySize.forEach((size, list) -> built.bySize.put(size, list.toArray(NONE)));
+        built.general = general.toArray(NONE);
+        return built;
+    }
+
+    /**
+     * Подобрать лучшую комбинацию акций за один проход по позициям заказа
+     */
+    public PromotionResult evaluate(Order order) {
+        Index current = currentIndex();
+        List<OrderItem> items = order.getItems();
+        int count = items.size();
+        Evaluation evaluation = new Evaluation(count);
+
+        for (int i = 0; i < count; i++) {
+            OrderItem item = items.get(i);
+            Product product = item.getProduct();
+            String name = product.getName().toLowerCase();
+            ProductCategory category = ProductCategory.of(product);
+            PizzaSize size = product instanceof Pizza ? ((Pizza) product).getSize() : null;
+            double lineTotal = item.getTotalPrice();
+
+            evaluation.scan(current.byProduct.get(name), i, name, category, size, lineTotal);
+            // корзины без условия на продукт дают одно и то же для всех позиций с той же категорией и размером
+            int slot = category.ordinal() * (SIZES.length + 1) + (size == null ? 0 : size.ordinal() + 1);
+            evaluation.apply(evaluation.bestOf(current.byCategory.get(category), slot, category, size),
+                i, lineTotal);
+            if (size != null) {
+                evaluation.apply(evaluation.bestOf(current.bySize.get(size), CATEGORY_SLOTS + slot, category, size),
+                    i, lineTotal);
+            }
+            evaluation.apply(evaluation.bestOf(current.general, 2 * CATEGORY_SLOTS, category, size), i, lineTotal);
+        }
+        return evaluation.result(items);
+    }
+
+    /**
+     * Подобрать акции и записать итоговую скидку в заказ (заменяет прежнюю скидку заказа)
+     */
+    public PromotionResult apply(Order order) {
+        PromotionResult result = evaluate(order);
+        double total = order.getPrice() + order.calculateDeliveryCost();
+        order.applyDiscount(total > 0 ? result.getTotalDiscount() * 100.0 / total : 0);
+        return result;
+    }
+
+    /**
+     * Лучшая обычная акция и подходящие исключительные акции корзины индекса
+     */
+    private static class BucketBest {
+        Promotion shared;
+        List<Promotion> exclusive;
+    }
+
+    /**
+     * Лучшие скидки по позициям для обычных акций и суммы по позициям для исключительных
+     */
+    private static class Evaluation {
+        final double[] bestDiscount;
+        final Promotion[] bestPromotion;
+        final BucketBest[] memo = new BucketBest[2 * CATEGORY_SLOTS + 1];
+        Map<Promotion, double[]> exclusive; // создается при первой исключительной акции
+
+        Evaluation(int count) {
+            this.bestDiscount = new double[count];
+            this.bestPromotion = new Promotion[count];
+        }
+
+        /**
+         * Проверить акции с условием на продукт для одной позиции
+         */
+        void scan(Promotion[] candidates, int line, String name, ProductCategory category, PizzaSize size,
+                  double lineTotal) {
+            if (candidates == null) {
+                return;
+            }
+            for (Promotion promotion : candidates) {
+                if (promotion.isValid() && promotion.appliesTo(name, category, size)) {
+                    offer(promotion, line, lineTotal);
+                }
+            }
+        }
+
+        /**
+         * Итог корзины без условия на продукт, один раз за подбор для каждой пары категории и размера
+         */
+        BucketBest bestOf(Promotion[] candidates, int memoKey, ProductCategory category, PizzaSize size) {
+            if (candidates == null || candidates.length == 0) {
+                return null;
+            }
+            BucketBest best = memo[memoKey];
+            if (best != null) {
+                return best;
+            }
+            best = new BucketBest();
+            for (Promotion promotion : candidates) {
+                if (!promotion.isValid() || !promotion.appliesTo(null, category, size)) {
+                    continue;
+                }
+                if (promotion.isExclusive()) {
+                    if (best.exclusive == null) {
+                        best.exclusive = new ArrayList<>();
+                    }
+                    best.exclusive.add(promotion);
+                } else if (best.shared == null
+                        || promotion.getDiscountPercentage() > best.shared.getDiscountPercentage()) {
+                    best.shared = promotion;
+                }
+            }
+            memo[memoKey] = best;
+            return best;
+        }
+
+        void apply(BucketBest best, int line, double lineTotal) {
+            if (best == null) {
+                return;
+            }
+            if (best.shared != null) {
+                offer(best.shared, line, lineTotal);
+            }
+            if (best.exclusive != null) {
+                for (Promotion promotion : best.exclusive) {
+                    offer(promotion, line, lineTotal);
+                }
+            }
+        }
+
+        private void offer(Promotion promotion, int line, double lineTotal) {
+            double discount = lineTotal * promotion.getDiscountPercentage() / 100.0;
+            if (promotion.isExclusive()) {
+                if (exclusive == null) {
+                    exclusive = new IdentityHashMap<>();
+                }
+                double[] lines = exclusive.computeIfAbsent(promotion, k -> new double[bestDiscount.length]);
+                lines[line] = Math.max(lines[line], discount);
+            } else if (discount > bestDiscount[line]) {
+                bestDiscount[line] = discount;
+                bestPromotion[line] = promotion;
+            }
+        }
+
+        PromotionResult result(List<OrderItem> items) {
+            double sharedTotal = 0;
+            for (double discount : bestDiscount) {
+                sharedTotal += discount;
+            }
+            Promotion bestExclusive = null;
+            double[] exclusiveLines = null;
+            double bestTotal = sharedTotal;
+            if (exclusive != null) {
+                for (Map.Entry<Promotion, double[]> entry : exclusive.entrySet()) {
+                    double total = 0;
+                    for (double discount : entry.getValue()) {
+                        total += discount;
+                    }
+                    if (total > bestTotal) {
+                        bestTotal = total;
+                        bestExclusive = entry.getKey();
+                        exclusiveLines = entry.getValue();
+                    }
+                }
+            }
+
+            PromotionResult result = new PromotionResult();
+            for (int i = 0; i < items.size(); i++) {
+                if (bestExclusive != null) {
+                    if (exclusiveLines[i] > 0) {
+                        result.add(items.get(i), bestExclusive, exclusiveLines[i]);
+                    }
+                } else if (bestPromotion[i] != null) {
+                    result.add(items.get(i), bestPromotion[i], bestDiscount[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
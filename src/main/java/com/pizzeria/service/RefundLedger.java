@@ -0,0 +1,371 @@
+package com.pizzeria.service;
+
+import com.pizzeria.enums.ReconciliationIssueType;
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.Pizzeria;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.ReconciliationReport;
+import com.pizzeria.model.RefundEntry;
+import com.pizzeria.model.payment.Payment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Журнал возвратов.
+ *
+ * Проведенные платежи регистрируются по чеку, возвраты (полные и по позициям заказа)
+ * записываются только добавлением. Выручка и возвраты по дням и возвраты по продуктам
+ * обновляются при каждой операции, без пересчета истории.
+ * Сверка за день параллельно проходит заказы и сопоставляет их с платежами и журналом.
+ */
+public class RefundLedger {
+    private static final double EPSILON = 0.005;
+    private static final int RECONCILIATION_THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+    private final AtomicLong sequence;
+    private final Queue<RefundEntry> journal;
+    private final Map<String, Account> accounts;
+    private final Map<String, List<Account>> accountsByOrder;
+    private final Map<LocalDate, DoubleAdder> grossByDay;
+    private final Map<LocalDate, DoubleAdder> refundsByDay;
+    private final Map<String, DoubleAdder> refundsByProduct;
+
+    /**
+     * Проведенный платеж и то, что по нему уже возвращено; изменяется под блокировкой самого счета
+     */
+    private static class Account {
+        final Order order;
+        final Payment payment;
+        final Map<OrderItem, Integer> refundedQuantities = new IdentityHashMap<>();
+        double refunded;
+
+        Account(Receipt receipt) {
+            this.order = receipt.getOrder();
+            this.payment = receipt.getPayment();
+        }
+
+        double remaining() {
+            return payment.getAmount() - refunded;
+        }
+    }
+
+    public RefundLedger() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RefundLedger(ForkJoinPool pool) {
+        this.pool = pool;
+        this.sequence = new AtomicLong();
+        this.journal = new ConcurrentLinkedQueue<>();
+        this.accounts = new ConcurrentHashMap<>();
+        this.accountsByOrder = new ConcurrentHashMap<>();
+        this.grossByDay = new ConcurrentHashMap<>();
+        this.refundsByDay = new ConcurrentHashMap<>();
+        this.refundsByProduct = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Зарегистрировать проведенный платеж
+     * @return false, если у платежа нет ID транзакции или платеж с таким ID уже зарегистрирован
+     */
+    public boolean recordPayment(Receipt receipt) {
+        Payment payment = receipt.getPayment();
+        if (payment.getTransactionId() == null) {
+            return false;
+        }
+        Account account = new Account(receipt);
+        if (accounts.putIfAbsent(payment.getTransactionId(), account) != null) {
+            return false;
+        }
+        accountsByOrder.computeIfAbsent(account.order.getId(), k -> new CopyOnWriteArrayList<>()).add(account);
+        adder(grossByDay, payment.getPaymentTime().toLocalDate()).add(payment.getAmount());
+        return true;
+    }
+
+    /**
+     * Вернуть часть позиции заказа. Сумма - цена единицы с учетом скидки заказа
+     */
+    public RefundEntry refundItem(String transactionId, OrderItem item, int quantity, String reason)
+            throws InvalidPaymentException {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Количество для возврата должно быть положительным: " + quantity);
+        }
+        Account account = accountOf(transactionId);
+        synchronized (account) {
+            if (!containsItem(account.order, item)) {
+                throw new InvalidPaymentException("Позиция не входит в заказ " + account.order.getId());
+            }
+            int refundedBefore = account.refundedQuantities.getOrDefault(item, 0);
+            if (refundedBefore + quantity > item.getQuantity()) {
+                throw new InvalidPaymentException("Можно вернуть не более "
+                    + (item.getQuantity() - refundedBefore) + " ед. позиции " + item.getProduct().getName());
+            }
+            double unitPrice = item.getTotalPrice() / item.getQuantity()
+                * (1 - account.order.getDiscountPercentage() / 100.0);
+            double amount = Math.round(unitPrice * quantity * 100) / 100.0;
+            if (amount > account.remaining() + EPSILON) {
+                throw new InvalidPaymentException(amount, "Сумма возврата превышает остаток платежа");
+            }
+            amount = Math.min(amount, account.remaining());
+            if (account.remaining() - amount < EPSILON) {
+                account.payment.refund();
+            }
+            account.refundedQuantities.put(item, refundedBefore + quantity);
+            return append(account, item.getProduct().getName(), quantity, amount, reason);
+        }
+    }
+
+    /**
+     * Вернуть все, что осталось от платежа (например, доставку после возврата всех позиций)
+     */
+    public RefundEntry refundRemaining(String transactionId, String reason) throws InvalidPaymentException {
+        Account account = accountOf(transactionId);
+        synchronized (account) {
+            double amount = account.remaining();
+            if (amount < EPSILON) {
+                throw new InvalidPaymentException("Платеж " + transactionId + " уже возвращен полностью");
+            }
+            account.payment.refund();
+            for (OrderItem item : account.order.getItems()) {
+                account.refundedQuantities.put(item, item.getQuantity());
+            }
+            return append(account, null, 0, amount, reason);
+        }
+    }
+
+    public boolean isRecorded(String transactionId) {
+        return transactionId != null && accounts.containsKey(transactionId);
+    }
+
+    public double getRefundedAmount(String transactionId) throws InvalidPaymentException {
+        Account account = accountOf(transactionId);
+        synchronized (account) {
+            return account.refunded;
+        }
+    }
+
+    private Account accountOf(String transactionId) throws InvalidPaymentException {
+        Account account = transactionId == null ? null : accounts.get(transactionId);
+        if (account == null) {
+            throw new InvalidPaymentException("Платеж " + transactionId + " не зарегистрирован");
+        }
+        return account;
+    }
+
+    private static boolean containsItem(Order order, OrderItem item) {
+        for (OrderItem candidate : order.getItems()) {
+            if (candidate == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RefundEntry append(Account account, String productName, int quantity, double amount, String reason) {
+        account.refunded += amount;
+        RefundEntry entry = new RefundEntry(sequence.incrementAndGet(), account.payment.getTransactionId(),
+            account.order.getId(), productName, quantity, amount, reason);
+        journal.add(entry);
+        adder(refundsByDay, entry.getTime().toLocalDate()).add(amount);
+        if (productName != null) {
+            adder(refundsByProduct, productName).add(amount);
+        }
+        return entry;
+    }
+
+    private static <K> DoubleAdder adder(Map<K, DoubleAdder> totals, K key) {
+        return totals.computeIfAbsent(key, k -> new DoubleAdder());
+    }
+
+    /**
+     * Выручка дня за вычетом возвратов, сделанных в этот день
+     */
+    public double getNetRevenue(LocalDate date) {
+        return getGrossRevenue(date) - getRefundedTotal(date);
+    }
+
+    public double getGrossRevenue(LocalDate date) {
+        DoubleAdder gross = grossByDay.get(date);
+        return gross == null ? 0 : gross.sum();
+    }
+
+    public double getRefundedTotal(LocalDate date) {
+        DoubleAdder refunds = refundsByDay.get(date);
+        return refunds == null ? 0 : refunds.sum();
+    }
+
+    public Map<String, Double> getRefundsByProduct() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        refundsByProduct.forEach((product, total) -> snapshot.put(product, total.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Записи по транзакции в порядке номеров
+     */
+    public List<RefundEntry> getEntries(String transactionId) {
+        List<RefundEntry> entries = new ArrayList<>();
+        for (RefundEntry entry : journal) {
+            if (entry.getTransactionId().equals(transactionId)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(RefundEntry::getSequence));
+        return entries;
+    }
+
+    public int getEntryCount() {
+        return journal.size();
+    }
+
+    /**
+     * Сверка за день: заказы дня с их платежами и возвратами, платежи дня без заказа
+     * среди переданных и итоги дня с суммами платежей и журнала
+     */
+    public ReconciliationReport reconcile(List<Order> orders, LocalDate date) {
+        Map<String, Double> journalRefunds = new HashMap<>();
+        ReconciliationReport report = new ReconciliationReport(date);
+        for (RefundEntry entry : journal) {
+            journalRefunds.merge(entry.getTransactionId(), entry.getAmount(), Double::sum);
+            if (entry.getTime().toLocalDate().equals(date)) {
+                report.addRefund(entry.getAmount());
+            }
+        }
+
+        List<Order> source = orders instanceof RandomAccess ? orders : new ArrayList<>(orders);
+        Set<String> orderIds = ConcurrentHashMap.newKeySet(source.size());
+        report.merge(pool.invoke(new OrderCheck(source, 0, source.size(), date, journalRefunds, orderIds)));
+
+        for (Account account : accounts.values()) {
+            Payment payment = account.payment;
+            if (!payment.getPaymentTime().toLocalDate().equals(date)) {
+                continue;
+            }
+            report.addPayment(payment.getAmount());
+            if (!orderIds.contains(account.order.getId())) {
+                report.addIssue(ReconciliationIssueType.PAYMENT_WITHOUT_ORDER, account.order.getId(),
+                    payment.getTransactionId(), String.format("%.2f руб.", payment.getAmount()));
+            }
+        }
+
+        if (Math.abs(getGrossRevenue(date) - report.getPaidTotal()) > EPSILON
+                || Math.abs(getRefundedTotal(date) - report.getRefundedTotal()) > EPSILON) {
+            report.addIssue(ReconciliationIssueType.AGGREGATE_MISMATCH, null, null, String.format(
+                "выручка %.2f / %.2f, возвраты %.2f / %.2f", getGrossRevenue(date), report.getPaidTotal(),
+                getRefundedTotal(date), report.getRefundedTotal()));
+        }
+        return report;
+    }
+
+    public ReconciliationReport reconcile(Pizzeria pizzeria, LocalDate date) {
+        return reconcile(pizzeria.getOrderHistory(), date);
+    }
+
+    /**
+     * Проверка партиции заказов
+     */
+    private class OrderCheck extends RecursiveTask<ReconciliationReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Order> orders;
+        private final int start;
+        private final int end;
+        private final LocalDate date;
+        private final Map<String, Double> journalRefunds;
+        private final Set<String> orderIds;
+
+        OrderCheck(List<Order> orders, int start, int end, LocalDate date,
+                   Map<String, Double> journalRefunds, Set<String> orderIds) {
+            this.orders = orders;
+            this.start = start;
+            this.end = end;
+            this.date = date;
+            this.journalRefunds = journalRefunds;
+            this.orderIds = orderIds;
+        }
+
+        @Override
+        protected ReconciliationReport compute() {
+            if (end - start <= RECONCILIATION_THRESHOLD) {
+                return computeDirectly();
+            }
+            int middle = (start + end) >>> 1;
+            OrderCheck left = new OrderCheck(orders, start, middle, date, journalRefunds, orderIds);
+            OrderCheck right = new OrderCheck(orders, middle, end, date, journalRefunds, orderIds);
+            left.fork();
+            ReconciliationReport rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private ReconciliationReport computeDirectly() {
+            ReconciliationReport partial = new ReconciliationReport(date);
+            for (int i = start; i < end; i++) {
+                Order order = orders.get(i);
+                orderIds.add(order.getId());
+                if (order.getOrderTime().toLocalDate().equals(date)) {
+                    partial.addOrder();
+                    check(order, partial);
+                }
+            }
+            return partial;
+        }
+
+        private void check(Order order, ReconciliationReport partial) {
+            List<Account> paid = accountsByOrder.get(order.getId());
+            if (paid == null) {
+                if (order.isPaid()) {
+                    partial.addIssue(ReconciliationIssueType.ORDER_WITHOUT_PAYMENT, order.getId(), null,
+                        String.format("%.2f руб.", order.getFinalPrice()));
+                }
+                return;
+            }
+            if (paid.size() > 1) {
+                partial.addIssue(ReconciliationIssueType.DUPLICATE_PAYMENT, order.getId(), null,
+                    "платежей: " + paid.size());
+            }
+            for (Account account : paid) {
+                Payment payment = account.payment;
+                String transactionId = payment.getTransactionId();
+                if (payment.getAmount() + EPSILON < order.getFinalPrice()) {
+                    partial.addIssue(ReconciliationIssueType.AMOUNT_MISMATCH, order.getId(), transactionId,
+                        String.format("%.2f < %.2f руб.", payment.getAmount(), order.getFinalPrice()));
+                }
+                double refunded;
+                synchronized (account) {
+                    refunded = account.refunded;
+                }
+                double logged = journalRefunds.getOrDefault(transactionId, 0.0);
+                if (Math.abs(refunded - logged) > EPSILON || refunded > payment.getAmount() + EPSILON) {
+                    partial.addIssue(ReconciliationIssueType.REFUND_MISMATCH, order.getId(), transactionId,
+                        String.format("возвращено %.2f, в журнале %.2f, оплачено %.2f руб.",
+                            refunded, logged, payment.getAmount()));
+                }
+                boolean fullyRefunded = payment.getAmount() - refunded < EPSILON;
+                if (fullyRefunded == payment.isSuccessful()) {
+                    partial.addIssue(ReconciliationIssueType.STATE_MISMATCH, order.getId(), transactionId,
+                        fullyRefunded ? "возвращен полностью, но отмечен успешным" : "отмечен неуспешным без полного возврата");
+                }
+            }
+        }
+    }
+}
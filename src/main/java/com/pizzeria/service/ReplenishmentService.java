@@ -0,0 +1,181 @@
+package com.pizzeria.service;
+
+import com.pizzeria.interfaces.StockListener;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.RestockSuggestion;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.util.ClockProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Сервис прогнозного пополнения склада.
+ * Скорость расхода каждого ингредиента - экспоненциально взвешенное скользящее среднее
+ * с постоянной времени smoothingWindow; оно обновляется при каждом списании со склада
+ * и хранится в примитивных массивах по ячейкам склада.
+ * Рекомендации выдаются пакетом: как только хоть один ингредиент закончится раньше,
+ * чем придет поставка (leadTime), в ту же поставку попадают все ингредиенты,
+ * которые закончатся в пределах еще batchWindow.
+ * Без явно переданных часов время берется из ClockProvider, в том числе виртуальное.
+ */
+public class ReplenishmentService implements StockListener {
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private final Inventory inventory;
+    private final Clock clock;     // null - часы ClockProvider
+    private Duration smoothingWindow;
+    private Duration leadTime;
+    private Duration coverPeriod;
+    private Duration batchWindow;
+    private double[] rates;        // единиц в час на момент lastUpdates
+    private long[] lastUpdates;
+    private boolean[] pending;     // рекомендация выдана, поставки еще не было
+
+    public ReplenishmentService(Inventory inventory) {
+        this(inventory, null);
+    }
+
+    public ReplenishmentService(Inventory inventory, Clock clock) {
+        this.inventory = inventory;
+        this.clock = clock;
+        this.smoothingWindow = Duration.ofHours(1);
+        this.leadTime = Duration.ofHours(2);
+        this.coverPeriod = Duration.ofHours(8);
+        this.batchWindow = Duration.ofHours(4);
+        this.rates = new double[16];
+        this.lastUpdates = new long[16];
+        this.pending = new boolean[16];
+        inventory.addStockListener(this);
+    }
+
+    @Override
+    public synchronized void onConsumed(String ingredientName, int slot, int amount, int remaining) {
+        ensureCapacity(slot);
+        long now = currentMillis();
+        rates[slot] = rateAt(slot, now) + amount / hours(smoothingWindow);
+        lastUpdates[slot] = now;
+    }
+
+    @Override
+    public synchronized void onRestocked(String ingredientName, int slot, int amount, int remaining) {
+        ensureCapacity(slot);
+        pending[slot] = false;
+    }
+
+    /**
+     * Текущая оценка расхода ингредиента в единицах в час
+     */
+    public double getConsumptionRate(String ingredientName) {
+        int slot = inventory.slotOf(ingredientName);
+        synchronized (this) {
+            ensureCapacity(slot);
+            return rateAt(slot, currentMillis());
+        }
+    }
+
+    /**
+     * Прогноз времени до исчерпания запаса в часах
+     * @return Double.POSITIVE_INFINITY, если ингредиент не расходуется; 0, если его нет на складе
+     */
+    public double forecastHoursToStockout(String ingredientName) {
+        Ingredient ingredient = inventory.getIngredients().get(ingredientName);
+        if (ingredient == null) {
+            return 0;
+        }
+        double rate = getConsumptionRate(ingredientName);
+        return rate > 0 ? ingredient.getQuantity() / rate : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Сформировать пакет рекомендаций по пополнению.
+     * Ингредиенты из выданного пакета не попадают в следующие, пока их запас не пополнят.
+     * @return пустой список, если ни одному ингредиенту не грозит исчерпание до прихода поставки
+     */
+    public List<RestockSuggestion> planRestock() {
+        int slotCount = inventory.getSlotCount();
+        String[] names = new String[slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            names[slot] = inventory.getSlotName(slot);
+        }
+
+        List<RestockSuggestion> batch = new ArrayList<>();
+        synchronized (this) {
+            ensureCapacity(slotCount - 1);
+            long now = currentMillis();
+            double critical = hours(leadTime);
+            double horizon = critical + hours(batchWindow);
+            double target = hours(leadTime) + hours(coverPeriod);
+            boolean urgent = false;
+            List<Integer> slots = new ArrayList<>();
+
+            for (int slot = 0; slot < slotCount; slot++) {
+                Ingredient ingredient = inventory.getIngredients().get(names[slot]);
+                double rate = rateAt(slot, now);
+                if (ingredient == null || pending[slot] || rate <= 0) {
+                    continue;
+                }
+                int quantity = ingredient.getQuantity();
+                double hoursLeft = quantity / rate;
+                int suggested = (int) Math.ceil(rate * target - quantity);
+                if (hoursLeft < horizon && suggested > 0) {
+                    urgent |= hoursLeft < critical;
+                    batch.add(new RestockSuggestion(names[slot], quantity, rate, hoursLeft, suggested));
+                    slots.add(slot);
+                }
+            }
+            if (!urgent) {
+                return new ArrayList<>();
+            }
+            for (int slot : slots) {
+                pending[slot] = true;
+            }
+        }
+        batch.sort(Comparator.comparingDouble(RestockSuggestion::getHoursToStockout));
+        return batch;
+    }
+
+    private long currentMillis() {
+        return clock != null ? clock.millis() : ClockProvider.currentTimeMillis();
+    }
+
+    private double rateAt(int slot, long now) {
+        if (rates[slot] == 0) {
+            return 0;
+        }
+        double elapsed = Math.max(0, now - lastUpdates[slot]) / MILLIS_PER_HOUR;
+        return rates[slot] * Math.exp(-elapsed / hours(smoothingWindow));
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= rates.length) {
+            int capacity = Math.max(slot + 1, rates.length * 2);
+            rates = Arrays.copyOf(rates, capacity);
+            lastUpdates = Arrays.copyOf(lastUpdates, capacity);
+            pending = Arrays.copyOf(pending, capacity);
+        }
+    }
+
+    private static double hours(Duration duration) {
+        return duration.toMillis() / MILLIS_PER_HOUR;
+    }
+
+    // Getters and Setters
+    public Duration getSmoothingWindow() { return smoothingWindow; }
+    public synchronized void setSmoothingWindow(Duration smoothingWindow) {
+        this.smoothingWindow = smoothingWindow;
+    }
+
+    public Duration getLeadTime() { return leadTime; }
+    public synchronized void setLeadTime(Duration leadTime) { this.leadTime = leadTime; }
+
+    public Duration getCoverPeriod() { return coverPeriod; }
+    public synchronized void setCoverPeriod(Duration coverPeriod) { this.coverPeriod = coverPeriod; }
+
+    public Duration getBatchWindow() { return batchWindow; }
+    public synchronized void setBatchWindow(Duration batchWindow) { this.batchWindow = batchWindow; }
+}
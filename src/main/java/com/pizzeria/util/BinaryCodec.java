@@ -0,0 +1,963 @@
+package com.pizzeria.util;
+
+import com.pizzeria.enums.LoyaltyTier;
+import com.pizzeria.enums.OrderStatus;
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.factory.PizzaFactory;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.Email;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.payment.CardPayment;
+import com.pizzeria.model.payment.CashPayment;
+import com.pizzeria.model.payment.OnlinePayment;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.model.products.Appetizer;
+import com.pizzeria.model.products.CustomPizza;
+import com.pizzeria.model.products.Dessert;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.MeatLoversPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.products.VeggiePizza;
+import com.pizzeria.model.users.Customer;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактный бинарный формат заказов, позиций, клиентов, платежей и чеков
+ * для журналов, снимков и синхронизации между точками.
+ *
+ * Целые числа - varint (отрицательные - zigzag), суммы с точностью до копейки - varint в копейках,
+ * время - миллисекунды от эпохи SnowflakeIdGenerator, перечисления - порядковый номер.
+ * Названия продуктов, ингредиентов и другие повторяющиеся строки пишутся один раз и дальше
+ * передаются номером в словаре; клиенты, продукты и заказы, уже записанные в поток, - ссылкой.
+ * Продукты и ингредиенты восстанавливаются через фабрики, без рефлексии.
+ *
+ * Словарь и таблица ссылок общие для всех записей потока: читать записи нужно в том же порядке
+ * тем же кодеком (по экземпляру на сторону потока). Для независимых записей - reset() перед каждой.
+ * Если запись не удалась (не поместилась в буфер, неподдерживаемый объект) или чтение оборвалось
+ * на неполных данных, позиция буфера и состояние кодека откатываются к началу записи -
+ * ее можно повторить с другим буфером.
+ * Не сохраняются: сотрудник заказа, CVV карты и налоги чека (пересчитываются TaxEngine).
+ * Не потокобезопасен.
+ */
+public class BinaryCodec {
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+    private static final PizzaSize[] PIZZA_SIZES = PizzaSize.values();
+    private static final LoyaltyTier[] LOYALTY_TIERS = LoyaltyTier.values();
+
+    // метки строк словаря и ссылок: 0 - null, 1 - новое значение, n - значение с номером n - 2
+    private static final int NULL_TAG = 0;
+    private static final int NEW_TAG = 1;
+    private static final double MAX_EXACT_DECIMAL = 1e15;
+
+    private static final int PRODUCT_PIZZA = 0;
+    private static final int PRODUCT_DRINK = 1;
+    private static final int PRODUCT_DESSERT = 2;
+    private static final int PRODUCT_APPETIZER = 3;
+
+    private static final int PAYMENT_NONE = 0;
+    private static final int PAYMENT_CASH = 1;
+    private static final int PAYMENT_CARD = 2;
+    private static final int PAYMENT_ONLINE = 3;
+
+    private static final int PRODUCT_AVAILABLE = 1;
+    private static final int PRODUCT_SHARED = 1 << 1;
+    private static final int DRINK_CARBONATED = 1 << 2;
+    private static final int DRINK_ALCOHOLIC = 1 << 3;
+    private static final int DESSERT_SWEET = 1 << 2;
+    private static final int DESSERT_NUTS = 1 << 3;
+    private static final int APPETIZER_HOT = 1 << 2;
+
+    private static final int CUSTOMER_PHONE = 1;
+    private static final int CUSTOMER_EMAIL = 1 << 1;
+    private static final int CUSTOMER_ADDRESS = 1 << 2;
+    private static final int CUSTOMER_LOYALTY = 1 << 3;
+    private static final int CUSTOMER_NOTIFICATIONS = 1 << 4;
+
+    private static final int ORDER_ADDRESS = 1;
+    private static final int ORDER_PAID = 1 << 1;
+
+    private final PizzaFactory pizzaFactory;
+    private final IngredientFactory ingredientFactory;
+
+    // состояние записи
+    private final Map<String, Integer> writtenStrings = new HashMap<>();
+    private final Map<Object, Integer> writtenObjects = new IdentityHashMap<>();
+
+    // состояние чтения
+    private final List<String> readStrings = new ArrayList<>();
+    private final List<Object> readObjects = new ArrayList<>();
+    private byte[] scratch = new byte[128];
+
+    private interface Encoder<T> {
+        void encode(ByteBuffer out, T value);
+    }
+
+    private interface Decoder<T> {
+        T decode(ByteBuffer in) throws Exception;
+    }
+
+    public BinaryCodec() {
+        this(new PizzaFactory(), new IngredientFactory());
+    }
+
+    /**
+     * @param pizzaFactory фабрика с типами пицц, которые встречаются в потоке
+     * @param ingredientFactory фабрика с категориями ингредиентов, которые встречаются в потоке
+     */
+    public BinaryCodec(PizzaFactory pizzaFactory, IngredientFactory ingredientFactory) {
+        if (pizzaFactory == null || ingredientFactory == null) {
+            throw new IllegalArgumentException("Нужны фабрики пицц и ингредиентов");
+        }
+        this.pizzaFactory = pizzaFactory;
+        this.ingredientFactory = ingredientFactory;
+    }
+
+    /**
+     * Начать новый поток: очистить словарь строк и таблицу ссылок
+     */
+    public void reset() {
+        writtenStrings.clear();
+        writtenObjects.clear();
+        readStrings.clear();
+        readObjects.clear();
+    }
+
+    // ---------- Публичные записи ----------
+
+    public void writeOrder(ByteBuffer out, Order order) {
+        write(out, order, this::writeOrderReference);
+    }
+
+    public Order readOrder(ByteBuffer in) {
+        return read(in, this::readOrderReference);
+    }
+
+    public void writeOrderItem(ByteBuffer out, OrderItem item) {
+        write(out, requireValue(item, "Позиция заказа"), this::encodeOrderItem);
+    }
+
+    public OrderItem readOrderItem(ByteBuffer in) {
+        return read(in, this::decodeOrderItem);
+    }
+
+    public void writeCustomer(ByteBuffer out, Customer customer) {
+        write(out, customer, this::writeCustomerReference);
+    }
+
+    public Customer readCustomer(ByteBuffer in) {
+        return read(in, this::readCustomerReference);
+    }
+
+    public void writePayment(ByteBuffer out, Payment payment) {
+        write(out, payment, this::encodePayment);
+    }
+
+    public Payment readPayment(ByteBuffer in) {
+        return read(in, this::decodePayment);
+    }
+
+    public void writeReceipt(ByteBuffer out, Receipt receipt) {
+        write(out, requireValue(receipt, "Чек"), this::encodeReceipt);
+    }
+
+    public Receipt readReceipt(ByteBuffer in) {
+        return read(in, this::decodeReceipt);
+    }
+
+    private static <T> T requireValue(T value, String what) {
+        if (value == null) {
+            throw new IllegalArgumentException(what + " не может быть null");
+        }
+        return value;
+    }
+
+    private <T> void write(ByteBuffer out, T value, Encoder<T> encoder) {
+        int position = out.position();
+        int stringMark = writtenStrings.size();
+        int objectMark = writtenObjects.size();
+        try {
+            encoder.encode(out, value);
+        } catch (RuntimeException e) {
+            out.position(position);
+            if (writtenStrings.size() > stringMark) {
+                writtenStrings.values().removeIf(index -> index >= stringMark);
+            }
+            if (writtenObjects.size() > objectMark) {
+                writtenObjects.values().removeIf(index -> index >= objectMark);
+            }
+            throw e;
+        }
+    }
+
+    private <T> T read(ByteBuffer in, Decoder<T> decoder) {
+        int position = in.position();
+        int stringMark = readStrings.size();
+        int objectMark = readObjects.size();
+        try {
+            return decoder.decode(in);
+        } catch (Exception e) {
+            in.position(position);
+            readStrings.subList(stringMark, readStrings.size()).clear();
+            readObjects.subList(objectMark, readObjects.size()).clear();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new IllegalArgumentException("Некорректные данные: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------- Заказ ----------
+
+    private void writeOrderReference(ByteBuffer out, Order order) {
+        writeReference(out, order, this::encodeOrder);
+    }
+
+    private Order readOrderReference(ByteBuffer in) throws Exception {
+        return readReference(in, Order.class, this::decodeOrder);
+    }
+
+    private void encodeOrder(ByteBuffer out, Order order) {
+        writeString(out, order.getId());
+        writeCustomerReference(out, order.getCustomer());
+        writeEnum(out, order.getStatus());
+        writeTime(out, order.getOrderTime());
+        writeTime(out, order.getDeliveryTime());
+        writeEnum(out, order.getPaymentMethod());
+        writeDecimal(out, order.getDiscountPercentage());
+        writeVarInt(out, order.getQuotedWaitMinutes());
+        Address address = order.getDeliveryAddress();
+        writeVarInt(out, (address != null ? ORDER_ADDRESS : 0) | (order.isPaid() ? ORDER_PAID : 0));
+        if (address != null) {
+            encodeAddress(out, address);
+        }
+        List<OrderItem> items = order.getItems();
+        writeVarInt(out, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            encodeOrderItem(out, items.get(i));
+        }
+    }
+
+    private Order decodeOrder(ByteBuffer in) throws Exception {
+        String id = readString(in);
+        Order order = new Order(id, readCustomerReference(in));
+        order.setStatus(readEnum(in, ORDER_STATUSES));
+        order.setOrderTime(readTime(in));
+        order.setDeliveryTime(readTime(in));
+        order.setPaymentMethod(readEnum(in, PAYMENT_METHODS));
+        order.applyDiscount(readDecimal(in));
+        order.setQuotedWaitMinutes(readVarInt(in));
+        int flags = readVarInt(in);
+        order.setPaid((flags & ORDER_PAID) != 0);
+        if ((flags & ORDER_ADDRESS) != 0) {
+            order.setDeliveryAddress(decodeAddress(in));
+        }
+        int count = readCount(in);
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(decodeOrderItem(in));
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    private void encodeOrderItem(ByteBuffer out, OrderItem item) {
+        writeReference(out, item.getProduct(), this::encodeProduct);
+        writeVarInt(out, item.getQuantity());
+        writeVarInt(out, item.getPreparedCount());
+        writeString(out, item.getSpecialInstructions());
+        List<String> customizations = item.getCustomizations();
+        writeVarInt(out, customizations.size());
+        for (int i = 0; i < customizations.size(); i++) {
+            writeDictionaryString(out, customizations.get(i));
+        }
+    }
+
+    private OrderItem decodeOrderItem(ByteBuffer in) throws Exception {
+        OrderItem item = new OrderItem(readReference(in, Product.class, this::decodeProduct), readVarInt(in));
+        int prepared = readVarInt(in);
+        if (prepared < 0) {
+            throw new IllegalArgumentException("Поврежденные данные: приготовлено " + prepared);
+        }
+        for (int i = 0; i < prepared; i++) {
+            item.markPrepared();
+        }
+        item.setSpecialInstructions(readString(in));
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            item.addCustomization(readDictionaryString(in));
+        }
+        return item;
+    }
+
+    // ---------- Продукты ----------
+
+    private void encodeProduct(ByteBuffer out, Product product) {
+        int kind;
+        int flags = (product.isAvailable() ? PRODUCT_AVAILABLE : 0) | (product.isShared() ? PRODUCT_SHARED : 0);
+        if (product instanceof Pizza) {
+            kind = PRODUCT_PIZZA;
+        } else if (product instanceof Drink) {
+            kind = PRODUCT_DRINK;
+            Drink drink = (Drink) product;
+            flags |= (drink.isCarbonated() ? DRINK_CARBONATED : 0) | (drink.isAlcoholic() ? DRINK_ALCOHOLIC : 0);
+        } else if (product instanceof Dessert) {
+            kind = PRODUCT_DESSERT;
+            Dessert dessert = (Dessert) product;
+            flags |= (dessert.isSweet() ? DESSERT_SWEET : 0) | (dessert.isContainsNuts() ? DESSERT_NUTS : 0);
+        } else if (product instanceof Appetizer) {
+            kind = PRODUCT_APPETIZER;
+            flags |= ((Appetizer) product).isHot() ? APPETIZER_HOT : 0;
+        } else {
+            throw new IllegalArgumentException("Неподдерживаемый продукт: " + product.getClass().getSimpleName());
+        }
+        writeVarInt(out, kind);
+        writeDictionaryString(out, product.getName());
+        writeDecimal(out, product.getBasePrice());
+        writeDecimal(out, product.getDiscountPercentage());
+        writeVarInt(out, flags);
+
+        switch (kind) {
+            case PRODUCT_PIZZA:
+                encodePizza(out, (Pizza) product);
+                break;
+            case PRODUCT_DRINK:
+                writeDictionaryString(out, product.getDescription());
+                writeVarInt(out, ((Drink) product).getVolume());
+                writeVarLong(out, zigzag(((Drink) product).getTemperature()));
+                break;
+            case PRODUCT_DESSERT:
+                writeDictionaryString(out, product.getDescription());
+                writeVarInt(out, ((Dessert) product).getWeight());
+                break;
+            default:
+                writeDictionaryString(out, product.getDescription());
+                writeVarInt(out, ((Appetizer) product).getServingSize());
+                break;
+        }
+    }
+
+    /**
+     * Пицца: тип для фабрики, размер, время готовки и состав (описание пиццы строится по составу)
+     */
+    private void encodePizza(ByteBuffer out, Pizza pizza) {
+        writeDictionaryString(out, pizzaType(pizza));
+        writeEnum(out, pizza.getSize());
+        writeVarInt(out, pizza.getCookingTime());
+        List<Ingredient> ingredients = pizza.getIngredients();
+        writeVarInt(out, ingredients.size());
+        for (int i = 0; i < ingredients.size(); i++) {
+            Ingredient ingredient = ingredients.get(i);
+            writeDictionaryString(out, ingredient.getCategory());
+            writeDictionaryString(out, ingredient.getName());
+            writeDecimal(out, ingredient.getPricePerUnit());
+            writeVarInt(out, ingredient.getQuantity());
+        }
+    }
+
+    /**
+     * Название типа в PizzaFactory; зарегистрированные типы доступны по названию пиццы
+     */
+    private static String pizzaType(Pizza pizza) {
+        if (pizza instanceof MargheritaPizza) {
+            return "Margherita";
+        } else if (pizza instanceof PepperoniPizza) {
+            return "Pepperoni";
+        } else if (pizza instanceof VeggiePizza) {
+            return "Veggie";
+        } else if (pizza instanceof MeatLoversPizza) {
+            return "Meat";
+        } else if (pizza instanceof CustomPizza) {
+            return "Custom";
+        }
+        return pizza.getName();
+    }
+
+    private Product decodeProduct(ByteBuffer in) throws Exception {
+        int kind = readVarInt(in);
+        if (kind < PRODUCT_PIZZA || kind > PRODUCT_APPETIZER) {
+            throw new IllegalArgumentException("Поврежденные данные: неизвестный вид продукта " + kind);
+        }
+        String name = readDictionaryString(in);
+        double basePrice = readDecimal(in);
+        double discount = readDecimal(in);
+        int flags = readVarInt(in);
+
+        Product product;
+        switch (kind) {
+            case PRODUCT_PIZZA:
+                product = decodePizza(in);
+                product.setName(name);
+                product.setBasePrice(basePrice);
+                break;
+            case PRODUCT_DRINK:
+                String drinkDescription = readDictionaryString(in);
+                Drink drink = new Drink(name, basePrice, readVarInt(in));
+                drink.setDescription(drinkDescription);
+                drink.setTemperature((int) unzigzag(readVarLong(in)));
+                drink.setCarbonated((flags & DRINK_CARBONATED) != 0);
+                drink.setAlcoholic((flags & DRINK_ALCOHOLIC) != 0);
+                product = drink;
+                break;
+            case PRODUCT_DESSERT:
+                String dessertDescription = readDictionaryString(in);
+                Dessert dessert = new Dessert(name, basePrice, readVarInt(in));
+                dessert.setDescription(dessertDescription);
+                dessert.setSweet((flags & DESSERT_SWEET) != 0);
+                dessert.setContainsNuts((flags & DESSERT_NUTS) != 0);
+                product = dessert;
+                break;
+            default:
+                String appetizerDescription = readDictionaryString(in);
+                Appetizer appetizer = new Appetizer(name, basePrice);
+                appetizer.setDescription(appetizerDescription);
+                appetizer.setServingSize(readVarInt(in));
+                appetizer.setHot((flags & APPETIZER_HOT) != 0);
+                product = appetizer;
+                break;
+        }
+        product.applyDiscount(discount);
+        product.setAvailable((flags & PRODUCT_AVAILABLE) != 0);
+        if ((flags & PRODUCT_SHARED) != 0) {
+            product.share();
+        }
+        return product;
+    }
+
+    private Pizza decodePizza(ByteBuffer in) throws Exception {
+        String type = readDictionaryString(in);
+        Pizza pizza = pizzaFactory.createPizza(type, readEnum(in, PIZZA_SIZES));
+        pizza.setCookingTime(readVarInt(in));
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            String category = readDictionaryString(in);
+            Ingredient ingredient = ingredientFactory.createIngredient(category, readDictionaryString(in));
+            ingredient.setPricePerUnit(readDecimal(in));
+            ingredient.setQuantity(readVarInt(in));
+            pizza.addIngredient(ingredient);
+        }
+        return pizza;
+    }
+
+    // ---------- Клиент ----------
+
+    private void writeCustomerReference(ByteBuffer out, Customer customer) {
+        writeReference(out, customer, this::encodeCustomer);
+    }
+
+    private Customer readCustomerReference(ByteBuffer in) throws Exception {
+        return readReference(in, Customer.class, this::decodeCustomer);
+    }
+
+    private void encodeCustomer(ByteBuffer out, Customer customer) {
+        PhoneNumber phone = customer.getPhoneNumber();
+        Email email = customer.getEmail();
+        Address address = customer.getAddress();
+        LoyaltyCard card = customer.getLoyaltyCard();
+        writeString(out, customer.getId());
+        writeString(out, customer.getFirstName());
+        writeString(out, customer.getLastName());
+        writeDictionaryString(out, customer.getPreferredContact());
+        writeVarInt(out, (phone != null ? CUSTOMER_PHONE : 0)
+            | (email != null ? CUSTOMER_EMAIL : 0)
+            | (address != null ? CUSTOMER_ADDRESS : 0)
+            | (card != null ? CUSTOMER_LOYALTY : 0)
+            | (customer.isNotificationEnabled() ? CUSTOMER_NOTIFICATIONS : 0));
+        if (phone != null) {
+            writeDictionaryString(out, phone.getCountryCode());
+            writeDictionaryString(out, phone.getAreaCode());
+            writeString(out, phone.getNumber());
+        }
+        if (email != null) {
+            writeString(out, email.getLocalPart());
+            writeDictionaryString(out, email.getDomain());
+        }
+        if (address != null) {
+            encodeAddress(out, address);
+        }
+        if (card != null) {
+            writeString(out, card.getCardNumber());
+            writeVarInt(out, card.getPoints());
+            writeEnum(out, card.getTier());
+            writeDate(out, card.getIssueDate());
+            writeDate(out, card.getExpiryDate());
+        }
+        List<String> history = customer.getOrderHistory();
+        writeVarInt(out, history.size());
+        for (int i = 0; i < history.size(); i++) {
+            writeString(out, history.get(i));
+        }
+    }
+
+    private Customer decodeCustomer(ByteBuffer in) throws Exception {
+        String id = readString(in);
+        String firstName = readString(in);
+        Customer customer = new Customer(id, firstName, readString(in));
+        customer.setPreferredContact(readDictionaryString(in));
+        int flags = readVarInt(in);
+        customer.setNotificationEnabled((flags & CUSTOMER_NOTIFICATIONS) != 0);
+        if ((flags & CUSTOMER_PHONE) != 0) {
+            String countryCode = readDictionaryString(in);
+            String areaCode = readDictionaryString(in);
+            customer.setPhoneNumber(new PhoneNumber(countryCode, areaCode, readString(in)));
+        }
+        if ((flags & CUSTOMER_EMAIL) != 0) {
+            String localPart = readString(in);
+            customer.setEmail(new Email(localPart, readDictionaryString(in)));
+        }
+        if ((flags & CUSTOMER_ADDRESS) != 0) {
+            customer.setAddress(decodeAddress(in));
+        }
+        if ((flags & CUSTOMER_LOYALTY) != 0) {
+            LoyaltyCard card = new LoyaltyCard(readString(in));
+            int points = readVarInt(in);
+            card.restoreState(points, readEnum(in, LOYALTY_TIERS));
+            card.setIssueDate(readDate(in));
+            card.setExpiryDate(readDate(in));
+            customer.setLoyaltyCard(card);
+        }
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            customer.addToOrderHistory(readString(in));
+        }
+        return customer;
+    }
+
+    private void encodeAddress(ByteBuffer out, Address address) {
+        writeDictionaryString(out, address.getStreet());
+        writeString(out, address.getHouseNumber());
+        writeString(out, address.getApartmentNumber());
+        writeDictionaryString(out, address.getCity());
+        writeDictionaryString(out, address.getPostalCode());
+        writeDecimal(out, address.getLatitude());
+        writeDecimal(out, address.getLongitude());
+    }
+
+    private Address decodeAddress(ByteBuffer in) throws Exception {
+        String street = readDictionaryString(in);
+        String houseNumber = readString(in);
+        String apartment = readString(in);
+        String city = readDictionaryString(in);
+        Address address = new Address(street, houseNumber, city, readDictionaryString(in));
+        address.setApartmentNumber(apartment);
+        address.setLatitude(readDecimal(in));
+        address.setLongitude(readDecimal(in));
+        return address;
+    }
+
+    // ---------- Платеж и чек ----------
+
+    private void encodePayment(ByteBuffer out, Payment payment) {
+        if (payment == null) {
+            writeVarInt(out, PAYMENT_NONE);
+            return;
+        }
+        int kind;
+        if (payment instanceof CashPayment) {
+            kind = PAYMENT_CASH;
+        } else if (payment instanceof CardPayment) {
+            kind = PAYMENT_CARD;
+        } else if (payment instanceof OnlinePayment) {
+            kind = PAYMENT_ONLINE;
+        } else {
+            throw new IllegalArgumentException("Неподдерживаемый платеж: " + payment.getClass().getSimpleName());
+        }
+        writeVarInt(out, kind);
+        writeString(out, payment.getTransactionId());
+        writeDecimal(out, payment.getAmount());
+        writeEnum(out, payment.getMethod());
+        writeTime(out, payment.getPaymentTime());
+        writeVarInt(out, payment.isSuccessful() ? 1 : 0);
+
+        switch (kind) {
+            case PAYMENT_CASH:
+                writeDecimal(out, ((CashPayment) payment).getAmountReceived());
+                writeDecimal(out, ((CashPayment) payment).getChange());
+                break;
+            case PAYMENT_CARD:
+                CardPayment card = (CardPayment) payment;
+                writeString(out, card.getCardNumber()); // уже маскирован
+                writeString(out, card.getCardHolderName());
+                writeString(out, card.getExpiryDate());
+                break;
+            default:
+                OnlinePayment online = (OnlinePayment) payment;
+                writeString(out, online.getEmail());
+                writeDictionaryString(out, online.getPaymentGateway());
+                writeString(out, online.getConfirmationCode());
+                break;
+        }
+    }
+
+    private Payment decodePayment(ByteBuffer in) throws Exception {
+        int kind = readVarInt(in);
+        if (kind == PAYMENT_NONE) {
+            return null;
+        }
+        if (kind < PAYMENT_CASH || kind > PAYMENT_ONLINE) {
+            throw new IllegalArgumentException("Поврежденные данные: неизвестный вид платежа " + kind);
+        }
+        String transactionId = readString(in);
+        double amount = readDecimal(in);
+        PaymentMethod method = readEnum(in, PAYMENT_METHODS);
+        LocalDateTime paymentTime = readTime(in);
+        boolean successful = readVarInt(in) != 0;
+
+        Payment payment;
+        switch (kind) {
+            case PAYMENT_CASH:
+                CashPayment cash = new CashPayment(transactionId, amount);
+                cash.setAmountReceived(readDecimal(in));
+                cash.setChange(readDecimal(in));
+                payment = cash;
+                break;
+            case PAYMENT_CARD:
+                CardPayment card = new CardPayment(transactionId, amount, readString(in));
+                card.setCardHolderName(readString(in));
+                card.setExpiryDate(readString(in));
+                payment = card;
+                break;
+            default:
+                OnlinePayment online = new OnlinePayment(transactionId, amount, readString(in));
+                online.setPaymentGateway(readDictionaryString(in));
+                online.setConfirmationCode(readString(in));
+                payment = online;
+                break;
+        }
+        payment.setMethod(method);
+        payment.setPaymentTime(paymentTime);
+        payment.restoreSuccessful(successful);
+        return payment;
+    }
+
+    private void encodeReceipt(ByteBuffer out, Receipt receipt) {
+        writeString(out, receipt.getReceiptNumber());
+        writeOrderReference(out, receipt.getOrder());
+        encodePayment(out, receipt.getPayment());
+        writeTime(out, receipt.getIssueTime());
+    }
+
+    private Receipt decodeReceipt(ByteBuffer in) throws Exception {
+        String receiptNumber = readString(in);
+        Order order = readOrderReference(in);
+        Receipt receipt = new Receipt(receiptNumber, order, decodePayment(in));
+        receipt.setIssueTime(readTime(in));
+        return receipt;
+    }
+
+    // ---------- Ссылки и словарь ----------
+
+    /**
+     * Объект целиком при первой записи в поток, дальше - номер в таблице ссылок
+     */
+    private <T> void writeReference(ByteBuffer out, T value, Encoder<T> encoder) {
+        if (value == null) {
+            writeVarInt(out, NULL_TAG);
+            return;
+        }
+        Integer index = writtenObjects.get(value);
+        if (index != null) {
+            writeVarInt(out, index + 2);
+            return;
+        }
+        writtenObjects.put(value, writtenObjects.size());
+        writeVarInt(out, NEW_TAG);
+        encoder.encode(out, value);
+    }
+
+    private <T> T readReference(ByteBuffer in, Class<T> type, Decoder<T> decoder) throws Exception {
+        int tag = readVarInt(in);
+        if (tag == NULL_TAG) {
+            return null;
+        }
+        if (tag == NEW_TAG) {
+            // номер занимается до чтения вложенных объектов - в том же порядке, что при записи
+            int slot = readObjects.size();
+            readObjects.add(null);
+            T value = decoder.decode(in);
+            readObjects.set(slot, value);
+            return value;
+        }
+        int index = tag - 2;
+        Object value = index >= 0 && index < readObjects.size() ? readObjects.get(index) : null;
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException("Поврежденные данные: нет объекта " + type.getSimpleName()
+                + " с номером " + index);
+        }
+        return type.cast(value);
+    }
+
+    private void writeDictionaryString(ByteBuffer out, String value) {
+        if (value == null) {
+            writeVarInt(out, NULL_TAG);
+            return;
+        }
+        Integer index = writtenStrings.get(value);
+        if (index != null) {
+            writeVarInt(out, index + 2);
+            return;
+        }
+        writtenStrings.put(value, writtenStrings.size());
+        writeVarInt(out, NEW_TAG);
+        writeString(out, value);
+    }
+
+    private String readDictionaryString(ByteBuffer in) {
+        int tag = readVarInt(in);
+        if (tag == NULL_TAG) {
+            return null;
+        }
+        if (tag == NEW_TAG) {
+            String value = readString(in);
+            if (value == null) {
+                throw new IllegalArgumentException("Поврежденные данные: пустая строка словаря");
+            }
+            readStrings.add(value);
+            return value;
+        }
+        int index = tag - 2;
+        if (index < 0 || index >= readStrings.size()) {
+            throw new IllegalArgumentException("Поврежденные данные: нет строки словаря с номером " + index);
+        }
+        return readStrings.get(index);
+    }
+
+    // ---------- Примитивы ----------
+
+    /**
+     * Строка UTF-8 с длиной в байтах + 1 (0 - null), кодируется прямо в буфер
+     */
+    private static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        int length = value.length();
+        int bytes = utf8Length(value);
+        writeVarInt(out, bytes + 1);
+        if (out.remaining() < bytes) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18));
+                out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                out.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // непарный суррогат, как в String.getBytes
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private String readString(ByteBuffer in) {
+        int bytes = readVarInt(in) - 1;
+        if (bytes < 0) {
+            if (bytes == -1) {
+                return null;
+            }
+            throw new IllegalArgumentException("Поврежденные данные: длина строки " + bytes);
+        }
+        if (in.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), bytes, StandardCharsets.UTF_8);
+            in.position(in.position() + bytes);
+        } else {
+            if (scratch.length < bytes) {
+                scratch = new byte[Math.max(bytes, scratch.length * 2)];
+            }
+            in.get(scratch, 0, bytes);
+            value = new String(scratch, 0, bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Число с точностью до копейки - varint в копейках со сдвигом; иначе метка 1 и 8 байт double
+     */
+    private static void writeDecimal(ByteBuffer out, double value) {
+        long cents = Math.round(value * 100);
+        if (Math.abs(value) < MAX_EXACT_DECIMAL && cents / 100.0 == value
+                && (cents != 0 || Double.doubleToRawLongBits(value) == 0)) {
+            writeVarLong(out, zigzag(cents) << 1);
+        } else {
+            out.put((byte) 1);
+            out.putDouble(value);
+        }
+    }
+
+    private static double readDecimal(ByteBuffer in) {
+        long tag = readVarLong(in);
+        if ((tag & 1) == 0) {
+            return unzigzag(tag >>> 1) / 100.0;
+        }
+        if (tag != 1) {
+            throw new IllegalArgumentException("Поврежденные данные: метка числа " + tag);
+        }
+        return in.getDouble();
+    }
+
+    /**
+     * Время: 0 - null, иначе миллисекунды от эпохи SnowflakeIdGenerator (zigzag) и признак
+     * доли миллисекунды, которая тогда пишется следом в наносекундах
+     */
+    private static void writeTime(ByteBuffer out, LocalDateTime time) {
+        if (time == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        long millis = time.toInstant(ZoneOffset.UTC).toEpochMilli() - SnowflakeIdGenerator.EPOCH_MILLIS;
+        int subMillis = time.getNano() % 1_000_000;
+        writeVarLong(out, (zigzag(millis) << 1 | (subMillis != 0 ? 1 : 0)) + 1);
+        if (subMillis != 0) {
+            writeVarInt(out, subMillis);
+        }
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        long tag = readVarLong(in);
+        if (tag == 0) {
+            return null;
+        }
+        tag--;
+        long millis = unzigzag(tag >>> 1) + SnowflakeIdGenerator.EPOCH_MILLIS;
+        int subMillis = (tag & 1) != 0 ? readVarInt(in) : 0;
+        if (subMillis < 0 || subMillis >= 1_000_000) {
+            throw new IllegalArgumentException("Поврежденные данные: доля миллисекунды " + subMillis);
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            Math.floorMod(millis, 1000) * 1_000_000 + subMillis, ZoneOffset.UTC);
+    }
+
+    private static void writeDate(ByteBuffer out, LocalDate date) {
+        writeVarLong(out, date == null ? 0 : zigzag(date.toEpochDay()) + 1);
+    }
+
+    private static LocalDate readDate(ByteBuffer in) {
+        long tag = readVarLong(in);
+        return tag == 0 ? null : LocalDate.ofEpochDay(unzigzag(tag - 1));
+    }
+
+    private static void writeEnum(ByteBuffer out, Enum<?> value) {
+        writeVarInt(out, value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E readEnum(ByteBuffer in, E[] values) {
+        int tag = readVarInt(in);
+        if (tag < 0 || tag > values.length) {
+            throw new IllegalArgumentException("Поврежденные данные: номер значения " + tag);
+        }
+        return tag == 0 ? null : values[tag - 1];
+    }
+
+    /**
+     * Количество элементов: каждый занимает хотя бы байт, поэтому больше оставшихся байтов быть не может
+     */
+    private static int readCount(ByteBuffer in) {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Поврежденные данные: количество элементов " + count);
+        }
+        return count;
+    }
+
+    /**
+     * int как беззнаковый varint: неотрицательные до 2^28 - не больше 4 байт, отрицательные - 5 байт
+     */
+    private static void writeVarInt(ByteBuffer out, int value) {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value >>> 32 != 0) {
+            throw new IllegalArgumentException("Поврежденные данные: varint больше 32 бит");
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Поврежденные данные: varint длиннее 10 байт");
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pizzeria.util;
+
+import com.pizzeria.enums.CircuitState;
+
+import java.time.Duration;
+
+/**
+ * Автоматический выключатель для вызовов внешней системы.
+ *
+ * После failureThreshold ошибок подряд цепь размыкается и запросы отклоняются сразу,
+ * не дожидаясь таймаута. Через openDuration (часы - ClockProvider) пропускается один
+ * пробный запрос: успех замыкает цепь, ошибка снова размыкает ее.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private CircuitState state;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Порог ошибок должен быть положительным");
+        }
+        if (openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Время размыкания не может быть отрицательным");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.state = CircuitState.CLOSED;
+    }
+
+    /**
+     * Можно ли выполнить запрос. В полуоткрытом состоянии разрешается один запрос,
+     * его итог нужно сообщить через recordSuccess или recordFailure
+     */
+    public synchronized boolean allowRequest() {
+        if (state == CircuitState.OPEN) {
+            if (ClockProvider.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+            state = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = CircuitState.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = CircuitState.OPEN;
+            openedAt = ClockProvider.currentTimeMillis();
+            trialInFlight = false;
+        }
+    }
+
+    // Getters
+    public synchronized CircuitState getState() { return state; }
+
+    public synchronized int getConsecutiveFailures() { return consecutiveFailures; }
+
+    public int getFailureThreshold() { return failureThreshold; }
+
+    public Duration getOpenDuration() { return Duration.ofMillis(openMillis); }
+}
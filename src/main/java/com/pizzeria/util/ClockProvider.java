@@ -0,0 +1,162 @@
+package com.pizzeria.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник текущего времени для всей модели (заказы, скидки, акции, платежи, доставка, сотрудники).
+ * По умолчанию - системные часы с шагом 10 мс (CoarseClock). Для тестов и воспроизведения нагрузки
+ * часы подменяются через setClock, например на VirtualClock. Моделирование, идущее рядом с рабочей
+ * системой, подменяет часы только для своих потоков через override: остальные потоки видят общие часы.
+ * Последние выданные LocalDateTime и LocalDate кэшируются: пока часы показывают тот же
+ * момент (для даты - те же сутки), повторный вызов не создает новых объектов.
+ */
+public final class ClockProvider {
+    public static final long DEFAULT_GRANULARITY_MILLIS = 10;
+
+    private static final ThreadLocal<Clock> SCOPED_CLOCK = new ThreadLocal<>();
+    // число потоков с подмененными часами: пока 0, ThreadLocal не читается
+    private static final AtomicInteger SCOPED_THREADS = new AtomicInteger();
+
+    private static volatile Clock clock = systemClock();
+    private static volatile CachedTime cachedTime;
+    private static volatile CachedDate cachedDate;
+
+    private ClockProvider() {
+    }
+
+    private static Clock systemClock() {
+        return new CoarseClock(Clock.systemDefaultZone(), DEFAULT_GRANULARITY_MILLIS);
+    }
+
+    /**
+     * Часы текущего потока: подмененные через override или общие
+     */
+    public static Clock getClock() {
+        if (SCOPED_THREADS.get() != 0) {
+            Clock scoped = SCOPED_CLOCK.get();
+            if (scoped != null) {
+                return scoped;
+            }
+        }
+        return clock;
+    }
+
+    public static void setClock(Clock newClock) {
+        if (newClock == null) {
+            throw new IllegalArgumentException("Часы не могут быть null");
+        }
+        clock = newClock;
+    }
+
+    /**
+     * Подменить часы только для текущего потока до закрытия возвращенной области.
+     * Область закрывается в том же потоке; вложенные области восстанавливают предыдущие часы.
+     */
+    public static Scope override(Clock scopedClock) {
+        if (scopedClock == null) {
+            throw new IllegalArgumentException("Часы не могут быть null");
+        }
+        Clock previous = SCOPED_CLOCK.get();
+        SCOPED_CLOCK.set(scopedClock);
+        if (previous == null) {
+            SCOPED_THREADS.incrementAndGet();
+        }
+        return new Scope(previous);
+    }
+
+    /**
+     * Вернуть системные часы по умолчанию
+     */
+    public static void reset() {
+        clock = systemClock();
+    }
+
+    public static long currentTimeMillis() {
+        return getClock().millis();
+    }
+
+    public static LocalDateTime now() {
+        Clock current = getClock();
+        long millis = current.millis();
+        CachedTime cached = cachedTime;
+        if (cached != null && cached.clock == current && cached.millis == millis) {
+            return cached.value;
+        }
+        LocalDateTime value = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), current.getZone());
+        cachedTime = new CachedTime(current, millis, value);
+        return value;
+    }
+
+    public static LocalDate today() {
+        Clock current = getClock();
+        long millis = current.millis();
+        CachedDate cached = cachedDate;
+        if (cached != null && cached.clock == current && millis >= cached.fromMillis && millis < cached.toMillis) {
+            return cached.value;
+        }
+        ZoneId zone = current.getZone();
+        LocalDate value = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+        // границы суток берутся из правил пояса: сутки перехода на летнее время короче
+        long from = value.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = value.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        cachedDate = new CachedDate(current, from, to, value);
+        return value;
+    }
+
+    /**
+     * Область подмены часов потока
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Clock previous;
+        private boolean closed;
+
+        private Scope(Clock previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous != null) {
+                SCOPED_CLOCK.set(previous);
+            } else {
+                SCOPED_CLOCK.remove();
+                SCOPED_THREADS.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class CachedTime {
+        private final Clock clock;
+        private final long millis;
+        private final LocalDateTime value;
+
+        CachedTime(Clock clock, long millis, LocalDateTime value) {
+            this.clock = clock;
+            this.millis = millis;
+            this.value = value;
+        }
+    }
+
+    private static final class CachedDate {
+        private final Clock clock;
+        private final long fromMillis;
+        private final long toMillis;
+        private final LocalDate value;
+
+        CachedDate(Clock clock, long fromMillis, long toMillis, LocalDate value) {
+            this.clock = clock;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.value = value;
+        }
+    }
+}
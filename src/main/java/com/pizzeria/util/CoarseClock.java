@@ -0,0 +1,97 @@
+package com.pizzeria.util;
+
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Часы с округлением вниз до заданного шага.
+ * Время хранится в volatile-поле и раз в шаг обновляется общим фоновым потоком,
+ * поэтому millis() не обращается к базовым часам. В пределах одного шага время не меняется,
+ * и ClockProvider может выдавать один и тот же объект LocalDateTime.
+ * Обновление запускается при первом чтении и прекращается, когда часы собраны сборщиком мусора.
+ */
+public final class CoarseClock extends Clock {
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final ScheduledExecutorService TICKER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "coarse-clock-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Clock base;
+    private final long granularityMillis;
+    private volatile long cachedMillis = NOT_STARTED;
+
+    public CoarseClock(Clock base, long granularityMillis) {
+        if (granularityMillis <= 0) {
+            throw new IllegalArgumentException("Шаг часов должен быть положительным: " + granularityMillis);
+        }
+        this.base = base;
+        this.granularityMillis = granularityMillis;
+    }
+
+    @Override
+    public long millis() {
+        long millis = cachedMillis;
+        return millis != NOT_STARTED ? millis : start();
+    }
+
+    private synchronized long start() {
+        if (cachedMillis == NOT_STARTED) {
+            refresh();
+            Tick tick = new Tick(this);
+            tick.future = TICKER.scheduleAtFixedRate(tick, granularityMillis, granularityMillis, TimeUnit.MILLISECONDS);
+        }
+        return cachedMillis;
+    }
+
+    private void refresh() {
+        long millis = base.millis();
+        cachedMillis = millis - Math.floorMod(millis, granularityMillis);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return base.getZone();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new CoarseClock(base.withZone(zone), granularityMillis);
+    }
+
+    public long getGranularityMillis() { return granularityMillis; }
+
+    /**
+     * Обновление часов; держит их по слабой ссылке, чтобы не мешать сборке мусора
+     */
+    private static final class Tick implements Runnable {
+        private final WeakReference<CoarseClock> clock;
+        private volatile ScheduledFuture<?> future;
+
+        Tick(CoarseClock clock) {
+            this.clock = new WeakReference<>(clock);
+        }
+
+        @Override
+        public void run() {
+            CoarseClock current = clock.get();
+            if (current != null) {
+                current.refresh();
+            } else if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.pizzeria.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Разбор CSV прямо из ByteBuffer (в том числе отображенного в память файла).
+ * Разделители ищутся на уровне байтов, в строки декодируются только значения полей.
+ * Поддерживаются поля в двойных кавычках ("" - экранированная кавычка),
+ * пустые строки и строки-комментарии, начинающиеся с '#', пропускаются.
+ * Перевод строки внутри кавычек не поддерживается - запись всегда занимает одну строку.
+ */
+public class CsvRecordParser {
+
+    /**
+     * Обработчик одной записи
+     */
+    public interface RecordHandler {
+        void handle(String[] fields);
+    }
+
+    private byte[] scratch = new byte[128];
+    private final List<String> fields = new ArrayList<>();
+
+    /**
+     * Разобрать записи в диапазоне [start, end) буфера
+     * @return количество обработанных записей
+     */
+    public int parse(ByteBuffer buffer, int start, int end, RecordHandler handler) {
+        int records = 0;
+        int position = start;
+        if (position == 0 && end >= 3 && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+            position = 3; // UTF-8 BOM
+        }
+
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > position && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            if (contentEnd > position && buffer.get(position) != '#') {
+                handler.handle(parseLine(buffer, position, contentEnd));
+                records++;
+            }
+            position = lineEnd + 1;
+        }
+        return records;
+    }
+
+    private String[] parseLine(ByteBuffer buffer, int start, int end) {
+        fields.clear();
+        int length = 0;
+        boolean quoted = false;
+        int position = start;
+
+        while (position < end) {
+            byte b = buffer.get(position++);
+            if (quoted) {
+                if (b == '"') {
+                    if (position < end && buffer.get(position) == '"') {
+                        length = append(length, b);
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    length = append(length, b);
+                }
+            } else if (b == ',') {
+                fields.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+                length = 0;
+            } else if (b == '"' && length == 0) {
+                quoted = true;
+            } else {
+                length = append(length, b);
+            }
+        }
+        fields.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+        return fields.toArray(new String[0]);
+    }
+
+    private int append(int length, byte b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[length] = b;
+        return length + 1;
+    }
+
+    /**
+     * Разбить буфер на части, границы которых попадают сразу после перевода строки
+     * @return массив границ длиной parts + 1 (первая 0, последняя - limit буфера)
+     */
+    public static int[] splitAtLines(ByteBuffer buffer, int parts) {
+        int limit = buffer.limit();
+        int[] bounds = new int[parts + 1];
+        bounds[parts] = limit;
+        for (int i = 1; i < parts; i++) {
+            int position = Math.max((int) ((long) limit * i / parts), Math.max(bounds[i - 1], 1));
+            position = Math.min(position, limit);
+            while (position < limit && buffer.get(position - 1) != '\n') {
+                position++;
+            }
+            bounds[i] = position;
+        }
+        return bounds;
+    }
+}
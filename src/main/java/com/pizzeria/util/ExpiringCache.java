@@ -0,0 +1,126 @@
+package com.pizzeria.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Потокобезопасный кэш ограниченного размера с одинаковым сроком жизни записей.
+ *
+ * Записи живут ttl с момента добавления (часы - ClockProvider). Поскольку срок у всех
+ * одинаковый, очередь добавления упорядочена и по сроку: при каждом добавлении с головы
+ * очереди снимаются устаревшие записи, а при превышении емкости - самые старые.
+ * Незавершенный CompletableFuture (выполняющаяся попытка) не устаревает и не вытесняется:
+ * он переносится в хвост очереди, а емкость на время таких попыток может быть превышена.
+ */
+public class ExpiringCache<K, V> {
+    private final int capacity;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries;
+    private final ConcurrentLinkedQueue<Entry<K, V>> insertionOrder;
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final long expiresAt;
+
+        Entry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public ExpiringCache(int capacity, Duration ttl) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость кэша должна быть положительной");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Срок жизни записей должен быть положительным");
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new ConcurrentHashMap<>();
+        this.insertionOrder = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Значение по ключу или null, если записи нет или ее срок истек
+     */
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, ClockProvider.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Добавить значение, если по ключу нет действующей записи.
+     * Возвращает действующее значение другого потока или null, если добавлено переданное
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = ClockProvider.currentTimeMillis();
+        Entry<K, V> created = new Entry<>(key, value, now + ttlMillis);
+        while (true) {
+            Entry<K, V> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                insertionOrder.add(created);
+                evict(now);
+                return null;
+            }
+            if (!isExpired(existing, now)) {
+                return existing.value;
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Удалить запись, только если по ключу хранится именно это значение
+     */
+    public boolean remove(K key, V value) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null && entry.value == value && entries.remove(key, entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry<K, V> entry, long now) {
+        return now >= entry.expiresAt && !isInFlight(entry);
+    }
+
+    private boolean isInFlight(Entry<K, V> entry) {
+        return entry.value instanceof CompletableFuture && !((CompletableFuture<?>) entry.value).isDone();
+    }
+
+    private void evict(long now) {
+        int skipped = 0;
+        Entry<K, V> head;
+        while ((head = insertionOrder.peek()) != null && skipped <= entries.size()
+                && (isExpired(head, now) || entries.size() > capacity || entries.get(head.key) != head)) {
+            if (!insertionOrder.remove(head)) {
+                continue;
+            }
+            if (entries.get(head.key) == head && isInFlight(head)) {
+                // вытесненную попытку повтор начал бы заново
+                insertionOrder.add(head);
+                skipped++;
+            } else {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    // Getters
+    public int getCapacity() { return capacity; }
+
+    public Duration getTtl() { return Duration.ofMillis(ttlMillis); }
+}
@@ -4,36 +4,79 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Генератор уникальных идентификаторов
+ * Генератор уникальных идентификаторов.
+ * ID заказов, чеков, транзакций и номера отслеживания доставки выдает общий
+ * SnowflakeIdGenerator (номер узла - свойство pizzeria.nodeId, по умолчанию 0),
+ * ID клиентов и сотрудников - последовательные номера.
  */
 public class IdGenerator {
-    private static final AtomicInteger orderCounter = new AtomicInteger(1);
+    private static final int ID_WIDTH = 6;
+
     private static final AtomicInteger customerCounter = new AtomicInteger(1);
     private static final AtomicInteger employeeCounter = new AtomicInteger(1);
+    private static volatile SnowflakeIdGenerator snowflake =
+        new SnowflakeIdGenerator(Integer.getInteger("pizzeria.nodeId", 0));
 
     public static String generateOrderId() {
-        return "ORD-" + String.format("%06d", orderCounter.getAndIncrement());
+        return snowflake.nextId("ORD");
+    }
+
+    public static String generateReceiptNumber() {
+        return snowflake.nextId("RCP");
+    }
+
+    public static String generateTrackingNumber() {
+        return snowflake.nextId("TRK");
+    }
+
+    /**
+     * ID транзакции: уникален и при нескольких платежах в одну миллисекунду
+     */
+    public static String generateTransactionId(String prefix) {
+        return snowflake.nextId(prefix);
     }
 
     public static String generateCustomerId() {
-        return "CUST-" + String.format("%06d", customerCounter.getAndIncrement());
+        return sequential("CUST-", customerCounter.getAndIncrement());
     }
 
     public static String generateEmployeeId() {
-        return "EMP-" + String.format("%06d", employeeCounter.getAndIncrement());
+        return sequential("EMP-", employeeCounter.getAndIncrement());
     }
 
     public static String generateUUID() {
         return UUID.randomUUID().toString();
     }
 
-    public static String generateTransactionId(String prefix) {
-        return prefix + "-" + System.currentTimeMillis();
+    /**
+     * Номер узла для ID; у каждого процесса, выдающего ID, номер должен быть свой.
+     * Время и номер последнего ID сохраняются, так что повторная установка не выдает прежние ID.
+     */
+    public static synchronized void setNodeId(int nodeId) {
+        snowflake = snowflake.withNodeId(nodeId);
+    }
+
+    public static int getNodeId() {
+        return snowflake.getNodeId();
     }
 
     public static void resetCounters() {
-        orderCounter.set(1);
         customerCounter.set(1);
         employeeCounter.set(1);
     }
+
+    /**
+     * Префикс и номер, дополненный нулями до ID_WIDTH цифр, без String.format
+     */
+    private static String sequential(String prefix, int value) {
+        String digits = Integer.toString(value);
+        int padding = Math.max(0, ID_WIDTH - digits.length());
+        char[] chars = new char[prefix.length() + padding + digits.length()];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = 0; i < padding; i++) {
+            chars[prefix.length() + i] = '0';
+        }
+        digits.getChars(0, digits.length(), chars, prefix.length() + padding);
+        return new String(chars);
+    }
 }
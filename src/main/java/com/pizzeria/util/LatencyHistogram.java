@@ -0,0 +1,98 @@
+package com.pizzeria.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасная гистограмма задержек с логарифмическими корзинами.
+ * Каждая степень двойки (в микросекундах) делится на SUB_BUCKETS равных частей,
+ * так что погрешность перцентиля не превышает 1/SUB_BUCKETS от значения.
+ * Запись - несколько атомарных инкрементов без блокировок.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAGNITUDES = 40;
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong totalMicros;
+    private final AtomicLong maxMicros;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+        this.count = new AtomicLong();
+        this.totalMicros = new AtomicLong();
+        this.maxMicros = new AtomicLong();
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        buckets.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros); // micros в [2^m, 2^(m+1))
+        int sub = (int) ((micros >>> (magnitude - 3)) & (SUB_BUCKETS - 1));
+        int index = (magnitude - 2) * SUB_BUCKETS + sub;
+        return Math.min(index, MAGNITUDES * SUB_BUCKETS - 1);
+    }
+
+    /**
+     * Верхняя граница корзины в микросекундах
+     */
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS + 2;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (magnitude - 3);
+        return (1L << magnitude) + (sub + 1) * width - 1;
+    }
+
+    /**
+     * Перцентиль в микросекундах (верхняя граница корзины, не больше максимума)
+     * @param percentile от 0 до 100
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMicros() {
+        long total = count.get();
+        return total == 0 ? 0 : (double) totalMicros.get() / total;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, среднее %.2f мс, p50 %.2f мс, p95 %.2f мс, p99 %.2f мс, макс %.2f мс",
+            getCount(), getMeanMicros() / 1000, getPercentileMicros(50) / 1000.0, getPercentileMicros(95) / 1000.0,
+            getPercentileMicros(99) / 1000.0, getMaxMicros() / 1000.0);
+    }
+}
@@ -0,0 +1,240 @@
+package com.pizzeria.util;
+
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * Потоковый экспорт заказов в CSV или компактный бинарный формат.
+ * Заказы пишутся по одному через буфер фиксированного размера в FileChannel,
+ * поэтому потребление памяти не зависит от количества заказов.
+ */
+public class OrderExporter {
+    public static final int BINARY_MAGIC = 0x505A4558; // "PZEX"
+    public static final byte BINARY_VERSION = 1;
+    public static final byte RECORD_ORDER = 1;
+    public static final byte RECORD_END = 0;
+    public static final String CSV_HEADER =
+        "order_id,customer_id,order_time,status,paid,payment_method,product,quantity,line_total,order_total\n";
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final int bufferSize;
+
+    public OrderExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public OrderExporter(int bufferSize) {
+        if (bufferSize < 1024) {
+            throw new IllegalArgumentException("Размер буфера должен быть не меньше 1024 байт: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Экспорт в CSV: одна строка на элемент заказа, заказ без товаров - одна строка без продукта
+     * @return количество выгруженных заказов
+     */
+    public long exportCsv(Iterable<Order> orders, Path file) throws IOException {
+        long count = 0;
+        StringBuilder line = new StringBuilder(256);
+        try (ChannelWriter out = new ChannelWriter(file, bufferSize)) {
+            out.writeText(CSV_HEADER);
+            for (Order order : orders) {
+                if (order.getItems().isEmpty()) {
+                    line.setLength(0);
+                    appendCsvOrder(line, order);
+                    line.append(",,,").append(formatAmount(order.getFinalPrice())).append('\n');
+                    out.writeText(line);
+                }
+                for (OrderItem item : order.getItems()) {
+                    line.setLength(0);
+                    appendCsvOrder(line, order);
+                    line.append(ReportGenerator.escapeCsv(item.getProduct().getName())).append(',')
+                        .append(item.getQuantity()).append(',')
+                        .append(formatAmount(item.getTotalPrice())).append(',')
+                        .append(formatAmount(order.getFinalPrice())).append('\n');
+                    out.writeText(line);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void appendCsvOrder(StringBuilder line, Order order) {
+        line.append(ReportGenerator.escapeCsv(order.getId())).append(',')
+            .append(order.getCustomer() != null ? ReportGenerator.escapeCsv(order.getCustomer().getId()) : "")
+            .append(',')
+            .append(order.getOrderTime()).append(',')
+            .append(order.getStatus().name()).append(',')
+            .append(order.isPaid()).append(',')
+            .append(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : "").append(',');
+    }
+
+    private String formatAmount(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+
+    /**
+     * Экспорт в бинарный формат:
+     * заголовок (magic, версия), записи заказов, маркер конца и количество заказов.
+     * @return количество выгруженных заказов
+     */
+    public long exportBinary(Iterable<Order> orders, Path file) throws IOException {
+        long count = 0;
+        try (ChannelWriter out = new ChannelWriter(file, bufferSize)) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeByte(BINARY_VERSION);
+            for (Order order : orders) {
+                out.writeByte(RECORD_ORDER);
+                out.writeString(order.getId());
+                out.writeString(order.getCustomer() != null ? order.getCustomer().getId() : "");
+                out.writeLong(order.getOrderTime().toInstant(ZoneOffset.UTC).toEpochMilli());
+                out.writeByte((byte) order.getStatus().ordinal());
+                out.writeByte((byte) (order.isPaid() ? 1 : 0));
+                out.writeByte((byte) (order.getPaymentMethod() != null ? order.getPaymentMethod().ordinal() : -1));
+                out.writeDouble(order.getDiscountPercentage());
+                out.writeInt(order.getItems().size());
+                for (OrderItem item : order.getItems()) {
+                    out.writeString(item.getProduct().getName());
+                    out.writeInt(item.getQuantity());
+                    out.writeDouble(item.getProduct().getFinalPrice());
+                }
+                count++;
+            }
+            out.writeByte(RECORD_END);
+            out.writeLong(count);
+        }
+        return count;
+    }
+
+    /**
+     * Буферизованная запись в FileChannel с повторным использованием буферов
+     */
+    private static class ChannelWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder;
+
+        ChannelWriter(Path file, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.encoder = StandardCharsets.UTF_8.newEncoder();
+        }
+
+        void writeByte(byte value) throws IOException {
+            ensureCapacity(1);
+            buffer.put(value);
+        }
+
+        void writeInt(int value) throws IOException {
+            ensureCapacity(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensureCapacity(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void writeDouble(double value) throws IOException {
+            ensureCapacity(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        /**
+         * Строка с префиксом длины в байтах (UTF-8)
+         */
+        void writeString(String value) throws IOException {
+            ensureCapacity(Integer.BYTES);
+            int lengthPosition = buffer.position();
+            buffer.putInt(0);
+            if (buffer.remaining() < value.length() * 3) {
+                // строка может не поместиться - пишем через промежуточный массив
+                buffer.position(lengthPosition);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeInt(bytes.length);
+                writeBytes(bytes);
+                return;
+            }
+            int start = buffer.position();
+            encoder.reset();
+            CoderResult result = encoder.encode(CharBuffer.wrap(value), buffer, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            result = encoder.flush(buffer);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            buffer.putInt(lengthPosition, buffer.position() - start);
+        }
+
+        void writeText(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -24,13 +24,24 @@ public class PriceCalculator {
         return Math.round(value * 100.0) / 100.0;
     }
 
+    /**
+     * Итог заказа (со скидкой и доставкой) с налогом сверх цены и чаевыми
+     */
     public static double calculateOrderTotal(Order order, double taxRate, double tipPercentage) {
-        double basePrice = order.getPrice();
+        double basePrice = order.getFinalPrice();
         double withTax = calculateWithTax(basePrice, taxRate);
         double tip = calculateTip(withTax, tipPercentage);
         return roundToTwoDecimals(withTax + tip);
     }
 
+    /**
+     * Итог заказа по ставкам TaxEngine с чаевыми
+     */
+    public static double calculateOrderTotal(Order order, TaxEngine taxEngine, double tipPercentage) {
+        double total = taxEngine.compute(order).getTotal();
+        return roundToTwoDecimals(total + calculateTip(total, tipPercentage));
+    }
+
     public static String formatPrice(double price) {
         return String.format("%.2f руб.", price);
     }
@@ -5,26 +5,113 @@ import com.pizzeria.model.Pizzeria;
 import com.pizzeria.model.users.Employee;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Генератор отчетов
  */
 public class ReportGenerator {
 
+    private static final SalesReportEngine SALES_ENGINE = new SalesReportEngine();
+
     public static String generateDailySalesReport(Pizzeria pizzeria, LocalDate date) {
+        return generateSalesReport(pizzeria, date, date);
+    }
+
+    public static String generateSalesReport(Pizzeria pizzeria, LocalDate from, LocalDate to) {
+        SalesSummary summary = SALES_ENGINE.aggregate(pizzeria, from, to);
+
         StringBuilder report = new StringBuilder();
         report.append("========== ОТЧЕТ О ПРОДАЖАХ ==========\n");
-        report.append("Дата: ").append(date).append("\n");
+        if (from.equals(to)) {
+            report.append("Дата: ").append(from).append("\n");
+        } else {
+            report.append("Период: ").append(from).append(" - ").append(to).append("\n");
+        }
         report.append("Пиццерия: ").append(pizzeria.getName()).append("\n");
         report.append("--------------------------------------\n");
-        report.append("Общее количество заказов: ").append(pizzeria.getTotalOrders()).append("\n");
-        report.append("Общая выручка: ").append(PriceCalculator.formatPrice(pizzeria.calculateDailyRevenue())).append("\n");
+        report.append("Общее количество заказов: ").append(summary.getOrderCount()).append("\n");
+        report.append("Общая выручка: ").append(PriceCalculator.formatPrice(summary.getRevenue())).append("\n");
+
+        if (summary.getRevenueByDay().size() > 1) {
+            appendSection(report, "По дням:", summary.getRevenueByDay());
+        }
+        appendSection(report, "По продуктам:", summary.getRevenueByProduct());
+        if (summary.getDeliveryRevenue() > 0) {
+            report.append("  Доставка: ").append(PriceCalculator.formatPrice(summary.getDeliveryRevenue())).append("\n");
+        }
+        Map<String, Double> byEmployee = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : summary.getRevenueByEmployee().entrySet()) {
+            String name = summary.getEmployeeName(entry.getKey());
+            byEmployee.put(name.equals(entry.getKey()) ? name : name + " (ID: " + entry.getKey() + ")", entry.getValue());
+        }
+        appendSection(report, "По сотрудникам:", byEmployee);
+        appendSection(report, "По способам оплаты:", summary.getRevenueByPaymentMethod());
         report.append("======================================\n");
 
         return report.toString();
     }
 
+    private static void appendSection(StringBuilder report, String title, Map<?, Double> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        report.append("--------------------------------------\n");
+        report.append(title).append("\n");
+        for (Map.Entry<?, Double> entry : values.entrySet()) {
+            report.append("  ").append(entry.getKey()).append(": ")
+                .append(PriceCalculator.formatPrice(entry.getValue())).append("\n");
+        }
+    }
+
+    /**
+     * Отчет о продажах в формате CSV: раздел, ключ, количество, выручка (сотрудники - по ID)
+     */
+    public static String generateSalesCsv(SalesSummary summary) {
+        StringBuilder csv = new StringBuilder();
+        csv.append("section,key,count,revenue\n");
+        appendCsvRow(csv, "total", "orders", summary.getOrderCount(), summary.getRevenue());
+        for (Map.Entry<LocalDate, Integer> entry : summary.getOrdersByDay().entrySet()) {
+            appendCsvRow(csv, "day", entry.getKey().toString(), entry.getValue(),
+                summary.getRevenueByDay().getOrDefault(entry.getKey(), 0.0));
+        }
+        for (Map.Entry<String, Double> entry : summary.getRevenueByProduct().entrySet()) {
+            appendCsvRow(csv, "product", entry.getKey(),
+                summary.getQuantityByProduct().getOrDefault(entry.getKey(), 0), entry.getValue());
+        }
+        if (summary.getDeliveryRevenue() > 0) {
+            appendCsvRow(csv, "delivery", "delivery", -1, summary.getDeliveryRevenue());
+        }
+        for (Map.Entry<String, Double> entry : summary.getRevenueByEmployee().entrySet()) {
+            appendCsvRow(csv, "employee", entry.getKey(), -1, entry.getValue());
+        }
+        for (Map.Entry<String, Double> entry : summary.getRevenueByPaymentMethod().entrySet()) {
+            appendCsvRow(csv, "payment", entry.getKey(), -1, entry.getValue());
+        }
+        return csv.toString();
+    }
+
+    public static String generateSalesCsv(Pizzeria pizzeria, LocalDate from, LocalDate to) {
+        return generateSalesCsv(SALES_ENGINE.aggregate(pizzeria, from, to));
+    }
+
+    private static void appendCsvRow(StringBuilder csv, String section, String key, int count, double revenue) {
+        csv.append(section).append(',')
+            .append(escapeCsv(key)).append(',')
+            .append(count >= 0 ? String.valueOf(count) : "").append(',')
+            .append(String.format(Locale.ROOT, "%.2f", revenue)).append('\n');
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     public static String generateEmployeeReport(Employee employee) {
         StringBuilder report = new StringBuilder();
         report.append("========== ОТЧЕТ О СОТРУДНИКЕ ==========\n");
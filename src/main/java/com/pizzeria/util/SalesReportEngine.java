@@ -0,0 +1,103 @@
+package com.pizzeria.util;
+
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Pizzeria;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельная агрегация истории заказов (Fork/Join).
+ * История делится на партиции по индексам, каждая партиция отбирает заказы
+ * из диапазона дат и строит частичный SalesSummary, затем результаты сливаются.
+ */
+public class SalesReportEngine {
+    public static final int DEFAULT_THRESHOLD = 2048;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public SalesReportEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public SalesReportEngine(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Порог партиции должен быть положительным: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Агрегировать заказы с датой в диапазоне [from, to] включительно
+     */
+    public SalesSummary aggregate(List<Order> orders, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало периода позже конца: " + from + " > " + to);
+        }
+        List<Order> source = orders instanceof RandomAccess ? orders : new ArrayList<>(orders);
+        return pool.invoke(new AggregationTask(source, 0, source.size(), from, to, threshold));
+    }
+
+    public SalesSummary aggregate(Pizzeria pizzeria, LocalDate from, LocalDate to) {
+        return aggregate(pizzeria.getOrderHistory(), from, to);
+    }
+
+    public SalesSummary aggregateDay(Pizzeria pizzeria, LocalDate date) {
+        return aggregate(pizzeria.getOrderHistory(), date, date);
+    }
+
+    public int getParallelism() { return pool.getParallelism(); }
+    public int getThreshold() { return threshold; }
+
+    private static class AggregationTask extends RecursiveTask<SalesSummary> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Order> orders;
+        private final int start;
+        private final int end;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int threshold;
+
+        AggregationTask(List<Order> orders, int start, int end,
+                        LocalDate from, LocalDate to, int threshold) {
+            this.orders = orders;
+            this.start = start;
+            this.end = end;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected SalesSummary compute() {
+            if (end - start <= threshold) {
+                return computeDirectly();
+            }
+            int middle = (start + end) >>> 1;
+            AggregationTask left = new AggregationTask(orders, start, middle, from, to, threshold);
+            AggregationTask right = new AggregationTask(orders, middle, end, from, to, threshold);
+            left.fork();
+            SalesSummary rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private SalesSummary computeDirectly() {
+            SalesSummary summary = new SalesSummary();
+            for (int i = start; i < end; i++) {
+                Order order = orders.get(i);
+                LocalDate day = order.getOrderTime().toLocalDate();
+                if (!day.isBefore(from) && !day.isAfter(to)) {
+                    summary.addOrder(order);
+                }
+            }
+            return summary;
+        }
+    }
+}
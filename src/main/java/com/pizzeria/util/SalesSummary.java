@@ -0,0 +1,114 @@
+package com.pizzeria.util;
+
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.users.Employee;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Агрегированные показатели продаж за период.
+ * Выручка и разбивки учитывают только оплаченные заказы, количество заказов - все.
+ * Выручка по продуктам и доставке учитывает скидку заказа, поэтому вместе они дают общую выручку.
+ * Выручка по сотрудникам хранится по ID сотрудника, имена - отдельно (getEmployeeName).
+ */
+public class SalesSummary {
+    static final String UNKNOWN_KEY = "Не указан";
+
+    private int orderCount;
+    private int paidOrderCount;
+    private double revenue;
+    private double deliveryRevenue;
+    private final Map<LocalDate, Integer> ordersByDay;
+    private final Map<LocalDate, Double> revenueByDay;
+    private final Map<String, Integer> quantityByProduct;
+    private final Map<String, Double> revenueByProduct;
+    private final Map<String, Double> revenueByEmployee;
+    private final Map<String, String> employeeNames;
+    private final Map<String, Double> revenueByPaymentMethod;
+
+    public SalesSummary() {
+        this.ordersByDay = new TreeMap<>();
+        this.revenueByDay = new TreeMap<>();
+        this.quantityByProduct = new TreeMap<>();
+        this.revenueByProduct = new TreeMap<>();
+        this.revenueByEmployee = new TreeMap<>();
+        this.employeeNames = new TreeMap<>();
+        this.revenueByPaymentMethod = new TreeMap<>();
+    }
+
+    public void addOrder(Order order) {
+        LocalDate day = order.getOrderTime().toLocalDate();
+        orderCount++;
+        ordersByDay.merge(day, 1, Integer::sum);
+
+        if (!order.isPaid()) {
+            return;
+        }
+
+        double orderRevenue = order.getFinalPrice();
+        paidOrderCount++;
+        revenue += orderRevenue;
+        revenueByDay.merge(day, orderRevenue, Double::sum);
+
+        double discountFactor = 1 - order.getDiscountPercentage() / 100.0;
+        for (OrderItem item : order.getItems()) {
+            String productName = item.getProduct().getName();
+            quantityByProduct.merge(productName, item.getQuantity(), Integer::sum);
+            revenueByProduct.merge(productName, item.getTotalPrice() * discountFactor, Double::sum);
+        }
+        deliveryRevenue += order.calculateDeliveryCost() * discountFactor;
+
+        Employee servedBy = order.getServedBy();
+        String employeeId = servedBy != null ? servedBy.getId() : UNKNOWN_KEY;
+        if (servedBy != null) {
+            employeeNames.put(employeeId, servedBy.getFullName());
+        }
+        revenueByEmployee.merge(employeeId, orderRevenue, Double::sum);
+
+        String method = order.getPaymentMethod() != null
+            ? order.getPaymentMethod().getDisplayName() : UNKNOWN_KEY;
+        revenueByPaymentMethod.merge(method, orderRevenue, Double::sum);
+    }
+
+    /**
+     * Объединить с частичным результатом другой партиции
+     */
+    public SalesSummary merge(SalesSummary other) {
+        orderCount += other.orderCount;
+        paidOrderCount += other.paidOrderCount;
+        revenue += other.revenue;
+        deliveryRevenue += other.deliveryRevenue;
+        other.ordersByDay.forEach((k, v) -> ordersByDay.merge(k, v, Integer::sum));
+        other.revenueByDay.forEach((k, v) -> revenueByDay.merge(k, v, Double::sum));
+        other.quantityByProduct.forEach((k, v) -> quantityByProduct.merge(k, v, Integer::sum));
+        other.revenueByProduct.forEach((k, v) -> revenueByProduct.merge(k, v, Double::sum));
+        other.revenueByEmployee.forEach((k, v) -> revenueByEmployee.merge(k, v, Double::sum));
+        employeeNames.putAll(other.employeeNames);
+        other.revenueByPaymentMethod.forEach((k, v) -> revenueByPaymentMethod.merge(k, v, Double::sum));
+        return this;
+    }
+
+    /**
+     * Имя сотрудника по ID из разбивки выручки; для заказов без сотрудника - "Не указан"
+     */
+    public String getEmployeeName(String employeeId) {
+        return employeeNames.getOrDefault(employeeId, employeeId);
+    }
+
+    // Getters
+    public int getOrderCount() { return orderCount; }
+    public int getPaidOrderCount() { return paidOrderCount; }
+    public double getRevenue() { return revenue; }
+    public double getDeliveryRevenue() { return deliveryRevenue; }
+
+    public Map<LocalDate, Integer> getOrdersByDay() { return ordersByDay; }
+    public Map<LocalDate, Double> getRevenueByDay() { return revenueByDay; }
+    public Map<String, Integer> getQuantityByProduct() { return quantityByProduct; }
+    public Map<String, Double> getRevenueByProduct() { return revenueByProduct; }
+    public Map<String, Double> getRevenueByEmployee() { return revenueByEmployee; }
+    public Map<String, String> getEmployeeNames() { return employeeNames; }
+    public Map<String, Double> getRevenueByPaymentMethod() { return revenueByPaymentMethod; }
+}
@@ -0,0 +1,417 @@
+package com.pizzeria.util;
+
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Person;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Поисковый индекс по названиям для поиска "по мере ввода".
+ * Слова названий хранятся в префиксном дереве (trie); каждый узел держит несколько
+ * самых коротких названий своего поддерева, поэтому поиск по короткому префиксу
+ * не обходит все поддерево. Опечатки ищутся обходом дерева с расчетом расстояния
+ * Левенштейна построчно и отсечением ветвей, где расстояние уже превышено.
+ * Каждое слово запроса должно совпасть с началом какого-либо слова названия.
+ */
+public class SearchIndex<T> {
+    private static final int CANDIDATE_FACTOR = 4;
+    private static final int TOP_SIZE = 16;
+    private static final Comparator<Entry<?>> SHORTEST_FIRST =
+        Comparator.<Entry<?>>comparingInt(e -> e.name.length()).thenComparingLong(e -> e.order);
+    private static final int MULTI_WORD_CANDIDATES = 4096;
+
+    private final Function<T, String> nameExtractor;
+    private final Node root;
+    private final Map<T, Entry<T>> entries;
+    private final ReadWriteLock lock;
+    private long sequence;
+
+    public SearchIndex(Function<T, String> nameExtractor) {
+        this.nameExtractor = nameExtractor;
+        this.root = new Node();
+        this.entries = new IdentityHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    public static SearchIndex<Product> forProducts() {
+        return new SearchIndex<>(Product::getName);
+    }
+
+    public static <P extends Person> SearchIndex<P> forPeople() {
+        return new SearchIndex<>(Person::getFullName);
+    }
+
+    public void add(T value) {
+        String name = nameExtractor.apply(value);
+        if (name == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (entries.containsKey(value)) {
+                return;
+            }
+            Entry<T> entry = new Entry<>(value, normalize(name), tokenize(name), sequence++);
+            entries.put(value, entry);
+            for (int i = 0; i < entry.tokens.length; i++) {
+                Node node = root;
+                for (int j = 0; j < entry.tokens[i].length(); j++) {
+                    node = node.childOrCreate(entry.tokens[i].charAt(j));
+                    node.offerTop(entry);
+                }
+                node.entries.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(T value) {
+        lock.writeLock().lock();
+        try {
+            Entry<T> entry = entries.remove(value);
+            if (entry == null) {
+                return false;
+            }
+            for (String token : entry.tokens) {
+                removeToken(root, token, 0, entry);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Переиндексировать значение после изменения названия
+     */
+    public void update(T value) {
+        remove(value);
+        add(value);
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root.children = null;
+            root.entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Найти значения, подходящие под введенный текст.
+     * Порядок: меньше опечаток, совпадение с первым словом названия, более короткое название.
+     */
+    public List<T> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        String pivot = queryTokens[0];
+        for (String token : queryTokens) {
+            if (token.length() > pivot.length()) {
+                pivot = token;
+            }
+        }
+        int candidateLimit = queryTokens.length > 1
+            ? MULTI_WORD_CANDIDATES : Math.max(limit * CANDIDATE_FACTOR, limit);
+
+        List<Match<T>> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Entry<T> entry : collectCandidates(pivot, limit, candidateLimit)) {
+                Match<T> match = score(entry, queryTokens);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.<Match<T>>comparingInt(m -> m.distance)
+            .thenComparing(m -> !m.firstWordMatch)
+            .thenComparingInt(m -> m.entry.name.length())
+            .thenComparingLong(m -> m.entry.order));
+
+        List<T> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).entry.value);
+        }
+        return result;
+    }
+
+    /**
+     * Кандидаты по одному слову: сначала точные совпадения префикса,
+     * поиск с опечатками - только если точных совпадений меньше, чем нужно вернуть
+     */
+    private Set<Entry<T>> collectCandidates(String token, int resultLimit, int limit) {
+        Set<Entry<T>> candidates = new LinkedHashSet<>();
+
+        Node node = root;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.child(token.charAt(i));
+        }
+        if (node != null) {
+            collectSubtree(node, candidates, limit);
+        }
+
+        int maxDistance = maxDistance(token);
+        Node first = root.child(token.charAt(0));
+        if (candidates.size() < resultLimit && maxDistance > 0 && first != null) {
+            // первая буква считается введенной верно: обход только одной ветви дерева
+            int[] firstRow = new int[token.length()];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            String rest = token.substring(1);
+            if (first.children != null) {
+                for (Map.Entry<Character, Node> child : first.children.entrySet()) {
+                    collectFuzzy(child.getValue(), child.getKey(), rest, firstRow, maxDistance, candidates, limit);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void collectFuzzy(Node node, char c, String token, int[] previousRow, int maxDistance,
+                              Set<Entry<T>> candidates, int limit) {
+        if (candidates.size() >= limit) {
+            return;
+        }
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int cost = token.charAt(i - 1) == c ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + cost);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        if (row[row.length - 1] <= maxDistance) {
+            // весь запрос совпал с префиксом этой ветви - все слова поддерева подходят
+            collectSubtree(node, candidates, limit);
+            return;
+        }
+        if (rowMin > maxDistance || node.children == null) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            collectFuzzy(child.getValue(), child.getKey(), token, row, maxDistance, candidates, limit);
+        }
+    }
+
+    private void collectSubtree(Node start, Set<Entry<T>> candidates, int limit) {
+        candidates.addAll(start.top);
+        if (start.top.size() < TOP_SIZE || candidates.size() >= limit) {
+            return; // в top уже все поддерево либо кандидатов достаточно
+        }
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Entry<T> entry : node.entries) {
+                candidates.add(entry);
+                if (candidates.size() >= limit) {
+                    return;
+                }
+            }
+            if (node.children != null) {
+                queue.addAll(node.children.values());
+            }
+        }
+    }
+
+    private Match<T> score(Entry<T> entry, String[] queryTokens) {
+        int total = 0;
+        for (String queryToken : queryTokens) {
+            int best = Integer.MAX_VALUE;
+            for (String token : entry.tokens) {
+                best = Math.min(best, prefixDistance(queryToken, token));
+            }
+            if (best > maxDistance(queryToken)) {
+                return null;
+            }
+            total += best;
+        }
+        boolean firstWordMatch = entry.tokens.length > 0 && entry.tokens[0].startsWith(queryTokens[0]);
+        return new Match<>(entry, total, firstWordMatch);
+    }
+
+    /**
+     * Минимальное расстояние Левенштейна между запросом и любым префиксом слова
+     */
+    static int prefixDistance(String query, String token) {
+        int[] previous = new int[query.length() + 1];
+        int[] current = new int[query.length() + 1];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = i;
+        }
+        int best = previous[query.length()];
+        for (int j = 1; j <= token.length(); j++) {
+            current[0] = j;
+            char c = token.charAt(j - 1);
+            for (int i = 1; i <= query.length(); i++) {
+                int cost = query.charAt(i - 1) == c ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+            }
+            best = Math.min(best, current[query.length()]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+
+    /**
+     * Допустимое число опечаток зависит от длины слова запроса
+     */
+    static int maxDistance(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 7 ? 1 : 2;
+    }
+
+    private boolean removeToken(Node node, String token, int depth, Entry<T> entry) {
+        if (depth == token.length()) {
+            node.entries.remove(entry);
+        } else {
+            Node child = node.child(token.charAt(depth));
+            if (child != null && removeToken(child, token, depth + 1, entry)) {
+                node.children.remove(token.charAt(depth));
+                if (node.children.isEmpty()) {
+                    node.children = null;
+                }
+            }
+        }
+        if (node != root && node.top.contains(entry)) {
+            node.rebuildTop();
+        }
+        return node != root && node.entries.isEmpty() && node.children == null;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private class Node {
+        private Map<Character, Node> children;
+        private final List<Entry<T>> entries = new ArrayList<>(1);
+        private List<Entry<T>> top = new ArrayList<>(1);
+
+        Node child(char c) {
+            return children != null ? children.get(c) : null;
+        }
+
+        Node childOrCreate(char c) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        /**
+         * Добавить название в список самых коротких названий поддерева
+         */
+        void offerTop(Entry<T> entry) {
+            if (top.contains(entry)) {
+                return;
+            }
+            int position = Collections.binarySearch(top, entry, SHORTEST_FIRST);
+            position = position < 0 ? -position - 1 : position;
+            if (position < TOP_SIZE) {
+                top.add(position, entry);
+                if (top.size() > TOP_SIZE) {
+                    top.remove(TOP_SIZE);
+                }
+            }
+        }
+
+        /**
+         * Пересобрать список из собственных названий и списков дочерних узлов
+         */
+        void rebuildTop() {
+            Set<Entry<T>> merged = new LinkedHashSet<>(entries);
+            if (children != null) {
+                for (Node child : children.values()) {
+                    merged.addAll(child.top);
+                }
+            }
+            List<Entry<T>> rebuilt = new ArrayList<>(merged);
+            rebuilt.sort(SHORTEST_FIRST);
+            top = rebuilt.size() > TOP_SIZE ? new ArrayList<>(rebuilt.subList(0, TOP_SIZE)) : rebuilt;
+        }
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final String name;
+        private final String[] tokens;
+        private final long order;
+
+        Entry(T value, String name, String[] tokens, long order) {
+            this.value = value;
+            this.name = name;
+            this.tokens = tokens;
+            this.order = order;
+        }
+    }
+
+    private static class Match<T> {
+        private final Entry<T> entry;
+        private final int distance;
+        private final boolean firstWordMatch;
+
+        Match(Entry<T> entry, int distance, boolean firstWordMatch) {
+            this.entry = entry;
+            this.distance = distance;
+            this.firstWordMatch = firstWordMatch;
+        }
+    }
+}
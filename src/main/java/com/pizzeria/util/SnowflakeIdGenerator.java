@@ -0,0 +1,136 @@
+package com.pizzeria.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор 64-битных идентификаторов по схеме Snowflake:
+ * 41 бит - миллисекунды от 01.01.2024 (часы - ClockProvider), 10 бит - номер узла,
+ * 12 бит - номер в пределах миллисекунды.
+ *
+ * Время и номер хранятся одним AtomicLong и меняются CAS, поэтому генератор не блокирует
+ * потоки. Если за миллисекунду выдано больше 4096 ID или часы пошли назад, генератор
+ * занимает следующие миллисекунды вперед, а не ждет: ID узла всегда строго возрастают.
+ *
+ * Строковая форма - 13 символов base32 Кроуфорда фиксированной длины, поэтому строки
+ * сортируются так же, как числа.
+ */
+public class SnowflakeIdGenerator {
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = i;
+            DIGITS[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+    }
+
+    private final int nodeId;
+    private final AtomicLong state; // время от эпохи << SEQUENCE_BITS | номер
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, new AtomicLong());
+    }
+
+    private SnowflakeIdGenerator(int nodeId, AtomicLong state) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Номер узла должен быть от 0 до " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.state = state;
+    }
+
+    /**
+     * Генератор с другим номером узла, продолжающий время и номер этого (состояние общее),
+     * поэтому ID до и после смены номера не повторяются даже в одну миллисекунду
+     */
+    public SnowflakeIdGenerator withNodeId(int nodeId) {
+        return new SnowflakeIdGenerator(nodeId, state);
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = ClockProvider.currentTimeMillis() - EPOCH_MILLIS;
+            // в той же миллисекунде +1 увеличивает номер, а при переполнении переносится во время
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                    | (long) nodeId << SEQUENCE_BITS
+                    | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Следующий ID строкой вида PREFIX-XXXXXXXXXXXXX
+     */
+    public String nextId(String prefix) {
+        return format(prefix, nextId());
+    }
+
+    /**
+     * Строка PREFIX-XXXXXXXXXXXXX, собранная в одном массиве символов
+     */
+    public static String format(String prefix, long id) {
+        int prefixLength = prefix.length();
+        char[] chars = new char[prefixLength + 1 + ENCODED_LENGTH];
+        prefix.getChars(0, prefixLength, chars, 0);
+        chars[prefixLength] = '-';
+        encode(id, chars, prefixLength + 1);
+        return new String(chars);
+    }
+
+    /**
+     * Записать ID в буфер 13 символами base32 без создания объектов
+     */
+    public static void encode(long id, char[] buffer, int offset) {
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            buffer[offset + i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+    }
+
+    /**
+     * Разобрать ID из строки вида PREFIX-XXXXXXXXXXXXX или XXXXXXXXXXXXX
+     */
+    public static long decode(String text) {
+        int start = text.length() - ENCODED_LENGTH;
+        if (start < 0 || (start > 0 && text.charAt(start - 1) != '-')) {
+            throw new IllegalArgumentException("Некорректный ID: " + text);
+        }
+        long id = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0 || (i == start && digit > 15)) {
+                throw new IllegalArgumentException("Некорректный ID: " + text);
+            }
+            id = id << 5 | digit;
+        }
+        return id;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    public static int sequenceOf(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    public int getNodeId() { return nodeId; }
+}
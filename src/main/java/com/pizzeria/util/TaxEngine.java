@@ -0,0 +1,215 @@
+package com.pizzeria.util;
+
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.enums.TaxMode;
+import com.pizzeria.enums.TaxRounding;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.TaxBreakdown;
+
+import java.util.List;
+
+/**
+ * Расчет налогов и сборов по заказу.
+ *
+ * Ставки задаются по категориям продуктов (для остальных действует ставка по умолчанию)
+ * и отдельно для доставки. Налог либо включен в цену, либо начисляется сверх нее,
+ * округляется до копеек по каждой позиции или по чеку для каждой категории.
+ * Настройки хранятся неизменяемой таблицей множителей, которая пересобирается при
+ * изменении, поэтому расчет - один проход по позициям без пересчета ставок.
+ */
+public class TaxEngine {
+    public static final double DEFAULT_RATE = 13.0;
+
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+
+    private final Double[] categoryRates;
+    private double defaultRate;
+    private Double deliveryRate; // null - ставка по умолчанию
+    private double serviceFeeRate;
+    private TaxMode mode;
+    private TaxRounding rounding;
+    private volatile Rates rates;
+
+    /**
+     * Неизменяемая таблица ставок: проценты и множители для расчета налога от суммы позиции
+     */
+    private static class Rates {
+        final TaxMode mode;
+        final TaxRounding rounding;
+        final double[] percent = new double[CATEGORIES.length];
+        final double[] factor = new double[CATEGORIES.length];
+        final double deliveryFactor;
+        final double defaultFraction;
+        final double serviceFeeFraction;
+
+        Rates(TaxMode mode, TaxRounding rounding, Double[] categoryRates, double defaultRate,
+              double deliveryRate, double serviceFeeRate) {
+            this.mode = mode;
+            this.rounding = rounding;
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                percent[i] = categoryRates[i] != null ? categoryRates[i] : defaultRate;
+                factor[i] = factorOf(percent[i], mode);
+            }
+            this.deliveryFactor = factorOf(deliveryRate, mode);
+            this.defaultFraction = defaultRate / 100.0;
+            this.serviceFeeFraction = serviceFeeRate / 100.0;
+        }
+
+        /**
+         * Доля налога в сумме: r для налога сверх цены, r / (1 + r) для включенного в цену
+         */
+        private static double factorOf(double percent, TaxMode mode) {
+            double rate = percent / 100.0;
+            return mode == TaxMode.INCLUSIVE ? rate / (1 + rate) : rate;
+        }
+    }
+
+    public TaxEngine() {
+        this(TaxMode.INCLUSIVE, TaxRounding.PER_RECEIPT, DEFAULT_RATE);
+    }
+
+    public TaxEngine(TaxMode mode, TaxRounding rounding, double defaultRate) {
+        if (mode == null || rounding == null) {
+            throw new IllegalArgumentException("Способ учета и округления налога обязательны");
+        }
+        checkRate(defaultRate);
+        this.categoryRates = new Double[CATEGORIES.length];
+        this.defaultRate = defaultRate;
+        this.mode = mode;
+        this.rounding = rounding;
+        rebuild();
+    }
+
+    /**
+     * Рассчитать налоги и сборы за один проход по позициям заказа
+     */
+    public TaxBreakdown compute(Order order) {
+        return compute(order, true);
+    }
+
+    /**
+     * Рассчитать только налоги - для чека, когда сервисный сбор с оплаты не взимается
+     */
+    public TaxBreakdown computeTaxes(Order order) {
+        return compute(order, false);
+    }
+
+    private TaxBreakdown compute(Order order, boolean withServiceFee) {
+        Rates current = rates;
+        double discountFactor = 1 - order.getDiscountPercentage() / 100.0;
+        boolean perLine = current.rounding == TaxRounding.PER_LINE;
+        boolean inclusive = current.mode == TaxMode.INCLUSIVE;
+        List<OrderItem> items = order.getItems();
+        TaxBreakdown breakdown = new TaxBreakdown(current.mode, items.size());
+        double[] categoryTax = new double[CATEGORIES.length];
+        boolean[] present = new boolean[CATEGORIES.length];
+
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            int category = ProductCategory.of(item.getProduct()).ordinal();
+            double amount = item.getTotalPrice() * discountFactor;
+            double tax = amount * current.factor[category];
+            if (perLine) {
+                tax = PriceCalculator.roundToTwoDecimals(tax);
+            }
+            breakdown.addLine(item, CATEGORIES[category], current.percent[category],
+                inclusive ? amount - tax : amount, tax);
+            categoryTax[category] += tax;
+            present[category] = true;
+        }
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (present[i]) {
+                breakdown.setCategoryTax(CATEGORIES[i], PriceCalculator.roundToTwoDecimals(categoryTax[i]));
+            }
+        }
+
+        double delivery = order.calculateDeliveryCost() * discountFactor;
+        if (delivery > 0) {
+            double tax = PriceCalculator.roundToTwoDecimals(delivery * current.deliveryFactor);
+            breakdown.setDelivery(inclusive ? delivery - tax : delivery, tax);
+        }
+        if (withServiceFee) {
+            breakdown.setServiceFee(PriceCalculator.roundToTwoDecimals(breakdown.getNet() * current.serviceFeeFraction));
+        }
+        return breakdown;
+    }
+
+    /**
+     * Налог по ставке по умолчанию сверх суммы
+     */
+    public double taxOn(double amount) {
+        return amount * rates.defaultFraction;
+    }
+
+    public double serviceFeeOn(double amount) {
+        return amount * rates.serviceFeeFraction;
+    }
+
+    private synchronized void rebuild() {
+        rates = new Rates(mode, rounding, categoryRates, defaultRate,
+            deliveryRate != null ? deliveryRate : defaultRate, serviceFeeRate);
+    }
+
+    private static void checkRate(double rate) {
+        if (rate < 0 || rate >= 100) {
+            throw new IllegalArgumentException("Ставка должна быть от 0 до 100%: " + rate);
+        }
+    }
+
+    // Getters and Setters
+    public synchronized double getRate(ProductCategory category) {
+        Double rate = categoryRates[category.ordinal()];
+        return rate != null ? rate : defaultRate;
+    }
+
+    public synchronized void setRate(ProductCategory category, double rate) {
+        checkRate(rate);
+        categoryRates[category.ordinal()] = rate;
+        rebuild();
+    }
+
+    public synchronized double getDefaultRate() { return defaultRate; }
+
+    public synchronized void setDefaultRate(double defaultRate) {
+        checkRate(defaultRate);
+        this.defaultRate = defaultRate;
+        rebuild();
+    }
+
+    public synchronized double getDeliveryRate() { return deliveryRate != null ? deliveryRate : defaultRate; }
+
+    public synchronized void setDeliveryRate(double deliveryRate) {
+        checkRate(deliveryRate);
+        this.deliveryRate = deliveryRate;
+        rebuild();
+    }
+
+    public synchronized double getServiceFeeRate() { return serviceFeeRate; }
+
+    public synchronized void setServiceFeeRate(double serviceFeeRate) {
+        checkRate(serviceFeeRate);
+        this.serviceFeeRate = serviceFeeRate;
+        rebuild();
+    }
+
+    public synchronized TaxMode getMode() { return mode; }
+
+    public synchronized void setMode(TaxMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Способ учета налога обязателен");
+        }
+        this.mode = mode;
+        rebuild();
+    }
+
+    public synchronized TaxRounding getRounding() { return rounding; }
+
+    public synchronized void setRounding(TaxRounding rounding) {
+        if (rounding == null) {
+            throw new IllegalArgumentException("Способ округления налога обязателен");
+        }
+        this.rounding = rounding;
+        rebuild();
+    }
+}
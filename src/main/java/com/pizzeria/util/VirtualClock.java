@@ -0,0 +1,84 @@
+package com.pizzeria.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Часы виртуального времени для моделирования и воспроизведения нагрузки.
+ * Время идет только при вызове advance или setTime, поэтому прогон не зависит
+ * от реального времени и может идти быстрее него. Потокобезопасны.
+ */
+public final class VirtualClock extends Clock {
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    public VirtualClock(LocalDateTime start) {
+        this(start, ZoneId.systemDefault());
+    }
+
+    public VirtualClock(LocalDateTime start, ZoneId zone) {
+        this(new AtomicLong(start.atZone(zone).toInstant().toEpochMilli()), zone);
+    }
+
+    private VirtualClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Сдвинуть время вперед
+     */
+    public void advance(Duration duration) {
+        advanceMillis(duration.toMillis());
+    }
+
+    public void advanceMillis(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Виртуальное время не идет назад: " + delta + " мс");
+        }
+        millis.addAndGet(delta);
+    }
+
+    /**
+     * Перевести часы на момент не раньше текущего; более ранний момент игнорируется,
+     * чтобы несколько потоков воспроизведения не откатывали время друг друга
+     */
+    public void advanceTo(LocalDateTime time) {
+        long target = time.atZone(zone).toInstant().toEpochMilli();
+        millis.accumulateAndGet(target, Math::max);
+    }
+
+    /**
+     * Установить время, в том числе назад (например, между прогонами)
+     */
+    public void setTime(LocalDateTime time) {
+        millis.set(time.atZone(zone).toInstant().toEpochMilli());
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Те же часы в другом поясе: время у обоих общее
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new VirtualClock(millis, zone);
+    }
+}
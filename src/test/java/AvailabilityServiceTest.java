@@ -0,0 +1,149 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.factory.PizzaFactory;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Menu;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.RecipeBook;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.AvailabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AvailabilityService Tests")
+class AvailabilityServiceTest {
+
+    private Inventory inventory;
+    private Menu menu;
+    private Product margherita;
+    private Product pepperoni;
+    private Product cola;
+    private AvailabilityService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] stock = {
+            {"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"}, {"мясо", "Пепперони"}
+        };
+        for (String[] item : stock) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(2000);
+            inventory.addIngredient(ingredient);
+        }
+        inventory.getIngredients().get("Пепперони").setQuantity(6);
+
+        menu = new Menu("Меню");
+        margherita = new MargheritaPizza(PizzaSize.SMALL);
+        pepperoni = new PepperoniPizza(PizzaSize.LARGE); // 4 единицы пепперони на порцию
+        cola = new Drink("Кока-кола", 100.0, 500);
+        menu.addProduct(margherita);
+        menu.addProduct(pepperoni);
+        menu.addProduct(cola);
+
+        service = new AvailabilityService(inventory, RecipeBook.standard());
+        service.track(menu);
+    }
+
+    @Test
+    @DisplayName("Продукты доступны, пока хватает ингредиентов")
+    void testInitialState() {
+        assertEquals(2, service.getTrackedCount());
+        assertEquals(3, menu.getAvailableProducts().size());
+    }
+
+    @Test
+    @DisplayName("Пицца становится недоступной после расхода на кухне")
+    void testKitchenConsumption() throws Exception {
+        Kitchen kitchen = new Kitchen(inventory);
+        kitchen.addChef(new Chef("CHF001", "Марио", "Росси", 60000));
+        Order order = new Order("ORD-1", new Customer("C1", "Иван", "Иванов"));
+        order.addItem(new PepperoniPizza(PizzaSize.LARGE), 1);
+
+        kitchen.prepareOrder(order);
+
+        assertFalse(pepperoni.isAvailable());
+        assertTrue(margherita.isAvailable());
+        assertFalse(menu.getAvailableProducts().contains(pepperoni));
+        assertEquals(1, service.getMissingIngredientsCount(pepperoni));
+    }
+
+    @Test
+    @DisplayName("Пицца снова доступна после поставки")
+    void testRestock() throws Exception {
+        inventory.getIngredients().get("Пепперони").setQuantity(3);
+        assertFalse(pepperoni.isAvailable());
+
+        inventory.restockIngredient("Пепперони", 200);
+
+        assertTrue(pepperoni.isAvailable());
+    }
+
+    @Test
+    @DisplayName("Нехватка нескольких ингредиентов учитывается отдельно")
+    void testSeveralMissingIngredients() throws Exception {
+        inventory.getIngredients().get("Пепперони").setQuantity(0);
+        inventory.removeIngredient("Моцарелла");
+
+        assertEquals(2, service.getMissingIngredientsCount(pepperoni));
+        assertFalse(margherita.isAvailable());
+
+        inventory.restockIngredient("Пепперони", 500);
+        assertFalse(pepperoni.isAvailable());
+
+        Ingredient cheese = new IngredientFactory().createCheese("Моцарелла");
+        cheese.setQuantity(1000);
+        inventory.addIngredient(cheese);
+        assertTrue(pepperoni.isAvailable());
+        assertTrue(margherita.isAvailable());
+    }
+
+    @Test
+    @DisplayName("Пиццы стандартного меню доступны при запасах фабрики")
+    void testFactoryStockMenu() throws Exception {
+        Inventory factoryStock = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        factoryStock.addIngredient(factory.createDough("Тонкое"));
+        factoryStock.addIngredient(factory.createSauce("Томатный"));
+        factoryStock.addIngredient(factory.createCheese("Моцарелла"));
+        factoryStock.addIngredient(factory.createMeat("Пепперони"));
+        factoryStock.addIngredient(factory.createMeat("Курица"));
+        factoryStock.addIngredient(factory.createVegetable("Помидоры"));
+        factoryStock.addIngredient(factory.createVegetable("Грибы"));
+
+        Menu standardMenu = new Menu("Основное меню");
+        PizzaFactory pizzaFactory = new PizzaFactory();
+        for (String type : new String[] {"Маргарита", "Пепперони", "Мясная", "Вегетарианская"}) {
+            for (PizzaSize size : PizzaSize.values()) {
+                standardMenu.addProduct(pizzaFactory.createPizza(type, size));
+            }
+        }
+        AvailabilityService standard = new AvailabilityService(factoryStock, RecipeBook.standard());
+        standard.track(standardMenu);
+
+        assertEquals(16, standard.getTrackedCount());
+        assertEquals(16, standardMenu.getAvailableProducts().size());
+    }
+
+    @Test
+    @DisplayName("Прекращение отслеживания")
+    void testUntrack() {
+        service.untrack(pepperoni);
+        inventory.getIngredients().get("Пепперони").setQuantity(0);
+
+        assertTrue(pepperoni.isAvailable());
+        assertEquals(1, service.getTrackedCount());
+        assertTrue(cola.isAvailable());
+    }
+}
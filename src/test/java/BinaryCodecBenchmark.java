@@ -0,0 +1,275 @@
+import com.pizzeria.enums.OrderStatus;
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.ProductCatalog;
+import com.pizzeria.model.Email;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.BinaryCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Запись и чтение заказов: BinaryCodec против стандартной сериализации Java.
+ * Доменные классы не Serializable, поэтому для Java-сериализации заказы заранее переводятся
+ * в Serializable-снимки с теми же полями (перевод в замер не входит).
+ * Независимые записи - кодек сбрасывается и ObjectOutputStream создается на каждый заказ (журнал);
+ * поток - один словарь и одна таблица ссылок на все заказы (снимок).
+ * Запуск: java -cp target/classes:target/test-classes BinaryCodecBenchmark [заказов]
+ */
+public class BinaryCodecBenchmark {
+    private static final String[] PIZZA_TYPES = {"Margherita", "Pepperoni", "Veggie", "Meat"};
+    private static final int CUSTOMERS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        List<Order> orders = createOrders(orderCount, new Random(42));
+        List<OrderSnapshot> snapshots = new ArrayList<>(orderCount);
+        for (Order order : orders) {
+            snapshots.add(new OrderSnapshot(order));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024 * 1024);
+        for (int round = 0; round < 5; round++) {
+            codecRecords(orders, buffer);
+            javaRecords(snapshots);
+            codecStream(orders, buffer);
+            javaStream(snapshots);
+            System.out.println();
+        }
+    }
+
+    private static void codecRecords(List<Order> orders, ByteBuffer buffer) {
+        BinaryCodec writer = new BinaryCodec();
+        BinaryCodec reader = new BinaryCodec();
+        buffer.clear();
+        long started = System.nanoTime();
+        for (Order order : orders) {
+            writer.reset();
+            writer.writeOrder(buffer, order);
+        }
+        long encoded = System.nanoTime() - started;
+        int bytes = buffer.position();
+
+        buffer.flip();
+        started = System.nanoTime();
+        long checksum = 0;
+        while (buffer.hasRemaining()) {
+            reader.reset();
+            checksum += reader.readOrder(buffer).getItems().size();
+        }
+        report("BinaryCodec, записи", orders.size(), bytes, encoded, System.nanoTime() - started, checksum);
+    }
+
+    private static void codecStream(List<Order> orders, ByteBuffer buffer) {
+        BinaryCodec writer = new BinaryCodec();
+        BinaryCodec reader = new BinaryCodec();
+        buffer.clear();
+        long started = System.nanoTime();
+        for (Order order : orders) {
+            writer.writeOrder(buffer, order);
+        }
+        long encoded = System.nanoTime() - started;
+        int bytes = buffer.position();
+
+        buffer.flip();
+        started = System.nanoTime();
+        long checksum = 0;
+        while (buffer.hasRemaining()) {
+            checksum += reader.readOrder(buffer).getItems().size();
+        }
+        report("BinaryCodec, поток ", orders.size(), bytes, encoded, System.nanoTime() - started, checksum);
+    }
+
+    private static void javaRecords(List<OrderSnapshot> snapshots) throws Exception {
+        List<byte[]> records = new ArrayList<>(snapshots.size());
+        long started = System.nanoTime();
+        int bytes = 0;
+        for (OrderSnapshot snapshot : snapshots) {
+            ByteArrayOutputStream data = new ByteArrayOutputStream(512);
+            try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+                out.writeObject(snapshot);
+            }
+            byte[] record = data.toByteArray();
+            bytes += record.length;
+            records.add(record);
+        }
+        long encoded = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        long checksum = 0;
+        for (byte[] record : records) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+                checksum += ((OrderSnapshot) in.readObject()).items.size();
+            }
+        }
+        report("Java, записи       ", snapshots.size(), bytes, encoded, System.nanoTime() - started, checksum);
+    }
+
+    private static void javaStream(List<OrderSnapshot> snapshots) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(16 * 1024 * 1024);
+        long started = System.nanoTime();
+        try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+            for (OrderSnapshot snapshot : snapshots) {
+                out.writeObject(snapshot);
+            }
+        }
+        long encoded = System.nanoTime() - started;
+        byte[] stream = data.toByteArray();
+
+        started = System.nanoTime();
+        long checksum = 0;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream))) {
+            for (int i = 0; i < snapshots.size(); i++) {
+                checksum += ((OrderSnapshot) in.readObject()).items.size();
+            }
+        }
+        report("Java, поток        ", snapshots.size(), stream.length, encoded, System.nanoTime() - started, checksum);
+    }
+
+    private static void report(String name, int orders, int bytes, long encodeNanos, long decodeNanos,
+                               long checksum) {
+        System.out.printf("%s: %.0f байт/заказ, запись %.2f мкс/заказ, чтение %.2f мкс/заказ (%d)%n",
+            name, (double) bytes / orders, encodeNanos / 1000.0 / orders, decodeNanos / 1000.0 / orders, checksum);
+    }
+
+    private static List<Order> createOrders(int count, Random random) throws Exception {
+        ProductCatalog catalog = new ProductCatalog();
+        PizzaSize[] sizes = PizzaSize.values();
+        List<Product> products = new ArrayList<>();
+        for (String type : PIZZA_TYPES) {
+            for (PizzaSize size : sizes) {
+                products.add(catalog.getPizza(type, size));
+            }
+        }
+        String[] drinks = {"Кола", "Сок апельсиновый", "Вода", "Морс"};
+        for (String name : drinks) {
+            products.add(new Drink(name, 80 + random.nextInt(60), 500));
+        }
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer("CUST-" + i, "Имя" + i, "Фамилия" + i);
+            customer.setPhoneNumber(new PhoneNumber("+7", "9" + (10 + i % 90), String.valueOf(5_000_000 + i)));
+            customer.setEmail(new Email("client" + i, "example.ru"));
+            LoyaltyCard card = new LoyaltyCard("LC-" + i);
+            card.addPoints(random.nextInt(1500));
+            customer.setLoyaltyCard(card);
+            customers.add(customer);
+        }
+
+        OrderStatus[] statuses = OrderStatus.values();
+        PaymentMethod[] methods = {PaymentMethod.CASH, PaymentMethod.CARD, PaymentMethod.ONLINE};
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("ORD-" + i, customers.get(random.nextInt(CUSTOMERS)));
+            int items = 1 + random.nextInt(5);
+            for (int j = 0; j < items; j++) {
+                order.addItem(products.get(random.nextInt(products.size())), 1 + random.nextInt(3));
+            }
+            if (random.nextInt(4) == 0) {
+                order.getItems().get(0).addCustomization("без лука");
+            }
+            order.setStatus(statuses[random.nextInt(statuses.length)]);
+            order.setPaymentMethod(methods[random.nextInt(methods.length)]);
+            order.setPaid(random.nextBoolean());
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * Serializable-снимок заказа с теми же полями, что пишет BinaryCodec
+     */
+    private static class OrderSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String id;
+        final CustomerSnapshot customer;
+        final OrderStatus status;
+        final long orderTime;
+        final PaymentMethod paymentMethod;
+        final double discountPercentage;
+        final boolean paid;
+        final List<ItemSnapshot> items = new ArrayList<>();
+
+        OrderSnapshot(Order order) {
+            this.id = order.getId();
+            this.customer = CustomerSnapshot.of(order.getCustomer());
+            this.status = order.getStatus();
+            this.orderTime = order.getOrderTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.paymentMethod = order.getPaymentMethod();
+            this.discountPercentage = order.getDiscountPercentage();
+            this.paid = order.isPaid();
+            for (OrderItem item : order.getItems()) {
+                items.add(new ItemSnapshot(item));
+            }
+        }
+    }
+
+    private static class ItemSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String productName;
+        final PizzaSize size;
+        final double basePrice;
+        final double discountPercentage;
+        final int quantity;
+        final ArrayList<String> customizations;
+
+        ItemSnapshot(OrderItem item) {
+            Product product = item.getProduct();
+            this.productName = product.getName();
+            this.size = product instanceof Pizza ? ((Pizza) product).getSize() : null;
+            this.basePrice = product.getBasePrice();
+            this.discountPercentage = product.getDiscountPercentage();
+            this.quantity = item.getQuantity();
+            this.customizations = new ArrayList<>(item.getCustomizations());
+        }
+    }
+
+    private static class CustomerSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final Map<Customer, CustomerSnapshot> CACHE = new IdentityHashMap<>();
+        final String id;
+        final String firstName;
+        final String lastName;
+        final String phone;
+        final String email;
+        final String cardNumber;
+        final int points;
+
+        private CustomerSnapshot(Customer customer) {
+            this.id = customer.getId();
+            this.firstName = customer.getFirstName();
+            this.lastName = customer.getLastName();
+            this.phone = customer.getPhoneNumber().getFullNumber();
+            this.email = customer.getEmail().getFullEmail();
+            this.cardNumber = customer.getLoyaltyCard().getCardNumber();
+            this.points = customer.getLoyaltyCard().getPoints();
+        }
+
+        /**
+         * Один снимок на клиента - в потоке Java-сериализация тоже пишет его ссылкой
+         */
+        static CustomerSnapshot of(Customer customer) {
+            return CACHE.computeIfAbsent(customer, CustomerSnapshot::new);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import com.pizzeria.enums.LoyaltyTier;
+import com.pizzeria.enums.OrderStatus;
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.Email;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.payment.CardPayment;
+import com.pizzeria.model.payment.CashPayment;
+import com.pizzeria.model.payment.OnlinePayment;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.model.products.CustomPizza;
+import com.pizzeria.model.products.Dessert;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.BinaryCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BinaryCodec Tests")
+class BinaryCodecTest {
+
+    private BinaryCodec writer;
+    private BinaryCodec reader;
+    private Customer customer;
+    private Order order;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writer = new BinaryCodec();
+        reader = new BinaryCodec();
+
+        customer = new Customer("CUST-7", "Анна", "Петрова");
+        customer.setPhoneNumber(new PhoneNumber("+7", "912", "5550101"));
+        customer.setEmail(new Email("anna@example.ru"));
+        customer.setAddress(new Address("Ленина", "10", "Москва", "101000"));
+        LoyaltyCard card = new LoyaltyCard("LC-1");
+        card.addPoints(600);
+        card.redeemPoints(300); // уровень GOLD сохраняется при 300 баллах
+        card.setExpiryDate(LocalDate.of(2027, 3, 1));
+        customer.setLoyaltyCard(card);
+        customer.addToOrderHistory("OLD-1");
+        customer.setNotificationEnabled(false);
+
+        order = new Order("ORD-100", customer);
+        IngredientFactory ingredients = new IngredientFactory();
+        CustomPizza custom = new CustomPizza(PizzaSize.LARGE);
+        custom.addIngredient(ingredients.createIngredient("Сыр", "Моцарелла"));
+        custom.addIngredient(ingredients.createIngredient("Овощи", "Томаты"));
+        order.addItem(custom, 1);
+        order.addItem(new MargheritaPizza(PizzaSize.SMALL), 2);
+        Drink cola = new Drink("Кола", 99.9, 500);
+        cola.setCarbonated(true);
+        cola.chill();
+        order.addItem(cola, 3);
+        Dessert cake = new Dessert("Чизкейк", 180, 150);
+        cake.setContainsNuts(true);
+        cake.applyDiscount(12.5);
+        order.addItem(cake, 1);
+        OrderItem margherita = order.getItems().get(1);
+        margherita.addCustomization("без базилика");
+        margherita.setSpecialInstructions("разрезать на 8");
+        margherita.markPrepared();
+
+        order.setStatus(OrderStatus.PREPARING);
+        order.setOrderTime(LocalDateTime.of(2026, 10, 19, 18, 30, 15, 123_456_789));
+        order.setDeliveryAddress(new Address("Тверская", "5", "Москва", "125009"));
+        order.applyDiscount(10);
+        order.setPaid(true);
+        order.setPaymentMethod(PaymentMethod.CARD);
+        order.setQuotedWaitMinutes(35);
+    }
+
+    private ByteBuffer flip(ByteBuffer buffer) {
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    @DisplayName("Заказ с клиентом и позициями восстанавливается полностью")
+    void testOrderRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        writer.writeOrder(buffer, order);
+        Order decoded = reader.readOrder(flip(buffer));
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals("ORD-100", decoded.getId());
+        assertEquals(OrderStatus.PREPARING, decoded.getStatus());
+        assertEquals(order.getOrderTime(), decoded.getOrderTime());
+        assertNull(decoded.getDeliveryTime());
+        assertEquals("Тверская", decoded.getDeliveryAddress().getStreet());
+        assertEquals(10, decoded.getDiscountPercentage());
+        assertTrue(decoded.isPaid());
+        assertEquals(PaymentMethod.CARD, decoded.getPaymentMethod());
+        assertEquals(35, decoded.getQuotedWaitMinutes());
+        assertEquals(order.getFinalPrice(), decoded.getFinalPrice(), 1e-9);
+
+        Pizza custom = (Pizza) decoded.getItems().get(0).getProduct();
+        assertTrue(custom instanceof CustomPizza);
+        assertEquals(PizzaSize.LARGE, custom.getSize());
+        assertEquals(2, custom.getIngredients().size());
+        assertEquals("Моцарелла", custom.getIngredients().get(0).getName());
+        OrderItem margherita = decoded.getItems().get(1);
+        assertTrue(margherita.getProduct() instanceof MargheritaPizza);
+        assertEquals(1, margherita.getPreparedCount());
+        assertEquals("разрезать на 8", margherita.getSpecialInstructions());
+        assertEquals(1, margherita.getCustomizations().size());
+        Drink cola = (Drink) decoded.getItems().get(2).getProduct();
+        assertEquals(99.9, cola.getBasePrice());
+        assertTrue(cola.isCarbonated());
+        assertEquals(4, cola.getTemperature());
+        Dessert cake = (Dessert) decoded.getItems().get(3).getProduct();
+        assertEquals(12.5, cake.getDiscountPercentage());
+        assertTrue(cake.isContainsNuts());
+
+        Customer restored = decoded.getCustomer();
+        assertEquals("Анна Петрова", restored.getFullName());
+        assertEquals("+79125550101", restored.getPhoneNumber().getFullNumber());
+        assertEquals("anna@example.ru", restored.getEmail().getFullEmail());
+        assertEquals("Ленина", restored.getAddress().getStreet());
+        assertEquals(300, restored.getLoyaltyCard().getPoints());
+        assertEquals(LoyaltyTier.GOLD, restored.getLoyaltyCard().getTier());
+        assertEquals(LocalDate.of(2027, 3, 1), restored.getLoyaltyCard().getExpiryDate());
+        assertEquals(1, restored.getTotalOrders());
+        assertFalse(restored.isNotificationEnabled());
+    }
+
+    @Test
+    @DisplayName("Повторные строки и объекты потока пишутся ссылками, reset делает записи независимыми")
+    void testDictionaryAndReferences() throws Exception {
+        Order second = new Order("ORD-101", customer);
+        second.addItem(order.getItems().get(2).getProduct(), 1);
+        second.addItem(new Drink("Кола", 99.9, 500), 1);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        writer.writeOrder(buffer, order);
+        int first = buffer.position();
+        writer.writeOrder(buffer, second);
+        int repeated = buffer.position() - first;
+        writer.writeCustomer(buffer, customer);
+
+        flip(buffer);
+        Order decodedFirst = reader.readOrder(buffer);
+        Order decodedSecond = reader.readOrder(buffer);
+        assertSame(decodedFirst.getCustomer(), decodedSecond.getCustomer());
+        assertSame(decodedFirst.getItems().get(2).getProduct(), decodedSecond.getItems().get(0).getProduct());
+        assertNotSame(decodedSecond.getItems().get(0).getProduct(), decodedSecond.getItems().get(1).getProduct());
+        assertEquals("Кола", decodedSecond.getItems().get(1).getProduct().getName());
+        assertSame(decodedFirst.getCustomer(), reader.readCustomer(buffer));
+
+        writer.reset();
+        ByteBuffer independent = ByteBuffer.allocate(4096);
+        writer.writeOrder(independent, second);
+        assertTrue(repeated < independent.position() / 2);
+        BinaryCodec fresh = new BinaryCodec();
+        assertEquals("Анна Петрова", fresh.readOrder(flip(independent)).getCustomer().getFullName());
+    }
+
+    @Test
+    @DisplayName("Платежи всех видов и чек со ссылкой на записанный заказ")
+    void testPaymentsAndReceipt() throws Exception {
+        CashPayment cash = new CashPayment("TX-1", 950.5);
+        cash.setAmountReceived(1000);
+        cash.process();
+        CardPayment card = new CardPayment("TX-2", 1200, "4111111111111111");
+        card.setCardHolderName("ANNA PETROVA");
+        OnlinePayment online = new OnlinePayment("TX-3", 300, "anna@example.ru");
+        online.process();
+        Receipt receipt = new Receipt("R-1", order, card);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        writer.writeOrder(buffer, order);
+        writer.writePayment(buffer, cash);
+        writer.writePayment(buffer, online);
+        writer.writePayment(buffer, null);
+        writer.writeReceipt(buffer, receipt);
+
+        flip(buffer);
+        Order decodedOrder = reader.readOrder(buffer);
+        CashPayment decodedCash = (CashPayment) reader.readPayment(buffer);
+        assertEquals(950.5, decodedCash.getAmount());
+        assertEquals(49.5, decodedCash.getChange(), 1e-9);
+        assertTrue(decodedCash.isSuccessful());
+        assertEquals(cash.getPaymentTime(), decodedCash.getPaymentTime());
+        OnlinePayment decodedOnline = (OnlinePayment) reader.readPayment(buffer);
+        assertTrue(decodedOnline.verifyConfirmationCode(online.getConfirmationCode()));
+        assertEquals("PayPal", decodedOnline.getPaymentGateway());
+        assertNull(reader.readPayment(buffer));
+
+        Receipt decoded = reader.readReceipt(buffer);
+        assertEquals("R-1", decoded.getReceiptNumber());
+        assertSame(decodedOrder, decoded.getOrder());
+        assertEquals(receipt.getIssueTime(), decoded.getIssueTime());
+        Payment decodedCard = decoded.getPayment();
+        assertEquals(PaymentMethod.CARD, decodedCard.getMethod());
+        assertEquals("**** **** **** 1111", ((CardPayment) decodedCard).getCardNumber());
+        assertEquals("ANNA PETROVA", ((CardPayment) decodedCard).getCardHolderName());
+        assertFalse(decodedCard.isSuccessful());
+    }
+
+    @Test
+    @DisplayName("Запись, не поместившаяся в буфер, и неполное чтение откатываются")
+    void testRollbackOnShortBuffer() {
+        ByteBuffer small = ByteBuffer.allocate(64);
+        assertThrows(BufferOverflowException.class, () -> writer.writeOrder(small, order));
+        assertEquals(0, small.position());
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        writer.writeOrder(buffer, order);
+        flip(buffer);
+
+        ByteBuffer truncated = buffer.duplicate();
+        truncated.limit(buffer.limit() / 2);
+        assertThrows(BufferUnderflowException.class, () -> reader.readOrder(truncated));
+        assertEquals(0, truncated.position());
+
+        Order decoded = reader.readOrder(buffer);
+        assertEquals(order.getItems().size(), decoded.getItems().size());
+        assertEquals("Анна", decoded.getCustomer().getFirstName());
+    }
+
+    @Test
+    @DisplayName("Запись с неподдерживаемым объектом откатывается вместе со словарем и ссылками")
+    void testRollbackOnUnsupportedObject() throws Exception {
+        Payment voucher = new Payment("V-1", 100, PaymentMethod.CASH) {
+            @Override
+            public boolean process() {
+                return true;
+            }
+
+            @Override
+            public void refund() {
+            }
+        };
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> writer.writeReceipt(buffer, new Receipt("R-2", order, voucher)));
+        assertEquals(0, buffer.position());
+
+        // заказ не остался в таблице ссылок: пишется целиком и читается новым читателем
+        writer.writeOrder(buffer, order);
+        flip(buffer);
+        assertEquals("Анна", reader.readOrder(buffer).getCustomer().getFirstName());
+    }
+
+    @Test
+    @DisplayName("Поврежденные данные и неподдерживаемые объекты отклоняются")
+    void testInvalidInput() {
+        ByteBuffer unknownReference = ByteBuffer.wrap(new byte[] {5});
+        assertThrows(IllegalArgumentException.class, () -> reader.readOrder(unknownReference));
+        ByteBuffer unknownPayment = ByteBuffer.wrap(new byte[] {9});
+        assertThrows(IllegalArgumentException.class, () -> reader.readPayment(unknownPayment));
+        ByteBuffer overlongVarint = ByteBuffer.wrap(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1});
+        assertThrows(IllegalArgumentException.class, () -> reader.readPayment(overlongVarint));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> writer.writeReceipt(ByteBuffer.allocate(16), null));
+    }
+}
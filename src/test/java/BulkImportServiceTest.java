@@ -0,0 +1,124 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.CustomerNotFoundException;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Menu;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.BulkImportService;
+import com.pizzeria.service.CustomerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BulkImportService Tests")
+class BulkImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BulkImportService(new ForkJoinPool(4));
+    }
+
+    private Path write(String name, String content) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Загрузка меню с сохранением порядка")
+    void testLoadMenu() throws Exception {
+        Path file = write("menu.csv",
+            "# тип,название,параметры\n" +
+            "pizza,маргарита,MEDIUM\n" +
+            "drink,Кока-кола,100.0,500\r\n" +
+            "\n" +
+            "dessert,\"Тирамису, классический\",250.0,150\n" +
+            "appetizer,Брускетта,150.0");
+        Menu menu = new Menu("Основное меню");
+
+        int loaded = service.loadMenu(file, menu);
+
+        assertEquals(4, loaded);
+        assertTrue(menu.getProducts().get(0) instanceof Pizza);
+        assertEquals(PizzaSize.MEDIUM, ((Pizza) menu.getProducts().get(0)).getSize());
+        assertEquals("Кока-кола", menu.getProducts().get(1).getName());
+        assertEquals("Тирамису, классический", menu.getProducts().get(2).getName());
+        assertEquals(150.0, menu.getProducts().get(3).getPrice(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Загрузка ингредиентов на склад")
+    void testLoadIngredients() throws Exception {
+        Path file = write("ingredients.csv", "сыр,Моцарелла,500\nsauce,Томатный,300,35.5\n");
+        Inventory inventory = new Inventory();
+
+        assertEquals(2, service.loadIngredients(file, inventory));
+        assertEquals(500, inventory.getIngredients().get("Моцарелла").getQuantity());
+        assertEquals(35.5, inventory.getIngredients().get("Томатный").getPricePerUnit(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Параллельная загрузка большого файла клиентов")
+    void testLoadManyCustomers() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            content.append("CUST-").append(i).append(",Имя").append(i).append(",Фамилия,+74951234")
+                .append(String.format("%04d", i % 10000)).append(",user").append(i).append("@example.com,LOYAL-")
+                .append(i).append('\n');
+        }
+        content.append("CUST-1,Дубликат,Клиент\n");
+        Path file = write("customers.csv", content.toString());
+        CustomerRegistry registry = new CustomerRegistry();
+
+        int loaded = service.loadCustomers(file, registry);
+
+        assertEquals(20000, loaded);
+        assertEquals(20000, registry.size());
+        Customer customer = registry.findById("CUST-19999");
+        assertEquals("Имя19999", customer.getFirstName());
+        assertEquals("user19999@example.com", customer.getEmail().getFullEmail());
+        assertEquals("LOYAL-19999", customer.getLoyaltyCard().getCardNumber());
+        assertEquals("Имя1", registry.findById("CUST-1").getFirstName());
+    }
+
+    @Test
+    @DisplayName("Одновременная загрузка всех файлов")
+    void testLoadAll() throws Exception {
+        Path menuFile = write("menu.csv", "pizza,pepperoni,LARGE\n");
+        Path ingredientsFile = write("ingredients.csv", "dough,Тонкое,120\n");
+        Path customersFile = write("customers.csv", "CUST001,Иван,Иванов\n");
+        Menu menu = new Menu("Меню");
+        Inventory inventory = new Inventory();
+        CustomerRegistry registry = new CustomerRegistry();
+
+        service.loadAll(menuFile, menu, ingredientsFile, inventory, customersFile, registry);
+
+        assertEquals(1, menu.getProducts().size());
+        assertEquals(1, inventory.getIngredients().size());
+        assertTrue(registry.contains("CUST001"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.findById("CUST002"));
+    }
+
+    @Test
+    @DisplayName("Некорректная запись")
+    void testInvalidRecord() throws Exception {
+        Path file = write("menu.csv", "pizza,маргарита,HUGE\n");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> service.loadMenu(file, new Menu("Меню")));
+        assertTrue(exception.getMessage().contains("pizza,маргарита,HUGE"));
+    }
+}
@@ -0,0 +1,64 @@
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.model.ArrivalProfile;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.SimulationReport;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.service.CapacitySimulator;
+import com.pizzeria.service.DeliveryService;
+
+/**
+ * Подбор персонала на вечер пятницы и замер скорости моделирования.
+ * Запуск: java -cp target/classes:target/test-classes CapacitySimulatorBenchmark [суток]
+ */
+public class CapacitySimulatorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        ArrivalProfile friday = new ArrivalProfile(6).addPeak(12, 14, 2).addPeak(18, 22, 3);
+
+        System.out.println("Вечер пятницы (одни сутки):");
+        for (int[] staff : new int[][] {{4, 3}, {6, 4}, {8, 5}, {10, 6}}) {
+            CapacitySimulator simulator = createSimulator(staff[0], staff[1], 1_000_000);
+            SimulationReport report = simulator.run(friday, 24, 42);
+            System.out.printf("поваров %d, водителей %d: отклонено %d из %d, вовремя %.1f%%, p95 %d мин,"
+                    + " загрузка поваров %.0f%%, водителей %.0f%%%n",
+                staff[0], staff[1], report.getOrdersRejected(), report.getOrdersArrived(),
+                report.getOnTimeRate() * 100, report.getP95MinutesToCustomer(),
+                report.getChefUtilization() * 100, report.getDriverUtilization() * 100);
+        }
+
+        CapacitySimulator simulator = createSimulator(10, 6, 1_000_000_000);
+        simulator.run(friday, 24 * 50, 1); // прогрев
+        SimulationReport report = simulator.run(friday, 24.0 * days, 2);
+        System.out.println();
+        System.out.println(report);
+        System.out.printf("Скорость: %.0f заказов/с%n", report.getOrdersPerSecond());
+    }
+
+    private static CapacitySimulator createSimulator(int chefs, int drivers, int stock) throws Exception {
+        Inventory inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] items = {
+            {"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"},
+            {"мясо", "Пепперони"}, {"мясо", "Курица"}, {"овощи", "Помидоры"}, {"овощи", "Грибы"}
+        };
+        for (String[] item : items) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(stock);
+            inventory.addIngredient(ingredient);
+        }
+        Kitchen kitchen = new Kitchen(inventory);
+        kitchen.setMaxCapacity(40);
+        for (int i = 0; i < chefs; i++) {
+            kitchen.addChef(new Chef("CHF" + i, "Повар", String.valueOf(i), 50000));
+        }
+        DeliveryService deliveryService = new DeliveryService();
+        for (int i = 0; i < drivers; i++) {
+            deliveryService.addDriver(new DeliveryDriver("DRV" + i, "Водитель", String.valueOf(i), 40000));
+        }
+        return new CapacitySimulator(kitchen, deliveryService);
+    }
+}
@@ -0,0 +1,146 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.model.ArrivalProfile;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.SimulationReport;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.service.CapacitySimulator;
+import com.pizzeria.service.DeliveryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CapacitySimulator Tests")
+class CapacitySimulatorTest {
+
+    private Inventory inventory;
+    private Kitchen kitchen;
+    private DeliveryService deliveryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] stock = {
+            {"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"},
+            {"мясо", "Пепперони"}, {"мясо", "Курица"}, {"овощи", "Помидоры"}, {"овощи", "Грибы"}
+        };
+        for (String[] item : stock) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(100_000_000);
+            inventory.addIngredient(ingredient);
+        }
+        kitchen = new Kitchen(inventory);
+        deliveryService = new DeliveryService();
+        staff(4, 4);
+    }
+
+    private void staff(int chefs, int drivers) {
+        for (int i = 0; i < chefs; i++) {
+            kitchen.addChef(new Chef("CHF" + i, "Повар", String.valueOf(i), 50000));
+        }
+        for (int i = 0; i < drivers; i++) {
+            deliveryService.addDriver(new DeliveryDriver("DRV" + i, "Водитель", String.valueOf(i), 40000));
+        }
+    }
+
+    @Test
+    @DisplayName("При небольшом потоке все заказы выполняются")
+    void testLightLoad() {
+        SimulationReport report = new CapacitySimulator(kitchen, deliveryService)
+            .run(new ArrivalProfile(4), 24, 1);
+
+        assertTrue(report.getOrdersArrived() > 50);
+        assertEquals(report.getOrdersArrived(),
+            report.getOrdersAccepted() + report.getOrdersDeferred() + report.getOrdersRejected());
+        assertEquals(report.getOrdersAccepted() + report.getOrdersDeferred(), report.getOrdersCompleted());
+        assertTrue(report.getOrdersRejected() < report.getOrdersArrived() / 10);
+        assertTrue(report.getChefUtilization() > 0 && report.getChefUtilization() < 1);
+        assertTrue(report.getDeliveries() > 0);
+        assertTrue(report.getOnTimeRate() > 0.9);
+    }
+
+    @Test
+    @DisplayName("Прогон воспроизводим при одинаковом зерне")
+    void testDeterministic() {
+        ArrivalProfile profile = new ArrivalProfile(4).addPeak(18, 21, 2);
+        SimulationReport first = new CapacitySimulator(kitchen, deliveryService).run(profile, 24, 7);
+        SimulationReport second = new CapacitySimulator(kitchen, deliveryService).run(profile, 24, 7);
+
+        assertEquals(first.getOrdersArrived(), second.getOrdersArrived());
+        assertEquals(first.getDeliveriesOnTime(), second.getDeliveriesOnTime());
+        assertEquals(first.getP95MinutesToCustomer(), second.getP95MinutesToCustomer());
+    }
+
+    @Test
+    @DisplayName("Пик заказов удлиняет очереди и ведет к отказам")
+    void testPeakOverload() {
+        CapacitySimulator simulator = new CapacitySimulator(kitchen, deliveryService);
+        SimulationReport calm = simulator.run(new ArrivalProfile(4), 24, 3);
+        SimulationReport friday = simulator.run(new ArrivalProfile(4).addPeak(18, 22, 4), 24, 3);
+
+        assertTrue(friday.getMaxKitchenQueue() > calm.getMaxKitchenQueue());
+        assertTrue(friday.getOrdersRejected() + friday.getOrdersDeferred() > 0);
+        assertTrue(friday.getChefUtilization() > calm.getChefUtilization());
+    }
+
+    @Test
+    @DisplayName("Дополнительные водители повышают долю доставок вовремя")
+    void testMoreDrivers() {
+        ArrivalProfile profile = new ArrivalProfile(7);
+        DeliveryService single = new DeliveryService();
+        single.addDriver(new DeliveryDriver("DRV100", "Водитель", "Один", 40000));
+
+        SimulationReport few = new CapacitySimulator(kitchen, single).run(profile, 12, 5);
+        SimulationReport many = new CapacitySimulator(kitchen, deliveryService).run(profile, 12, 5);
+
+        assertTrue(many.getAverageDeliveryQueue() < few.getAverageDeliveryQueue());
+        assertTrue(many.getDriverUtilization() < few.getDriverUtilization());
+        assertTrue(many.getOnTimeRate() > few.getOnTimeRate());
+    }
+
+    @Test
+    @DisplayName("Ингредиенты списываются со склада, при нехватке заказ не готовится")
+    void testInventoryDebit() throws Exception {
+        inventory.getIngredients().get("Моцарелла").setQuantity(20);
+        CapacitySimulator simulator = new CapacitySimulator(kitchen, deliveryService);
+        simulator.addOrderTemplate(List.of(new OrderItem(new MargheritaPizza(PizzaSize.SMALL), 1)), 1);
+
+        SimulationReport report = simulator.run(new ArrivalProfile(20), 4, 11);
+
+        assertEquals(10, report.getOrdersCompleted()); // 2 единицы сыра на маленькую пиццу
+        assertEquals(report.getOrdersAccepted() + report.getOrdersDeferred() - 10, report.getOrdersOutOfStock());
+        assertEquals(0, inventory.getIngredients().get("Моцарелла").getQuantity());
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры отклоняются")
+    void testInvalidArguments() {
+        CapacitySimulator simulator = new CapacitySimulator(kitchen, deliveryService);
+
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(new ArrivalProfile(10), 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ArrivalProfile(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ArrivalProfile(10).addPeak(25, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> simulator.addOrderTemplate(List.of(), 1));
+    }
+
+    @Test
+    @DisplayName("Пик через полночь учитывается в интенсивности")
+    void testArrivalProfile() {
+        ArrivalProfile profile = new ArrivalProfile(10).addPeak(22, 2, 3).addPeak(1, 3, 2);
+
+        assertEquals(10, profile.getRate(12), 1e-9);
+        assertEquals(30, profile.getRate(23), 1e-9);
+        assertEquals(60, profile.getRate(24 + 1.5), 1e-9);
+        assertEquals(60, profile.getMaxRate(), 1e-9);
+    }
+}
@@ -0,0 +1,169 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.PizzaTask;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.MeatLoversPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.products.VeggiePizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.service.ChefScheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Сравнение общей очереди и ChefScheduler на модели кухни в виртуальном времени.
+ * Заказы приходят пуассоновским потоком, специалист готовит свою пиццу быстрее,
+ * новички умеют готовить только свою специализацию.
+ * Запуск: java -cp target/classes:target/test-classes ChefSchedulerBenchmark [пицц] [пицц в час]
+ */
+public class ChefSchedulerBenchmark {
+    private static final String[] TYPES = {"Маргарита", "Пепперони", "Мясная", "Вегетарианская"};
+    private static final double[] TYPE_SHARE = {0.4, 0.3, 0.2, 0.1};
+    private static final double BASE_MINUTES = 12.0;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        double perHour = args.length > 1 ? Double.parseDouble(args[1]) : 34.0;
+
+        List<Chef> chefs = createChefs();
+        List<PizzaTask> tasks = createArrivals(count, perHour, new Random(7));
+
+        report("Общая очередь", simulate(chefs, tasks, false));
+        report("Work stealing", simulate(chefs, tasks, true));
+    }
+
+    private static List<Chef> createChefs() {
+        List<Chef> chefs = new ArrayList<>();
+        String[][] staff = {
+            {"Маргарита", "10"}, {"Пепперони", "4"}, {"Маргарита", "1"},
+            {"Пепперони", "1"}, {"Мясная", "1"}, {"Вегетарианская", "0"}
+        };
+        for (int i = 0; i < staff.length; i++) {
+            Chef chef = new Chef("CHF" + i, "Повар", String.valueOf(i), 50000);
+            chef.setSpecialty(staff[i][0]);
+            chef.setExperienceYears(Integer.parseInt(staff[i][1]));
+            chefs.add(chef);
+        }
+        return chefs;
+    }
+
+    private static List<PizzaTask> createArrivals(int count, double perHour, Random random) throws Exception {
+        Pizza[] pizzas = {
+            new MargheritaPizza(PizzaSize.MEDIUM), new PepperoniPizza(PizzaSize.MEDIUM),
+            new MeatLoversPizza(PizzaSize.MEDIUM), new VeggiePizza(PizzaSize.MEDIUM)
+        };
+        List<PizzaTask> tasks = new ArrayList<>(count);
+        double minutes = 0;
+        for (int i = 0; i < count; i++) {
+            minutes += -Math.log(1 - random.nextDouble()) * 60.0 / perHour;
+            double pick = random.nextDouble();
+            int type = 0;
+            while (type < TYPES.length - 1 && pick > TYPE_SHARE[type]) {
+                pick -= TYPE_SHARE[type];
+                type++;
+            }
+            // время в секундах виртуальных часов
+            tasks.add(new PizzaTask(null, pizzas[type], Math.round(minutes * 60)));
+        }
+        return tasks;
+    }
+
+    private static long cookSeconds(Chef chef, PizzaTask task) {
+        double minutes = BASE_MINUTES;
+        if (chef.getSpecialty() != null && chef.getSpecialty().equalsIgnoreCase(task.getPizzaType())) {
+            minutes *= 0.75;
+        }
+        minutes *= Math.max(0.6, 1.0 - chef.getExperienceYears() * 0.04);
+        return Math.round(minutes * 60);
+    }
+
+    /**
+     * Событийная модель: прибытие пиццы или освобождение повара
+     */
+    private static long[] simulate(List<Chef> chefs, List<PizzaTask> tasks, boolean stealing) {
+        ChefScheduler scheduler = new ChefScheduler(chefs);
+        Deque<PizzaTask> shared = new ArrayDeque<>();
+        long[] freeAt = new long[chefs.size()];
+        boolean[] busy = new boolean[chefs.size()];
+        // событие: {время, индекс повара или -1 для прибытия, индекс задачи}
+        PriorityQueue<long[]> events = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        Map<PizzaTask, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexes.put(tasks.get(i), i);
+            events.add(new long[] {tasks.get(i).getSubmittedAt(), -1, i});
+        }
+
+        long[] waits = new long[tasks.size()];
+        int completed = 0;
+        long lastFinish = 0;
+        long started = System.nanoTime();
+        while (!events.isEmpty()) {
+            long[] event = events.poll();
+            long now = event[0];
+            if (event[1] < 0) {
+                PizzaTask task = tasks.get((int) event[2]);
+                if (stealing) {
+                    scheduler.submit(task);
+                } else {
+                    shared.addLast(task);
+                }
+            } else {
+                busy[(int) event[1]] = false;
+                completed++;
+                lastFinish = Math.max(lastFinish, now);
+            }
+            // все свободные повара берут работу
+            for (int c = 0; c < chefs.size(); c++) {
+                if (busy[c]) {
+                    continue;
+                }
+                Chef chef = chefs.get(c);
+                PizzaTask task = stealing ? scheduler.nextTask(chef) : takeShared(shared, chef);
+                if (task == null) {
+                    continue;
+                }
+                int index = indexes.get(task);
+                waits[index] = now - task.getSubmittedAt();
+                busy[c] = true;
+                freeAt[c] = now + cookSeconds(chef, task);
+                events.add(new long[] {freeAt[c], c, index});
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(waits);
+        return new long[] {completed, lastFinish, waits[waits.length / 2],
+            waits[(int) (waits.length * 0.95)], waits[(int) (waits.length * 0.99)], elapsed};
+    }
+
+    /**
+     * Общая очередь: повар берет первую по порядку пиццу, которую умеет готовить
+     */
+    private static PizzaTask takeShared(Deque<PizzaTask> shared, Chef chef) {
+        Iterator<PizzaTask> iterator = shared.iterator();
+        while (iterator.hasNext()) {
+            PizzaTask task = iterator.next();
+            if (chef.canCookPizza(task.getPizzaType())) {
+                iterator.remove();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private static void report(String name, long[] result) {
+        double hours = result[1] / 3600.0;
+        System.out.printf("%-14s пицц: %d, пропускная способность: %.1f пицц/ч, ожидание p50/p95/p99: %.1f/%.1f/%.1f мин"
+                + " (расчет %.0f мс)%n",
+            name, result[0], result[0] / hours, result[2] / 60.0, result[3] / 60.0, result[4] / 60.0,
+            result[5] / 1_000_000.0);
+    }
+}
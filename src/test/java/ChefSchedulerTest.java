@@ -0,0 +1,165 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.PizzaTask;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.service.ChefScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChefScheduler Tests")
+class ChefSchedulerTest {
+
+    private ChefScheduler scheduler;
+    private Chef master;
+    private Chef margheritaNovice;
+    private Chef pepperoniNovice;
+
+    @BeforeEach
+    void setUp() {
+        master = new Chef("CHF001", "Марио", "Росси", 80000);
+        master.setExperienceYears(10);
+        margheritaNovice = new Chef("CHF002", "Луиджи", "Бьянки", 40000);
+        margheritaNovice.setSpecialty("Маргарита");
+        pepperoniNovice = new Chef("CHF003", "Джузеппе", "Верди", 40000);
+        pepperoniNovice.setSpecialty("Пепперони");
+        scheduler = new ChefScheduler(List.of(master, margheritaNovice, pepperoniNovice));
+    }
+
+    private PizzaTask margherita() throws Exception {
+        return new PizzaTask(null, new MargheritaPizza(PizzaSize.MEDIUM), 0);
+    }
+
+    private PizzaTask pepperoni() throws Exception {
+        return new PizzaTask(null, new PepperoniPizza(PizzaSize.MEDIUM), 0);
+    }
+
+    @Test
+    @DisplayName("Задача направляется повару со специализацией")
+    void testRoutesToSpecialist() throws Exception {
+        assertSame(margheritaNovice, scheduler.submit(margherita()));
+        assertSame(margheritaNovice, scheduler.submit(margherita()));
+        assertSame(pepperoniNovice, scheduler.submit(pepperoni()));
+        assertEquals(0, scheduler.getQueueLength(master));
+    }
+
+    @Test
+    @DisplayName("Без специалиста задача достается наименее загруженному повару")
+    void testLeastLoaded() throws Exception {
+        ChefScheduler generalists = new ChefScheduler();
+        Chef first = new Chef("CHF010", "Анна", "Смирнова", 60000);
+        first.setExperienceYears(5);
+        Chef second = new Chef("CHF011", "Олег", "Петров", 60000);
+        second.setExperienceYears(5);
+        generalists.addChef(first);
+        generalists.addChef(second);
+
+        generalists.submit(margherita());
+        generalists.submit(margherita());
+        generalists.submit(pepperoni());
+
+        assertEquals(2, generalists.getQueueLength(first));
+        assertEquals(1, generalists.getQueueLength(second));
+    }
+
+    @Test
+    @DisplayName("Задачу, которую никто не умеет готовить, назначить нельзя")
+    void testNoEligibleChef() throws Exception {
+        PizzaTask task = new PizzaTask(null, new MargheritaPizza(PizzaSize.SMALL), 0);
+        ChefScheduler novices = new ChefScheduler(List.of(pepperoniNovice));
+
+        assertNull(novices.submit(task));
+        assertEquals(0, novices.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Свободный повар перехватывает только задачи, которые умеет готовить")
+    void testStealsOnlyEligible() throws Exception {
+        PizzaTask first = margherita();
+        PizzaTask second = margherita();
+        scheduler.submit(first);
+        scheduler.submit(second);
+
+        assertNull(scheduler.nextTask(pepperoniNovice));
+        assertSame(second, scheduler.nextTask(master)); // перехват с конца очереди
+        assertSame(first, scheduler.nextTask(margheritaNovice));
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Перехват начинается с самой длинной очереди")
+    void testStealsFromBusiest() throws Exception {
+        PizzaTask pepperoniTask = pepperoni();
+        scheduler.submit(pepperoniTask);
+        scheduler.submit(margherita());
+        scheduler.submit(margherita());
+        PizzaTask last = margherita();
+        scheduler.submit(last);
+
+        assertSame(last, scheduler.nextTask(master));
+    }
+
+    @Test
+    @DisplayName("При удалении повара его задачи переходят к остальным")
+    void testRemoveChef() throws Exception {
+        scheduler.submit(margherita());
+        scheduler.submit(pepperoni());
+
+        List<PizzaTask> unassigned = scheduler.removeChef(pepperoniNovice);
+        assertTrue(unassigned.isEmpty());
+        assertEquals(1, scheduler.getQueueLength(master));
+
+        scheduler.removeChef(master);
+        List<PizzaTask> orphaned = scheduler.removeChef(margheritaNovice);
+        assertEquals(1, orphaned.size());
+        assertEquals("Маргарита", orphaned.get(0).getPizzaType());
+    }
+
+    @Test
+    @DisplayName("В нескольких потоках каждая задача выполняется ровно один раз")
+    void testConcurrentDrain() throws Exception {
+        int taskCount = 3000;
+        List<PizzaTask> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            Pizza pizza = i % 2 == 0 ? new MargheritaPizza(PizzaSize.SMALL) : new PepperoniPizza(PizzaSize.SMALL);
+            tasks.add(new PizzaTask(null, pizza, i));
+        }
+        for (PizzaTask task : tasks) {
+            assertNotNull(scheduler.submit(task));
+        }
+
+        Set<PizzaTask> done = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (Chef chef : scheduler.getChefs()) {
+            Thread worker = new Thread(() -> {
+                PizzaTask task;
+                while ((task = scheduler.nextTask(chef)) != null) {
+                    assertTrue(chef.canCookPizza(task.getPizzaType()));
+                    if (!done.add(task)) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(taskCount, done.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+}
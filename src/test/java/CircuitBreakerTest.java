@@ -0,0 +1,79 @@
+import com.pizzeria.enums.CircuitState;
+import com.pizzeria.util.CircuitBreaker;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private VirtualClock clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(LocalDateTime.of(2024, 3, 1, 12, 0));
+        ClockProvider.setClock(clock);
+        breaker = new CircuitBreaker(3, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    @Test
+    @DisplayName("Цепь размыкается после заданного числа ошибок подряд")
+    void testOpensAfterThreshold() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("После паузы пропускается один пробный запрос")
+    void testHalfOpenTrial() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        clock.advance(Duration.ofSeconds(30));
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры отклоняются")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1, Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,189 @@
+import com.pizzeria.model.Discount;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Promotion;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.CoarseClock;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ClockProvider Tests")
+class ClockProviderTest {
+
+    private VirtualClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(LocalDateTime.of(2024, 3, 1, 18, 30), ZoneOffset.UTC);
+        ClockProvider.setClock(clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    @Test
+    @DisplayName("Модель получает время от подмененных часов")
+    void testModelUsesClock() {
+        Order order = new Order("ORD-1", null);
+        Chef chef = new Chef("CHF001", "Марио", "Росси", 60000);
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 18, 30), order.getOrderTime());
+        assertEquals(LocalDate.of(2024, 3, 1), chef.getHireDate());
+    }
+
+    @Test
+    @DisplayName("Срок скидки, акции и карты проверяется по виртуальному времени")
+    void testValidityFollowsVirtualTime() throws Exception {
+        Discount discount = new Discount("SPRING", 10);
+        Promotion promotion = new Promotion("Неделя пиццы", 15);
+        LoyaltyCard card = new LoyaltyCard("LC-1");
+
+        assertTrue(discount.isDiscountApplicable());
+        assertTrue(promotion.isValid());
+
+        clock.advance(Duration.ofDays(8));
+        assertTrue(discount.isDiscountApplicable());
+        assertFalse(promotion.isValid());
+
+        clock.advance(Duration.ofDays(400));
+        assertFalse(discount.isDiscountApplicable());
+        assertTrue(card.isExpired());
+    }
+
+    @Test
+    @DisplayName("Пока время не изменилось, возвращается тот же объект")
+    void testCachedValues() {
+        LocalDateTime first = ClockProvider.now();
+        assertSame(first, ClockProvider.now());
+
+        LocalDate today = ClockProvider.today();
+        clock.advance(Duration.ofHours(5));
+        assertSame(today, ClockProvider.today());
+        assertNotSame(first, ClockProvider.now());
+
+        clock.advance(Duration.ofHours(1)); // 00:30 следующих суток
+        assertEquals(LocalDate.of(2024, 3, 2), ClockProvider.today());
+    }
+
+    @Test
+    @DisplayName("Грубые часы округляют время вниз до шага")
+    void testCoarseClock() {
+        Clock fixed = Clock.fixed(Instant.ofEpochMilli(1_234_567), ZoneOffset.UTC);
+        CoarseClock coarse = new CoarseClock(fixed, 100);
+
+        assertEquals(1_234_500, coarse.millis());
+        assertEquals(Instant.ofEpochMilli(1_234_500), coarse.instant());
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(fixed, 0));
+    }
+
+    @Test
+    @DisplayName("Грубые часы читают базовые часы раз в шаг, а не на каждый вызов")
+    void testCoarseClockCachesTime() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Clock counting = new Clock() {
+            @Override
+            public long millis() {
+                reads.incrementAndGet();
+                return clock.millis();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis());
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return clock.getZone();
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        CoarseClock coarse = new CoarseClock(counting, 1000);
+        long start = clock.millis();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(start, coarse.millis());
+        }
+        assertEquals(1, reads.get());
+
+        clock.advanceMillis(1500);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (coarse.millis() == start && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(start + 1000, coarse.millis());
+    }
+
+    @Test
+    @DisplayName("Виртуальное время не идет назад при advance и advanceTo")
+    void testVirtualClockMonotonic() {
+        clock.advanceTo(LocalDateTime.of(2024, 3, 1, 12, 0));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 18, 30), ClockProvider.now());
+
+        clock.advanceTo(LocalDateTime.of(2024, 3, 1, 19, 0));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 19, 0), ClockProvider.now());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofMinutes(-1)));
+
+        clock.setTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), ClockProvider.now());
+    }
+
+    @Test
+    @DisplayName("Подмена часов через override видна только своему потоку")
+    void testScopedOverride() throws Exception {
+        VirtualClock scoped = new VirtualClock(LocalDateTime.of(2030, 1, 1, 9, 0), ZoneOffset.UTC);
+        VirtualClock nested = new VirtualClock(LocalDateTime.of(2031, 1, 1, 9, 0), ZoneOffset.UTC);
+        AtomicReference<LocalDateTime> otherThread = new AtomicReference<>();
+
+        ClockProvider.Scope scope = ClockProvider.override(scoped);
+        try {
+            assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), ClockProvider.now());
+            Thread thread = new Thread(() -> otherThread.set(ClockProvider.now()));
+            thread.start();
+            thread.join();
+            ClockProvider.Scope inner = ClockProvider.override(nested);
+            assertEquals(LocalDate.of(2031, 1, 1), ClockProvider.today());
+            inner.close();
+            inner.close(); // повторное закрытие не снимает внешнюю подмену
+            assertSame(scoped, ClockProvider.getClock());
+        } finally {
+            scope.close();
+        }
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 18, 30), otherThread.get());
+        assertSame(clock, ClockProvider.getClock());
+        assertThrows(IllegalArgumentException.class, () -> ClockProvider.override(null));
+    }
+
+    @Test
+    @DisplayName("По умолчанию используются системные часы")
+    void testReset() {
+        ClockProvider.reset();
+
+        assertTrue(ClockProvider.getClock() instanceof CoarseClock);
+        assertEquals(LocalDate.now(), ClockProvider.today());
+        assertThrows(IllegalArgumentException.class, () -> ClockProvider.setClock(null));
+    }
+}
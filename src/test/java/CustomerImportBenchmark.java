@@ -0,0 +1,41 @@
+import com.pizzeria.service.BulkImportService;
+import com.pizzeria.service.CustomerRegistry;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Бенчмарк загрузки клиентов из CSV.
+ * Запуск: java -cp target/classes:target/test-classes CustomerImportBenchmark [клиентов]
+ */
+public class CustomerImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("customers", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < customerCount; i++) {
+                    writer.write("CUST-" + i + ",Имя" + i + ",Фамилия" + i + ",+7495" + (1000000 + i)
+                        + ",user" + i + "@example.com,LOYAL-" + i + "\n");
+                }
+            }
+            System.out.printf("Клиентов: %d, размер файла: %.1f МБ%n",
+                customerCount, Files.size(file) / (1024.0 * 1024.0));
+
+            BulkImportService service = new BulkImportService();
+            for (int run = 1; run <= 5; run++) {
+                CustomerRegistry registry = new CustomerRegistry(customerCount);
+                long start = System.nanoTime();
+                int loaded = service.loadCustomers(file, registry);
+                double millis = (System.nanoTime() - start) / 1_000_000.0;
+                System.out.printf("прогон %d: %d клиентов за %.1f мс (%.0f клиентов/с)%n",
+                    run, loaded, millis, loaded / (millis / 1000.0));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
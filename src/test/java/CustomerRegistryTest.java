@@ -0,0 +1,183 @@
+import com.pizzeria.exceptions.CustomerNotFoundException;
+import com.pizzeria.model.Email;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.PhoneNumber;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.CustomerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CustomerRegistry Tests")
+class CustomerRegistryTest {
+
+    private CustomerRegistry registry;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new CustomerRegistry();
+        customer = new Customer("CUST001", "Алексей", "Николаев");
+        customer.setPhoneNumber(new PhoneNumber("+7", "495", "1234567"));
+        customer.setEmail(new Email("Alexey", "Example.com"));
+        customer.setLoyaltyCard(new LoyaltyCard("LOYAL-001"));
+        registry.register(customer);
+    }
+
+    @Test
+    @DisplayName("Поиск по ID")
+    void testFindById() throws Exception {
+        assertSame(customer, registry.findById("CUST001"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Поиск по телефону в разных форматах")
+    void testFindByPhone() throws Exception {
+        assertSame(customer, registry.findByPhone("+74951234567"));
+        assertSame(customer, registry.findByPhone("+7 (495) 123-45-67"));
+    }
+
+    @Test
+    @DisplayName("Поиск по email без учета регистра")
+    void testFindByEmail() throws Exception {
+        assertSame(customer, registry.findByEmail("alexey@example.com"));
+        assertSame(customer, registry.findByEmail(" ALEXEY@EXAMPLE.COM "));
+    }
+
+    @Test
+    @DisplayName("Поиск по номеру карты лояльности")
+    void testFindByLoyaltyCard() throws Exception {
+        assertSame(customer, registry.findByLoyaltyCard("loyal-001"));
+    }
+
+    @Test
+    @DisplayName("Исключение для неизвестных ключей")
+    void testNotFound() {
+        assertThrows(CustomerNotFoundException.class, () -> registry.findById("CUST999"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByPhone("+70000000000"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByEmail("nobody@example.com"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByLoyaltyCard(null));
+    }
+
+    @Test
+    @DisplayName("Повторная регистрация ID отклоняется")
+    void testDuplicateId() {
+        Customer duplicate = new Customer("CUST001", "Другой", "Клиент");
+        assertFalse(registry.register(duplicate));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Переиндексация после смены телефона")
+    void testReindex() throws Exception {
+        customer.setPhoneNumber(new PhoneNumber("+7", "812", "7654321"));
+        registry.reindex("CUST001");
+
+        assertSame(customer, registry.findByPhone("+78127654321"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByPhone("+74951234567"));
+    }
+
+    @Test
+    @DisplayName("Удаление клиента удаляет все ключи")
+    void testUnregister() throws Exception {
+        assertSame(customer, registry.unregister("CUST001"));
+
+        assertEquals(0, registry.size());
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByEmail("alexey@example.com"));
+        assertThrows(CustomerNotFoundException.class, () -> registry.unregister("CUST001"));
+    }
+
+    @Test
+    @DisplayName("Телефон находится по национальному номеру с кодом страны и без него")
+    void testFindByLocalPhone() throws Exception {
+        Customer local = new Customer("CUST002", "Мария", "Петрова");
+        local.setPhoneNumber(new PhoneNumber("7654321"));
+        registry.register(local);
+
+        assertSame(local, registry.findByPhone("765-43-21"));
+        assertSame(customer, registry.findByPhone("(495) 123-45-67"));
+        assertSame(customer, registry.findByPhone("8 495 123 45 67"));
+        assertSame(customer, registry.findByPhone(customer.getPhoneNumber().getFullNumber()));
+    }
+
+    @Test
+    @DisplayName("Общий ключ переходит к следующему клиенту после удаления первого")
+    void testSharedKeyAfterUnregister() throws Exception {
+        Customer relative = new Customer("CUST002", "Ольга", "Николаева");
+        relative.setPhoneNumber(new PhoneNumber("+7", "495", "1234567"));
+        registry.register(relative);
+        assertSame(customer, registry.findByPhone("+74951234567"));
+
+        registry.unregister("CUST001");
+        assertSame(relative, registry.findByPhone("+74951234567"));
+
+        registry.unregister("CUST002");
+        assertThrows(CustomerNotFoundException.class, () -> registry.findByPhone("+74951234567"));
+    }
+
+    @Test
+    @DisplayName("Параллельная регистрация")
+    void testConcurrentRegistration() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1000;
+            threads.add(new Thread(() -> {
+                for (int i = offset; i < offset + 1000; i++) {
+                    Customer c = new Customer("C-" + i, "Имя", "Фамилия");
+                    c.setPhoneNumber(new PhoneNumber("+7", "900", String.format("%07d", i)));
+                    registry.register(c);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4001, registry.size());
+        assertEquals("C-3999", registry.findByPhone("+79000003999").getId());
+        assertEquals(4001, registry.getAllCustomers().size());
+    }
+
+    @Test
+    @DisplayName("Удаление во время регистрации не оставляет ключей в индексах")
+    void testUnregisterRacingRegister() throws Exception {
+        int count = 2000;
+        Thread registering = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                Customer c = new Customer("R-" + i, "Гонка", "Регистрации");
+                c.setPhoneNumber(new PhoneNumber("+7", "901", String.format("%07d", i)));
+                registry.register(c);
+            }
+        });
+        Thread unregistering = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (true) {
+                    try {
+                        registry.unregister("R-" + i);
+                        break;
+                    } catch (CustomerNotFoundException e) {
+                        Thread.onSpinWait(); // клиент еще не зарегистрирован
+                    }
+                }
+            }
+        });
+        registering.start();
+        unregistering.start();
+        registering.join();
+        unregistering.join();
+
+        assertEquals(1, registry.size());
+        for (int i = 0; i < count; i++) {
+            String phone = "+7901" + String.format("%07d", i);
+            assertThrows(CustomerNotFoundException.class, () -> registry.findByPhone(phone));
+        }
+        assertTrue(registry.searchByName("Регистрации", 10).isEmpty());
+    }
+}
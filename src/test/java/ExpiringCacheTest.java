@@ -0,0 +1,92 @@
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.ExpiringCache;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExpiringCache Tests")
+class ExpiringCacheTest {
+
+    private VirtualClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(LocalDateTime.of(2024, 3, 1, 12, 0));
+        ClockProvider.setClock(clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    @Test
+    @DisplayName("Повторное добавление возвращает действующее значение")
+    void testPutIfAbsent() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(5));
+
+        assertNull(cache.putIfAbsent("A", "первое"));
+        assertEquals("первое", cache.putIfAbsent("A", "второе"));
+        assertEquals("первое", cache.get("A"));
+        assertFalse(cache.remove("A", "второе"));
+        assertTrue(cache.remove("A", "первое"));
+        assertNull(cache.get("A"));
+    }
+
+    @Test
+    @DisplayName("Записи забываются по истечении срока")
+    void testExpiry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(5));
+        cache.putIfAbsent("A", "первое");
+
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals("первое", cache.get("A"));
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("A"));
+        assertNull(cache.putIfAbsent("A", "второе"));
+        assertEquals("второе", cache.get("A"));
+    }
+
+    @Test
+    @DisplayName("Незавершенная попытка не вытесняется и не устаревает")
+    void testInFlightEntryPinned() {
+        ExpiringCache<String, CompletableFuture<String>> cache = new ExpiringCache<>(1, Duration.ofMinutes(5));
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+        cache.putIfAbsent("A", inFlight);
+
+        assertNull(cache.putIfAbsent("B", CompletableFuture.completedFuture("B")));
+        assertSame(inFlight, cache.get("A"));
+        assertNull(cache.get("B"));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertSame(inFlight, cache.get("A"));
+
+        inFlight.complete("A");
+        assertNull(cache.get("A"));
+        assertNull(cache.putIfAbsent("C", CompletableFuture.completedFuture("C")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("При превышении емкости вытесняются самые старые записи")
+    void testCapacity() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3, Duration.ofHours(1));
+        for (int i = 0; i < 10; i++) {
+            cache.putIfAbsent(i, i);
+        }
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(6));
+        assertEquals(9, cache.get(9));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(0, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(1, Duration.ZERO));
+    }
+}
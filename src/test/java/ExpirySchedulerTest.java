@@ -0,0 +1,187 @@
+import com.pizzeria.model.Discount;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.Promotion;
+import com.pizzeria.service.ExpiryScheduler;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExpiryScheduler Tests")
+class ExpirySchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private VirtualClock clock;
+    private ExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(TODAY.atTime(12, 0));
+        ClockProvider.setClock(clock);
+        scheduler = new ExpiryScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    private void moveTo(LocalDate date) {
+        clock.setTime(date.atTime(12, 0));
+        scheduler.advanceTo(date);
+    }
+
+    @Test
+    @DisplayName("Скидка включается в первый день и выключается после последнего")
+    void testDiscountWindow() throws Exception {
+        Discount discount = new Discount("SPRING", 10);
+        discount.setStartDate(TODAY.plusDays(3));
+        discount.setEndDate(TODAY.plusDays(5));
+        scheduler.schedule(discount);
+
+        assertFalse(discount.isDiscountApplicable());
+        moveTo(TODAY.plusDays(3));
+        assertTrue(discount.isDiscountApplicable());
+        moveTo(TODAY.plusDays(5));
+        assertTrue(discount.isDiscountApplicable());
+        moveTo(TODAY.plusDays(6));
+        assertFalse(discount.isDiscountApplicable());
+        assertEquals(0, scheduler.getPendingTimers());
+    }
+
+    @Test
+    @DisplayName("При включенном флаге даты не проверяются")
+    void testFlagIsUsedInsteadOfDates() {
+        Promotion promotion = new Promotion("Неделя пиццы", 15);
+        scheduler.schedule(promotion);
+        assertTrue(promotion.isValid());
+
+        // часы ушли вперед, но колесо еще не прокручено
+        clock.setTime(LocalDateTime.of(2024, 4, 1, 12, 0));
+        assertTrue(promotion.isValid());
+
+        scheduler.advanceTo(LocalDate.of(2024, 4, 1));
+        assertFalse(promotion.isValid());
+        promotion.setActive(true);
+        assertFalse(promotion.isValid());
+    }
+
+    @Test
+    @DisplayName("Карта перестает давать скидку в день окончания срока")
+    void testLoyaltyCardExpiry() {
+        LoyaltyCard card = new LoyaltyCard("LC-1");
+        scheduler.schedule(card);
+
+        moveTo(card.getExpiryDate().minusDays(1));
+        assertTrue(card.isDiscountApplicable());
+        moveTo(card.getExpiryDate());
+        assertFalse(card.isDiscountApplicable());
+        assertFalse(card.isExpired());
+
+        card.renewCard();
+        assertTrue(card.isDiscountApplicable());
+        scheduler.schedule(card);
+        assertTrue(card.isDiscountApplicable());
+    }
+
+    @Test
+    @DisplayName("Изменение дат возвращает проверку по датам, таймер пересчитывает флаг")
+    void testDateChangeAndCancel() {
+        Promotion promotion = new Promotion("Акция", 10);
+        scheduler.schedule(promotion);
+
+        promotion.extend(100);
+        moveTo(TODAY.plusDays(8));
+        // старый таймер сработал и пересчитал флаг по новым датам
+        assertTrue(promotion.isValid());
+        moveTo(TODAY.plusDays(108));
+        assertFalse(promotion.isValid());
+
+        scheduler.cancel(promotion);
+        promotion.setEndDate(TODAY.plusDays(200));
+        assertTrue(promotion.isValid());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("У объекта один таймер: повторное планирование заменяет его, отмена убирает")
+    void testSingleTimerPerTarget() throws Exception {
+        Discount discount = new Discount("SPRING", 10);
+        discount.setEndDate(TODAY.plusDays(5));
+        scheduler.schedule(discount);
+        scheduler.schedule(discount);
+        discount.setEndDate(TODAY.plusDays(20));
+        scheduler.schedule(discount);
+
+        assertEquals(1, scheduler.getPendingTimers());
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(6)));
+        assertTrue(discount.isDiscountApplicable());
+
+        scheduler.cancel(discount);
+        assertEquals(0, scheduler.getPendingTimers());
+        assertEquals(0, scheduler.getScheduledCount());
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(21)));
+    }
+
+    @Test
+    @DisplayName("Объект с истекшим сроком снимается с планирования")
+    void testExpiredTargetIsDropped() throws Exception {
+        Discount discount = new Discount("SPRING", 10);
+        discount.setEndDate(TODAY.plusDays(2));
+        scheduler.schedule(discount);
+        assertEquals(1, scheduler.getScheduledCount());
+
+        moveTo(TODAY.plusDays(3));
+        assertFalse(discount.isDiscountApplicable());
+        assertEquals(0, scheduler.getScheduledCount());
+        assertEquals(0, scheduler.getPendingTimers());
+    }
+
+    @Test
+    @DisplayName("Таймеры дальше одного оборота колеса срабатывают в свой день")
+    void testTimersBeyondWheel() throws Exception {
+        Discount early = new Discount("EARLY", 5);
+        early.setEndDate(TODAY.plusDays(10));
+        Discount late = new Discount("LATE", 5);
+        late.setEndDate(TODAY.plusDays(10 + 64 * 3));
+        scheduler.schedule(early);
+        scheduler.schedule(late);
+
+        moveTo(TODAY.plusDays(11));
+        assertFalse(early.isDiscountApplicable());
+        assertTrue(late.isDiscountApplicable());
+
+        moveTo(TODAY.plusDays(10 + 64 * 3));
+        assertTrue(late.isDiscountApplicable());
+        assertEquals(1, scheduler.advanceTo(TODAY.plusDays(11 + 64 * 3)));
+        assertFalse(late.isDiscountApplicable());
+    }
+
+    @Test
+    @DisplayName("Фоновая прокрутка по часам")
+    void testBackgroundTicker() throws Exception {
+        Promotion promotion = new Promotion("Акция", 10);
+        scheduler.schedule(promotion);
+        scheduler.start(Duration.ofMillis(5));
+        try {
+            clock.advance(Duration.ofDays(30));
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (promotion.isValid() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertFalse(promotion.isValid());
+            assertEquals(TODAY.plusDays(30), scheduler.getCurrentDate());
+        } finally {
+            scheduler.stop();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.factory.PizzaFactory;
+import com.pizzeria.model.products.*;
+
+/**
+ * Скорость создания пицц и ингредиентов: прежний switch по строке в нижнем регистре
+ * против поиска в таблице зарегистрированных типов.
+ * Запуск: java -cp target/classes:target/test-classes FactoryBenchmark [созданий]
+ */
+public class FactoryBenchmark {
+    private static final String[] PIZZA_TYPES = {"Маргарита", "pepperoni", "Мясная", "VEGGIE"};
+    private static final String[] CATEGORIES = {"сыр", "Meat", "овощи", "SAUCE", "Тесто"};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        PizzaFactory pizzaFactory = new PizzaFactory();
+        IngredientFactory ingredientFactory = new IngredientFactory();
+        PizzaSize[] sizes = PizzaSize.values();
+
+        for (int round = 0; round < 3; round++) {
+            long started = System.nanoTime();
+            long checksum = 0;
+            for (int i = 0; i < count; i++) {
+                checksum += switchPizza(PIZZA_TYPES[i & 3], sizes[i % sizes.length]).getCookingTime();
+            }
+            report("Пиццы, switch", count, started, checksum);
+
+            started = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < count; i++) {
+                checksum += pizzaFactory.createPizza(PIZZA_TYPES[i & 3], sizes[i % sizes.length]).getCookingTime();
+            }
+            report("Пиццы, таблица", count, started, checksum);
+
+            started = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < count; i++) {
+                checksum += switchIngredient(ingredientFactory, CATEGORIES[i % 5], "Тест").getQuantity();
+            }
+            report("Ингредиенты, switch", count, started, checksum);
+
+            started = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < count; i++) {
+                checksum += ingredientFactory.createIngredient(CATEGORIES[i % 5], "Тест").getQuantity();
+            }
+            report("Ингредиенты, таблица", count, started, checksum);
+        }
+    }
+
+    /**
+     * Прежняя реализация PizzaFactory.createPizza
+     */
+    private static Pizza switchPizza(String type, PizzaSize size) throws Exception {
+        switch (type.toLowerCase()) {
+            case "margherita":
+            case "маргарита":
+                return new MargheritaPizza(size);
+            case "pepperoni":
+            case "пепперони":
+                return new PepperoniPizza(size);
+            case "veggie":
+            case "вегетарианская":
+                return new VeggiePizza(size);
+            case "meat":
+            case "мясная":
+                return new MeatLoversPizza(size);
+            case "custom":
+            case "пользовательская":
+                return new CustomPizza(size);
+            default:
+                throw new IllegalArgumentException("Неизвестный тип пиццы: " + type);
+        }
+    }
+
+    /**
+     * Прежняя реализация IngredientFactory.createIngredient
+     */
+    private static com.pizzeria.model.ingredients.Ingredient switchIngredient(IngredientFactory factory,
+                                                                               String category, String name)
+            throws Exception {
+        switch (category.toLowerCase()) {
+            case "cheese":
+            case "сыр":
+                return factory.createCheese(name);
+            case "meat":
+            case "мясо":
+                return factory.createMeat(name);
+            case "vegetable":
+            case "овощи":
+                return factory.createVegetable(name);
+            case "sauce":
+            case "соус":
+                return factory.createSauce(name);
+            case "dough":
+            case "тесто":
+                return factory.createDough(name);
+            default:
+                throw new IllegalArgumentException("Неизвестная категория: " + category);
+        }
+    }
+
+    private static void report(String name, int count, long started, long checksum) {
+        double nanos = (double) (System.nanoTime() - started) / count;
+        System.out.printf("%-20s: %.1f нс/шт, %.1f млн/с (%d)%n", name, nanos, 1000.0 / nanos, checksum);
+    }
+}
@@ -0,0 +1,55 @@
+import com.pizzeria.util.IdGenerator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Скорость выдачи ID заказов из нескольких потоков: прежний счетчик со String.format
+ * против SnowflakeIdGenerator с кодированием base32 в массив символов.
+ * Запуск: java -cp target/classes:target/test-classes IdGeneratorBenchmark [потоков] [ID на поток]
+ */
+public class IdGeneratorBenchmark {
+    private static final AtomicInteger legacyCounter = new AtomicInteger(1);
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            run("String.format", threads, perThread,
+                () -> "ORD-" + String.format("%06d", legacyCounter.getAndIncrement()));
+            run("Snowflake    ", threads, perThread, IdGenerator::generateOrderId);
+        }
+    }
+
+    private static void run(String name, int threads, int perThread, Supplier<String> generator)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger checksum = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    int local = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        local += generator.get().length();
+                    }
+                    checksum.addAndGet(local);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long total = (long) threads * perThread;
+        System.out.printf("%s: %d потоков, %.1f млн ID/с, %.0f нс/ID (%d)%n", name, threads,
+            total / seconds / 1e6, seconds * 1e9 / total, checksum.get());
+    }
+}
@@ -383,4 +383,17 @@ class IngredientFactoryTest {
         assertNotSame(cheese1, cheese2);
         assertNotSame(cheese2, cheese3);
     }
+
+    @Test
+    @DisplayName("Регистрация новой категории ингредиентов")
+    void testRegisterCategory() throws Exception {
+        factory.registerCategory(name -> new Vegetable(name, 60.0), "Зелень", "herbs");
+
+        Ingredient basil = factory.createIngredient("ЗЕЛЕНЬ", "Базилик");
+        assertTrue(basil instanceof Vegetable);
+        assertEquals(60.0, basil.getPricePerUnit(), 0.001);
+        assertNotNull(factory.createIngredient("herbs", "Орегано"));
+        assertThrows(IllegalArgumentException.class,
+            () -> factory.registerCategory(name -> new Vegetable(name, 1.0), "сыр"));
+    }
 }
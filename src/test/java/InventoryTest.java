@@ -0,0 +1,109 @@
+import com.pizzeria.exceptions.InsufficientIngredientsException;
+import com.pizzeria.interfaces.StockListener;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.ingredients.Cheese;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.ingredients.Meat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Inventory Tests")
+class InventoryTest {
+
+    private Inventory inventory;
+    private Ingredient cheese;
+    private Ingredient meat;
+    private List<String> events;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventory = new Inventory();
+        cheese = new Cheese("Моцарелла", 50.0, "Моцарелла");
+        cheese.setQuantity(20);
+        meat = new Meat("Пепперони", 120.0, "Пепперони");
+        meat.setQuantity(15);
+        inventory.addIngredient(cheese);
+        inventory.addIngredient(meat);
+
+        events = new ArrayList<>();
+        inventory.addStockListener(new StockListener() {
+            @Override
+            public void onLowStock(String ingredientName, int slot, int remaining) {
+                events.add("low:" + ingredientName + ":" + remaining);
+            }
+
+            @Override
+            public void onStockRecovered(String ingredientName, int slot, int remaining) {
+                events.add("ok:" + ingredientName + ":" + remaining);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Стоимость склада обновляется при каждом изменении")
+    void testRunningValue() throws Exception {
+        assertEquals(20 * 50.0 + 15 * 120.0, inventory.calculateTotalInventoryValue(), 0.001);
+
+        inventory.useIngredient("Моцарелла", 5);
+        inventory.restockIngredient("Пепперони", 10);
+        meat.setPricePerUnit(100.0);
+        assertEquals(15 * 50.0 + 25 * 100.0, inventory.calculateTotalInventoryValue(), 0.001);
+
+        inventory.removeIngredient("Пепперони");
+        assertEquals(15 * 50.0, inventory.calculateTotalInventoryValue(), 0.001);
+        meat.setQuantity(1000); // удаленный ингредиент больше не учитывается
+        assertEquals(15 * 50.0, inventory.calculateTotalInventoryValue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Событие низкого запаса только при пересечении порога")
+    void testLowStockCrossing() throws Exception {
+        inventory.useIngredient("Моцарелла", 5);
+        assertTrue(events.isEmpty());
+
+        inventory.useIngredient("Моцарелла", 6);
+        inventory.useIngredient("Моцарелла", 1);
+        assertEquals(List.of("low:Моцарелла:9"), events);
+        assertEquals(8, inventory.getLowStockItems().get("Моцарелла"));
+
+        inventory.restockIngredient("Моцарелла", 50);
+        assertEquals(List.of("low:Моцарелла:9", "ok:Моцарелла:58"), events);
+        assertTrue(inventory.getLowStockItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Прямое изменение ингредиента тоже учитывается")
+    void testDirectChange() {
+        meat.setQuantity(3);
+
+        assertEquals(3, inventory.getLowStockItems().get("Пепперони"));
+        assertEquals(20 * 50.0 + 3 * 120.0, inventory.calculateTotalInventoryValue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Смена порога перестраивает набор с низким запасом")
+    void testThresholdChange() {
+        inventory.setLowStockThreshold(18);
+
+        assertEquals(1, inventory.getLowStockItems().size());
+        assertTrue(inventory.getLowStockItems().containsKey("Пепперони"));
+        assertEquals(List.of("low:Пепперони:15"), events);
+
+        inventory.setLowStockThreshold(5);
+        assertTrue(inventory.getLowStockItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ошибка при нехватке не меняет склад")
+    void testInsufficientIngredients() {
+        assertThrows(InsufficientIngredientsException.class, () -> inventory.useIngredient("Моцарелла", 21));
+        assertEquals(20, cheese.getQuantity());
+        assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,316 @@
+import com.pizzeria.enums.AdmissionDecision;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InsufficientIngredientsException;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.model.AdmissionResult;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Recipe;
+import com.pizzeria.model.RecipeBook;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.CustomPizza;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.MeatLoversPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.VeggiePizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Kitchen Tests")
+class KitchenTest {
+
+    private Inventory inventory;
+    private Kitchen kitchen;
+    private Chef chef;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] stock = {
+            {"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"},
+            {"мясо", "Пепперони"}, {"мясо", "Курица"}, {"овощи", "Помидоры"}, {"овощи", "Грибы"}
+        };
+        for (String[] item : stock) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(5000);
+            inventory.addIngredient(ingredient);
+        }
+        kitchen = new Kitchen(inventory);
+        chef = new Chef("CHF001", "Марио", "Росси", 60000);
+        kitchen.addChef(chef);
+        customer = new Customer("C1", "Иван", "Иванов");
+    }
+
+    private int stock(String name) {
+        return inventory.getIngredients().get(name).getQuantity();
+    }
+
+    @Test
+    @DisplayName("Расход по рецепту зависит от размера")
+    void testScaledRecipe() {
+        Recipe recipe = RecipeBook.standard().getRecipe("маргарита");
+
+        assertEquals(2, recipe.getAmount("Моцарелла", PizzaSize.SMALL));
+        assertEquals(3, recipe.getAmount("Моцарелла", PizzaSize.MEDIUM));
+        assertEquals(5, recipe.getAmount("Моцарелла", PizzaSize.EXTRA_LARGE));
+        assertEquals(0, recipe.getAmount("Грибы", PizzaSize.SMALL));
+    }
+
+    @Test
+    @DisplayName("Кухня списывает ингредиенты со склада по рецепту")
+    void testDebitInventory() throws Exception {
+        Order order = new Order("ORD-1", customer);
+        order.addItem(new MargheritaPizza(PizzaSize.SMALL), 2);
+        order.addItem(new PepperoniPizza(PizzaSize.LARGE), 1);
+        order.addItem(new Drink("Кока-кола", 100.0, 500), 1);
+
+        kitchen.prepareOrder(order);
+
+        assertEquals(5000 - 2 * 2 - 4, stock("Тонкое"));
+        assertEquals(5000 - 2 * 2 - 4, stock("Моцарелла"));
+        assertEquals(5000 - 4, stock("Пепперони"));
+        assertEquals(5000, stock("Грибы"));
+        assertEquals(3, chef.getPizzasCooked());
+        assertEquals(0, kitchen.getActiveOrdersCount());
+    }
+
+    @Test
+    @DisplayName("При нехватке ингредиента ничего не списывается")
+    void testAllOrNothing() throws Exception {
+        inventory.getIngredients().get("Пепперони").setQuantity(2); // средней пепперони нужно 3
+        Order order = new Order("ORD-2", customer);
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 1);
+        order.addItem(new PepperoniPizza(PizzaSize.MEDIUM), 1);
+
+        InsufficientIngredientsException e = assertThrows(InsufficientIngredientsException.class,
+            () -> kitchen.prepareOrder(order));
+
+        assertEquals("Пепперони", e.getIngredientName());
+        assertEquals(5000, stock("Тонкое"));
+        assertEquals(2, stock("Пепперони"));
+        assertEquals(0, chef.getPizzasCooked());
+        assertEquals(0, kitchen.getActiveOrdersCount());
+    }
+
+    @Test
+    @DisplayName("Стандартный заказ готовится из запасов фабрики без изменений")
+    void testFactoryStock() throws Exception {
+        Inventory factoryStock = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        factoryStock.addIngredient(factory.createDough("Тонкое"));
+        factoryStock.addIngredient(factory.createSauce("Томатный"));
+        factoryStock.addIngredient(factory.createCheese("Моцарелла"));
+        factoryStock.addIngredient(factory.createMeat("Пепперони"));
+        factoryStock.addIngredient(factory.createMeat("Курица"));
+        factoryStock.addIngredient(factory.createVegetable("Помидоры"));
+        factoryStock.addIngredient(factory.createVegetable("Грибы"));
+        Kitchen standard = new Kitchen(factoryStock);
+        Chef cook = new Chef("CHF003", "Джузеппе", "Верди", 50000);
+        standard.addChef(cook);
+
+        Order order = new Order("ORD-6", customer);
+        order.addItem(new MargheritaPizza(PizzaSize.SMALL), 1);
+        order.addItem(new PepperoniPizza(PizzaSize.LARGE), 1);
+        order.addItem(new MeatLoversPizza(PizzaSize.MEDIUM), 1);
+        order.addItem(new VeggiePizza(PizzaSize.EXTRA_LARGE), 1);
+
+        assertEquals(AdmissionDecision.ACCEPTED, standard.prepareOrder(order).getDecision());
+        assertEquals(4, cook.getPizzasCooked());
+        assertEquals(120 - 2 - 4 - 3 - 5, factoryStock.getIngredients().get("Тонкое").getQuantity());
+        assertEquals(100 - 2 - 4 - 3 - 3, factoryStock.getIngredients().get("Моцарелла").getQuantity());
+    }
+
+    @Test
+    @DisplayName("Пицца без рецепта расходует добавленные ингредиенты со склада")
+    void testPizzaWithoutRecipe() throws Exception {
+        CustomPizza pizza = new CustomPizza(PizzaSize.MEDIUM);
+        Ingredient ownCheese = new IngredientFactory().createCheese("Моцарелла");
+        pizza.addIngredient(ownCheese);
+        Order order = new Order("ORD-3", customer);
+        order.addItem(pizza, 3);
+
+        kitchen.prepareOrder(order);
+
+        assertEquals(4997, stock("Моцарелла"));
+        assertEquals(100, ownCheese.getQuantity()); // объект на пицце не изменяется
+        assertTrue(pizza.isReady());
+    }
+
+    @Test
+    @DisplayName("Изменение рецепта учитывается при следующем заказе")
+    void testRecipeChange() throws Exception {
+        Order first = new Order("ORD-4", customer);
+        first.addItem(new MargheritaPizza(PizzaSize.SMALL), 1);
+        kitchen.prepareOrder(first);
+
+        kitchen.getRecipeBook().getRecipe("Маргарита").addIngredient("Грибы", 10, 20, 30, 40);
+        Order second = new Order("ORD-5", customer);
+        second.addItem(new MargheritaPizza(PizzaSize.LARGE), 1);
+        kitchen.prepareOrder(second);
+
+        assertEquals(4970, stock("Грибы"));
+    }
+
+    @Test
+    @DisplayName("Ячейки склада постоянны и не зависят от наличия ингредиента")
+    void testSlots() throws Exception {
+        int slot = inventory.slotOf("Трюфель");
+
+        assertEquals(slot, inventory.slotOf("Трюфель"));
+        assertEquals(inventory.getSlotCount() - 1, slot);
+
+        int[] demand = new int[inventory.getSlotCount()];
+        demand[slot] = 1;
+        assertThrows(InsufficientIngredientsException.class, () -> inventory.debit(demand));
+    }
+
+    private Order margheritaOrder(String id) throws Exception {
+        Order order = new Order(id, customer);
+        order.addItem(new MargheritaPizza(PizzaSize.SMALL), 1); // 18 минут
+        return order;
+    }
+
+    @Test
+    @DisplayName("Перегрузка: заказ откладывается или отклоняется с оценкой ожидания")
+    void testAdmissionControl() throws Exception {
+        Order first = margheritaOrder("ORD-10");
+
+        assertEquals(AdmissionDecision.ACCEPTED, kitchen.prepareOrder(first).getDecision());
+        assertEquals(18, first.getQuotedWaitMinutes());
+
+        kitchen.setMaxCapacity(0); // мест нет: заказы копятся в очереди отложенных
+        AdmissionResult second = kitchen.prepareOrder(margheritaOrder("ORD-11"));
+        AdmissionResult third = kitchen.prepareOrder(margheritaOrder("ORD-12"));
+        AdmissionResult fourth = kitchen.prepareOrder(margheritaOrder("ORD-13"));
+        AdmissionResult fifth = kitchen.prepareOrder(margheritaOrder("ORD-14"));
+
+        assertEquals(AdmissionDecision.DEFERRED, second.getDecision());
+        assertEquals(18, second.getQuotedWaitMinutes());
+        assertEquals(AdmissionDecision.DEFERRED, third.getDecision());
+        assertEquals(36, third.getQuotedWaitMinutes());
+        assertEquals(AdmissionDecision.DEFERRED, fourth.getDecision());
+        assertEquals(AdmissionDecision.REJECTED, fifth.getDecision());
+        assertEquals(72, fifth.getQuotedWaitMinutes());
+        assertEquals(3, kitchen.getDeferredOrders().size());
+        assertEquals(54, kitchen.getBacklogMinutes());
+    }
+
+    @Test
+    @DisplayName("Оценка ожидания складывается из заказов в очереди отложенных")
+    void testBacklogFromQueuedOrders() throws Exception {
+        chef.setActive(false); // повар на перерыве: заказ встает в очередь
+        Order first = margheritaOrder("ORD-15");
+        assertEquals(AdmissionDecision.DEFERRED, kitchen.prepareOrder(first).getDecision());
+
+        chef.setActive(true); // повар вернулся, очередь еще не разобрана
+        Order second = margheritaOrder("ORD-16");
+        AdmissionResult result = kitchen.prepareOrder(second);
+
+        assertEquals(AdmissionDecision.DEFERRED, result.getDecision());
+        assertEquals(36, result.getQuotedWaitMinutes()); // 18 мин в очереди + 18 мин своего
+        assertEquals(36, kitchen.getBacklogMinutes());
+
+        assertEquals(List.of(first, second), kitchen.releaseDeferredOrders());
+        assertEquals(0, kitchen.getBacklogMinutes());
+        Order third = margheritaOrder("ORD-17");
+        assertEquals(AdmissionDecision.ACCEPTED, kitchen.prepareOrder(third).getDecision());
+        assertEquals(18, third.getQuotedWaitMinutes());
+    }
+
+    @Test
+    @DisplayName("Отложенные заказы передаются в работу по мере освобождения кухни")
+    void testDeferredRelease() throws Exception {
+        kitchen.setMaxCapacity(0);
+        kitchen.prepareOrder(margheritaOrder("ORD-20"));
+        kitchen.prepareOrder(margheritaOrder("ORD-21"));
+        kitchen.prepareOrder(margheritaOrder("ORD-22"));
+
+        kitchen.setMaxCapacity(10);
+        assertEquals(3, kitchen.releaseDeferredOrders().size());
+
+        assertTrue(kitchen.getDeferredOrders().isEmpty());
+        assertEquals(0, kitchen.getActiveOrdersCount());
+        assertEquals(0, kitchen.getBacklogMinutes());
+        assertEquals(3, chef.getPizzasCooked());
+    }
+
+    @Test
+    @DisplayName("Отложенный заказ без ингредиентов не считается переданным в работу и не теряется")
+    void testDeferredReleaseWithoutIngredients() throws Exception {
+        inventory.getIngredients().get("Пепперони").setQuantity(2); // средней пепперони нужно 3
+        kitchen.setMaxCapacity(0);
+        Order pepperoni = new Order("ORD-23", customer);
+        pepperoni.addItem(new PepperoniPizza(PizzaSize.MEDIUM), 1);
+        Order margherita = margheritaOrder("ORD-24");
+        kitchen.prepareOrder(pepperoni);
+        kitchen.prepareOrder(margherita);
+
+        kitchen.setMaxCapacity(10);
+        assertEquals(List.of(margherita), kitchen.releaseDeferredOrders());
+
+        assertEquals(List.of(pepperoni), kitchen.takeFailedOrders());
+        assertTrue(kitchen.takeFailedOrders().isEmpty());
+        assertTrue(kitchen.getDeferredOrders().isEmpty());
+        assertEquals(0, kitchen.getBacklogMinutes());
+        assertEquals(1, chef.getPizzasCooked());
+    }
+
+    @Test
+    @DisplayName("Без активного повара заказ ждет в очереди отложенных, а не зависает на кухне")
+    void testInactiveChef() throws Exception {
+        chef.setActive(false);
+        Order order = margheritaOrder("ORD-25");
+
+        AdmissionResult result = kitchen.prepareOrder(order);
+        assertEquals(AdmissionDecision.DEFERRED, result.getDecision());
+        assertEquals("нет поваров на кухне", result.getReason());
+        assertTrue(kitchen.releaseDeferredOrders().isEmpty());
+        assertEquals(0, kitchen.getActiveOrdersCount());
+        assertEquals(1, kitchen.getDeferredOrders().size());
+        assertEquals(18, kitchen.getBacklogMinutes());
+
+        chef.setActive(true);
+        assertEquals(List.of(order), kitchen.releaseDeferredOrders());
+        assertEquals(1, chef.getPizzasCooked());
+        assertEquals(0, kitchen.getBacklogMinutes());
+    }
+
+    @Test
+    @DisplayName("Без поваров заказ откладывается до появления повара")
+    void testNoChefs() throws Exception {
+        Kitchen empty = new Kitchen(inventory);
+        Order order = margheritaOrder("ORD-30");
+
+        AdmissionResult result = empty.prepareOrder(order);
+        assertEquals(AdmissionDecision.DEFERRED, result.getDecision());
+        assertEquals(Integer.MAX_VALUE, result.getQuotedWaitMinutes());
+
+        Chef newChef = new Chef("CHF002", "Луиджи", "Бьянки", 55000);
+        empty.addChef(newChef);
+
+        assertTrue(empty.getDeferredOrders().isEmpty());
+        assertEquals(1, newChef.getPizzasCooked());
+    }
+
+    @Test
+    @DisplayName("Заполненная кухня откладывает заказ")
+    void testCapacity() throws Exception {
+        kitchen.setMaxCapacity(0);
+
+        AdmissionResult result = kitchen.prepareOrder(margheritaOrder("ORD-40"));
+
+        assertEquals(AdmissionDecision.DEFERRED, result.getDecision());
+        assertEquals("кухня загружена", result.getReason());
+    }
+}
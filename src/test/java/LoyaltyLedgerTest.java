@@ -0,0 +1,174 @@
+import com.pizzeria.enums.LoyaltyOperation;
+import com.pizzeria.enums.LoyaltyTier;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.LoyaltyCard;
+import com.pizzeria.model.LoyaltyEntry;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Shift;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.LoyaltyLedger;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoyaltyLedger Tests")
+class LoyaltyLedgerTest {
+
+    private VirtualClock clock;
+    private LoyaltyLedger ledger;
+    private Customer customer;
+    private LoyaltyCard card;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(LocalDateTime.of(2024, 3, 1, 9, 0));
+        ClockProvider.setClock(clock);
+        ledger = new LoyaltyLedger(10.0);
+        customer = new Customer("C1", "Иван", "Иванов");
+        card = new LoyaltyCard("LC-1");
+        customer.setLoyaltyCard(card);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    private Order paidOrder(String id, LocalDateTime time) throws Exception {
+        clock.setTime(time);
+        Order order = new Order(id, customer);
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 1);
+        order.processPayment(order.getFinalPrice());
+        return order;
+    }
+
+    @Test
+    @DisplayName("Уровень карты - перечисление, скидка зависит от уровня")
+    void testTierEnum() {
+        assertEquals(LoyaltyTier.BRONZE, card.getTier());
+        assertEquals(2.0, card.getDiscountAmount());
+
+        card.addPoints(450);
+        assertEquals(LoyaltyTier.SILVER, card.getTier());
+        card.addPoints(600);
+        assertEquals(LoyaltyTier.PLATINUM, card.getTier());
+        assertEquals(15.0, card.getDiscountAmount());
+
+        assertTrue(card.redeemPoints(1000));
+        assertEquals(50, card.getPoints());
+        assertEquals(LoyaltyTier.PLATINUM, card.getTier());
+        assertFalse(card.redeemPoints(51));
+        assertThrows(IllegalArgumentException.class, () -> card.addPoints(-1));
+    }
+
+    @Test
+    @DisplayName("Одновременные списания не тратят баллы дважды")
+    void testConcurrentRedemption() throws Exception {
+        card.addPoints(1000);
+        int threads = 8;
+        AtomicInteger redeemed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> terminals = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread terminal = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (ledger.redeem(card, 3, "ORD-X") != null) {
+                        redeemed.addAndGet(3);
+                    }
+                }
+            });
+            terminal.start();
+            terminals.add(terminal);
+        }
+        start.countDown();
+        for (Thread terminal : terminals) {
+            terminal.join();
+        }
+
+        assertEquals(999, redeemed.get());
+        assertEquals(1, card.getPoints());
+        assertEquals(-999, ledger.getBalance("LC-1"));
+        assertEquals(333, ledger.getEntryCount());
+    }
+
+    @Test
+    @DisplayName("Баллы за заказ начисляются один раз и только после оплаты")
+    void testAccrueOnce() throws Exception {
+        Order order = paidOrder("ORD-1", LocalDateTime.of(2024, 3, 1, 12, 0));
+        Order unpaid = new Order("ORD-2", customer);
+
+        LoyaltyEntry entry = ledger.accrue(order);
+
+        assertNotNull(entry);
+        assertEquals(LoyaltyOperation.ACCRUAL, entry.getOperation());
+        assertEquals(ledger.pointsFor(order), entry.getPoints());
+        assertEquals(entry.getPoints(), card.getPoints());
+        assertNull(ledger.accrue(order));
+        assertNull(ledger.accrue(unpaid));
+        assertNull(ledger.accrue(new Order("ORD-3", new Customer("C2", "Анна", "Петрова"))));
+        assertEquals(card.getPoints(), ledger.getBalance("LC-1"));
+    }
+
+    @Test
+    @DisplayName("Пакетное начисление за смену учитывает только заказы смены")
+    void testAccrueShift() throws Exception {
+        List<Order> orders = new ArrayList<>();
+        orders.add(paidOrder("ORD-1", LocalDateTime.of(2024, 3, 1, 9, 30)));
+        orders.add(paidOrder("ORD-2", LocalDateTime.of(2024, 3, 1, 15, 59)));
+        orders.add(paidOrder("ORD-3", LocalDateTime.of(2024, 3, 1, 16, 0)));
+        orders.add(paidOrder("ORD-4", LocalDateTime.of(2024, 3, 2, 10, 0)));
+        Order unpaid = new Order("ORD-5", customer);
+        orders.add(unpaid);
+        Shift morning = new Shift(LocalTime.of(8, 0), LocalTime.of(16, 0));
+
+        List<LoyaltyEntry> entries = ledger.accrueShift(orders, LocalDate.of(2024, 3, 1), morning);
+
+        assertEquals(2, entries.size());
+        assertEquals("ORD-1", entries.get(0).getOrderId());
+        assertEquals("ORD-2", entries.get(1).getOrderId());
+        int expected = ledger.pointsFor(orders.get(0)) + ledger.pointsFor(orders.get(1));
+        assertEquals(expected, card.getPoints());
+        assertTrue(ledger.accrueShift(orders, LocalDate.of(2024, 3, 1), morning).isEmpty());
+        assertEquals(2, ledger.getEntries("LC-1").size());
+    }
+
+    @Test
+    @DisplayName("Ночная смена переходит через полночь")
+    void testNightShift() throws Exception {
+        List<Order> orders = List.of(
+            paidOrder("ORD-1", LocalDateTime.of(2024, 3, 1, 23, 30)),
+            paidOrder("ORD-2", LocalDateTime.of(2024, 3, 1, 2, 0)),
+            paidOrder("ORD-3", LocalDateTime.of(2024, 3, 1, 12, 0)),
+            paidOrder("ORD-4", LocalDateTime.of(2024, 3, 2, 2, 0)),
+            paidOrder("ORD-5", LocalDateTime.of(2024, 3, 2, 6, 0))
+        );
+
+        List<LoyaltyEntry> entries = ledger.accrueShift(orders, LocalDate.of(2024, 3, 1),
+            new Shift(LocalTime.of(22, 0), LocalTime.of(6, 0)));
+
+        // смена 1 марта идет с 22:00 до 06:00 2 марта: 02:00 1 марта относится к предыдущей смене
+        assertEquals(2, entries.size());
+        assertEquals("ORD-1", entries.get(0).getOrderId());
+        assertEquals("ORD-4", entries.get(1).getOrderId());
+        assertThrows(IllegalArgumentException.class, () -> new LoyaltyLedger(0));
+    }
+}
@@ -0,0 +1,133 @@
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.OrderService;
+import com.pizzeria.util.OrderExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderExporter Tests")
+class OrderExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OrderService service;
+    private OrderExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new OrderService();
+        exporter = new OrderExporter(1024);
+
+        Customer customer = new Customer("CUST001", "Иван", "Иванов");
+        Order order1 = service.createOrder(customer);
+        order1.addItem(new PepperoniPizza(PizzaSize.SMALL), 2);
+        order1.addItem(new Drink("Кока-кола", 100.0, 500), 1);
+        order1.processPayment(1000.0);
+        order1.setPaymentMethod(PaymentMethod.CARD);
+
+        service.createOrder(customer); // заказ без товаров
+    }
+
+    @Test
+    @DisplayName("Экспорт в CSV по строке на элемент заказа")
+    void testExportCsv() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+
+        long exported = exporter.exportCsv(service.getOrdersView(), file);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, exported);
+        assertEquals(OrderExporter.CSV_HEADER.trim(), lines.get(0));
+        assertEquals(4, lines.size()); // заголовок + 2 элемента + пустой заказ
+        assertTrue(lines.stream().anyMatch(l -> l.contains("Пепперони,2,800.00,900.00")));
+        assertTrue(lines.stream().anyMatch(l -> l.contains(",CARD,Кока-кола,1,100.00,")));
+    }
+
+    @Test
+    @DisplayName("Экспорт большого объема через маленький буфер")
+    void testExportCsvManyOrders() throws Exception {
+        Customer customer = new Customer("CUST002", "Петр", "Петров");
+        for (int i = 0; i < 2000; i++) {
+            service.createOrder(customer).addItem(new Drink("Сок", 120.0, 300), 1);
+        }
+        Path file = tempDir.resolve("many.csv");
+
+        long exported = exporter.exportCsv(service.getOrdersView(), file);
+
+        assertEquals(2002, exported);
+        assertEquals(1 + 2 + 1 + 2000, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    @DisplayName("Экспорт в бинарный формат")
+    void testExportBinary() throws IOException {
+        Path file = tempDir.resolve("orders.bin");
+
+        long exported = exporter.exportBinary(service.getOrdersView(), file);
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            assertEquals(OrderExporter.BINARY_MAGIC, in.readInt());
+            assertEquals(OrderExporter.BINARY_VERSION, in.readByte());
+
+            int orders = 0;
+            while (in.readByte() == OrderExporter.RECORD_ORDER) {
+                String id = readString(in);
+                assertTrue(id.startsWith("ORD-"));
+                assertEquals("CUST001", readString(in));
+                in.readLong();      // время заказа
+                in.readByte();      // статус
+                in.readByte();      // оплачен
+                in.readByte();      // способ оплаты
+                in.readDouble();    // скидка
+                int items = in.readInt();
+                for (int i = 0; i < items; i++) {
+                    assertFalse(readString(in).isEmpty());
+                    assertTrue(in.readInt() > 0);
+                    in.readDouble();
+                }
+                orders++;
+            }
+            assertEquals(exported, orders);
+            assertEquals(exported, in.readLong());
+        }
+    }
+
+    @Test
+    @DisplayName("Слишком маленький буфер")
+    void testInvalidBufferSize() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderExporter(16));
+    }
+
+    @Test
+    @DisplayName("Непредставимая в UTF-8 строка прерывает бинарный экспорт ошибкой")
+    void testExportBinaryMalformedName() throws Exception {
+        service.createOrder(new Customer("CUST003", "Анна", "Смирнова"))
+            .addItem(new Drink("Сок\uD800", 120.0, 300), 1); // одиночный суррогат
+        Path file = tempDir.resolve("malformed.bin");
+
+        assertThrows(CharacterCodingException.class, () -> exporter.exportBinary(service.getOrdersView(), file));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
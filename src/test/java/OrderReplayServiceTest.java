@@ -0,0 +1,273 @@
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InsufficientIngredientsException;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.model.AdmissionResult;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.RecordedOrder;
+import com.pizzeria.model.ReplayReport;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.DeliveryDriver;
+import com.pizzeria.service.DeliveryService;
+import com.pizzeria.service.OrderReplayService;
+import com.pizzeria.service.OrderService;
+import com.pizzeria.service.PaymentService;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderReplayService Tests")
+class OrderReplayServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 18, 0);
+
+    private OrderService orderService;
+    private Kitchen kitchen;
+    private DeliveryService deliveryService;
+    private OrderReplayService replayService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Inventory inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] stock = {
+            {"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"},
+            {"мясо", "Пепперони"}, {"овощи", "Помидоры"}, {"овощи", "Грибы"}
+        };
+        for (String[] item : stock) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(1_000_000);
+            inventory.addIngredient(ingredient);
+        }
+        orderService = new OrderService();
+        kitchen = new Kitchen(inventory);
+        kitchen.addChef(new Chef("CHF001", "Марио", "Росси", 60000));
+        kitchen.addChef(new Chef("CHF002", "Луиджи", "Верди", 55000));
+        deliveryService = new DeliveryService();
+        deliveryService.addDriver(new DeliveryDriver("DRV001", "Петр", "Петров", 40000));
+        deliveryService.addDriver(new DeliveryDriver("DRV002", "Олег", "Олегов", 40000));
+        replayService = new OrderReplayService(orderService, new PaymentService(), kitchen, deliveryService);
+    }
+
+    private static RecordedOrder record(int minute, String customerId, String pizza,
+                                        PaymentMethod method, boolean delivery) {
+        List<RecordedOrder.Item> items = List.of(new RecordedOrder.Item(pizza, PizzaSize.MEDIUM, 1));
+        return new RecordedOrder(START.plusMinutes(minute), customerId, "Иван", "Иванов", items, method,
+            delivery ? "Тверская" : null, delivery ? "1" : null, delivery ? "Москва" : null, delivery ? 2.5 : 0);
+    }
+
+    @Test
+    @DisplayName("Журнал читается из CSV: комментарии пропускаются, пустая улица - самовывоз")
+    void testReadLog(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("orders.csv");
+        Files.write(file, List.of(
+            "# время,клиент,имя,фамилия,позиции,оплата,улица,дом,город,км",
+            "2024-03-01T18:30:00,C1,Иван,Иванов,Маргарита:MEDIUM:2;Пепперони:LARGE:1,CARD,Тверская,1,Москва,3.5",
+            "2024-03-01T18:31:00,C2,Анна,Петрова,Маргарита:SMALL:1,CASH,,,,"
+        ), StandardCharsets.UTF_8);
+
+        List<RecordedOrder> log = OrderReplayService.readLog(file);
+
+        assertEquals(2, log.size());
+        RecordedOrder first = log.get(0);
+        assertEquals(LocalDateTime.of(2024, 3, 1, 18, 30), first.getTime());
+        assertEquals(2, first.getItems().size());
+        assertEquals(PizzaSize.LARGE, first.getItems().get(1).getSize());
+        assertEquals(2, first.getItems().get(0).getQuantity());
+        assertTrue(first.isDelivery());
+        assertEquals(3.5, first.getDistanceKm(), 0.001);
+        assertFalse(log.get(1).isDelivery());
+        assertEquals(PaymentMethod.CASH, log.get(1).getPaymentMethod());
+    }
+
+    @Test
+    @DisplayName("Некорректная запись журнала отклоняется с указанием строки")
+    void testReadLogInvalidRecord(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("orders.csv");
+        Files.write(file, List.of("2024-03-01T18:30:00,C1,Иван,Иванов,Маргарита:HUGE:1,CARD"),
+            StandardCharsets.UTF_8);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> OrderReplayService.readLog(file));
+        assertTrue(e.getMessage().contains("Маргарита:HUGE:1"));
+    }
+
+    @Test
+    @DisplayName("Все заказы проходят все этапы, задержки записаны по этапам")
+    void testReplayCompletesAllStages() throws Exception {
+        List<RecordedOrder> log = new ArrayList<>();
+        PaymentMethod[] methods = {PaymentMethod.CARD, PaymentMethod.CASH, PaymentMethod.ONLINE};
+        for (int i = 0; i < 30; i++) {
+            log.add(record(i, "C" + (i % 5), i % 2 == 0 ? "Маргарита" : "Пепперони", methods[i % 3], i % 3 != 0));
+        }
+
+        ReplayReport report = replayService.replay(log, 0, 4);
+
+        assertEquals(30, report.getOrdersSubmitted());
+        assertEquals(30, report.getOrdersCompleted());
+        assertEquals(0, report.getTotalErrors());
+        assertEquals(30, report.getStage(OrderReplayService.STAGE_ORDER).getLatency().getCount());
+        assertEquals(30, report.getStage(OrderReplayService.STAGE_PAYMENT).getLatency().getCount());
+        assertEquals(30, report.getStage(OrderReplayService.STAGE_KITCHEN).getLatency().getCount());
+        assertEquals(20, report.getStage(OrderReplayService.STAGE_DELIVERY).getLatency().getCount());
+        assertEquals(30, orderService.getOrderCount());
+        assertEquals(0, deliveryService.getActiveDeliveriesCount());
+        assertTrue(report.getThroughputPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Ошибки учитываются на том этапе, где они возникли")
+    void testErrorsPerStage() throws Exception {
+        List<RecordedOrder> log = List.of(
+            record(0, "C1", "Маргарита", PaymentMethod.CARD, false),
+            record(1, "C2", "Гавайская", PaymentMethod.CARD, false),
+            record(2, "C3", "Маргарита", PaymentMethod.CRYPTO, false),
+            record(3, "C4", "Пепперони", PaymentMethod.CASH, true)
+        );
+        deliveryService.getDrivers().clear();
+
+        ReplayReport report = replayService.replay(log, 0, 2);
+
+        assertEquals(1, report.getOrdersCompleted());
+        assertEquals(3, report.getTotalErrors());
+        assertEquals(1L, report.getStage(OrderReplayService.STAGE_ORDER).getErrors()
+            .get("IllegalArgumentException"));
+        assertEquals(1L, report.getStage(OrderReplayService.STAGE_PAYMENT).getErrors()
+            .get("IllegalArgumentException"));
+        assertEquals(1L, report.getStage(OrderReplayService.STAGE_DELIVERY).getErrors().get("Нет водителей"));
+        assertEquals(0, report.getStage(OrderReplayService.STAGE_KITCHEN).getErrorCount());
+    }
+
+    @Test
+    @DisplayName("Непроверяемое исключение этапа - ошибка этапа, воспроизведение завершается")
+    void testUncheckedStageError() throws Exception {
+        Kitchen failingKitchen = new Kitchen(new Inventory()) {
+            @Override
+            public AdmissionResult prepareOrder(Order order) {
+                throw new IllegalStateException("Печь сломана");
+            }
+        };
+        OrderReplayService service = new OrderReplayService(orderService, new PaymentService(),
+            failingKitchen, deliveryService);
+        List<RecordedOrder> log = List.of(
+            record(0, "C1", "Маргарита", PaymentMethod.CARD, false),
+            record(1, "C2", "Пепперони", PaymentMethod.CARD, true)
+        );
+
+        ReplayReport report = service.replay(log, 0, 2);
+
+        assertEquals(0, report.getOrdersCompleted());
+        assertEquals(2L, report.getStage(OrderReplayService.STAGE_KITCHEN).getErrors()
+            .get("IllegalStateException"));
+        assertEquals(0, report.getOrdersUnfinished());
+    }
+
+    @Test
+    @DisplayName("Незавершенные за время ожидания заказы учитываются в отчете")
+    void testCompletionTimeout() throws Exception {
+        for (DeliveryDriver driver : deliveryService.getDrivers()) {
+            driver.setAvailable(false);
+        }
+        replayService.setCompletionTimeout(Duration.ofMillis(200));
+        List<RecordedOrder> log = List.of(
+            record(0, "C1", "Маргарита", PaymentMethod.CARD, false),
+            record(1, "C2", "Пепперони", PaymentMethod.CARD, true)
+        );
+
+        ReplayReport report = replayService.replay(log, 0, 1);
+
+        assertEquals(1, report.getOrdersCompleted());
+        assertEquals(1, report.getOrdersUnfinished());
+        assertEquals(1, report.getTotalErrors());
+        assertThrows(IllegalArgumentException.class, () -> replayService.setCompletionTimeout(null));
+    }
+
+    @Test
+    @DisplayName("Заказы подаются с ускорением по времени журнала, часы восстанавливаются")
+    void testPacedReplay() throws Exception {
+        Clock before = ClockProvider.getClock();
+        List<RecordedOrder> log = List.of(
+            record(2, "C1", "Маргарита", PaymentMethod.CARD, false),
+            record(0, "C2", "Маргарита", PaymentMethod.CARD, false),
+            record(1, "C3", "Маргарита", PaymentMethod.CARD, false)
+        );
+
+        ReplayReport report = replayService.replay(log, 600, 1); // минута журнала - 0,1 с
+
+        assertEquals(3, report.getOrdersCompleted());
+        assertTrue(report.getWallTimeNanos() >= 200_000_000L);
+        assertSame(before, ClockProvider.getClock());
+        // ID заказов упорядочены по времени создания - первый заказ журнала имеет наименьший ID
+        Order first = orderService.getOrdersView().stream().min(Comparator.comparing(Order::getId)).get();
+        assertEquals(START, first.getOrderTime());
+        assertThrows(IllegalArgumentException.class, () -> replayService.replay(log, -1, 1));
+    }
+
+    @Test
+    @DisplayName("Виртуальное время видят только потоки воспроизведения")
+    void testReplayClockIsScoped() throws Exception {
+        List<LocalDateTime> seenDuringReplay = new ArrayList<>();
+        Kitchen observingKitchen = new Kitchen(kitchen.getInventory()) {
+            @Override
+            public AdmissionResult prepareOrder(Order order) throws InsufficientIngredientsException {
+                Thread outside = new Thread(() -> {
+                    synchronized (seenDuringReplay) {
+                        seenDuringReplay.add(ClockProvider.now());
+                    }
+                });
+                outside.start();
+                try {
+                    outside.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.prepareOrder(order);
+            }
+        };
+        observingKitchen.addChef(new Chef("CHF003", "Марио", "Росси", 60000));
+        OrderReplayService service = new OrderReplayService(orderService, new PaymentService(),
+            observingKitchen, deliveryService);
+
+        ReplayReport report = service.replay(List.of(record(0, "C1", "Маргарита", PaymentMethod.CARD, false)), 0, 1);
+
+        assertEquals(1, report.getOrdersCompleted());
+        assertEquals(START, orderService.getOrdersView().iterator().next().getOrderTime());
+        assertNotEquals(START, seenDuringReplay.get(0));
+    }
+
+    @Test
+    @DisplayName("Перцентили гистограммы с погрешностью не более 1/8")
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(i * 1000L); // 1..1000 мкс
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMicros(), 0.001);
+        assertEquals(1000, histogram.getMaxMicros());
+        long p50 = histogram.getPercentileMicros(50);
+        long p99 = histogram.getPercentileMicros(99);
+        assertTrue(p50 >= 500 && p50 <= 500 * 9 / 8, "p50 = " + p50);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99 = " + p99);
+        assertEquals(0, new LatencyHistogram().getPercentileMicros(50));
+    }
+}
@@ -4,6 +4,7 @@ import com.pizzeria.exceptions.OrderNotFoundException;
 import com.pizzeria.model.Order;
 import com.pizzeria.model.users.Customer;
 import com.pizzeria.service.OrderService;
+import com.pizzeria.util.SnowflakeIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -39,21 +40,22 @@ class OrderServiceTest {
         Order order = service.createOrder(customer1);
 
         assertNotNull(order);
-        assertEquals("ORD-1", order.getId());
+        assertTrue(order.getId().startsWith("ORD-"));
+        assertEquals("ORD-".length() + SnowflakeIdGenerator.ENCODED_LENGTH, order.getId().length());
         assertEquals(customer1, order.getCustomer());
         assertEquals(1, service.getOrderCount());
     }
 
     @Test
-    @DisplayName("Создание нескольких заказов с инкрементом ID")
+    @DisplayName("Создание нескольких заказов с возрастающими ID")
     void testCreateMultipleOrders() throws Exception {
         Order order1 = service.createOrder(customer1);
         Order order2 = service.createOrder(customer2);
         Order order3 = service.createOrder(customer1);
 
-        assertEquals("ORD-1", order1.getId());
-        assertEquals("ORD-2", order2.getId());
-        assertEquals("ORD-3", order3.getId());
+        assertTrue(SnowflakeIdGenerator.decode(order1.getId()) < SnowflakeIdGenerator.decode(order2.getId()));
+        assertTrue(SnowflakeIdGenerator.decode(order2.getId()) < SnowflakeIdGenerator.decode(order3.getId()));
+        assertTrue(order1.getId().compareTo(order2.getId()) < 0);
         assertEquals(3, service.getOrderCount());
     }
 
@@ -70,11 +72,11 @@ class OrderServiceTest {
     @DisplayName("Получение заказа по ID")
     void testGetOrder() throws Exception {
         Order created = service.createOrder(customer1);
-        Order retrieved = service.getOrder("ORD-1");
+        Order retrieved = service.getOrder(created.getId());
 
         assertNotNull(retrieved);
         assertEquals(created, retrieved);
-        assertEquals("ORD-1", retrieved.getId());
+        assertEquals(created.getId(), retrieved.getId());
     }
 
     @Test
@@ -94,7 +96,7 @@ class OrderServiceTest {
         Order order = service.createOrder(customer1);
         assertEquals(OrderStatus.PENDING, order.getStatus());
 
-        service.cancelOrder("ORD-1");
+        service.cancelOrder(order.getId());
 
         assertEquals(OrderStatus.CANCELLED, order.getStatus());
     }
@@ -112,13 +114,13 @@ class OrderServiceTest {
     void testUpdateOrderStatus() throws Exception {
         Order order = service.createOrder(customer1);
 
-        service.updateOrderStatus("ORD-1", OrderStatus.PREPARING);
+        service.updateOrderStatus(order.getId(), OrderStatus.PREPARING);
         assertEquals(OrderStatus.PREPARING, order.getStatus());
 
-        service.updateOrderStatus("ORD-1", OrderStatus.READY);
+        service.updateOrderStatus(order.getId(), OrderStatus.READY);
         assertEquals(OrderStatus.READY, order.getStatus());
 
-        service.updateOrderStatus("ORD-1", OrderStatus.DELIVERED);
+        service.updateOrderStatus(order.getId(), OrderStatus.DELIVERED);
         assertEquals(OrderStatus.DELIVERED, order.getStatus());
     }
 
@@ -194,15 +196,15 @@ class OrderServiceTest {
     @Test
     @DisplayName("Получение всех заказов")
     void testGetAllOrders() throws Exception {
-        service.createOrder(customer1);
-        service.createOrder(customer2);
+        Order order1 = service.createOrder(customer1);
+        Order order2 = service.createOrder(customer2);
 
         Map<String, Order> allOrders = service.getAllOrders();
 
         assertNotNull(allOrders);
         assertEquals(2, allOrders.size());
-        assertTrue(allOrders.containsKey("ORD-1"));
-        assertTrue(allOrders.containsKey("ORD-2"));
+        assertTrue(allOrders.containsKey(order1.getId()));
+        assertTrue(allOrders.containsKey(order2.getId()));
     }
 
     @Test
@@ -241,7 +243,7 @@ class OrderServiceTest {
         };
 
         for (OrderStatus status : allStatuses) {
-            service.updateOrderStatus("ORD-1", status);
+            service.updateOrderStatus(order.getId(), status);
             assertEquals(status, order.getStatus());
         }
     }
@@ -0,0 +1,152 @@
+import com.pizzeria.enums.CircuitState;
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.exceptions.PaymentGatewayException;
+import com.pizzeria.interfaces.PaymentGateway;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.payment.CardPayment;
+import com.pizzeria.model.payment.CashPayment;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.LocalPaymentGateway;
+import com.pizzeria.service.PaymentGatewayClient;
+import com.pizzeria.service.PaymentService;
+import com.pizzeria.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentGatewayClient Tests")
+class PaymentGatewayClientTest {
+
+    private static final String CARD_NUMBER = "1234567890123456";
+
+    private PaymentGatewayClient client;
+    private Order order;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new PaymentGatewayClient(Duration.ofMillis(100), 3, Duration.ofMillis(5));
+        order = new Order("ORD-1", new Customer("C1", "Иван", "Иванов"));
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 1);
+    }
+
+    private CardPayment cardPayment(String id) throws InvalidPaymentException {
+        return new CardPayment(id, order.getFinalPrice(), CARD_NUMBER);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("Платеж проводится через шлюз без блокировки вызывающего потока")
+    void testAsyncPayment() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway("Банк", Duration.ofMillis(30), 0);
+        client.register(PaymentMethod.CARD, gateway, 4);
+        PaymentService service = new PaymentService(client);
+        CardPayment payment = cardPayment("TXN-1");
+
+        CompletableFuture<Receipt> future = service.processPaymentAsync(order, payment);
+        assertFalse(future.isDone());
+        assertFalse(order.isPaid());
+
+        Receipt receipt = future.get(5, TimeUnit.SECONDS);
+        assertTrue(order.isPaid());
+        assertTrue(payment.isSuccessful());
+        assertSame(receipt, service.processPaymentAsync(order, payment).get(5, TimeUnit.SECONDS));
+        assertEquals(1, gateway.getCallCount());
+    }
+
+    @Test
+    @DisplayName("Сбои связи повторяются, отказ в оплате - нет")
+    void testRetries() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway flaky = payment -> calls.incrementAndGet() < 3
+            ? CompletableFuture.failedFuture(new PaymentGatewayException("Банк", "ошибка связи"))
+            : CompletableFuture.completedFuture(true);
+        client.register(PaymentMethod.CARD, flaky, 4);
+
+        assertTrue(client.process(cardPayment("TXN-1")).get(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+
+        LocalPaymentGateway gateway = new LocalPaymentGateway("Банк", Duration.ZERO, 0);
+        client.register(PaymentMethod.CARD, gateway, 4);
+        CardPayment declined = new CardPayment("TXN-2", 100, "12");
+        assertTrue(failureOf(client.process(declined)) instanceof InvalidPaymentException);
+        assertEquals(1, gateway.getCallCount());
+    }
+
+    @Test
+    @DisplayName("Зависший шлюз завершается таймаутом после всех попыток")
+    void testTimeout() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway("Банк", Duration.ofSeconds(10), 0);
+        client.register(PaymentMethod.CARD, gateway, 4);
+
+        Throwable failure = failureOf(client.process(cardPayment("TXN-1")));
+
+        assertTrue(failure instanceof PaymentGatewayException);
+        assertEquals(3, gateway.getCallCount());
+        assertEquals(3, client.getCircuitBreaker(PaymentMethod.CARD).getConsecutiveFailures());
+        assertEquals(1, client.getAvailableSlots(PaymentMethod.CARD)); // шлюз еще не ответил ни на одну попытку
+    }
+
+    @Test
+    @DisplayName("Место в шлюзе освобождается, когда шлюз ответит, а не по таймауту")
+    void testSlotHeldUntilGatewayAnswers() throws Exception {
+        CompletableFuture<Boolean> answer = new CompletableFuture<>();
+        client = new PaymentGatewayClient(Duration.ofMillis(20), 1, Duration.ofMillis(5));
+        client.register(PaymentMethod.CARD, payment -> answer, 1);
+
+        assertTrue(failureOf(client.process(cardPayment("TXN-1"))) instanceof PaymentGatewayException);
+        assertEquals(0, client.getAvailableSlots(PaymentMethod.CARD));
+        assertTrue(failureOf(client.process(cardPayment("TXN-2"))) instanceof PaymentGatewayException);
+
+        answer.complete(true);
+        assertEquals(1, client.getAvailableSlots(PaymentMethod.CARD));
+    }
+
+    @Test
+    @DisplayName("Разомкнутая цепь отклоняет платежи, не обращаясь к шлюзу")
+    void testCircuitBreaker() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway("Банк", Duration.ZERO, 1.0);
+        client.register(PaymentMethod.CARD, gateway, 4, new CircuitBreaker(2, Duration.ofMinutes(1)));
+
+        failureOf(client.process(cardPayment("TXN-1")));
+        assertEquals(CircuitState.OPEN, client.getCircuitBreaker(PaymentMethod.CARD).getState());
+        long calls = gateway.getCallCount();
+        assertEquals(2, calls);
+
+        assertTrue(failureOf(client.process(cardPayment("TXN-2"))) instanceof PaymentGatewayException);
+        assertEquals(calls, gateway.getCallCount());
+    }
+
+    @Test
+    @DisplayName("Лимит одновременных вызовов изолирует методы оплаты друг от друга")
+    void testBulkhead() throws Exception {
+        LocalPaymentGateway slow = new LocalPaymentGateway("Медленный", Duration.ofMillis(80), 0);
+        client.register(PaymentMethod.CARD, slow, 1);
+        client.register(PaymentMethod.ONLINE, new LocalPaymentGateway("Онлайн", Duration.ZERO, 0), 1);
+
+        CompletableFuture<Boolean> first = client.process(cardPayment("TXN-1"));
+        Throwable rejected = failureOf(client.process(cardPayment("TXN-2")));
+        assertTrue(rejected instanceof PaymentGatewayException);
+
+        CashPayment cash = new CashPayment("TXN-3", 100);
+        cash.setAmountReceived(100);
+        assertTrue(client.process(cash).get(5, TimeUnit.SECONDS));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, client.getAvailableSlots(PaymentMethod.CARD));
+    }
+}
@@ -0,0 +1,163 @@
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.factory.PaymentFactory;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.payment.CashPayment;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Payment Idempotency Tests")
+class PaymentIdempotencyTest {
+
+    private PaymentService service;
+    private Order order;
+
+    /**
+     * Платеж, считающий списания; первые failures попыток завершаются ошибкой терминала
+     */
+    private static class CountingPayment extends Payment {
+        final AtomicInteger charges = new AtomicInteger();
+        final AtomicInteger failures;
+
+        CountingPayment(String transactionId, double amount, int failures) throws InvalidPaymentException {
+            super(transactionId, amount, PaymentMethod.CARD);
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public boolean process() throws InvalidPaymentException {
+            if (failures.getAndDecrement() > 0) {
+                throw new InvalidPaymentException("Терминал не отвечает");
+            }
+            charges.incrementAndGet();
+            setSuccessful(true);
+            return true;
+        }
+
+        @Override
+        public void refund() {
+            setSuccessful(false);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new PaymentService();
+        order = new Order("ORD-1", new Customer("C1", "Иван", "Иванов"));
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 1);
+    }
+
+    @Test
+    @DisplayName("Повтор с тем же ID транзакции возвращает первый чек без повторного списания")
+    void testRetryReturnsSameReceipt() throws Exception {
+        CountingPayment payment = new CountingPayment("TXN-1", order.getFinalPrice(), 0);
+
+        Receipt first = service.processPayment(order, payment);
+        Receipt retry = service.processPayment(order, payment);
+
+        assertSame(first, retry);
+        assertEquals(1, payment.charges.get());
+        assertEquals(1, service.getDuplicateCount());
+        assertSame(first, service.findReceipt("TXN-1"));
+        assertNull(service.findReceipt("TXN-2"));
+    }
+
+    @Test
+    @DisplayName("После ошибки терминала повтор обрабатывается заново")
+    void testRetryAfterFailure() throws Exception {
+        CountingPayment payment = new CountingPayment("TXN-1", order.getFinalPrice(), 1);
+
+        assertThrows(InvalidPaymentException.class, () -> service.processPayment(order, payment));
+        assertFalse(order.isPaid());
+        assertNotNull(service.processPayment(order, payment));
+        assertTrue(order.isPaid());
+        assertEquals(1, payment.charges.get());
+    }
+
+    @Test
+    @DisplayName("ID транзакции другого заказа отклоняется")
+    void testTransactionIdReusedForAnotherOrder() throws Exception {
+        service.processPayment(order, new CountingPayment("TXN-1", order.getFinalPrice(), 0));
+        Order other = new Order("ORD-2", null);
+        other.addItem(new MargheritaPizza(PizzaSize.SMALL), 1);
+
+        assertThrows(InvalidPaymentException.class,
+            () -> service.processPayment(other, new CountingPayment("TXN-1", other.getFinalPrice(), 0)));
+        assertFalse(other.isPaid());
+    }
+
+    @Test
+    @DisplayName("Повтор для копии того же заказа (тот же ID) считается дубликатом")
+    void testRetryWithReloadedOrder() throws Exception {
+        CountingPayment payment = new CountingPayment("TXN-1", order.getFinalPrice(), 0);
+        Receipt first = service.processPayment(order, payment);
+        Order reloaded = new Order("ORD-1", order.getCustomer());
+        reloaded.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 1);
+
+        assertSame(first, service.processPayment(reloaded, payment));
+        assertEquals(1, payment.charges.get());
+        assertEquals(1, service.getDuplicateCount());
+    }
+
+    @Test
+    @DisplayName("Шквал одновременных повторов списывает деньги один раз")
+    void testConcurrentRetries() throws Exception {
+        CountingPayment payment = new CountingPayment("TXN-1", order.getFinalPrice(), 2);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Set<Receipt> receipts = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int attempt = 0; attempt < 5; attempt++) {
+                        try {
+                            receipts.add(service.processPayment(order, payment));
+                            break;
+                        } catch (InvalidPaymentException e) {
+                            // терминал повторяет попытку
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(1, payment.charges.get());
+        assertEquals(1, receipts.size());
+    }
+
+    @Test
+    @DisplayName("Фабрика выдает разные ID платежам, созданным подряд")
+    void testFactoryIdsAreUnique() throws Exception {
+        PaymentFactory factory = new PaymentFactory();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            CashPayment payment = factory.createCashPayment(100.0);
+            assertTrue(payment.getTransactionId().startsWith("CASH-"));
+            ids.add(payment.getTransactionId());
+        }
+        assertEquals(1000, ids.size());
+    }
+}
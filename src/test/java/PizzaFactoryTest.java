@@ -134,4 +134,34 @@ class PizzaFactoryTest {
         assertNotNull(p2);
         assertNotNull(p3);
     }
+
+    @Test
+    @DisplayName("Регистрация нового типа пиццы во время работы")
+    void testRegisterPizza() throws Exception {
+        factory.registerPizza(size -> {
+            Pizza pizza = new CustomPizza(size);
+            pizza.setName("Гавайская");
+            return pizza;
+        }, "hawaiian");
+
+        assertTrue(factory.isRegistered("HAWAIIAN"));
+        assertTrue(factory.isRegistered("Гавайская"));
+        Pizza pizza = factory.createPizza("гавайская", PizzaSize.LARGE);
+        assertEquals("Гавайская", pizza.getName());
+        assertEquals(PizzaSize.LARGE, pizza.getSize());
+        assertEquals(factory.getCanonicalType("hawaiian"), factory.getCanonicalType("Гавайская"));
+        assertEquals("Margherita", factory.getCanonicalType("маргарита"));
+        assertFalse(new PizzaFactory().isRegistered("hawaiian"));
+    }
+
+    @Test
+    @DisplayName("Повторная или некорректная регистрация отклоняется")
+    void testRegisterPizzaInvalid() {
+        assertThrows(IllegalArgumentException.class,
+            () -> factory.registerPizza(MargheritaPizza::new, "МАРГАРИТА"));
+        assertThrows(IllegalArgumentException.class,
+            () -> factory.registerPizza(size -> new MargheritaPizza(PizzaSize.SMALL), "mini"));
+        assertThrows(IllegalArgumentException.class, () -> factory.registerPizza(MargheritaPizza::new));
+        assertFalse(factory.isRegistered("mini"));
+    }
 }
@@ -0,0 +1,56 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.factory.PizzaFactory;
+import com.pizzeria.factory.ProductCatalog;
+import com.pizzeria.model.Order;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Выделение памяти на заказ: новая пицца из PizzaFactory против общей пиццы из ProductCatalog.
+ * Запуск: java -cp target/classes:target/test-classes ProductCatalogBenchmark [заказов]
+ */
+public class ProductCatalogBenchmark {
+    private static final String[] TYPES = {"Маргарита", "Пепперони", "Мясная", "Вегетарианская"};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        PizzaFactory factory = new PizzaFactory();
+        ProductCatalog catalog = new ProductCatalog(factory);
+        PizzaSize[] sizes = PizzaSize.values();
+
+        for (int round = 0; round < 3; round++) {
+            long allocated = allocatedBytes();
+            long started = System.nanoTime();
+            long checksum = 0;
+            for (int i = 0; i < count; i++) {
+                Order order = new Order("ORD-1", null);
+                order.addItem(factory.createPizza(TYPES[i & 3], sizes[i % sizes.length]), 1);
+                order.addItem(factory.createPizza(TYPES[(i + 1) & 3], sizes[(i + 1) % sizes.length]), 2);
+                checksum += order.getItems().size();
+            }
+            report("PizzaFactory  ", count, allocated, started, checksum);
+
+            allocated = allocatedBytes();
+            started = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < count; i++) {
+                Order order = new Order("ORD-1", null);
+                order.addItem(catalog.getPizza(TYPES[i & 3], sizes[i % sizes.length]), 1);
+                order.addItem(catalog.getPizza(TYPES[(i + 1) & 3], sizes[(i + 1) % sizes.length]), 2);
+                checksum += order.getItems().size();
+            }
+            report("ProductCatalog", count, allocated, started, checksum);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(String name, int count, long allocatedBefore, long started, long checksum) {
+        double bytesPerOrder = (double) (allocatedBytes() - allocatedBefore) / count;
+        double nanosPerOrder = (double) (System.nanoTime() - started) / count;
+        System.out.printf("%s: %.0f байт/заказ, %.0f нс/заказ (%d)%n", name, bytesPerOrder, nanosPerOrder, checksum);
+    }
+}
@@ -0,0 +1,101 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.exceptions.InvalidPizzaSizeException;
+import com.pizzeria.factory.IngredientFactory;
+import com.pizzeria.factory.ProductCatalog;
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.Kitchen;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.Pizza;
+import com.pizzeria.model.users.Chef;
+import com.pizzeria.model.users.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductCatalog Tests")
+class ProductCatalogTest {
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog();
+    }
+
+    @Test
+    @DisplayName("Один экземпляр на тип и размер")
+    void testSharedInstances() throws Exception {
+        Pizza medium = catalog.getPizza("Маргарита", PizzaSize.MEDIUM);
+
+        assertSame(medium, catalog.getPizza("маргарита", PizzaSize.MEDIUM));
+        assertSame(medium, catalog.getPizza("Margherita", PizzaSize.MEDIUM)); // другое название того же типа
+        assertNotSame(medium, catalog.getPizza("Маргарита", PizzaSize.LARGE));
+        assertEquals(PizzaSize.LARGE, catalog.getPizza("Маргарита", PizzaSize.LARGE).getSize());
+        assertTrue(medium instanceof MargheritaPizza);
+        assertTrue(medium.isShared());
+        assertEquals(PizzaSize.values().length, catalog.getSize());
+    }
+
+    @Test
+    @DisplayName("Общая пицца не изменяется")
+    void testSharedPizzaIsImmutable() throws Exception {
+        Pizza pizza = catalog.getPizza("Пепперони", PizzaSize.SMALL);
+
+        assertThrows(IllegalStateException.class, () -> pizza.setSize(PizzaSize.LARGE));
+        assertThrows(IllegalStateException.class, () -> pizza.setBasePrice(1));
+        assertThrows(IllegalStateException.class, () -> pizza.applyDiscount(50));
+        assertThrows(IllegalStateException.class, () -> pizza.addIngredient(null));
+        assertThrows(UnsupportedOperationException.class, () -> pizza.getIngredients().clear());
+        assertEquals(PizzaSize.SMALL, pizza.getSize());
+    }
+
+    @Test
+    @DisplayName("Неизвестные и пользовательские пиццы не попадают в каталог")
+    void testInvalidTypes() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.getPizza("Гавайская", PizzaSize.MEDIUM));
+        assertThrows(IllegalArgumentException.class, () -> catalog.getPizza("custom", PizzaSize.MEDIUM));
+        assertThrows(InvalidPizzaSizeException.class, () -> catalog.getPizza("Маргарита", null));
+        assertEquals(0, catalog.getSize());
+    }
+
+    @Test
+    @DisplayName("Готовность и доработки хранятся в позиции заказа, а не в общей пицце")
+    void testPerLineState() throws Exception {
+        Inventory inventory = new Inventory();
+        IngredientFactory factory = new IngredientFactory();
+        String[][] stock = {{"тесто", "Тонкое"}, {"соус", "Томатный"}, {"сыр", "Моцарелла"}};
+        for (String[] item : stock) {
+            Ingredient ingredient = factory.createIngredient(item[0], item[1]);
+            ingredient.setQuantity(5000);
+            inventory.addIngredient(ingredient);
+        }
+        Kitchen kitchen = new Kitchen(inventory);
+        kitchen.addChef(new Chef("CHF001", "Марио", "Росси", 60000));
+        Customer customer = new Customer("C1", "Иван", "Иванов");
+        Pizza margherita = catalog.getPizza("Маргарита", PizzaSize.MEDIUM);
+
+        Order first = new Order("ORD-1", customer);
+        first.addItem(margherita, 2);
+        first.addItem(new Drink("Кола", 100, 500), 1);
+        first.getItems().get(0).addCustomization("без базилика");
+        Order second = new Order("ORD-2", customer);
+        second.addItem(margherita, 1);
+
+        kitchen.prepareOrder(first);
+
+        OrderItem cooked = first.getItems().get(0);
+        assertEquals(2, cooked.getPreparedCount());
+        assertTrue(cooked.isPrepared());
+        assertTrue(first.getItems().get(1).isPrepared());
+        assertFalse(second.getItems().get(0).isPrepared());
+        assertFalse(margherita.isReady());
+        assertEquals(1, cooked.getCustomizations().size());
+        assertTrue(second.getItems().get(0).getCustomizations().isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.Promotion;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.service.PromotionEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Подбор акций для заказов из 50 позиций при 10 000 действующих акций:
+ * PromotionEngine против перебора всех акций для каждой позиции.
+ * Запуск: java -cp target/classes:target/test-classes PromotionEngineBenchmark [акций] [заказов]
+ */
+public class PromotionEngineBenchmark {
+    private static final int PRODUCTS = 500;
+    private static final int ITEMS_PER_ORDER = 50;
+
+    public static void main(String[] args) throws Exception {
+        int promotionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int orderCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Random random = new Random(42);
+
+        List<Product> products = new ArrayList<>();
+        PizzaSize[] sizes = PizzaSize.values();
+        for (int i = 0; i < PRODUCTS; i++) {
+            if (i % 2 == 0) {
+                MargheritaPizza pizza = new MargheritaPizza(sizes[i % sizes.length]);
+                pizza.setName("Пицца " + i);
+                products.add(pizza);
+            } else {
+                products.add(new Drink("Напиток " + i, 50 + i % 100, 500));
+            }
+        }
+
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < promotionCount; i++) {
+            Promotion promotion = new Promotion("Акция " + i, 1 + random.nextInt(30));
+            int kind = random.nextInt(100);
+            if (kind < 90) {
+                promotion.forProduct(products.get(random.nextInt(PRODUCTS)).getName());
+            } else if (kind < 97) {
+                promotion.forCategory(random.nextBoolean() ? ProductCategory.PIZZA : ProductCategory.DRINK);
+            } else {
+                promotion.forSize(sizes[random.nextInt(sizes.length)]);
+            }
+            promotion.setExclusive(random.nextInt(50) == 0);
+            promotions.add(promotion);
+        }
+        PromotionEngine engine = new PromotionEngine();
+        engine.addPromotions(promotions);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order("ORD-" + i, null);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                order.addItem(products.get(random.nextInt(PRODUCTS)), 1 + random.nextInt(3));
+            }
+            orders.add(order);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long started = System.nanoTime();
+            double checksum = 0;
+            for (Order order : orders) {
+                checksum += engine.evaluate(order).getTotalDiscount();
+            }
+            report("PromotionEngine", orders.size(), started, checksum);
+
+            started = System.nanoTime();
+            checksum = 0;
+            for (Order order : orders) {
+                checksum += bruteForce(order, promotions);
+            }
+            report("Перебор        ", orders.size(), started, checksum);
+        }
+    }
+
+    /**
+     * Те же правила сочетания перебором всех акций для каждой позиции
+     */
+    private static double bruteForce(Order order, List<Promotion> promotions) {
+        double shared = 0;
+        double bestExclusive = 0;
+        double[] exclusiveTotals = new double[promotions.size()];
+        for (OrderItem item : order.getItems()) {
+            double best = 0;
+            for (int p = 0; p < promotions.size(); p++) {
+                Promotion promotion = promotions.get(p);
+                if (promotion.isValid() && promotion.appliesTo(item.getProduct())) {
+                    double discount = item.getTotalPrice() * promotion.getDiscountPercentage() / 100.0;
+                    if (promotion.isExclusive()) {
+                        exclusiveTotals[p] += discount;
+                    } else {
+                        best = Math.max(best, discount);
+                    }
+                }
+            }
+            shared += best;
+        }
+        for (double total : exclusiveTotals) {
+            bestExclusive = Math.max(bestExclusive, total);
+        }
+        return Math.max(shared, bestExclusive);
+    }
+
+    private static void report(String name, int orders, long started, double checksum) {
+        double micros = (System.nanoTime() - started) / 1000.0 / orders;
+        System.out.printf("%s: %.1f мкс/заказ, %.0f заказов/с (%.2f)%n", name, micros, 1_000_000 / micros, checksum);
+    }
+}
@@ -0,0 +1,122 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.Promotion;
+import com.pizzeria.model.PromotionResult;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.PromotionEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PromotionEngine Tests")
+class PromotionEngineTest {
+
+    private PromotionEngine engine;
+    private Order order;
+    private OrderItem margherita;
+    private OrderItem pepperoni;
+    private OrderItem cola;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new PromotionEngine();
+        order = new Order("ORD-1", new Customer("C1", "Иван", "Иванов"));
+        order.addItem(new MargheritaPizza(PizzaSize.LARGE), 2);
+        order.addItem(new PepperoniPizza(PizzaSize.SMALL), 1);
+        order.addItem(new Drink("Кола", 100, 500), 3);
+        margherita = order.getItems().get(0);
+        pepperoni = order.getItems().get(1);
+        cola = order.getItems().get(2);
+    }
+
+    @Test
+    @DisplayName("Акция действует только на подходящие позиции")
+    void testTargeting() {
+        engine.addPromotion(new Promotion("Маргарита -10%", 10).forProduct("МАРГАРИТА"));
+        engine.addPromotion(new Promotion("Напитки -50%", 50).forCategory(ProductCategory.DRINK));
+
+        PromotionResult result = engine.evaluate(order);
+
+        assertEquals(margherita.getTotalPrice() * 0.1, result.getDiscountFor(margherita), 0.001);
+        assertEquals(0, result.getDiscountFor(pepperoni));
+        assertEquals(cola.getTotalPrice() * 0.5, result.getDiscountFor(cola), 0.001);
+        assertEquals(2, result.getAppliedPromotions().size());
+    }
+
+    @Test
+    @DisplayName("Условие по размеру применяется только к пиццам этого размера")
+    void testSizeTargeting() {
+        Promotion largeOnly = new Promotion("Большие пиццы", 20).forSize(PizzaSize.LARGE);
+        Promotion smallPepperoni = new Promotion("Маленькая пепперони", 30)
+            .forProduct("Пепперони").forSize(PizzaSize.LARGE);
+        engine.addPromotion(largeOnly);
+        engine.addPromotion(smallPepperoni);
+
+        PromotionResult result = engine.evaluate(order);
+
+        assertEquals(1, result.getApplications().size());
+        assertSame(largeOnly, result.getApplications().get(0).getPromotion());
+        assertSame(margherita, result.getApplications().get(0).getItem());
+    }
+
+    @Test
+    @DisplayName("К позиции применяется акция с наибольшей скидкой")
+    void testBestPerLine() {
+        Promotion small = new Promotion("Все -5%", 5);
+        Promotion pizzas = new Promotion("Пиццы -15%", 15).forCategory(ProductCategory.PIZZA);
+        engine.addPromotion(small);
+        engine.addPromotion(pizzas);
+
+        PromotionResult result = engine.evaluate(order);
+
+        assertEquals(3, result.getApplications().size());
+        assertEquals(margherita.getTotalPrice() * 0.15, result.getDiscountFor(margherita), 0.001);
+        assertEquals(cola.getTotalPrice() * 0.05, result.getDiscountFor(cola), 0.001);
+    }
+
+    @Test
+    @DisplayName("Исключительная акция выбирается, только если она выгоднее комбинации")
+    void testExclusivePromotion() {
+        Promotion pizzas = new Promotion("Пиццы -20%", 20).forCategory(ProductCategory.PIZZA);
+        Promotion drinks = new Promotion("Напитки -20%", 20).forCategory(ProductCategory.DRINK);
+        Promotion exclusive = new Promotion("Все -25%, без других акций", 25);
+        exclusive.setExclusive(true);
+        engine.addPromotion(pizzas);
+        engine.addPromotion(drinks);
+        engine.addPromotion(exclusive);
+
+        PromotionResult result = engine.evaluate(order);
+        assertEquals(1, result.getAppliedPromotions().size());
+        assertTrue(result.getAppliedPromotions().contains(exclusive));
+        assertEquals(order.getPrice() * 0.25, result.getTotalDiscount(), 0.001);
+
+        exclusive.setDiscountPercentage(15);
+        result = engine.evaluate(order);
+        assertFalse(result.getAppliedPromotions().contains(exclusive));
+        assertEquals(order.getPrice() * 0.2, result.getTotalDiscount(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Недействующие акции не применяются, скидка записывается в заказ")
+    void testValidityAndApply() {
+        Promotion expired = new Promotion("Прошедшая", 50);
+        expired.deactivate();
+        engine.addPromotion(expired);
+        assertEquals(0, engine.evaluate(order).getTotalDiscount());
+
+        engine.addPromotion(new Promotion("Все -10%", 10));
+        PromotionResult result = engine.apply(order);
+
+        assertEquals(order.getPrice() * 0.1, result.getTotalDiscount(), 0.001);
+        assertEquals(order.getPrice() - result.getTotalDiscount(), order.getFinalPrice(), 0.001);
+        assertTrue(engine.removePromotion(expired));
+        assertEquals(1, engine.getPromotions().size());
+    }
+}
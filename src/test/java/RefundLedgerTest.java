@@ -0,0 +1,187 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ReconciliationIssueType;
+import com.pizzeria.exceptions.InvalidPaymentException;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.OrderItem;
+import com.pizzeria.model.ReconciliationReport;
+import com.pizzeria.model.RefundEntry;
+import com.pizzeria.model.payment.CardPayment;
+import com.pizzeria.model.payment.Payment;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.PaymentService;
+import com.pizzeria.service.RefundLedger;
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RefundLedger Tests")
+class RefundLedgerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private PaymentService service;
+    private RefundLedger ledger;
+    private Customer customer;
+    private int orderNumber;
+
+    @BeforeEach
+    void setUp() {
+        ClockProvider.setClock(new VirtualClock(TODAY.atTime(12, 0)));
+        service = new PaymentService();
+        ledger = service.getRefundLedger();
+        customer = new Customer("C1", "Иван", "Иванов");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    private Order newOrder() throws Exception {
+        Order order = new Order("ORD-" + (++orderNumber), customer);
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 2);
+        order.addItem(new Drink("Кола", 100, 500), 3);
+        return order;
+    }
+
+    private Payment pay(Order order) throws Exception {
+        Payment payment = new CardPayment("TXN-" + order.getId(), order.getFinalPrice(), "1234567890123456");
+        service.processPayment(order, payment);
+        return payment;
+    }
+
+    @Test
+    @DisplayName("Частичный возврат позиции учитывает скидку заказа и обновляет итоги")
+    void testPartialRefund() throws Exception {
+        Order order = newOrder();
+        order.applyDiscount(10);
+        Payment payment = pay(order);
+        OrderItem cola = order.getItems().get(1);
+
+        RefundEntry entry = service.refundItem(payment, cola, 2, "Не доставлена");
+
+        assertEquals(180, entry.getAmount(), 0.001);
+        assertEquals("Кола", entry.getProductName());
+        assertTrue(payment.isSuccessful());
+        assertEquals(180, ledger.getRefundedTotal(TODAY), 0.001);
+        assertEquals(payment.getAmount() - 180, ledger.getNetRevenue(TODAY), 0.001);
+        assertEquals(180, ledger.getRefundsByProduct().get("Кола"), 0.001);
+        assertThrows(InvalidPaymentException.class, () -> service.refundItem(payment, cola, 2, "Повтор"));
+        assertThrows(InvalidPaymentException.class,
+            () -> service.refundItem(payment, new OrderItem(cola.getProduct(), 1), 1, "Чужая позиция"));
+        assertThrows(IllegalArgumentException.class, () -> service.refundItem(payment, cola, 0, "Ноль"));
+    }
+
+    @Test
+    @DisplayName("Возврат остатка завершает платеж, повторный возврат отклоняется")
+    void testFullRefund() throws Exception {
+        Order order = newOrder();
+        Payment payment = pay(order);
+        service.refundItem(payment, order.getItems().get(0), 2, "Остыла");
+
+        service.refundPayment(payment);
+
+        assertFalse(payment.isSuccessful());
+        assertEquals(payment.getAmount(), ledger.getRefundedAmount(payment.getTransactionId()), 0.001);
+        List<RefundEntry> entries = ledger.getEntries(payment.getTransactionId());
+        assertEquals(2, entries.size());
+        assertFalse(entries.get(1).isItemRefund());
+        assertThrows(InvalidPaymentException.class,
+            () -> ledger.refundRemaining(payment.getTransactionId(), "Повтор"));
+        assertThrows(InvalidPaymentException.class,
+            () -> service.refundItem(payment, order.getItems().get(1), 1, "После полного возврата"));
+    }
+
+    @Test
+    @DisplayName("Одновременные возвраты не превышают количество в позиции")
+    void testConcurrentRefunds() throws Exception {
+        Order order = newOrder();
+        Payment payment = pay(order);
+        OrderItem cola = order.getItems().get(1);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    service.refundItem(payment, cola, 1, "Шквал");
+                    succeeded.incrementAndGet();
+                } catch (Exception e) {
+                    // лишние возвраты отклоняются
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(3, succeeded.get());
+        assertEquals(300, ledger.getRefundedAmount(payment.getTransactionId()), 0.001);
+    }
+
+    @Test
+    @DisplayName("Сверка дня сходится для корректных операций")
+    void testBalancedReconciliation() throws Exception {
+        List<Order> orders = new ArrayList<>();
+        double paid = 0;
+        for (int i = 0; i < 3000; i++) {
+            Order order = newOrder();
+            Payment payment = pay(order);
+            paid += payment.getAmount();
+            if (i % 10 == 0) {
+                service.refundItem(payment, order.getItems().get(1), 1, "Возврат");
+            }
+            orders.add(order);
+        }
+        orders.add(newOrder()); // неоплаченный заказ
+
+        ReconciliationReport report = ledger.reconcile(orders, TODAY);
+
+        assertTrue(report.isBalanced(), () -> report.getIssues().toString());
+        assertEquals(3001, report.getOrderCount());
+        assertEquals(3000, report.getPaymentCount());
+        assertEquals(300, report.getRefundCount());
+        assertEquals(paid - 300 * 100, report.getNetTotal(), 0.01);
+        assertEquals(ledger.getNetRevenue(TODAY), report.getNetTotal(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Сверка находит расхождения между заказами, платежами и возвратами")
+    void testReconciliationIssues() throws Exception {
+        Order paidWithoutPayment = newOrder();
+        paidWithoutPayment.setPaid(true);
+        Order refundedOutsideLedger = newOrder();
+        pay(refundedOutsideLedger).refund();
+        Order lost = newOrder();
+        pay(lost);
+
+        ReconciliationReport report = ledger.reconcile(List.of(paidWithoutPayment, refundedOutsideLedger),
+            TODAY);
+
+        assertFalse(report.isBalanced());
+        assertEquals(1, report.countIssues(ReconciliationIssueType.ORDER_WITHOUT_PAYMENT));
+        assertEquals(1, report.countIssues(ReconciliationIssueType.STATE_MISMATCH));
+        assertEquals(1, report.countIssues(ReconciliationIssueType.PAYMENT_WITHOUT_ORDER));
+        assertEquals(lost.getId(), report.getIssues().stream()
+            .filter(issue -> issue.getType() == ReconciliationIssueType.PAYMENT_WITHOUT_ORDER)
+            .findFirst().get().getOrderId());
+        assertTrue(ledger.reconcile(List.of(), LocalDate.of(2024, 3, 2)).isBalanced());
+    }
+}
@@ -0,0 +1,154 @@
+import com.pizzeria.model.Inventory;
+import com.pizzeria.model.RestockSuggestion;
+import com.pizzeria.model.ingredients.Cheese;
+import com.pizzeria.model.ingredients.Dough;
+import com.pizzeria.model.ingredients.Ingredient;
+import com.pizzeria.model.ingredients.Sauce;
+import com.pizzeria.service.ReplenishmentService;
+import com.pizzeria.util.ClockProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplenishmentService Tests")
+class ReplenishmentServiceTest {
+
+    private Inventory inventory;
+    private ManualClock clock;
+    private ReplenishmentService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventory = new Inventory();
+        addIngredient(new Dough("Тонкое", 25.0, "Тонкое"), 10000);
+        addIngredient(new Sauce("Томатный", 40.0, "Томатный"), 450);
+        addIngredient(new Cheese("Моцарелла", 50.0, "Моцарелла"), 600);
+        clock = new ManualClock();
+        service = new ReplenishmentService(inventory, clock);
+    }
+
+    private void addIngredient(Ingredient ingredient, int quantity) {
+        ingredient.setQuantity(quantity);
+        inventory.addIngredient(ingredient);
+    }
+
+    /**
+     * Пять часов равномерного расхода: каждые 6 минут тесто и сыр по 10, соус по 5
+     */
+    private void runFiveHours() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            clock.advance(Duration.ofMinutes(6));
+            inventory.useIngredient("Тонкое", 10);
+            inventory.useIngredient("Томатный", 5);
+            inventory.useIngredient("Моцарелла", 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Скользящее среднее сходится к фактическому расходу")
+    void testConsumptionRate() throws Exception {
+        runFiveHours();
+
+        assertEquals(100.0, service.getConsumptionRate("Тонкое"), 10.0);
+        assertEquals(50.0, service.getConsumptionRate("Томатный"), 5.0);
+        assertEquals(95.0, service.forecastHoursToStockout("Тонкое"), 10.0);
+    }
+
+    @Test
+    @DisplayName("Без расхода оценка затухает")
+    void testRateDecay() throws Exception {
+        runFiveHours();
+        double rate = service.getConsumptionRate("Тонкое");
+
+        clock.advance(Duration.ofHours(1));
+
+        assertEquals(rate * Math.exp(-1), service.getConsumptionRate("Тонкое"), 0.01);
+        assertEquals(0.0, service.forecastHoursToStockout("Неизвестный"), 0.0); // нет на складе
+    }
+
+    @Test
+    @DisplayName("Пакет рекомендаций включает всех, кто скоро закончится")
+    void testRestockBatch() throws Exception {
+        runFiveHours();
+
+        List<RestockSuggestion> batch = service.planRestock();
+
+        assertEquals(2, batch.size());
+        assertEquals("Моцарелла", batch.get(0).getIngredientName()); // закончится через час
+        assertEquals("Томатный", batch.get(1).getIngredientName());  // через 4 часа, в том же пакете
+        assertTrue(batch.get(0).getSuggestedQuantity() >= 800);
+    }
+
+    @Test
+    @DisplayName("Повторный пакет не выдается до поставки")
+    void testPendingUntilRestocked() throws Exception {
+        runFiveHours();
+        assertFalse(service.planRestock().isEmpty());
+        assertTrue(service.planRestock().isEmpty());
+
+        inventory.restockIngredient("Моцарелла", 50);
+        clock.advance(Duration.ofMinutes(6));
+        inventory.useIngredient("Моцарелла", 100);
+
+        List<RestockSuggestion> batch = service.planRestock();
+        assertEquals(1, batch.size());
+        assertEquals("Моцарелла", batch.get(0).getIngredientName());
+    }
+
+    @Test
+    @DisplayName("Нет рекомендаций, если поставка успевает")
+    void testNoUrgentItems() throws Exception {
+        clock.advance(Duration.ofMinutes(6));
+        inventory.useIngredient("Тонкое", 10);
+
+        assertTrue(service.planRestock().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Без явных часов расход считается по часам ClockProvider")
+    void testProviderClockByDefault() throws Exception {
+        ClockProvider.Scope scope = ClockProvider.override(clock);
+        try {
+            ReplenishmentService providerTimed = new ReplenishmentService(inventory);
+            inventory.useIngredient("Тонкое", 100);
+            double rate = providerTimed.getConsumptionRate("Тонкое");
+
+            clock.advance(Duration.ofHours(1)); // затухание идет по подмененным часам
+            assertEquals(rate / Math.E, providerTimed.getConsumptionRate("Тонкое"), 0.5);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
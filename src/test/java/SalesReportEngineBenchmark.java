@@ -0,0 +1,85 @@
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.SalesReportEngine;
+import com.pizzeria.util.SalesSummary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Бенчмарк масштабирования SalesReportEngine по числу ядер.
+ * Запуск: java -cp target/classes:target/test-classes SalesReportEngineBenchmark [заказов]
+ */
+public class SalesReportEngineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Order> orders = generateOrders(orderCount);
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = from.plusDays(29);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Заказов: %d, ядер: %d%n", orderCount, cores);
+
+        double baseline = 0;
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            SalesReportEngine engine = new SalesReportEngine(pool, SalesReportEngine.DEFAULT_THRESHOLD);
+
+            for (int i = 0; i < 5; i++) {
+                engine.aggregate(orders, from, to); // прогрев
+            }
+
+            int runs = 10;
+            long start = System.nanoTime();
+            SalesSummary summary = null;
+            for (int i = 0; i < runs; i++) {
+                summary = engine.aggregate(orders, from, to);
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0 / runs;
+            if (parallelism == 1) {
+                baseline = millis;
+            }
+            System.out.printf("потоков: %2d  время: %8.2f мс  ускорение: %5.2fx  заказов в периоде: %d%n",
+                parallelism, millis, baseline / millis, summary.getOrderCount());
+            pool.shutdown();
+        }
+    }
+
+    private static List<Order> generateOrders(int count) throws Exception {
+        Random random = new Random(42);
+        Customer customer = new Customer("CUST-BENCH", "Тест", "Тестов");
+        Product[] products = {
+            new PepperoniPizza(PizzaSize.MEDIUM),
+            new PepperoniPizza(PizzaSize.LARGE),
+            new Drink("Кока-кола", 100.0, 500),
+            new Drink("Сок", 120.0, 300)
+        };
+        PaymentMethod[] methods = PaymentMethod.values();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("ORD-" + i, customer);
+            order.setOrderTime(start.plusDays(random.nextInt(60)).atTime(random.nextInt(24), 0));
+            int items = 1 + random.nextInt(4);
+            for (int j = 0; j < items; j++) {
+                order.addItem(products[random.nextInt(products.length)], 1 + random.nextInt(3));
+            }
+            if (random.nextInt(10) > 0) {
+                order.setPaid(true);
+                order.setPaymentMethod(methods[random.nextInt(methods.length)]);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
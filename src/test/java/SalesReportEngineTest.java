@@ -0,0 +1,158 @@
+import com.pizzeria.enums.PaymentMethod;
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Pizzeria;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.model.users.Waiter;
+import com.pizzeria.util.ReportGenerator;
+import com.pizzeria.util.SalesReportEngine;
+import com.pizzeria.util.SalesSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SalesReportEngine Tests")
+class SalesReportEngineTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY2 = LocalDate.of(2025, 3, 2);
+
+    private Customer customer;
+    private Waiter waiter;
+    private Product pizza;
+    private Product cola;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customer = new Customer("CUST001", "Иван", "Иванов");
+        waiter = new Waiter("WTR001", "Анна", "Смирнова", 35000);
+        pizza = new MargheritaPizza(PizzaSize.SMALL); // 300 руб.
+        cola = new Drink("Кока-кола", 100.0, 500);
+    }
+
+    private Order createOrder(String id, LocalDate day, boolean paid, PaymentMethod method) {
+        Order order = new Order(id, customer);
+        order.setOrderTime(day.atTime(12, 0));
+        order.addItem(pizza, 1);
+        order.addItem(cola, 2);
+        order.setServedBy(waiter);
+        if (paid) {
+            order.processPayment(1000.0);
+            order.setPaymentMethod(method);
+        }
+        return order;
+    }
+
+    @Test
+    @DisplayName("Агрегация учитывает только заказы из диапазона дат")
+    void testAggregateFiltersByDate() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(createOrder("ORD-1", DAY1, true, PaymentMethod.CASH));
+        orders.add(createOrder("ORD-2", DAY2, true, PaymentMethod.CARD));
+        orders.add(createOrder("ORD-3", DAY2, false, null));
+
+        SalesSummary summary = new SalesReportEngine().aggregate(orders, DAY2, DAY2);
+
+        assertEquals(2, summary.getOrderCount());
+        assertEquals(1, summary.getPaidOrderCount());
+        assertEquals(500.0, summary.getRevenue(), 0.01);
+        assertEquals(1, summary.getRevenueByPaymentMethod().size());
+        assertEquals(500.0, summary.getRevenueByPaymentMethod().get("Банковская карта"), 0.01);
+    }
+
+    @Test
+    @DisplayName("Параллельный результат совпадает с последовательным")
+    void testParallelMatchesSequential() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            PaymentMethod method = i % 2 == 0 ? PaymentMethod.CASH : PaymentMethod.ONLINE;
+            orders.add(createOrder("ORD-" + i, i % 3 == 0 ? DAY1 : DAY2, i % 5 != 0, method));
+        }
+
+        SalesSummary sequential = new SalesReportEngine(new ForkJoinPool(1), Integer.MAX_VALUE)
+            .aggregate(orders, DAY1, DAY2);
+        SalesSummary parallel = new SalesReportEngine(new ForkJoinPool(4), 16)
+            .aggregate(orders, DAY1, DAY2);
+
+        assertEquals(sequential.getOrderCount(), parallel.getOrderCount());
+        assertEquals(sequential.getRevenue(), parallel.getRevenue(), 0.01);
+        assertEquals(sequential.getOrdersByDay(), parallel.getOrdersByDay());
+        assertEquals(sequential.getQuantityByProduct(), parallel.getQuantityByProduct());
+        assertEquals(800 * 2, parallel.getQuantityByProduct().get("Кока-кола"));
+    }
+
+    @Test
+    @DisplayName("Разбивки со скидкой и доставкой сходятся с выручкой, сотрудники различаются по ID")
+    void testBreakdownsAddUpToRevenue() throws Exception {
+        Order discounted = createOrder("ORD-1", DAY1, false, null);
+        discounted.applyDiscount(10);
+        Address address = new Address("Ленина", "5", "Москва", "101000");
+        address.setLatitude(4); // доставка 150 руб.
+        discounted.setDeliveryAddress(address);
+        discounted.processPayment(1000.0);
+        Order namesake = createOrder("ORD-2", DAY1, true, PaymentMethod.CASH);
+        namesake.setServedBy(new Waiter("WTR002", "Анна", "Смирнова", 35000));
+
+        SalesSummary summary = new SalesReportEngine().aggregate(List.of(discounted, namesake), DAY1, DAY1);
+
+        double breakdown = summary.getDeliveryRevenue()
+            + summary.getRevenueByProduct().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(585.0 + 500.0, summary.getRevenue(), 0.01);
+        assertEquals(summary.getRevenue(), breakdown, 0.01);
+        assertEquals(135.0, summary.getDeliveryRevenue(), 0.01);
+        assertEquals(270.0 + 300.0, summary.getRevenueByProduct().get("Маргарита"), 0.01);
+        assertEquals(585.0, summary.getRevenueByEmployee().get("WTR001"), 0.01);
+        assertEquals(500.0, summary.getRevenueByEmployee().get("WTR002"), 0.01);
+        assertEquals("Анна Смирнова", summary.getEmployeeName("WTR002"));
+    }
+
+    @Test
+    @DisplayName("Некорректный диапазон дат")
+    void testInvalidRange() {
+        SalesReportEngine engine = new SalesReportEngine();
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.aggregate(new ArrayList<>(), DAY2, DAY1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SalesReportEngine(ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    @DisplayName("Дневной отчет использует дату и содержит разбивки")
+    void testDailyReportUsesDate() throws Exception {
+        Pizzeria pizzeria = new Pizzeria("Bella Italia", new Address("Пушкина", "10", "Москва", "101000"));
+        pizzeria.addOrder(createOrder("ORD-1", DAY1, true, PaymentMethod.CASH));
+        pizzeria.addOrder(createOrder("ORD-2", DAY2, true, PaymentMethod.CASH));
+
+        String report = ReportGenerator.generateDailySalesReport(pizzeria, DAY1);
+
+        assertTrue(report.contains("Общее количество заказов: 1"));
+        assertTrue(report.contains("Маргарита"));
+        assertTrue(report.contains("Наличные"));
+        assertTrue(report.contains(waiter.toString()));
+    }
+
+    @Test
+    @DisplayName("CSV отчет о продажах")
+    void testSalesCsv() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(createOrder("ORD-1", DAY1, true, PaymentMethod.CASH));
+
+        String csv = ReportGenerator.generateSalesCsv(new SalesReportEngine().aggregate(orders, DAY1, DAY1));
+
+        assertTrue(csv.startsWith("section,key,count,revenue\n"));
+        assertTrue(csv.contains("total,orders,1,500.00"));
+        assertTrue(csv.contains("day,2025-03-01,1,500.00"));
+        assertTrue(csv.contains("product,Кока-кола,2,200.00"));
+    }
+}
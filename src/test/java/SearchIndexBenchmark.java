@@ -0,0 +1,67 @@
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.util.SearchIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Бенчмарк задержки поиска по мере ввода на 100 000 клиентов.
+ * Запуск: java -cp target/classes:target/test-classes SearchIndexBenchmark [записей]
+ */
+public class SearchIndexBenchmark {
+    private static final String[] FIRST_NAMES = {
+        "Иван", "Петр", "Алексей", "Мария", "Анна", "Ольга", "Сергей", "Дмитрий", "Елена", "Наталья"
+    };
+    private static final String SYLLABLES = "ба ва га да ка ла ма на ра са та ко ло но ро ви ли ни ри";
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(42);
+        String[] syllables = SYLLABLES.split(" ");
+
+        SearchIndex<Customer> index = SearchIndex.forPeople();
+        String[] lastNames = new String[count];
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            StringBuilder lastName = new StringBuilder();
+            for (int s = 0; s < 2 + random.nextInt(3); s++) {
+                lastName.append(syllables[random.nextInt(syllables.length)]);
+            }
+            lastName.append("ов");
+            lastName.setCharAt(0, Character.toUpperCase(lastName.charAt(0)));
+            lastNames[i] = lastName.toString();
+            index.add(new Customer("C-" + i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], lastNames[i]));
+        }
+        System.out.printf("Записей: %d, построение индекса: %.1f мс%n",
+            count, (System.nanoTime() - buildStart) / 1_000_000.0);
+
+        for (int i = 0; i < 50_000; i++) {
+            index.search(lastNames[random.nextInt(count)].substring(0, 3), 10); // прогрев
+        }
+
+        int queries = 20_000;
+        long[] latencies = new long[queries];
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            String target = lastNames[random.nextInt(count)];
+            int typed = 1 + random.nextInt(target.length());
+            String query = target.substring(0, typed);
+            if (q % 3 == 0 && typed > 3) {
+                // опечатка: перестановка двух символов
+                char[] chars = query.toCharArray();
+                char tmp = chars[1];
+                chars[1] = chars[2];
+                chars[2] = tmp;
+                query = new String(chars);
+            }
+            long start = System.nanoTime();
+            found += index.search(query, 10).size();
+            latencies[q] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("запросов: %d, найдено в среднем: %.1f%n", queries, found / (double) queries);
+        System.out.printf("медиана: %.1f мкс, p99: %.1f мкс, максимум: %.1f мкс%n",
+            latencies[queries / 2] / 1000.0, latencies[queries * 99 / 100] / 1000.0,
+            latencies[queries - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,128 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.model.Menu;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.products.PepperoniPizza;
+import com.pizzeria.model.products.Product;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.CustomerRegistry;
+import com.pizzeria.util.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchIndex Tests")
+class SearchIndexTest {
+
+    private SearchIndex<Customer> index;
+    private Customer ivanov;
+    private Customer ivanenko;
+    private Customer petrov;
+
+    @BeforeEach
+    void setUp() {
+        index = SearchIndex.forPeople();
+        ivanov = new Customer("C1", "Иван", "Иванов");
+        ivanenko = new Customer("C2", "Мария", "Иваненко");
+        petrov = new Customer("C3", "Пётр", "Петров");
+        index.add(ivanov);
+        index.add(ivanenko);
+        index.add(petrov);
+    }
+
+    @Test
+    @DisplayName("Поиск по префиксу любого слова")
+    void testPrefixSearch() {
+        List<Customer> result = index.search("ива", 10);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(ivanov));
+        assertTrue(result.contains(ivanenko));
+        assertEquals(ivanov, result.get(0)); // совпадение с первым словом имени
+    }
+
+    @Test
+    @DisplayName("Поиск с опечаткой")
+    void testTypoTolerance() {
+        assertEquals(List.of(petrov), index.search("петрво", 10));
+        assertEquals(List.of(ivanenko), index.search("марья", 10));
+    }
+
+    @Test
+    @DisplayName("Точные совпадения выше совпадений с опечаткой")
+    void testExactBeforeFuzzy() {
+        Customer ivashov = new Customer("C4", "Олег", "Ивашов");
+        index.add(ivashov);
+
+        List<Customer> result = index.search("иванов", 10);
+
+        assertEquals(ivanov, result.get(0));
+        assertTrue(result.contains(ivashov));
+    }
+
+    @Test
+    @DisplayName("Несколько слов запроса должны совпасть")
+    void testMultiWordQuery() {
+        assertEquals(List.of(ivanenko), index.search("мария ив", 10));
+        assertEquals(ivanov, index.search("иван ив", 10).get(0));
+        assertTrue(index.search("мария петров", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Буква ё и регистр не влияют на поиск")
+    void testNormalization() {
+        assertEquals(List.of(petrov), index.search("ПЕТР", 10));
+    }
+
+    @Test
+    @DisplayName("Удаление и обновление записей")
+    void testRemoveAndUpdate() {
+        assertTrue(index.remove(ivanov));
+        assertFalse(index.remove(ivanov));
+        assertEquals(List.of(ivanenko), index.search("ива", 10));
+
+        petrov.setLastName("Сидоров");
+        index.update(petrov);
+        assertEquals(List.of(petrov), index.search("сид", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Пустой запрос и ограничение количества")
+    void testEmptyQueryAndLimit() {
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertEquals(1, index.search("ива", 1).size());
+    }
+
+    @Test
+    @DisplayName("Поиск продуктов в меню")
+    void testMenuSearch() throws Exception {
+        Menu menu = new Menu("Меню");
+        Product margherita = new MargheritaPizza(PizzaSize.MEDIUM);
+        Product pepperoni = new PepperoniPizza(PizzaSize.LARGE);
+        menu.addProduct(margherita);
+        menu.addProduct(pepperoni);
+        menu.addProduct(new Drink("Кока-кола", 100.0, 500));
+
+        assertEquals(List.of(pepperoni), menu.searchProducts("пеп", 5));
+        assertEquals(List.of(margherita), menu.searchProducts("маргрита", 5));
+
+        menu.removeProduct(pepperoni);
+        assertTrue(menu.searchProducts("пеп", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Поиск клиентов в реестре по имени")
+    void testRegistrySearch() {
+        CustomerRegistry registry = new CustomerRegistry();
+        registry.register(ivanov);
+        registry.register(petrov);
+
+        assertEquals(List.of(ivanov), registry.searchByName("иванв", 5));
+    }
+}
@@ -0,0 +1,137 @@
+import com.pizzeria.util.ClockProvider;
+import com.pizzeria.util.IdGenerator;
+import com.pizzeria.util.SnowflakeIdGenerator;
+import com.pizzeria.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnowflakeIdGenerator Tests")
+class SnowflakeIdGeneratorTest {
+
+    @AfterEach
+    void tearDown() {
+        ClockProvider.reset();
+    }
+
+    @Test
+    @DisplayName("ID уникальны при выдаче из многих потоков и возрастают в каждом потоке")
+    void testConcurrentUniqueness() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int perThread = 50_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet(threads * perThread);
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < perThread; i++) {
+                        long id = generator.nextId();
+                        if (id <= previous) {
+                            ordered.set(false);
+                        }
+                        previous = id;
+                        ids.add(id);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(threads * perThread, ids.size());
+        assertTrue(ordered.get());
+        assertTrue(ids.stream().allMatch(id -> SnowflakeIdGenerator.nodeOf(id) == 7));
+    }
+
+    @Test
+    @DisplayName("При остановленных часах генератор занимает следующие миллисекунды, а не ждет")
+    void testFrozenClock() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 12, 0);
+        ClockProvider.setClock(new VirtualClock(time));
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        long first = generator.nextId();
+        long last = first;
+        for (int i = 1; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        assertEquals(millis, SnowflakeIdGenerator.timestampOf(first));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(first));
+        assertEquals(millis + 2, SnowflakeIdGenerator.timestampOf(last));
+    }
+
+    @Test
+    @DisplayName("Строковая форма фиксированной длины сортируется как число и разбирается обратно")
+    void testEncoding() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        long a = generator.nextId();
+        long b = generator.nextId();
+        String first = SnowflakeIdGenerator.format("ORD", a);
+        String second = SnowflakeIdGenerator.format("ORD", b);
+
+        assertEquals(4 + SnowflakeIdGenerator.ENCODED_LENGTH, first.length());
+        assertTrue(first.startsWith("ORD-"));
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(a, SnowflakeIdGenerator.decode(first));
+        assertEquals(b, SnowflakeIdGenerator.decode(second.substring(4).toLowerCase()));
+        assertEquals(-1L, SnowflakeIdGenerator.decode(SnowflakeIdGenerator.format("X", -1L)));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("ORD-123"));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("ORD-0000000000I00"));
+    }
+
+    @Test
+    @DisplayName("IdGenerator выдает ID заказов, чеков, транзакций и доставок одним генератором")
+    void testIdGenerator() {
+        String order = IdGenerator.generateOrderId();
+        String receipt = IdGenerator.generateReceiptNumber();
+        String transaction = IdGenerator.generateTransactionId("CARD");
+
+        assertTrue(order.startsWith("ORD-"));
+        assertTrue(receipt.startsWith("RCP-"));
+        assertTrue(IdGenerator.generateTrackingNumber().startsWith("TRK-"));
+        assertTrue(SnowflakeIdGenerator.decode(order) < SnowflakeIdGenerator.decode(receipt));
+        assertTrue(SnowflakeIdGenerator.decode(receipt) < SnowflakeIdGenerator.decode(transaction));
+        assertTrue(IdGenerator.generateCustomerId().matches("CUST-\\d{6,}"));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+
+    @Test
+    @DisplayName("Смена номера узла продолжает последовательность: ID в ту же миллисекунду не повторяются")
+    void testSetNodeIdKeepsSequence() {
+        ClockProvider.setClock(new VirtualClock(LocalDateTime.of(2024, 6, 1, 12, 0)));
+        int nodeId = IdGenerator.getNodeId();
+        try {
+            String before = IdGenerator.generateOrderId();
+            IdGenerator.setNodeId(nodeId);
+            String after = IdGenerator.generateOrderId();
+
+            assertTrue(SnowflakeIdGenerator.decode(before) < SnowflakeIdGenerator.decode(after));
+            assertThrows(IllegalArgumentException.class, () -> IdGenerator.setNodeId(-1));
+            assertEquals(nodeId, IdGenerator.getNodeId());
+        } finally {
+            IdGenerator.setNodeId(nodeId);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import com.pizzeria.enums.PizzaSize;
+import com.pizzeria.enums.ProductCategory;
+import com.pizzeria.enums.TaxMode;
+import com.pizzeria.enums.TaxRounding;
+import com.pizzeria.model.Address;
+import com.pizzeria.model.Order;
+import com.pizzeria.model.Receipt;
+import com.pizzeria.model.TaxBreakdown;
+import com.pizzeria.model.payment.CardPayment;
+import com.pizzeria.model.products.Drink;
+import com.pizzeria.model.products.MargheritaPizza;
+import com.pizzeria.model.users.Customer;
+import com.pizzeria.service.PaymentService;
+import com.pizzeria.util.PriceCalculator;
+import com.pizzeria.util.TaxEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaxEngine Tests")
+class TaxEngineTest {
+
+    private Order order;
+    private double pizzaTotal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        order = new Order("ORD-1", new Customer("C1", "Иван", "Иванов"));
+        order.addItem(new MargheritaPizza(PizzaSize.MEDIUM), 2);
+        order.addItem(new Drink("Кола", 100, 500), 3);
+        pizzaTotal = order.getItems().get(0).getTotalPrice();
+    }
+
+    @Test
+    @DisplayName("Налог, включенный в цену, выделяется по ставкам категорий")
+    void testInclusiveTax() {
+        TaxEngine engine = new TaxEngine(TaxMode.INCLUSIVE, TaxRounding.PER_RECEIPT, 20);
+        engine.setRate(ProductCategory.DRINK, 10);
+
+        TaxBreakdown breakdown = engine.compute(order);
+
+        assertEquals(PriceCalculator.roundToTwoDecimals(pizzaTotal * 20 / 120),
+            breakdown.getTaxByCategory().get(ProductCategory.PIZZA), 0.001);
+        assertEquals(27.27, breakdown.getTaxByCategory().get(ProductCategory.DRINK), 0.001);
+        assertEquals(order.getFinalPrice(), breakdown.getTotal(), 0.01);
+        assertEquals(10, breakdown.getLines().get(1).getRate());
+        assertEquals(300, breakdown.getLines().get(1).getGross(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Налог сверх цены учитывает скидку заказа и доставку")
+    void testExclusiveTaxWithDiscountAndDelivery() throws Exception {
+        order.setDeliveryAddress(new Address("Ленина", "10", "Москва", ""));
+        order.applyDiscount(10);
+        TaxEngine engine = new TaxEngine(TaxMode.EXCLUSIVE, TaxRounding.PER_RECEIPT, 10);
+        engine.setDeliveryRate(20);
+        engine.setServiceFeeRate(5);
+
+        TaxBreakdown breakdown = engine.compute(order);
+
+        double items = (pizzaTotal + 300) * 0.9;
+        assertEquals(items, breakdown.getNet(), 0.001);
+        assertEquals(90, breakdown.getDeliveryNet(), 0.001);
+        assertEquals(18, breakdown.getDeliveryTax(), 0.001);
+        assertEquals(PriceCalculator.roundToTwoDecimals(items * 0.05), breakdown.getServiceFee(), 0.001);
+        assertEquals(PriceCalculator.roundToTwoDecimals(order.getFinalPrice() + items * 0.1 + 18 + items * 0.05),
+            breakdown.getTotal(), 0.02);
+    }
+
+    @Test
+    @DisplayName("Округление по позициям и по чеку дает разный налог")
+    void testRounding() throws Exception {
+        Order small = new Order("ORD-2", null);
+        for (int i = 0; i < 3; i++) {
+            small.addItem(new Drink("Вода " + i, 3.33, 500), 1);
+        }
+        TaxEngine engine = new TaxEngine(TaxMode.EXCLUSIVE, TaxRounding.PER_LINE, 10);
+        assertEquals(0.99, engine.compute(small).getTax(), 0.0001);
+        assertEquals(0.33, engine.compute(small).getLines().get(0).getTax(), 0.0001);
+
+        engine.setRounding(TaxRounding.PER_RECEIPT);
+        assertEquals(1.00, engine.compute(small).getTax(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Чек показывает налог, сервис считает налог и сбор по ставкам движка")
+    void testPaymentServiceIntegration() throws Exception {
+        PaymentService service = new PaymentService();
+        assertEquals(130.0, service.calculateTax(1000.0), 0.01);
+        assertEquals(50.0, service.calculateServiceFee(1000.0), 0.01);
+
+        Receipt receipt = service.processPayment(order,
+            new CardPayment("TXN-1", order.getFinalPrice(), "1234567890123456"));
+
+        assertNotNull(receipt.getTaxBreakdown());
+        // сбор не взимается - в чеке его нет, итог разбивки равен сумме оплаты
+        assertEquals(0.0, receipt.getTaxBreakdown().getServiceFee(), 0.0001);
+        assertEquals(order.getFinalPrice(), receipt.getTaxBreakdown().getTotal(), 0.01);
+        assertTrue(receipt.generateReceipt().contains("в т.ч. налог (Пицца)"));
+        service.getTaxEngine().setDefaultRate(20);
+        assertEquals(200.0, service.calculateTax(1000.0), 0.01);
+        service.setServiceFeeRate(10);
+        assertEquals(100.0, service.calculateServiceFee(1000.0), 0.01);
+        assertEquals(10.0, service.getTaxEngine().getServiceFeeRate(), 0.0001); // одна ставка сбора на сервис и движок
+        assertThrows(IllegalArgumentException.class, () -> service.setServiceFeeRate(-1));
+    }
+
+    @Test
+    @DisplayName("Итог заказа учитывает скидку и доставку, некорректные ставки отклоняются")
+    void testOrderTotalAndValidation() throws Exception {
+        order.setDeliveryAddress(new Address("Ленина", "10", "Москва", ""));
+        order.applyDiscount(10);
+        double expected = PriceCalculator.roundToTwoDecimals(order.getFinalPrice() * 1.2);
+
+        assertEquals(expected, PriceCalculator.calculateOrderTotal(order, 20, 0), 0.001);
+        assertEquals(expected, PriceCalculator.calculateOrderTotal(order,
+            new TaxEngine(TaxMode.EXCLUSIVE, TaxRounding.PER_RECEIPT, 20), 0), 0.02);
+
+        TaxEngine engine = new TaxEngine();
+        assertThrows(IllegalArgumentException.class, () -> engine.setRate(ProductCategory.PIZZA, -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.setDefaultRate(100));
+        assertThrows(IllegalArgumentException.class, () -> new TaxEngine(null, TaxRounding.PER_LINE, 10));
+    }
+}